@@ -22,9 +22,15 @@ public class BagOfTaskAppExample {
 
 	private static List<AppCloudlet> appCloudletList;
 
-	private static NetworkDatacenter datacenter;
+	public static NetworkDatacenter datacenter;
 
-	private static DatacenterBroker broker;
+	public static DatacenterBroker broker;
+
+	/** Whether the network is simulated as flows instead of packets. */
+	public static boolean flowLevelNetwork = false;
+
+	/** Whether the idle hosts are skipped when processing cloudlets. */
+	public static boolean incrementalHostUpdates = false;
 
 	private static int numberOfHosts = (int) (NetworkConstants.EdgeSwitchPort * NetworkConstants.AggSwitchPort * NetworkConstants.RootSwitchPort);
 
@@ -64,6 +70,8 @@ public class BagOfTaskAppExample {
 			// Datacenters are the resource providers in CloudSim. We need at
 			// list one of them to run a CloudSim simulation
 			datacenter = createDatacenter("Datacenter_0");
+			datacenter.setFlowLevelNetwork(flowLevelNetwork);
+			datacenter.setIncrementalHostUpdates(incrementalHostUpdates);
 			numberOfVms = datacenter.getHostList().size() * NetworkConstants.maxhostVM;
 
 			// Third step: Create Broker
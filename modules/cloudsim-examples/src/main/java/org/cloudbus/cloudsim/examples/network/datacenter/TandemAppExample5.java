@@ -23,13 +23,19 @@ public class TandemAppExample5 {
 
 	private static List<NetworkHost> hostList;
 
-	private static NetworkDatacenter datacenter;
+	public static NetworkDatacenter datacenter;
 
 	private static List<AppCloudlet> appCloudletList;
 
 	private static List<Cloudlet> noisyCloudletList;
 
-	private static DatacenterBrokerEX broker;
+	public static DatacenterBrokerEX broker;
+
+	/** Whether the network is simulated as flows instead of packets. */
+	public static boolean flowLevelNetwork = false;
+
+	/** Whether the idle hosts are skipped when processing cloudlets. */
+	public static boolean incrementalHostUpdates = false;
 
 	private static final int numberOfHosts = 4;
 	private static final int numberOfVms = 8;
@@ -76,6 +82,8 @@ public class TandemAppExample5 {
 			// Datacenters are the resource providers in CloudSim. We need at
 			// list one of them to run a CloudSim simulation
 			datacenter = createDatacenter("Datacenter_0");
+			datacenter.setFlowLevelNetwork(flowLevelNetwork);
+			datacenter.setIncrementalHostUpdates(incrementalHostUpdates);
 			
 			// Third step: Create Broker (Make sure the broker stays alive the whole time)
 			broker = new DatacenterBrokerEX("Broker", 1000000);
@@ -22,9 +22,16 @@ public class WorkflowAppExample {
 
 	private static List<AppCloudlet> appCloudletList;
 
-	private static NetworkDatacenter datacenter;
+	public static NetworkDatacenter datacenter;
+
+	public static DatacenterBroker broker;
+
+	/** Whether the network is simulated as flows instead of packets. */
+	public static boolean flowLevelNetwork = false;
+
+	/** Whether the idle hosts are skipped when processing cloudlets. */
+	public static boolean incrementalHostUpdates = false;
 
-	private static DatacenterBroker broker;
 	/**
 	 * Creates main() to run this example.
 	 * 
@@ -47,6 +54,8 @@ public class WorkflowAppExample {
 			// Datacenters are the resource providers in CloudSim. We need at
 			// list one of them to run a CloudSim simulation
 			datacenter = createDatacenter("Datacenter_0");
+			datacenter.setFlowLevelNetwork(flowLevelNetwork);
+			datacenter.setIncrementalHostUpdates(incrementalHostUpdates);
 
 			// Third step: Create Broker
 			broker = createBroker();
@@ -0,0 +1,155 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.examples.network.datacenter.BagOfTaskAppExample;
+import org.cloudbus.cloudsim.examples.network.datacenter.TandemAppExample5;
+import org.cloudbus.cloudsim.examples.network.datacenter.WorkflowAppExample;
+import org.cloudbus.cloudsim.network.datacenter.NetworkDatacenter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the results of the network datacenter examples when the network is simulated as flows
+ * instead of packets hop by hop through the switches, and when the idle hosts are skipped.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class NetworkDatacenterExampleTest {
+    private static final String[] empty = new String[0];
+
+    /** The results of an example run: the cloudlets sorted by id, and their ranks in the order they were received. */
+    private record Results(List<Cloudlet> cloudlets, List<Integer> receivedRanks, double dataTransfer) {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        Log.disable();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Log.enable();
+        BagOfTaskAppExample.flowLevelNetwork = false;
+        TandemAppExample5.flowLevelNetwork = false;
+        WorkflowAppExample.flowLevelNetwork = false;
+        BagOfTaskAppExample.incrementalHostUpdates = false;
+        TandemAppExample5.incrementalHostUpdates = false;
+        WorkflowAppExample.incrementalHostUpdates = false;
+    }
+
+    private static Results run(Runnable example, Supplier<DatacenterBroker> broker, Supplier<NetworkDatacenter> dc) {
+        assertDoesNotThrow(example::run);
+        List<Cloudlet> cloudlets = new ArrayList<>(broker.get().getCloudletReceivedList());
+        cloudlets.sort(Comparator.comparingInt(Cloudlet::getCloudletId));
+        // the ids keep increasing from one run to the next, so the cloudlets are identified by rank
+        List<Integer> receivedRanks = broker.get().getCloudletReceivedList().stream()
+                .map(cloudlets::indexOf).toList();
+        return new Results(cloudlets, receivedRanks, dc.get().totalDataTransfer);
+    }
+
+    /**
+     * Checks that the same cloudlets succeed and the same data is transferred. The times differ
+     * by the transmission times of the hops, which the flows do not add up, and since the
+     * receivers of a flow complete their stage as soon as it is delivered.
+     */
+    private static void assertResultsCompared(Results packets, Results flows) {
+        assertFalse(packets.cloudlets().isEmpty());
+        assertTrue(packets.dataTransfer() > 0);
+        assertEquals(packets.dataTransfer(), flows.dataTransfer());
+        assertEquals(packets.cloudlets().size(), flows.cloudlets().size());
+        for (int i = 0; i < packets.cloudlets().size(); i++) {
+            Cloudlet expected = packets.cloudlets().get(i);
+            Cloudlet actual = flows.cloudlets().get(i);
+            assertEquals(Cloudlet.CloudletStatus.SUCCESS, expected.getStatus());
+            assertEquals(Cloudlet.CloudletStatus.SUCCESS, actual.getStatus());
+            assertEquals(expected.getGuestId(), actual.getGuestId());
+            assertEquals(expected.getExecStartTime(), actual.getExecStartTime(), 0.05);
+            assertEquals(expected.getExecFinishTime(), actual.getExecFinishTime(), 0.05);
+        }
+    }
+
+    /**
+     * Checks that the cloudlets are received in the same order and run at exactly the same times.
+     */
+    private static void assertResultsEqual(Results expected, Results actual) {
+        assertFalse(expected.cloudlets().isEmpty());
+        assertEquals(expected.dataTransfer(), actual.dataTransfer());
+        assertEquals(expected.receivedRanks(), actual.receivedRanks());
+        for (int i = 0; i < expected.cloudlets().size(); i++) {
+            Cloudlet cl = expected.cloudlets().get(i);
+            Cloudlet other = actual.cloudlets().get(i);
+            assertEquals(cl.getStatus(), other.getStatus());
+            assertEquals(cl.getGuestId(), other.getGuestId());
+            assertEquals(cl.getExecStartTime(), other.getExecStartTime());
+            assertEquals(cl.getExecFinishTime(), other.getExecFinishTime());
+            assertEquals(cl.getActualCPUTime(), other.getActualCPUTime());
+        }
+    }
+
+    @Test
+    public void runBagOfTaskAppExample() {
+        Runnable example = () -> BagOfTaskAppExample.main(empty);
+        Results packets = run(example, () -> BagOfTaskAppExample.broker, () -> BagOfTaskAppExample.datacenter);
+        BagOfTaskAppExample.flowLevelNetwork = true;
+        Results flows = run(example, () -> BagOfTaskAppExample.broker, () -> BagOfTaskAppExample.datacenter);
+        assertTrue(BagOfTaskAppExample.datacenter.getFlowNetwork().getNumberOfCompletedFlows() > 0);
+        assertResultsCompared(packets, flows);
+    }
+
+    @Test
+    public void runTandemAppExample5() {
+        Runnable example = () -> TandemAppExample5.main(empty);
+        Results packets = run(example, () -> TandemAppExample5.broker, () -> TandemAppExample5.datacenter);
+        TandemAppExample5.flowLevelNetwork = true;
+        Results flows = run(example, () -> TandemAppExample5.broker, () -> TandemAppExample5.datacenter);
+        assertTrue(TandemAppExample5.datacenter.getFlowNetwork().getNumberOfCompletedFlows() > 0);
+        assertResultsCompared(packets, flows);
+    }
+
+    @Test
+    public void runWorkflowAppExample() {
+        Runnable example = () -> WorkflowAppExample.main(empty);
+        Results packets = run(example, () -> WorkflowAppExample.broker, () -> WorkflowAppExample.datacenter);
+        WorkflowAppExample.flowLevelNetwork = true;
+        Results flows = run(example, () -> WorkflowAppExample.broker, () -> WorkflowAppExample.datacenter);
+        assertTrue(WorkflowAppExample.datacenter.getFlowNetwork().getNumberOfCompletedFlows() > 0);
+        assertResultsCompared(packets, flows);
+    }
+
+    @Test
+    public void runExamplesWithIncrementalHostUpdates() {
+        for (boolean flows : new boolean[] {false, true}) {
+            BagOfTaskAppExample.flowLevelNetwork = flows;
+            TandemAppExample5.flowLevelNetwork = flows;
+            WorkflowAppExample.flowLevelNetwork = flows;
+
+            Runnable bagOfTask = () -> BagOfTaskAppExample.main(empty);
+            Results expected = run(bagOfTask, () -> BagOfTaskAppExample.broker, () -> BagOfTaskAppExample.datacenter);
+            BagOfTaskAppExample.incrementalHostUpdates = true;
+            assertResultsEqual(expected, run(bagOfTask, () -> BagOfTaskAppExample.broker, () -> BagOfTaskAppExample.datacenter));
+            BagOfTaskAppExample.incrementalHostUpdates = false;
+
+            Runnable tandem = () -> TandemAppExample5.main(empty);
+            expected = run(tandem, () -> TandemAppExample5.broker, () -> TandemAppExample5.datacenter);
+            TandemAppExample5.incrementalHostUpdates = true;
+            assertResultsEqual(expected, run(tandem, () -> TandemAppExample5.broker, () -> TandemAppExample5.datacenter));
+            TandemAppExample5.incrementalHostUpdates = false;
+
+            Runnable workflow = () -> WorkflowAppExample.main(empty);
+            expected = run(workflow, () -> WorkflowAppExample.broker, () -> WorkflowAppExample.datacenter);
+            WorkflowAppExample.incrementalHostUpdates = true;
+            assertResultsEqual(expected, run(workflow, () -> WorkflowAppExample.broker, () -> WorkflowAppExample.datacenter));
+            WorkflowAppExample.incrementalHostUpdates = false;
+        }
+    }
+}
@@ -8,6 +8,8 @@
 package org.cloudbus.cloudsim;
 
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -69,7 +71,7 @@ public class Cloudlet {
      */
     private int userId;
 
-    /** The Cloudlet UID */
+    /** The Cloudlet UID, only created when it is first requested. */
     private String uid;
 
     /**
@@ -142,21 +144,23 @@ public class Cloudlet {
     private final boolean record;
 
     /**
-     * Stores the operating system line separator.
+     * The cloudlet transaction history, or null if no transaction has been recorded.
      */
-    private String newline;
+    private History history;
 
     /**
-     * The cloudlet transaction history.
+     * The last resource where the cloudlet has been executed, or null if it has not
+     * been allocated to any resource yet.
      */
-    private StringBuffer history;
+    private Resource lastResource;
 
     /**
-     * The list of every resource where the cloudlet has been executed. In case
-     * it starts and finishes executing in a single cloud resource, without
-     * being migrated, this list will have only one item.
+     * The list of every resource where the cloudlet has been executed. As a cloudlet
+     * usually starts and finishes executing in a single cloud resource, without
+     * being migrated, this list is only created when the cloudlet moves to a second
+     * resource; before, the only resource is the {@link #lastResource}.
      */
-    private final List<Resource> resList;
+    private List<Resource> resList;
 
     /**
      * The classType or priority of this Cloudlet for scheduling on a resource.
@@ -168,11 +172,6 @@ public class Cloudlet {
      */
     private int netToS;
 
-    /**
-     * The format of decimal numbers.
-     */
-    private DecimalFormat num;
-
     /**
      * The id of the guest entity that is planned to execute the cloudlet.
      */
@@ -219,7 +218,8 @@ public class Cloudlet {
     /**
      * The required files to be used by the cloudlet (if any). The time to
      * transfer these files by the network is considered when placing the
-     * cloudlet inside a given VM
+     * cloudlet inside a given VM. It is null until the list is requested or a
+     * file is required, unless a list is given to the constructor.
      */
     private List<String> requiredFiles = null;
 
@@ -267,7 +267,6 @@ public class Cloudlet {
         guestId = -1;
         accumulatedBwCost = 0;
         costPerBw = 0;
-        requiredFiles = new LinkedList<>();
     }
 
     /**
@@ -419,21 +418,17 @@ public class Cloudlet {
         this.cloudletOutputSize = Math.max(1, cloudletOutputSize);
 
         // Normally, a Cloudlet is only executed on a resource without being
-        // migrated to others. Hence, to reduce memory consumption, set the
-        // size of this ArrayList to be less than the default one.
-        resList = new LinkedList<>();
+        // migrated to others. Hence, to reduce memory consumption, the list of
+        // resources is only created when the Cloudlet moves to a second one.
         this.record = record;
 
         guestId = -1;
         accumulatedBwCost = 0.0;
         costPerBw = 0.0;
 
-        requiredFiles = new LinkedList<>();
-
         setUtilizationModelCpu(utilizationModelCpu);
         setUtilizationModelRam(utilizationModelRam);
         setUtilizationModelBw(utilizationModelBw);
-        updateUid();
     }
 
     /** Backward compatibility with ResCloudlet class in CloudSim6G */
@@ -445,7 +440,8 @@ public class Cloudlet {
     /**
      * Internal class that keeps track of Cloudlet's movement in different
      * CloudResources. Each time a cloudlet is run on a given VM, the cloudlet's
-     * execution history on each VM is registered at {@link Cloudlet#resList}
+     * execution history on each VM is registered at {@link Cloudlet#lastResource}
+     * and {@link Cloudlet#resList}
      */
     public static class Resource {
 
@@ -475,6 +471,64 @@ public class Cloudlet {
 
     }
 
+    /**
+     * Internal class that keeps the transaction history of a Cloudlet as the
+     * simulation times and the parts of its transactions, which are only
+     * formatted when the history is read.
+     */
+    private static final class History {
+
+        /** The simulation times of the transactions. */
+        private double[] times = new double[8];
+
+        /** The parts of the transactions. */
+        private Object[][] transactions = new Object[8][];
+
+        /** The number of transactions. */
+        private int size = 0;
+
+        void add(final double time, final Object[] parts) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                transactions = Arrays.copyOf(transactions, size * 2);
+            }
+            times[size] = time;
+            transactions[size] = parts;
+            size++;
+        }
+
+        /**
+         * Formats the history as a table, the Cloudlet being created at the time
+         * of the first transaction.
+         *
+         * @param cloudletId the ID of the Cloudlet
+         * @return the formatted history
+         */
+        String format(final int cloudletId) {
+            final String newline = System.getProperty("line.separator");
+            final DecimalFormat num = new DecimalFormat("#0.00#"); // with 3 decimal spaces
+            final StringBuilder history = new StringBuilder(1000);
+            history.append("Time below denotes the simulation time.").append(newline);
+            history.append("Time (sec)       Description Cloudlet #").append(cloudletId).append(newline);
+            history.append("------------------------------------------").append(newline);
+            history.append(num.format(times[0]));
+            history.append("   Creates Cloudlet ID #").append(cloudletId).append(newline);
+
+            for (int i = 0; i < size; i++) {
+                history.append(num.format(times[i])).append("   ");
+                for (Object part : transactions[i]) {
+                    if (part instanceof Double) {
+                        history.append(num.format(part));
+                    } else {
+                        history.append(part);
+                    }
+                }
+                history.append(newline);
+            }
+            return history.toString();
+        }
+    }
+
     // ////////////////////// End of Internal Class //////////////////////////
 
     /**
@@ -616,12 +670,12 @@ public class Cloudlet {
      * @post $none
      */
     public double getWaitingTime() {
-        if (resList.isEmpty()) {
+        if (lastResource == null) {
             return 0;
         }
 
         // use the latest resource submission time
-        final double subTime = resList.getLast().arrivalTime;
+        final double subTime = lastResource.arrivalTime;
         return execStartTime - subTime;
     }
 
@@ -700,7 +754,7 @@ public class Cloudlet {
         if (history == null) {
             msg = "No history is recorded for Cloudlet #" + cloudletId;
         } else {
-            msg = history.toString();
+            msg = history.format(cloudletId);
         }
 
         return msg;
@@ -717,11 +771,11 @@ public class Cloudlet {
      * @post $result >= 0.0
      */
     public long getCloudletFinishedSoFar() {
-        if (resList.isEmpty()) {
+        if (lastResource == null) {
             return 0;
         }
 
-        return Math.min(resList.getLast().cloudletFinishedSoFar, getCloudletTotalLength()*Consts.MILLION);
+        return Math.min(lastResource.cloudletFinishedSoFar, getCloudletTotalLength()*Consts.MILLION);
     }
 
     /**
@@ -733,7 +787,7 @@ public class Cloudlet {
      * @post $none
      */
     public boolean isFinished() {
-        if (resList.isEmpty()) {
+        if (lastResource == null) {
             return false;
         }
         // if result is 0 or -ve then this Cloudlet has finished
@@ -763,14 +817,14 @@ public class Cloudlet {
      */
     public void setCloudletFinishedSoFar(final long length) {
         // if length is -ve then ignore
-        if (length < 0.0 || resList.isEmpty()) {
+        if (length < 0.0 || lastResource == null) {
             return;
         }
 
-        resList.getLast().cloudletFinishedSoFar = length;
+        lastResource.cloudletFinishedSoFar = length;
 
         if (record) {
-            write("Sets the length's finished so far to " + length);
+            write("Sets the length's finished so far to ", length);
         }
     }
 
@@ -785,9 +839,9 @@ public class Cloudlet {
      */
     public void setUserId(final int id) {
         userId = id;
-        updateUid();
+        uid = null;
         if (record) {
-            write("Assigns the Cloudlet to " + CloudSim.getEntityName(id) + " (ID #" + id + ")");
+            write("Assigns the Cloudlet to ", CloudSim.getEntityName(id), " (ID #", id, ")");
         }
     }
 
@@ -799,10 +853,10 @@ public class Cloudlet {
      * @post $result >= -1
      */
     public int getResourceId() {
-        if (resList.isEmpty()) {
+        if (lastResource == null) {
             return -1;
         }
-        return resList.getLast().resourceId;
+        return lastResource.resourceId;
     }
 
     public double getExecFinishTime() {
@@ -857,16 +911,23 @@ public class Cloudlet {
         res.resourceName = CloudSim.getEntityName(resourceID);
 
         // add into a list if moving to a new grid resource
-        resList.add(res);
+        final Resource previous = lastResource;
+        if (previous != null) {
+            if (resList == null) {
+                resList = new ArrayList<>(2);
+                resList.add(previous);
+            }
+            resList.add(res);
+        }
+        lastResource = res;
 
-        if (resList.size() == 1 && record) {
+        if (previous == null && record) {
             write("Allocates this Cloudlet to " + res.resourceName + " (ID #" + resourceID
                     + ") with cost = $" + cost + "/sec");
         } else if (record) {
-            final int id = resList.getLast().resourceId;
-            final String name = resList.getLast().resourceName;
-            write("Moves Cloudlet from " + name + " (ID #" + id + ") to " + res.resourceName + " (ID #"
-                    + resourceID + ") with cost = $" + cost + "/sec");
+            // the resource moved from is the last one once updated, as it has always been
+            write("Moves Cloudlet from " + res.resourceName + " (ID #" + res.resourceId + ") to "
+                    + res.resourceName + " (ID #" + resourceID + ") with cost = $" + cost + "/sec");
         }
 
         setSubmissionTime(CloudSim.clock());
@@ -880,14 +941,14 @@ public class Cloudlet {
      * @post $none
      */
     public void setSubmissionTime(final double clockTime) {
-        if (clockTime < 0.0 || resList.isEmpty()) {
+        if (clockTime < 0.0 || lastResource == null) {
             return;
         }
 
-        resList.getLast().arrivalTime = clockTime;
+        lastResource.arrivalTime = clockTime;
 
         if (record) {
-            write("Sets the submission time to " + num.format(clockTime));
+            write("Sets the submission time to ", clockTime);
         }
     }
 
@@ -900,10 +961,10 @@ public class Cloudlet {
      * @post $result >= 0.0
      */
     public double getSubmissionTime() {
-        if (resList.isEmpty()) {
+        if (lastResource == null) {
             return 0.0;
         }
-        return resList.getLast().arrivalTime;
+        return lastResource.arrivalTime;
     }
 
     @Deprecated
@@ -925,7 +986,7 @@ public class Cloudlet {
     public void setExecStartTime(final double clockTime) {
         execStartTime = clockTime;
         if (record) {
-            write("Sets the execution start time to " + num.format(clockTime));
+            write("Sets the execution start time to ", clockTime);
         }
     }
 
@@ -945,17 +1006,16 @@ public class Cloudlet {
      * @see Resource#actualCPUTime
      */
     public void setExecParam(final double wallTime, final double actualTime) {
-        if (wallTime < 0.0 || actualTime < 0.0 || resList.isEmpty()) {
+        if (wallTime < 0.0 || actualTime < 0.0 || lastResource == null) {
             return;
         }
 
-        final Resource res = resList.getLast();
+        final Resource res = lastResource;
         res.wallClockTime = wallTime;
         res.actualCPUTime = actualTime;
 
         if (record) {
-            write("Sets the wall clock time to " + num.format(wallTime) + " and the actual CPU time to "
-                    + num.format(actualTime));
+            write("Sets the wall clock time to ", wallTime, " and the actual CPU time to ", actualTime);
         }
     }
 
@@ -987,7 +1047,8 @@ public class Cloudlet {
         this.status = status;
 
         if (record) {
-            write("Sets Cloudlet status from " + getCloudletStatusString() + " to " + status.toString());
+            // the status set from is the current one once updated, as it has always been
+            write("Sets Cloudlet status from ", status, " to ", status);
         }
 
         // if a previous Cloudlet status is INEXEC
@@ -1079,10 +1140,10 @@ public class Cloudlet {
      * @post $result >= 0.0
      */
     public double getCostPerSec() {
-        if (resList.isEmpty()) {
+        if (lastResource == null) {
             return 0.0;
         }
-        return resList.getLast().costPerSec;
+        return lastResource.costPerSec;
     }
 
     /**
@@ -1094,10 +1155,10 @@ public class Cloudlet {
      * @post $result >= 0.0
      */
     public double getWallClockTime() {
-        if (resList.isEmpty()) {
+        if (lastResource == null) {
             return 0.0;
         }
-        return resList.getLast().wallClockTime;
+        return lastResource.wallClockTime;
     }
 
     /**
@@ -1108,13 +1169,13 @@ public class Cloudlet {
      * @post $none
      */
     public String[] getAllResourceName() {
-        final int size = resList.size();
+        final int size = getResourceCount();
         String[] data = null;
 
         if (size > 0) {
             data = new String[size];
             for (int i = 0; i < size; i++) {
-                data[i] = resList.get(i).resourceName;
+                data[i] = getResource(i).resourceName;
             }
         }
 
@@ -1129,13 +1190,13 @@ public class Cloudlet {
      * @post $none
      */
     public int[] getAllResourceId() {
-        final int size = resList.size();
+        final int size = getResourceCount();
         int[] data = null;
 
         if (size > 0) {
             data = new int[size];
             for (int i = 0; i < size; i++) {
-                data[i] = resList.get(i).resourceId;
+                data[i] = getResource(i).resourceId;
             }
         }
 
@@ -1272,7 +1333,9 @@ public class Cloudlet {
      * @return the resource by id
      */
     public Resource getResourceById(final int resourceId) {
-        for (Resource resource : resList) {
+        final int size = getResourceCount();
+        for (int i = 0; i < size; i++) {
+            final Resource resource = getResource(i);
             if (resource.resourceId == resourceId) {
                 return resource;
             }
@@ -1280,6 +1343,28 @@ public class Cloudlet {
         return null;
     }
 
+    /**
+     * Gets the number of resources where the cloudlet has been executed.
+     *
+     * @return the number of resources
+     */
+    private int getResourceCount() {
+        if (resList != null) {
+            return resList.size();
+        }
+        return lastResource == null ? 0 : 1;
+    }
+
+    /**
+     * Gets a resource where the cloudlet has been executed.
+     *
+     * @param index the index of the resource, in the order they have been allocated
+     * @return the resource
+     */
+    private Resource getResource(final int index) {
+        return resList != null ? resList.get(index) : lastResource;
+    }
+
     // //////////////////////// PROTECTED METHODS //////////////////////////////
 
     /**
@@ -1290,28 +1375,25 @@ public class Cloudlet {
      * @post $none
      */
     protected void write(final String str) {
+        write(new Object[] {str});
+    }
+
+    /**
+     * Writes a history transaction of this Cloudlet, given as its parts, into a log.
+     * The parts are only formatted when the history is read: the {@link Double}
+     * ones with 3 decimal places, the others by {@link String#valueOf(Object)}.
+     *
+     * @param parts the parts of a history transaction of this Cloudlet
+     */
+    private void write(final Object... parts) {
         if (!record) {
             return;
         }
 
-        if (num == null || history == null) { // Creates the history or
-            // transactions of this Cloudlet
-            newline = System.getProperty("line.separator");
-            num = new DecimalFormat("#0.00#"); // with 3 decimal spaces
-            history = new StringBuffer(1000);
-            history.append("Time below denotes the simulation time.");
-            history.append(System.getProperty("line.separator"));
-            history.append("Time (sec)       Description Cloudlet #").append(cloudletId);
-            history.append(System.getProperty("line.separator"));
-            history.append("------------------------------------------");
-            history.append(System.getProperty("line.separator"));
-            history.append(num.format(CloudSim.clock()));
-            history.append("   Creates Cloudlet ID #").append(cloudletId);
-            history.append(System.getProperty("line.separator"));
+        if (history == null) { // Creates the history or transactions of this Cloudlet
+            history = new History();
         }
-
-        history.append(num.format(CloudSim.clock()));
-        history.append("   ").append(str).append(newline);
+        history.add(CloudSim.clock(), parts);
     }
 
     /**
@@ -1374,7 +1456,7 @@ public class Cloudlet {
      */
     public boolean addRequiredFile(final String fileName) {
         // if the list is empty
-        if (getRequiredFiles() == null) {
+        if (requiredFiles == null) {
             setRequiredFiles(new LinkedList<>());
         }
 
@@ -1403,7 +1485,7 @@ public class Cloudlet {
      */
     public boolean deleteRequiredFile(final String filename) {
         boolean result = false;
-        if (getRequiredFiles() == null) {
+        if (requiredFiles == null) {
             return result;
         }
 
@@ -1427,7 +1509,7 @@ public class Cloudlet {
      * @return <tt>true</tt> if required, <tt>false</tt> otherwise
      */
     public boolean requiresFiles() {
-        return getRequiredFiles() != null && !getRequiredFiles().isEmpty();
+        return requiredFiles != null && !requiredFiles.isEmpty();
     }
 
     public int getGuestId() { return guestId; }
@@ -1500,14 +1582,12 @@ public class Cloudlet {
      * @return The UID
      */
     public String getUid() {
+        if (uid == null) { // created again after a change of userId
+            uid = getUserId() + "-" + getCloudletId();
+        }
         return uid;
     }
 
-    /** update uid after change of cloudletId or userId */
-    private void updateUid() {
-        uid = getUserId() + "-" + getCloudletId();
-    }
-
     /**
      * Gets the utilization percentage of cpu.
      *
@@ -1538,7 +1618,18 @@ public class Cloudlet {
         return getUtilizationModelBw().getUtilization(time);
     }
 
-    public List<String> getRequiredFiles() { return requiredFiles; }
+    /**
+     * Gets the required files. The list is only created when first requested,
+     * or when a file is added.
+     *
+     * @return the names of the required files
+     */
+    public List<String> getRequiredFiles() {
+        if (requiredFiles == null) {
+            requiredFiles = new LinkedList<>();
+        }
+        return requiredFiles;
+    }
 
     protected void setRequiredFiles(List<String> requiredFiles) { this.requiredFiles = requiredFiles; }
 }
@@ -9,10 +9,11 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.lists.CloudletArrayList;
 import org.cloudbus.cloudsim.lists.CloudletList;
 
 /**
@@ -58,6 +59,12 @@ public abstract class CloudletScheduler {
 	/** Buffer list of the latest finished cloudlets. */
 	protected List<Cloudlet> cloudletJustFinishedList;
 
+	/**
+	 * The queue to which this scheduler adds itself when a cloudlet finishes, or null.
+	 * @see #setCompletionQueue(Collection)
+	 */
+	private Collection<? super CloudletScheduler> completionQueue;
+
 	/**
 	 * Creates a new CloudletScheduler object. 
 	 * A CloudletScheduler must be created before starting the actual simulation.
@@ -68,11 +75,11 @@ public abstract class CloudletScheduler {
 	public CloudletScheduler() {
 		setPreviousTime(0.0);
 
-		cloudletWaitingList = new LinkedList<>();
-		cloudletExecList = new LinkedList<>();
-		cloudletPausedList = new LinkedList<>();
-		cloudletFinishedList = new LinkedList<>();
-		cloudletFailedList = new LinkedList<>();
+		cloudletWaitingList = new CloudletArrayList<>();
+		cloudletExecList = new CloudletArrayList<>();
+		cloudletPausedList = new CloudletArrayList<>();
+		cloudletFinishedList = new CloudletArrayList<>();
+		cloudletFailedList = new CloudletArrayList<>();
 		cloudletJustFinishedList = new ArrayList<>();
 	}
 
@@ -179,15 +186,14 @@ public abstract class CloudletScheduler {
 	 */
 	public Cloudlet cloudletCancel(final int cloudletId) {
 		// First, looks in the finished queue
-		int position = CloudletList.getPositionById(getCloudletFinishedList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletFinishedList().remove(position);
+		Cloudlet cl = CloudletList.removeById(getCloudletFinishedList(), cloudletId);
+		if (cl != null) {
+			return cl;
 		}
 
 		// Then searches in the exec list
-		position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			Cloudlet cl = getCloudletExecList().remove(position);
+		cl = CloudletList.removeById(getCloudletExecList(), cloudletId);
+		if (cl != null) {
 			if (cl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(cl);
 			} else {
@@ -197,17 +203,13 @@ public abstract class CloudletScheduler {
 		}
 
 		// Now, looks in the paused queue
-		position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletPausedList().remove(position);
+		cl = CloudletList.removeById(getCloudletPausedList(), cloudletId);
+		if (cl != null) {
+			return cl;
 		}
 
 		// Finally, looks in the waiting list
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletWaitingList().remove(position);
-		}
-		return null;
+		return CloudletList.removeById(getCloudletWaitingList(), cloudletId);
 	}
 
 	/**
@@ -220,24 +222,13 @@ public abstract class CloudletScheduler {
 	 */
 	public boolean cloudletPause(int cloudletId) {
 		// first, looks for the cloudlet in the exec list
-		int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			// moves to the paused list
-			Cloudlet cl = getCloudletExecList().remove(position);
-			if (cl.getRemainingCloudletLength() == 0) {
-				cloudletFinish(cl);
-			} else {
-				cl.updateStatus(Cloudlet.CloudletStatus.PAUSED);
-				getCloudletPausedList().add(cl);
-			}
-			return true;
+		Cloudlet cl = CloudletList.removeById(getCloudletExecList(), cloudletId);
+		if (cl == null) {
+			// now, look for the cloudlet in the waiting list
+			cl = CloudletList.removeById(getCloudletWaitingList(), cloudletId);
 		}
-
-		// now, look for the cloudlet in the waiting list
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
-		if (position >= 0) {
+		if (cl != null) {
 			// moves to the paused list
-			Cloudlet cl = getCloudletWaitingList().remove(position);
 			if (cl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(cl);
 			} else {
@@ -270,6 +261,20 @@ public abstract class CloudletScheduler {
 		cl.updateStatus(Cloudlet.CloudletStatus.SUCCESS);
 		cl.finalizeCloudlet();
 		getCloudletFinishedList().add(cl);
+		if (completionQueue != null) {
+			completionQueue.add(this);
+		}
+	}
+
+	/**
+	 * Sets the queue to which this scheduler adds itself whenever a cloudlet finishes, so that
+	 * the datacenter can collect the finished cloudlets without checking every scheduler.
+	 *
+	 * @param completionQueue the queue, or null to stop adding this scheduler to it
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void setCompletionQueue(Collection<? super CloudletScheduler> completionQueue) {
+		this.completionQueue = completionQueue;
 	}
 
 	/**
@@ -282,19 +287,19 @@ public abstract class CloudletScheduler {
 	 *
 	 */
 	public Cloudlet.CloudletStatus getCloudletStatus(final int cloudletId) {
-		int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletExecList().get(position).getStatus();
+		Cloudlet cl = CloudletList.getById(getCloudletExecList(), cloudletId);
+		if (cl != null) {
+			return cl.getStatus();
 		}
 
-		position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletPausedList().get(position).getStatus();
+		cl = CloudletList.getById(getCloudletPausedList(), cloudletId);
+		if (cl != null) {
+			return cl.getStatus();
 		}
 
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletWaitingList().get(position).getStatus();
+		cl = CloudletList.getById(getCloudletWaitingList(), cloudletId);
+		if (cl != null) {
+			return cl.getStatus();
 		}
 
 		throw new RuntimeException("cloudlet doesn't not exist");
@@ -38,9 +38,8 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	@Override
 	public double cloudletResume(int cloudletId) {
 		// look for the cloudlet in the paused list
-		int position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
-		if (position >= 0) {
-			Cloudlet cl = getCloudletPausedList().remove(position);
+		Cloudlet cl = CloudletList.removeById(getCloudletPausedList(), cloudletId);
+		if (cl != null) {
 			cl.updateStatus(Cloudlet.CloudletStatus.INEXEC);
 			getCloudletExecList().add(cl);
 
@@ -8,8 +8,22 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
 
 import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.*;
@@ -53,6 +67,58 @@ public class Datacenter extends SimEntity {
 	/** The scheduling delay to process each datacenter received event. */
 	private double schedulingInterval;
 
+	/**
+	 * Whether the idle hosts are skipped when processing cloudlets, and the finished cloudlets are
+	 * only collected from the guests in which some cloudlet finished, instead of all the hosts.
+	 * @see #setIncrementalHostUpdates(boolean)
+	 */
+	private boolean incrementalHostUpdates;
+
+	/** The positions in the host list of the hosts updated at every step (with incremental host updates). */
+	private final BitSet activeHosts = new BitSet();
+
+	/** The last time each skipped idle host was updated (with incremental host updates). */
+	private final Map<HostEntity, Double> inactiveHostUpdateTimes = new HashMap<>();
+
+	/** The position of each host in the host list, so that hosts are visited in the same order as a full sweep. */
+	private final Map<HostEntity, Integer> hostPositions = new HashMap<>();
+
+	/** The last time all the hosts were brought up to date (with incremental host updates). */
+	private double allHostsUpdateTime = -1;
+
+	/** The guest of each scheduler whose finished cloudlets are collected (with incremental host updates). */
+	private final Map<CloudletScheduler, GuestEntity> completionGuests = new HashMap<>();
+
+	/**
+	 * The first host in the host list each migrating guest is migrating to, indexed once per
+	 * collection of the finished cloudlets when it is needed, otherwise null.
+	 * @see #takeCompletedGuests(int)
+	 */
+	private Map<GuestEntity, HostEntity> migrationTargets;
+
+	/**
+	 * The schedulers in which some cloudlet finished since the last check, added by the schedulers
+	 * themselves, possibly from parallel host updates.
+	 * @see CloudletScheduler#setCompletionQueue(java.util.Collection)
+	 */
+	private final Set<CloudletScheduler> completionQueue = ConcurrentHashMap.newKeySet();
+
+	/** The number of consecutive hosts updated by each task with parallel host updates. */
+	private static final int HOST_UPDATE_CHUNK_SIZE = 16;
+
+	/**
+	 * The pool updating the hosts in parallel, or null to update them sequentially.
+	 * @see #setParallelHostUpdates(ForkJoinPool)
+	 */
+	private ForkJoinPool hostUpdatePool;
+
+	/**
+	 * The cloudlets submitted in batches which have not been returned yet. They are returned
+	 * in batches too, unlike the cloudlets submitted one by one.
+	 * @see CloudActionTags#CLOUDLET_SUBMIT_BATCH
+	 */
+	private final Set<Cloudlet> batchCloudlets = Collections.newSetFromMap(new IdentityHashMap<>());
+
 	/**
 	 * Allocates a new Datacenter object.
 	 * 
@@ -151,6 +217,10 @@ public class Datacenter extends SimEntity {
         } else if (tag == CloudActionTags.CLOUDLET_SUBMIT_ACK) {
             processCloudletSubmit(ev, true);
 
+            // Several Cloudlets arrive at once
+        } else if (tag == CloudActionTags.CLOUDLET_SUBMIT_BATCH) {
+            processCloudletSubmitBatch(ev);
+
             // Cancels a previously submitted Cloudlet
         } else if (tag == CloudActionTags.CLOUDLET_CANCEL) {
             processCloudlet(ev, CloudActionTags.CLOUDLET_CANCEL);
@@ -396,6 +466,7 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processVmCreate(SimEvent ev, boolean ack) {
 		GuestEntity guest = (GuestEntity) ev.getData();
+		hostsChanging();
 
 		boolean result;
 		HostEntity userPreferredHost = guest.getHost();
@@ -414,6 +485,7 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (result) {
+			hostChanging(guest.getHost());
 			getVmList().add(guest);
 
 			if (guest.isBeingInstantiated()) {
@@ -441,6 +513,7 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processVmDestroy(SimEvent ev, boolean ack) {
 		GuestEntity vm = (GuestEntity) ev.getData();
+		hostChanging(vm instanceof HostEntity host ? host : vm.getHost());
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 
 		if (ack) {
@@ -475,6 +548,9 @@ public class Datacenter extends SimEntity {
         GuestEntity vm = migrate.vm();
 		HostEntity host = migrate.host();
 		
+		hostChanging(vm instanceof HostEntity nested ? nested : vm.getHost());
+		hostChanging(host);
+
 		//destroy VM in src host
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 		host.removeMigratingInGuest(vm);
@@ -574,8 +650,9 @@ public class Datacenter extends SimEntity {
 		int destId = receivedData[4];
 
 		// get the cloudlet
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		HostEntity srcHost = getVmAllocationPolicy().getHost(vmId, userId);
+		hostChanging(srcHost);
+		Cloudlet cl = srcHost.getGuest(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
 
 		boolean failed = false;
 		if (cl == null) {// cloudlet doesn't exist
@@ -589,6 +666,7 @@ public class Datacenter extends SimEntity {
 				data[2] = 0;
 				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
 				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+				batchCloudlets.remove(cl);
 			}
 
 			// prepare cloudlet for migration
@@ -596,10 +674,13 @@ public class Datacenter extends SimEntity {
 
 			// the cloudlet will migrate from one vm to another does the destination VM exist?
 			if (destId == getId()) {
-				GuestEntity vm = getVmAllocationPolicy().getHost(vmDestId, userId).getGuest(vmDestId,userId);
+				HostEntity destHost = getVmAllocationPolicy().getHost(vmDestId, userId);
+				hostChanging(destHost);
+				GuestEntity vm = destHost.getGuest(vmDestId,userId);
 				if (vm == null) {
 					failed = true;
 				} else {
+					watchCompletions(vm);
 					// time to transfer the files
 					double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 					vm.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
@@ -607,6 +688,7 @@ public class Datacenter extends SimEntity {
 			} else {// the cloudlet will migrate from one resource to another
 				CloudActionTags newTag = ((tag == CloudActionTags.CLOUDLET_MOVE_ACK) ? CloudActionTags.CLOUDLET_SUBMIT_ACK
 						: CloudActionTags.CLOUDLET_SUBMIT);
+				batchCloudlets.remove(cl);
 				sendNow(destId, newTag, cl);
 			}
 		}
@@ -638,78 +720,138 @@ public class Datacenter extends SimEntity {
 		updateCloudletProcessing();
 
 		try {
-			// gets the Cloudlet object
-			Cloudlet cl = (Cloudlet) ev.getData();
-
-			// checks whether this Cloudlet has finished or not
-			if (cl.isFinished()) {
-				String name = CloudSim.getEntityName(cl.getUserId());
-				Log.printlnConcat(getName(), ": Warning - ",cl.getClass().getSimpleName()," #", cl.getCloudletId(), " owned by ", name,
-						" is already completed/finished.");
-				Log.println("Therefore, it is not being executed again");
-				Log.println();
-
-				// NOTE: If a Cloudlet has finished, then it won't be processed.
-				// So, if ack is required, this method sends back a result.
-				// If ack is not required, this method don't send back a result.
-				// Hence, this might cause CloudSim to be hanged since waiting
-				// for this Cloudlet back.
-				if (ack) {
-					int[] data = new int[3];
-					data[0] = getId();
-					data[1] = cl.getCloudletId();
-					data[2] = CloudSimTags.FALSE;
-
-					sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
-				}
-
-				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
-
-				return;
+			double estimatedFinishTime = submitCloudlet((Cloudlet) ev.getData(), ack);
+			if (estimatedFinishTime > 0.0) {
+				send(getId(), estimatedFinishTime, CloudActionTags.VM_DATACENTER_EVENT);
 			}
+		} catch (ClassCastException c) {
+			Log.printlnConcat(getName(), ".processCloudletSubmit(): ", "ClassCastException error.");
+			c.printStackTrace();
+		} catch (Exception e) {
+			Log.printlnConcat(getName(), ".processCloudletSubmit(): ", "Exception error.");
+			e.printStackTrace();
+		}
 
-			// process this Cloudlet to this CloudResource
-			cl.setResourceParameter(getId(), getCharacteristics().getCostPerSecond(),
-                                getCharacteristics().getCostPerBw());
-
-			int userId = cl.getUserId();
-			int vmId = cl.getGuestId();
-
-			// time to transfer the files
-			double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
+		checkCloudletCompletion();
+	}
 
-			HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
-			GuestEntity vm = host.getGuest(vmId, userId);
-			CloudletScheduler scheduler = vm.getCloudletScheduler();
-			double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
+	/**
+	 * Processes the submission of several Cloudlets at once. The cloudlets are submitted as by
+	 * {@link #processCloudletSubmit(SimEvent, boolean)}, without acknowledgement, but the cloudlet
+	 * processing is updated and the finished cloudlets collected only once for the whole batch,
+	 * and a single event is scheduled for the cloudlets expected to finish at the same time.
+	 * The cloudlets then progress as if they had been submitted one by one, except at the start
+	 * of the simulation, when {@link #updateCloudletProcessing()} also runs between submissions.
+	 * The cloudlets of a batch are returned in batches as well, unlike the cloudlets of the same
+	 * user submitted one by one.
+	 *
+	 * @param ev information about the event just happened, whose data is an array of Cloudlets
+	 * @pre ev != null
+	 * @post $none
+	 * @see CloudActionTags#CLOUDLET_SUBMIT_BATCH
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected void processCloudletSubmitBatch(SimEvent ev) {
+		updateCloudletProcessing();
 
-			// if this cloudlet is in the exec queue
-			if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
-				estimatedFinishTime += fileTransferTime;
-				send(getId(), estimatedFinishTime, CloudActionTags.VM_DATACENTER_EVENT);
+		// the cloudlets expected to finish at the same time share a single event
+		Set<Double> estimatedFinishTimes = new LinkedHashSet<>();
+		for (Cloudlet cl : (Cloudlet[]) ev.getData()) {
+			try {
+				// a cloudlet which has already finished is returned at once
+				boolean returned = cl.isFinished();
+				double estimatedFinishTime = submitCloudlet(cl, false);
+				if (!returned) {
+					batchCloudlets.add(cl);
+				}
+				if (estimatedFinishTime > 0.0) {
+					estimatedFinishTimes.add(estimatedFinishTime);
+				}
+			} catch (Exception e) {
+				Log.printlnConcat(getName(), ".processCloudletSubmitBatch(): ", "Exception error.");
+				e.printStackTrace();
 			}
-			/*else {
-				Log.printlnConcat(CloudSim.clock(), ": [",getName(), "]: Warning - ", cl.getClass().getSimpleName()," #", cl.getCloudletId(),
-						" is paused because not enough free PEs on ", vm.getClassName(), " #", vm.getId());
-			}*/
+		}
+		for (double estimatedFinishTime : estimatedFinishTimes) {
+			send(getId(), estimatedFinishTime, CloudActionTags.VM_DATACENTER_EVENT);
+		}
 
+		checkCloudletCompletion();
+	}
+
+	/**
+	 * Submits a Cloudlet to the scheduler of its guest, or returns it to its user if it has
+	 * already finished.
+	 *
+	 * @param cl the cloudlet
+	 * @param ack indicates if the sender expects to receive an acknowledge message
+	 * @return the delay after which the cloudlet is expected to finish, or 0 if it is not
+	 *         running or its completion cannot be estimated
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected double submitCloudlet(Cloudlet cl, boolean ack) {
+		// checks whether this Cloudlet has finished or not
+		if (cl.isFinished()) {
+			String name = CloudSim.getEntityName(cl.getUserId());
+			Log.printlnConcat(getName(), ": Warning - ",cl.getClass().getSimpleName()," #", cl.getCloudletId(), " owned by ", name,
+					" is already completed/finished.");
+			Log.println("Therefore, it is not being executed again");
+			Log.println();
+
+			// NOTE: If a Cloudlet has finished, then it won't be processed.
+			// So, if ack is required, this method sends back a result.
+			// If ack is not required, this method don't send back a result.
+			// Hence, this might cause CloudSim to be hanged since waiting
+			// for this Cloudlet back.
 			if (ack) {
 				int[] data = new int[3];
 				data[0] = getId();
 				data[1] = cl.getCloudletId();
-				data[2] = CloudSimTags.TRUE;
+				data[2] = CloudSimTags.FALSE;
 
 				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
 			}
-		} catch (ClassCastException c) {
-			Log.printlnConcat(getName(), ".processCloudletSubmit(): ", "ClassCastException error.");
-			c.printStackTrace();
-		} catch (Exception e) {
-			Log.printlnConcat(getName(), ".processCloudletSubmit(): ", "Exception error.");
-			e.printStackTrace();
+
+			sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+
+			return 0.0;
 		}
 
-		checkCloudletCompletion();
+		// process this Cloudlet to this CloudResource
+		cl.setResourceParameter(getId(), getCharacteristics().getCostPerSecond(),
+                            getCharacteristics().getCostPerBw());
+
+		int userId = cl.getUserId();
+		int vmId = cl.getGuestId();
+
+		// time to transfer the files
+		double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
+
+		HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+		hostChanging(host);
+		GuestEntity vm = host.getGuest(vmId, userId);
+		watchCompletions(vm);
+		CloudletScheduler scheduler = vm.getCloudletScheduler();
+		double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
+
+		// if this cloudlet is in the exec queue
+		if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
+			estimatedFinishTime += fileTransferTime;
+		} else {
+			/*Log.printlnConcat(CloudSim.clock(), ": [",getName(), "]: Warning - ", cl.getClass().getSimpleName()," #", cl.getCloudletId(),
+					" is paused because not enough free PEs on ", vm.getClassName(), " #", vm.getId());*/
+			estimatedFinishTime = 0.0;
+		}
+
+		if (ack) {
+			int[] data = new int[3];
+			data[0] = getId();
+			data[1] = cl.getCloudletId();
+			data[2] = CloudSimTags.TRUE;
+
+			sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+		}
+		return estimatedFinishTime;
 	}
 
 	/**
@@ -747,6 +889,7 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletResume(int cloudletId, int userId, int vmId, boolean ack) {
+		hostChanging(getVmAllocationPolicy().getHost(vmId, userId));
 		double eventTime = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
 				.getCloudletScheduler().cloudletResume(cloudletId);
 
@@ -780,6 +923,7 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletPause(int cloudletId, int userId, int vmId, boolean ack) {
+		hostChanging(getVmAllocationPolicy().getHost(vmId, userId));
 		boolean status = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
 				.getCloudletScheduler().cloudletPause(cloudletId);
 
@@ -803,8 +947,10 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
+		hostChanging(getVmAllocationPolicy().getHost(vmId, userId));
 		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
 				.getCloudletScheduler().cloudletCancel(cloudletId);
+		batchCloudlets.remove(cl);
 		sendNow(userId, CloudActionTags.CLOUDLET_CANCEL, cl);
 	}
 
@@ -822,12 +968,19 @@ public class Datacenter extends SimEntity {
 		// simulation step is skipped and schedulers are not properly initialized
 		if (CloudSim.clock() < 0.111 || CloudSim.clock() >= getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
 			double smallerTime = Double.MAX_VALUE;
-			for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+			if (isIncrementalHostUpdates()) {
+				smallerTime = updateActiveHosts();
+			} else {
+				List<? extends HostEntity> hosts = getVmAllocationPolicy().getHostList();
+				double[] times = new double[hosts.size()];
 				// inform VMs to update processing
-				double time = host.updateCloudletsProcessing(CloudSim.clock());
-				// what time do we expect that the next cloudlet will finish?
-				if (time < smallerTime) {
-					smallerTime = time;
+				forEachHost(hosts, i -> times[i] = hosts.get(i).updateCloudletsProcessing(CloudSim.clock()));
+				getVmAllocationPolicy().hostsUpdated(hosts);
+				for (double time : times) {
+					// what time do we expect that the next cloudlet will finish?
+					if (time < smallerTime) {
+						smallerTime = time;
+					}
 				}
 			}
 			// gurantees a minimal interval before scheduling the event
@@ -844,21 +997,465 @@ public class Datacenter extends SimEntity {
 	/**
 	 * Verifies if some cloudlet inside this Datacenter already finished. 
          * If yes, send it to the User/Broker
+	 * The cloudlets which were submitted in batches are returned in one batch
+	 * per user.
 	 * 
 	 * @pre $none
 	 * @post $none
 	 */
 	protected void checkCloudletCompletion() {
-		for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-			for (GuestEntity vm : host.getGuestList()) {
-				while (vm.getCloudletScheduler().isFinishedCloudlets()) {
-					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
-					if (cl != null) {
-						sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+		Map<Integer, List<Cloudlet>> batches = null;
+		if (isIncrementalHostUpdates()) {
+			for (GuestEntity vm : takeCompletedGuests(1)) {
+				batches = returnFinishedCloudlets(vm, batches);
+			}
+		} else {
+			for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+				for (GuestEntity vm : host.getGuestList()) {
+					batches = returnFinishedCloudlets(vm, batches);
+				}
+			}
+		}
+		if (batches != null) {
+			for (Map.Entry<Integer, List<Cloudlet>> batch : batches.entrySet()) {
+				sendNow(batch.getKey(), CloudActionTags.CLOUDLET_RETURN_BATCH, batch.getValue().toArray(new Cloudlet[0]));
+			}
+		}
+	}
+
+	/**
+	 * Returns the finished cloudlets of a guest to their users, or adds them to the batches of
+	 * the users which submitted cloudlets in batches.
+	 *
+	 * @return the batches, created when the first cloudlet is added to them
+	 */
+	private Map<Integer, List<Cloudlet>> returnFinishedCloudlets(GuestEntity vm, Map<Integer, List<Cloudlet>> batches) {
+		while (vm.getCloudletScheduler().isFinishedCloudlets()) {
+			Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
+			if (cl == null) {
+				continue;
+			}
+			if (batchCloudlets.remove(cl)) {
+				if (batches == null) {
+					batches = new LinkedHashMap<>();
+				}
+				batches.computeIfAbsent(cl.getUserId(), id -> new ArrayList<>()).add(cl);
+			} else {
+				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+			}
+		}
+		return batches;
+	}
+
+	/**
+	 * Returns a cloudlet to its user on its own, even if it was submitted in a batch.
+	 * Subclasses returning cloudlets themselves (e.g., the failed ones) should use it, so that
+	 * the cloudlet is no longer tracked as part of a batch.
+	 *
+	 * @param cl the cloudlet
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected void returnCloudlet(Cloudlet cl) {
+		batchCloudlets.remove(cl);
+		sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+	}
+
+	/**
+	 * Enables or disables incremental host updates. When enabled, the hosts whose guests have no
+	 * cloudlets to run are skipped when processing cloudlets, until they are changed (e.g., a
+	 * cloudlet is submitted or a guest is created), and the finished cloudlets are only collected
+	 * from the guests whose scheduler reported a completion (see
+	 * {@link CloudletScheduler#setCompletionQueue(java.util.Collection)}), instead of every guest.
+	 * <p>
+	 * Only the idle hosts are skipped: the hosts with cloudlets to run are still updated at every
+	 * step, rather than only when their next cloudlet is due, since the progress of the cloudlets
+	 * is accounted in whole MIs at every update. Before a skipped host is changed, it is
+	 * brought up to the last update time, and the hosts and the finished cloudlets are visited in
+	 * the order of the host list. Therefore, the results are the same as with a full sweep.
+	 * It is meant for large datacenters where most hosts are idle at any time, and requires the
+	 * datacenter to be notified before a host is changed (see {@link #hostChanging(HostEntity)}).
+	 * It should be set before the simulation starts.
+	 *
+	 * @param incrementalHostUpdates true to skip the idle hosts, false to update all the hosts
+	 * @see #isIdleHostUpdateSkippable(HostEntity)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void setIncrementalHostUpdates(boolean incrementalHostUpdates) {
+		hostsChanging();
+		this.incrementalHostUpdates = incrementalHostUpdates;
+		activeHosts.clear();
+		inactiveHostUpdateTimes.clear();
+		hostPositions.clear();
+		allHostsUpdateTime = -1;
+		for (CloudletScheduler scheduler : completionGuests.keySet()) {
+			scheduler.setCompletionQueue(null);
+		}
+		completionGuests.clear();
+		completionQueue.clear();
+	}
+
+	/**
+	 * Checks whether incremental host updates are enabled.
+	 *
+	 * @return true if the idle hosts are skipped, false if all the hosts are updated
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isIncrementalHostUpdates() {
+		return incrementalHostUpdates;
+	}
+
+	/**
+	 * Checks whether the update of a host may be skipped while none of its guests has cloudlets
+	 * to run, that is, whether such an update only records the time of the update. The hosts and
+	 * the guests which record their utilization at every update (e.g., the power-aware ones)
+	 * are never skipped.
+	 *
+	 * @param host the host
+	 * @return true if the host may be skipped while it is idle
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected boolean isIdleHostUpdateSkippable(HostEntity host) {
+		if (host instanceof HostDynamicWorkload) {
+			return false;
+		}
+		for (GuestEntity guest : host.getGuestList()) {
+			if (guest instanceof PowerGuestEntity
+					|| guest instanceof VirtualEntity vm && !isIdleHostUpdateSkippable(vm)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Enables or disables parallel host updates. When enabled, the hosts are updated by the tasks
+	 * of the given pool, each one updating a fixed chunk of consecutive hosts of the host list,
+	 * while the results (e.g., the time of the next event or the energy consumed) are still
+	 * reduced in the order of the host list. The messages logged while updating the hosts are
+	 * buffered by each task and printed in the same order. The hosts sharing a guest, e.g., the
+	 * source and destination hosts of a migrating VM, are updated one after the other. Therefore,
+	 * the results are the same as with sequential updates.
+	 * <p>
+	 * It is meant for large datacenters where the update of each host takes a significant time,
+	 * and requires the update of a host not to change anything shared with other hosts (e.g., a
+	 * stochastic utilization model shared by cloudlets running in different hosts).
+	 * It should be set before the simulation starts.
+	 *
+	 * @param pool the pool used to update the hosts, or null to update them sequentially
+	 * @throws UnsupportedOperationException if this kind of datacenter does not support parallel host updates
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void setParallelHostUpdates(ForkJoinPool pool) {
+		if (pool != null && !isParallelHostUpdatesSupported()) {
+			throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support parallel host updates");
+		}
+		this.hostUpdatePool = pool;
+	}
+
+	/**
+	 * Checks whether parallel host updates are enabled.
+	 *
+	 * @return true if the hosts are updated in parallel, false if they are updated sequentially
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isParallelHostUpdates() {
+		return hostUpdatePool != null;
+	}
+
+	/**
+	 * Checks whether this datacenter supports parallel host updates. Subclasses whose hosts
+	 * send events or change the datacenter while being updated should return false.
+	 *
+	 * @return true if parallel host updates are supported
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected boolean isParallelHostUpdatesSupported() {
+		return true;
+	}
+
+	/**
+	 * Performs an action for each position of a list of hosts, in parallel with parallel host
+	 * updates, or sequentially otherwise. The action must only change the given host and
+	 * store its results by position, so that they can be reduced in order afterwards. The hosts
+	 * sharing a guest (see {@link VmAllocationPolicy#getHostsSharingGuests(List)}) are still processed one after the
+	 * other, in the order of the list, once the others are done.
+	 *
+	 * @param hosts the hosts
+	 * @param action the action, receiving the position of the host
+	 * @see #setParallelHostUpdates(ForkJoinPool)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected void forEachHost(List<? extends HostEntity> hosts, IntConsumer action) {
+		int size = hosts.size();
+		if (hostUpdatePool == null || size <= HOST_UPDATE_CHUNK_SIZE) {
+			for (int i = 0; i < size; i++) {
+				action.accept(i);
+			}
+			return;
+		}
+
+		SimulationContext context = SimulationContext.current();
+		boolean logging = !Log.isDisabled();
+		BitSet sequential = VmAllocationPolicy.getHostsSharingGuests(hosts);
+		String[] logs = logging ? new String[size] : null;
+		IntConsumer update = logging ? i -> logs[i] = Log.capture(() -> action.accept(i)) : action;
+		int chunks = (size + HOST_UPDATE_CHUNK_SIZE - 1) / HOST_UPDATE_CHUNK_SIZE;
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			int from = chunk * HOST_UPDATE_CHUNK_SIZE;
+			int to = Math.min(size, from + HOST_UPDATE_CHUNK_SIZE);
+			tasks.add(hostUpdatePool.submit(() -> context.execute(() -> {
+				for (int i = sequential.nextClearBit(from); i < to; i = sequential.nextClearBit(i + 1)) {
+					update.accept(i);
+				}
+			})));
+		}
+		for (ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+		for (int i = sequential.nextSetBit(0); i >= 0; i = sequential.nextSetBit(i + 1)) {
+			update.accept(i);
+		}
+		if (logging) {
+			for (String log : logs) {
+				if (!log.isEmpty()) {
+					Log.print(log);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Notifies that a host is going to be changed, e.g., because a cloudlet is submitted to
+	 * one of its guests. With incremental host updates, a skipped idle host is brought up to the
+	 * last update time, and it will be updated again at every step.
+	 *
+	 * @param host the host going to be changed
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected void hostChanging(HostEntity host) {
+		if (!isIncrementalHostUpdates() || host == null) {
+			return;
+		}
+		// the guests of nested guests are updated by the top-level host, and by the guests
+		// which are in the host list themselves
+		activateHost(host);
+		while (host instanceof VirtualEntity vm && vm.getHost() != null) {
+			host = vm.getHost();
+			activateHost(host);
+		}
+	}
+
+	/**
+	 * Notifies that the guests of some unknown host are going to be changed. With incremental host
+	 * updates, all the skipped idle hosts are brought up to the last update time.
+	 *
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected void hostsChanging() {
+		if (!isIncrementalHostUpdates() || allHostsUpdateTime == getLastProcessTime()) {
+			return;
+		}
+		if (!inactiveHostUpdateTimes.isEmpty()) {
+			for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+				activateHost(host);
+			}
+		}
+		allHostsUpdateTime = getLastProcessTime();
+	}
+
+	private void activateHost(HostEntity host) {
+		Double updateTime = inactiveHostUpdateTimes.remove(host);
+		if (updateTime == null) {
+			return;
+		}
+		if (updateTime < getLastProcessTime()) {
+			host.updateCloudletsProcessing(getLastProcessTime());
+			getVmAllocationPolicy().hostsUpdated(List.of(host));
+		}
+		Integer position = hostPositions.get(host);
+		if (position != null) {
+			activeHosts.set(position);
+		}
+	}
+
+	/**
+	 * Updates the active hosts, in the order of the host list, then skips the ones left idle
+	 * until they are changed.
+	 *
+	 * @return the expected time of the next cloudlet completion among all the hosts
+	 */
+	private double updateActiveHosts() {
+		double currentTime = CloudSim.clock();
+		List<? extends HostEntity> hostList = getVmAllocationPolicy().getHostList();
+		updateHostPositions(hostList);
+
+		List<HostEntity> hosts = new ArrayList<>(activeHosts.cardinality());
+		for (int i = activeHosts.nextSetBit(0); i >= 0; i = activeHosts.nextSetBit(i + 1)) {
+			hosts.add(hostList.get(i));
+		}
+		double[] times = new double[hosts.size()];
+		// inform VMs to update processing
+		forEachHost(hosts, i -> times[i] = hosts.get(i).updateCloudletsProcessing(currentTime));
+		getVmAllocationPolicy().hostsUpdated(hosts);
+
+		double smallerTime = Double.MAX_VALUE;
+		for (int i = 0; i < hosts.size(); i++) {
+			HostEntity host = hosts.get(i);
+			// what time do we expect that the next cloudlet will finish?
+			if (times[i] < smallerTime) {
+				smallerTime = times[i];
+			}
+			if (isIdle(host) && isIdleHostUpdateSkippable(host)) {
+				activeHosts.clear(hostPositions.get(host));
+				inactiveHostUpdateTimes.put(host, currentTime);
+			}
+		}
+		if (hosts.size() == hostList.size()) {
+			allHostsUpdateTime = currentTime;
+		}
+		return smallerTime;
+	}
+
+	/**
+	 * Checks whether none of the guests of a host, nested ones included, has cloudlets to run.
+	 */
+	private static boolean isIdle(HostEntity host) {
+		for (GuestEntity guest : host.getGuestList()) {
+			CloudletScheduler scheduler = guest.getCloudletScheduler();
+			if (scheduler != null && (!scheduler.getCloudletExecList().isEmpty()
+					|| !scheduler.getCloudletWaitingList().isEmpty())) {
+				return false;
+			}
+			if (guest instanceof VirtualEntity vm && !isIdle(vm)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Indexes the positions of the hosts when the host list changes; the new hosts are active.
+	 */
+	private void updateHostPositions(List<? extends HostEntity> hostList) {
+		if (hostPositions.size() == hostList.size()) {
+			return;
+		}
+		hostPositions.clear();
+		activeHosts.clear();
+		for (int i = 0; i < hostList.size(); i++) {
+			HostEntity host = hostList.get(i);
+			hostPositions.put(host, i);
+			if (!inactiveHostUpdateTimes.containsKey(host)) {
+				activeHosts.set(i);
+			}
+		}
+	}
+
+	/**
+	 * Starts collecting the finished cloudlets of a guest from the completions reported by its
+	 * scheduler, with incremental host updates. It must be called before submitting a cloudlet to
+	 * the guest.
+	 *
+	 * @param guest the guest
+	 * @see #takeCompletedGuests(int)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected void watchCompletions(GuestEntity guest) {
+		if (!isIncrementalHostUpdates() || guest == null || guest.getCloudletScheduler() == null) {
+			return;
+		}
+		CloudletScheduler scheduler = guest.getCloudletScheduler();
+		if (completionGuests.put(scheduler, guest) != guest) {
+			scheduler.setCompletionQueue(completionQueue);
+			if (scheduler.isFinishedCloudlets()) {
+				completionQueue.add(scheduler);
+			}
+		}
+	}
+
+	/**
+	 * Takes the guests whose scheduler reported a completion since the last call, in the order
+	 * in which a full sweep of the hosts would visit them. Only the guests of this datacenter
+	 * nested at the given depth are returned, e.g., 1 for the guests of the hosts and 2 for
+	 * the guests of these guests.
+	 *
+	 * @param depth the depth of the guests
+	 * @return the guests which may have finished cloudlets
+	 * @see #watchCompletions(GuestEntity)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected List<GuestEntity> takeCompletedGuests(int depth) {
+		if (completionQueue.isEmpty()) {
+			return List.of();
+		}
+		updateHostPositions(getVmAllocationPolicy().getHostList());
+		Map<int[], GuestEntity> guests = new TreeMap<>(Arrays::compare);
+		for (CloudletScheduler scheduler : completionQueue) {
+			GuestEntity guest = completionGuests.get(scheduler);
+			int[] path = guest == null ? null : sweepPath(guest, depth);
+			if (path != null) {
+				guests.put(path, guest);
+			}
+		}
+		completionQueue.clear();
+		migrationTargets = null;
+		return new ArrayList<>(guests.values());
+	}
+
+	/**
+	 * Gets the position of a host in the host list followed by the index of the guest at each
+	 * level, or null if the guest is not nested at the given depth in a host of this datacenter.
+	 */
+	private int[] sweepPath(GuestEntity guest, int depth) {
+		int[] path = new int[depth + 1];
+		for (int level = depth; level > 0; level--) {
+			HostEntity host = level == 1 ? getFirstHostOf(guest) : guest.getHost();
+			if (host == null) {
+				return null;
+			}
+			path[level] = host.getGuestList().indexOf(guest);
+			if (path[level] < 0) {
+				return null;
+			}
+			if (level > 1) {
+				if (!(host instanceof GuestEntity parent)) {
+					return null;
+				}
+				guest = parent;
+			} else {
+				Integer position = hostPositions.get(host);
+				if (position == null) {
+					return null;
+				}
+				path[0] = position;
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * Gets the host of a guest which comes first in the host list. A guest migrating between two
+	 * hosts is in the guest lists of both, and may be reached first in its destination host.
+	 */
+	private HostEntity getFirstHostOf(GuestEntity guest) {
+		HostEntity first = guest.getHost();
+		if (guest.isInMigration()) {
+			if (migrationTargets == null) {
+				migrationTargets = new HashMap<>();
+				for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+					for (GuestEntity migrating : host.getGuestsMigratingIn()) {
+						migrationTargets.putIfAbsent(migrating, host);
 					}
 				}
 			}
+			HostEntity target = migrationTargets.get(guest);
+			Integer firstPosition = first == null ? null : hostPositions.get(first);
+			if (target != null && (firstPosition == null || hostPositions.get(target) < firstPosition)) {
+				first = target;
+			}
 		}
+		return first;
 	}
 
 	/**
@@ -9,14 +9,23 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.cloudbus.cloudsim.core.*;
+import org.cloudbus.cloudsim.lists.CloudletArrayList;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.GuestArrayList;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.util.WorkloadJob;
 
 /**
  * DatacentreBroker represents a broker acting on behalf of a user. It hides VM management, as vm
@@ -76,6 +85,33 @@ public class DatacenterBroker extends SimEntity {
 	/** Next guest to which send the cloudlet */
 	private int guestIndex = 0;
 
+	/** The jobs of the submitted workload which have not arrived yet, or null if there is no workload. */
+	private Iterator<WorkloadJob> workload;
+
+	/** The next job of the {@link #workload}, whose arrival has been scheduled, or null. */
+	private WorkloadJob nextJob;
+
+	/** Whether the submitted and received cloudlets are kept in their lists. */
+	private boolean retainCloudlets = true;
+
+	/** The number of received cloudlets, whether they are kept or not. */
+	private int cloudletsReceived;
+
+	/**
+	 * The cloudlets of the cloudlet list which have been postponed, since the guest they are bound
+	 * to has not been created, so that their guest is not looked up again at every submission.
+	 */
+	private Set<Cloudlet> postponedCloudlets = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/** The ids of the guests to which the postponed cloudlets are bound. */
+	private Set<Integer> postponedGuestIds = new HashSet<>();
+
+	/** Whether the cloudlets are submitted to the datacenters in batches. */
+	private boolean cloudletBatchSubmission;
+
+	/** The cloudlets of the current submission to send in batches, by datacenter id. */
+	private final Map<Integer, List<Cloudlet>> cloudletBatches = new LinkedHashMap<>();
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -87,9 +123,9 @@ public class DatacenterBroker extends SimEntity {
 	public DatacenterBroker(String name) throws Exception {
 		super(name);
 
-		setGuestList(new ArrayList<>());
-		setGuestsCreatedList(new ArrayList<>());
-		setCloudletList(new ArrayList<>());
+		setGuestList(new GuestArrayList<>());
+		setGuestsCreatedList(new GuestArrayList<>());
+		setCloudletList(new CloudletArrayList<>());
 		setCloudletSubmittedList(new ArrayList<>());
 		setCloudletReceivedList(new ArrayList<>());
 
@@ -133,6 +169,78 @@ public class DatacenterBroker extends SimEntity {
 		getCloudletList().addAll(list);
 	}
 
+	/**
+	 * This method is used to send to the broker a workload, whose jobs are only read when they
+	 * arrive. Once the VMs are created, the arrival of one job at a time is scheduled at its submit
+	 * time, when the cloudlet of the job is assigned to the broker and submitted as those of
+	 * {@link #submitCloudletList(List)}. Hence only the jobs which have arrived are kept in memory,
+	 * instead of the whole workload. The submitted and received cloudlets are still kept in their
+	 * lists, unless {@link #setRetainCloudlets(boolean)} is disabled.
+	 *
+	 * @param workload the jobs, in the order of their submit times
+	 * @since CloudSim Toolkit 7.0
+	 * @see org.cloudbus.cloudsim.util.WorkloadModel#streamWorkload()
+	 */
+	public void submitWorkload(Iterator<WorkloadJob> workload) {
+		this.workload = workload;
+		if (!getGuestsCreatedList().isEmpty()) {
+			scheduleNextArrival();
+		}
+	}
+
+	/**
+	 * Sets whether the submitted and received cloudlets are kept in the
+	 * {@link #getCloudletSubmittedList()} and the {@link #getCloudletReceivedList()}, which is the
+	 * default. Otherwise the finished cloudlets are not referenced by the broker anymore, so that
+	 * a long workload does not have to fit in memory; its results can then be collected by
+	 * overriding {@link #processCloudletReturn(Cloudlet)}.
+	 *
+	 * @param retainCloudlets true to keep the submitted and received cloudlets, false otherwise
+	 * @since CloudSim Toolkit 7.0
+	 * @see #submitWorkload(Iterator)
+	 */
+	public void setRetainCloudlets(boolean retainCloudlets) {
+		this.retainCloudlets = retainCloudlets;
+	}
+
+	/**
+	 * Checks whether the submitted and received cloudlets are kept in their lists.
+	 *
+	 * @return true if the cloudlets are kept, false otherwise
+	 * @see #setRetainCloudlets(boolean)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isRetainCloudlets() {
+		return retainCloudlets;
+	}
+
+	/**
+	 * Sets whether the cloudlets are submitted to the datacenters in batches. In this mode, the
+	 * cloudlets sent to a datacenter by {@link #submitCloudlets()} are sent in a single
+	 * {@link CloudActionTags#CLOUDLET_SUBMIT_BATCH} event instead of one event per cloudlet, and
+	 * the datacenter returns the cloudlets finishing at the same time in a single
+	 * {@link CloudActionTags#CLOUDLET_RETURN_BATCH} event. The returned cloudlets are processed
+	 * one by one by {@link #processCloudletReturn(SimEvent)}, as if each of them had been
+	 * returned in a {@link CloudActionTags#CLOUDLET_RETURN} event.
+	 *
+	 * @param cloudletBatchSubmission true to submit the cloudlets in batches, false to submit them one by one
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void setCloudletBatchSubmission(boolean cloudletBatchSubmission) {
+		this.cloudletBatchSubmission = cloudletBatchSubmission;
+	}
+
+	/**
+	 * Checks whether the cloudlets are submitted to the datacenters in batches.
+	 *
+	 * @return true if the cloudlets are submitted in batches, false otherwise
+	 * @see #setCloudletBatchSubmission(boolean)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isCloudletBatchSubmission() {
+		return cloudletBatchSubmission;
+	}
+
 	/**
 	 * Specifies that a given cloudlet must run in a specific virtual machine.
 	 * 
@@ -165,6 +273,14 @@ public class DatacenterBroker extends SimEntity {
         } else if (tag == CloudActionTags.CLOUDLET_RETURN) {
             processCloudletReturn(ev);
 
+            // Several finished cloudlets returned
+        } else if (tag == CloudActionTags.CLOUDLET_RETURN_BATCH) {
+            processCloudletReturnBatch(ev);
+
+            // The next job of the workload arrived
+        } else if (tag == CloudActionTags.VM_BROKER_EVENT && nextJob != null) {
+            processWorkloadArrival(ev);
+
             // if the simulation finishes
         } else if (tag == CloudActionTags.END_OF_SIMULATION) {
             shutdownEntity();
@@ -275,13 +391,42 @@ public class DatacenterBroker extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletReturn(SimEvent ev) {
-		Cloudlet cloudlet = (Cloudlet) ev.getData();
-		getCloudletReceivedList().add(cloudlet);
+		processCloudletReturn((Cloudlet) ev.getData());
+	}
+
+	/**
+	 * Process the return of several cloudlets at once. Each cloudlet is processed by
+	 * {@link #processCloudletReturn(SimEvent)} with a copy of the event carrying only this
+	 * cloudlet, so that the brokers overriding it process the cloudlets returned in batches too.
+	 *
+	 * @param ev a SimEvent object, whose data is an array of cloudlets
+	 * @pre ev != $null
+	 * @post $none
+	 * @see #setCloudletBatchSubmission(boolean)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected void processCloudletReturnBatch(SimEvent ev) {
+		for (Cloudlet cloudlet : (Cloudlet[]) ev.getData()) {
+			processCloudletReturn(ev.copy(CloudActionTags.CLOUDLET_RETURN, cloudlet));
+		}
+	}
+
+	/**
+	 * Process a returned cloudlet, whether it has been returned alone or in a batch.
+	 *
+	 * @param cloudlet the returned cloudlet
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected void processCloudletReturn(Cloudlet cloudlet) {
+		if (isRetainCloudlets()) {
+			getCloudletReceivedList().add(cloudlet);
+		}
+		cloudletsReceived++;
 		Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": ", cloudlet.getClass().getSimpleName(), " #", cloudlet.getCloudletId(),
 				" return received");
-		Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": The number of finished Cloudlets is:", getCloudletReceivedList().size());
+		Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": The number of finished Cloudlets is:", cloudletsReceived);
 		cloudletsSubmitted--;
-		if (getCloudletList().isEmpty() && cloudletsSubmitted == 0) { // all cloudlets executed
+		if (getCloudletList().isEmpty() && cloudletsSubmitted == 0 && !hasWorkloadArrivals()) { // all cloudlets executed
 			Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": All Cloudlets executed. Finishing...");
 			clearDatacenters();
 			finishExecution();
@@ -296,6 +441,53 @@ public class DatacenterBroker extends SimEntity {
 		}
 	}
 
+	/**
+	 * Process the arrival of the next job of the workload. The jobs submitted at the same
+	 * time arrive together, then the arrival of the following job is scheduled.
+	 *
+	 * @param ev a SimEvent object
+	 * @pre ev != $null
+	 * @post $none
+	 * @see #submitWorkload(Iterator)
+	 */
+	protected void processWorkloadArrival(SimEvent ev) {
+		do {
+			Cloudlet cloudlet = nextJob.cloudlet();
+			cloudlet.setUserId(getId());
+			getCloudletList().add(cloudlet);
+			nextJob = workload.hasNext() ? workload.next() : null;
+		} while (nextJob != null && nextJob.submitTime() <= CloudSim.clock());
+
+		if (nextJob != null) {
+			scheduleArrival();
+		}
+		submitCloudlets();
+	}
+
+	/**
+	 * Schedules the arrival of the next job of the workload, if there is one and its arrival
+	 * is not scheduled yet.
+	 */
+	protected void scheduleNextArrival() {
+		if (nextJob == null && workload != null && workload.hasNext()) {
+			nextJob = workload.next();
+			scheduleArrival();
+		}
+	}
+
+	private void scheduleArrival() {
+		schedule(getId(), Math.max(0, nextJob.submitTime() - CloudSim.clock()), CloudActionTags.VM_BROKER_EVENT);
+	}
+
+	/**
+	 * Checks whether some jobs of the workload have not arrived yet.
+	 *
+	 * @return <tt>true</tt> if a job has not arrived, <tt>false</tt> otherwise
+	 */
+	protected boolean hasWorkloadArrivals() {
+		return nextJob != null || (workload != null && workload.hasNext());
+	}
+
 	/**
 	 * Process non-default received events that aren't processed by
          * the {@link #processEvent(org.cloudbus.cloudsim.core.SimEvent)} method.
@@ -352,8 +544,26 @@ public class DatacenterBroker extends SimEntity {
          * @see #submitCloudletList(java.util.List) 
 	 */
 	protected void submitCloudlets() {
-		List<Cloudlet> successfullySubmitted = new ArrayList<>();
-		for (Cloudlet cloudlet : getCloudletList()) {
+		List<Cloudlet> cloudlets = getCloudletList();
+		// the guests of the postponed cloudlets which have been created since
+		Set<Integer> createdGuestIds = new HashSet<>();
+		for (Integer guestId : postponedGuestIds) {
+			if (VmList.getById(getGuestsCreatedList(), guestId) != null) {
+				createdGuestIds.add(guestId);
+			}
+		}
+
+		Set<Cloudlet> successfullySubmitted = new HashSet<>();
+		Set<Cloudlet> stillPostponed = Collections.newSetFromMap(new IdentityHashMap<>());
+		Set<Integer> stillPostponedGuestIds = new HashSet<>();
+		for (Cloudlet cloudlet : cloudlets) {
+			// a postponed cloudlet whose guest has still not been created
+			if (postponedCloudlets.contains(cloudlet) && !createdGuestIds.contains(cloudlet.getGuestId())) {
+				stillPostponed.add(cloudlet);
+				stillPostponedGuestIds.add(cloudlet.getGuestId());
+				continue;
+			}
+
 			GuestEntity vm;
 			// if user didn't bind this cloudlet and it has not been executed yet
 			if (cloudlet.getGuestId() == -1) {
@@ -361,9 +571,8 @@ public class DatacenterBroker extends SimEntity {
 			} else { // submit to the specific vm
 				vm = VmList.getById(getGuestsCreatedList(), cloudlet.getGuestId());
 				if (vm == null) { // vm was not created
-					vm = VmList.getById(getGuestList(), cloudlet.getGuestId()); // check if exists in the submitted list
-
 					if(!Log.isDisabled()) {
+						vm = VmList.getById(getGuestList(), cloudlet.getGuestId()); // check if exists in the submitted list
 						if (vm != null) {
 							Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Postponing execution of cloudlet ",
 									cloudlet.getCloudletId(), ": bount ", vm.getClassName(), " #", vm.getId(), " not available");
@@ -372,25 +581,53 @@ public class DatacenterBroker extends SimEntity {
 									cloudlet.getCloudletId(), ": bount guest entity of id ", cloudlet.getGuestId(), " doesn't exist");
 						}
 					}
+					stillPostponed.add(cloudlet);
+					stillPostponedGuestIds.add(cloudlet.getGuestId());
 					continue;
 				}
 			}
 
-			if (!Log.isDisabled()) {
-				Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Sending ", cloudlet.getClass().getSimpleName(),
-						" #", cloudlet.getCloudletId(), " to " + vm.getClassName() + " #", vm.getId());
-			}
-			
-			cloudlet.setGuestId(vm.getId());
-			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudActionTags.CLOUDLET_SUBMIT, cloudlet);
-			cloudletsSubmitted++;
-			guestIndex = (guestIndex + 1) % getGuestsCreatedList().size();
-			getCloudletSubmittedList().add(cloudlet);
+			submitCloudlet(cloudlet, vm);
 			successfullySubmitted.add(cloudlet);
 		}
 
-		// remove submitted cloudlets from waiting list
-		getCloudletList().removeAll(successfullySubmitted);
+		for (Map.Entry<Integer, List<Cloudlet>> batch : cloudletBatches.entrySet()) {
+			sendNow(batch.getKey(), CloudActionTags.CLOUDLET_SUBMIT_BATCH, batch.getValue().toArray(new Cloudlet[0]));
+		}
+		cloudletBatches.clear();
+		postponedCloudlets = stillPostponed;
+		postponedGuestIds = stillPostponedGuestIds;
+
+		// remove submitted cloudlets from waiting list, which then only holds the postponed cloudlets
+		cloudlets.removeAll(successfullySubmitted);
+
+		scheduleNextArrival();
+	}
+
+	/**
+	 * Submits a cloudlet to a created guest, or adds it to the batch of its datacenter.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @param vm the guest
+	 */
+	private void submitCloudlet(Cloudlet cloudlet, GuestEntity vm) {
+		if (!Log.isDisabled()) {
+			Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Sending ", cloudlet.getClass().getSimpleName(),
+					" #", cloudlet.getCloudletId(), " to " + vm.getClassName() + " #", vm.getId());
+		}
+
+		cloudlet.setGuestId(vm.getId());
+		int datacenterId = getVmsToDatacentersMap().get(vm.getId());
+		if (isCloudletBatchSubmission()) {
+			cloudletBatches.computeIfAbsent(datacenterId, id -> new ArrayList<>()).add(cloudlet);
+		} else {
+			sendNow(datacenterId, CloudActionTags.CLOUDLET_SUBMIT, cloudlet);
+		}
+		cloudletsSubmitted++;
+		guestIndex = (guestIndex + 1) % getGuestsCreatedList().size();
+		if (isRetainCloudlets()) {
+			getCloudletSubmittedList().add(cloudlet);
+		}
 	}
 
 	/**
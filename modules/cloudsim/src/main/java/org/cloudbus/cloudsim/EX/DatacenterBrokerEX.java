@@ -178,11 +178,10 @@ public class DatacenterBrokerEX extends DatacenterBroker {
     }
 
     @Override
-    protected void processCloudletReturn(SimEvent ev) {
-        Cloudlet cloudlet = (Cloudlet) ev.getData();
+    protected void processCloudletReturn(Cloudlet cloudlet) {
         if (getLifeLength() <= 0) {
             // Will kill the broker if there are no more cloudlets.
-            super.processCloudletReturn(ev);
+            super.processCloudletReturn(cloudlet);
         } else {
 
             getCloudletReceivedList().add(cloudlet);
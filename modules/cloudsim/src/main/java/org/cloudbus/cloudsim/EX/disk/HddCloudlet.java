@@ -16,7 +16,7 @@ import org.cloudbus.cloudsim.EX.util.TextUtil;
  */
 public class HddCloudlet extends Cloudlet {
 
-    private static final UtilizationModelFull UTIL_MODEL_FULL = new UtilizationModelFull();
+    private static final UtilizationModelFull UTIL_MODEL_FULL = UtilizationModelFull.INSTANCE;
 
     /** The length of Cloudlet finished so far. */
     private long cloudletIOFinishedSoFar;
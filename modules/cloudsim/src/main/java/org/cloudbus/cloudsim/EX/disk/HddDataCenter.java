@@ -1,9 +1,7 @@
 package org.cloudbus.cloudsim.EX.disk;
 
 import org.cloudbus.cloudsim.*;
-import org.cloudbus.cloudsim.core.CloudActionTags;
 import org.cloudbus.cloudsim.core.HostEntity;
-import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.EX.DatacenterEX;
 import org.cloudbus.cloudsim.EX.delay.IVmBootDelayDistribution;
 import org.cloudbus.cloudsim.EX.util.CustomLog;
@@ -48,13 +46,13 @@ public class HddDataCenter extends DatacenterEX {
      * (non-Javadoc)
      * 
      * @see
-     * org.cloudbus.cloudsim.Datacenter#processCloudletSubmit(org.cloudbus.cloudsim
-     * .plus.SimEvent, boolean)
+     * org.cloudbus.cloudsim.Datacenter#submitCloudlet(org.cloudbus.cloudsim
+     * .Cloudlet, boolean)
      */
     @Override
-    protected void processCloudletSubmit(final SimEvent ev, final boolean ack) {
+    protected double submitCloudlet(final Cloudlet cloudlet, final boolean ack) {
         try {
-            HddCloudlet cl = (HddCloudlet) ev.getData();
+            HddCloudlet cl = (HddCloudlet) cloudlet;
 
             int userId = cl.getUserId();
             int vmId = cl.getGuestId();
@@ -80,7 +78,7 @@ public class HddDataCenter extends DatacenterEX {
                     CustomLog.printf("VM/Server %d on host %d in data center %s(%d) is out of memory. "
                             + "It will not be further available", vm.getId(), host.getId(), getName(), getId());
                 } else {
-                    super.processCloudletSubmit(ev, ack);
+                    return super.submitCloudlet(cl, ack);
                 }
             } else {
                 scheduler.addFailedCloudlet(cl);
@@ -91,6 +89,7 @@ public class HddDataCenter extends DatacenterEX {
         } catch (Exception e) {
             CustomLog.logError(Level.SEVERE, "An error occurred when processing cloudlet sbmission", e);
         }
+        return 0.0;
     }
 
     @Override
@@ -103,7 +102,7 @@ public class HddDataCenter extends DatacenterEX {
                 while (vm.getCloudletScheduler().isFailedCloudlets()) {
                     Cloudlet cl = vm.getCloudletScheduler().getNextFailedCloudlet();
                     if (cl != null) {
-                        sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+                        returnCloudlet(cl);
                     }
                 }
             }
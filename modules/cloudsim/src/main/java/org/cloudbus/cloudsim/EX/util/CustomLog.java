@@ -12,6 +12,7 @@ import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Properties;
+import java.util.function.Supplier;
 import java.util.logging.*;
 
 /**
@@ -120,6 +121,22 @@ public class CustomLog {
         }
     }
 
+    /**
+     * Prints the message built by a supplier, which is only invoked if the
+     * level is high enough. To be used for messages which are costly to build.
+     * 
+     * @param level
+     *            - the level to use. If null the default level is used.
+     * @param message
+     *            - the supplier of the message.
+     * @since CloudSim Toolkit 7.0
+     */
+    public static void print(final Level level, final Supplier<?> message) {
+        if (isLevelHighEnough(level)) {
+            LOGGER.log(level == null ? DEFAULT_LEVEL : level, String.valueOf(message.get()));
+        }
+    }
+
     /**
      * Prints the message passed as an object. Simply uses toString
      * implementation. Uses the default log level.
@@ -227,9 +244,17 @@ public class CustomLog {
         }
     }
 
+    /**
+     * Returns if the messages of a level are printed, e.g., to avoid building
+     * a message which would not be printed.
+     * 
+     * @param level
+     *            - the level. If null the default level is used.
+     * @return - if the messages of the level are printed.
+     */
     public static boolean isLevelHighEnough(final Level level) {
-        return (level == null && DEFAULT_LEVEL.intValue() >= granularityLevel.intValue())
-                || (level != null && level.intValue() >= granularityLevel.intValue());
+        Level effectiveLevel = level == null ? DEFAULT_LEVEL : level;
+        return effectiveLevel.intValue() >= granularityLevel.intValue() && LOGGER.isLoggable(effectiveLevel);
     }
 
     /**
@@ -241,7 +266,7 @@ public class CustomLog {
      * @param args
      */
     public static void printf(final String format, final Object... args) {
-        printf(DEFAULT_LEVEL, String.format(format, args));
+        printf(DEFAULT_LEVEL, format, args);
     }
 
     /**
@@ -0,0 +1,30 @@
+package org.cloudbus.cloudsim.EX.util;
+
+/**
+ * An experiment that can be run within the same JVM as other experiments by
+ * {@link ExperimentsRunner#runExperimentsInProcess(java.util.List, int)}.
+ * Implementations must have a public no-arguments constructor and should keep
+ * their state in instance fields, so that several instances can run in parallel.
+ * 
+ * <br>
+ * <br>
+ * Experiment classes that do not implement this interface can still be run in
+ * process through their static main method, but then their result is not
+ * reported.
+ * 
+ * @since CloudSim Toolkit 7.0
+ */
+public interface Experiment {
+
+    /**
+     * Runs the experiment.
+     * 
+     * @param args
+     *            - the program arguments of the experiment.
+     * @return the result of the experiment, which is included in the report.
+     *         May be null.
+     * @throws Exception
+     *             - if the experiment fails.
+     */
+    Object run(String[] args) throws Exception;
+}
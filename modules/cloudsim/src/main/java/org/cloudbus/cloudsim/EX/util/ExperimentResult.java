@@ -0,0 +1,71 @@
+package org.cloudbus.cloudsim.EX.util;
+
+/**
+ * The outcome of an experiment run in process by {@link ExperimentsRunner}.
+ * 
+ * @since CloudSim Toolkit 7.0
+ */
+public class ExperimentResult {
+
+    private final ExperimentDefinition definition;
+    private final Object result;
+    private final Throwable error;
+    private final long wallClockMillis;
+    private final long allocatedBytes;
+
+    /**
+     * Constr.
+     * 
+     * @param definition
+     *            - the definition of the experiment.
+     * @param result
+     *            - the result returned by the experiment, or null.
+     * @param error
+     *            - the error thrown by the experiment, or null if it succeeded.
+     * @param wallClockMillis
+     *            - the wall clock time of the experiment, in milliseconds.
+     * @param allocatedBytes
+     *            - the number of heap bytes allocated by the experiment, or -1
+     *            if it could not be measured.
+     */
+    public ExperimentResult(ExperimentDefinition definition, Object result, Throwable error,
+            long wallClockMillis, long allocatedBytes) {
+        this.definition = definition;
+        this.result = result;
+        this.error = error;
+        this.wallClockMillis = wallClockMillis;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public ExperimentDefinition getDefinition() {
+        return definition;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    public long getWallClockMillis() {
+        return wallClockMillis;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return definition.getMainClass().getSimpleName() + " " + String.join(" ", definition.getArguements())
+                + ": " + (isSuccessful() ? "OK" : "FAILED (" + error + ")") + ", " + wallClockMillis + " ms"
+                + (allocatedBytes >= 0 ? ", " + allocatedBytes / (1024 * 1024) + " MB allocated" : "")
+                + (result != null ? ", result: " + result : "");
+    }
+}
@@ -0,0 +1,77 @@
+package org.cloudbus.cloudsim.EX.util;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of a set of experiments run in process by
+ * {@link ExperimentsRunner#runExperimentsInProcess(List, int)}, together with
+ * the overall wall clock time and the peak heap usage of the JVM.
+ * 
+ * @since CloudSim Toolkit 7.0
+ */
+public class ExperimentsReport {
+
+    private final List<ExperimentResult> results;
+    private final long wallClockMillis;
+    private final long peakHeapBytes;
+
+    /**
+     * Constr.
+     * 
+     * @param results
+     *            - the results of the experiments, in the order of their
+     *            definitions.
+     * @param wallClockMillis
+     *            - the wall clock time of all experiments, in milliseconds.
+     * @param peakHeapBytes
+     *            - the peak heap usage during the experiments, in bytes.
+     */
+    public ExperimentsReport(List<ExperimentResult> results, long wallClockMillis, long peakHeapBytes) {
+        this.results = Collections.unmodifiableList(results);
+        this.wallClockMillis = wallClockMillis;
+        this.peakHeapBytes = peakHeapBytes;
+    }
+
+    public List<ExperimentResult> getResults() {
+        return results;
+    }
+
+    public long getWallClockMillis() {
+        return wallClockMillis;
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    /**
+     * Returns the number of failed experiments.
+     * 
+     * @return the number of failed experiments.
+     */
+    public int getNumberOfFailures() {
+        int failures = 0;
+        for (ExperimentResult result : results) {
+            if (!result.isSuccessful()) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Prints the report.
+     * 
+     * @param out
+     *            - where to print the report.
+     */
+    public void print(final PrintStream out) {
+        for (ExperimentResult result : results) {
+            out.println(result);
+        }
+        out.println(results.size() + " experiments, " + getNumberOfFailures() + " failed, " + wallClockMillis
+                + " ms, peak heap " + peakHeapBytes / (1024 * 1024) + " MB");
+    }
+}
@@ -1,11 +1,17 @@
 package org.cloudbus.cloudsim.EX.util;
 
 import org.apache.commons.lang3.SystemUtils;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.util.SharedInputCache;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -13,11 +19,17 @@ import java.util.concurrent.Future;
 
 /**
  * 
- * A utility that runs a set of experiments in different JVM processes. Since
- * CloudSim makes heavy use of static data, experiments can not be run in
- * multiple threads within the same JVM. With this utility class one can spawn
- * multiple independent JVM process, redirect their standard outputs to a single
- * place and synchronize with their ends.
+ * A utility that runs a set of experiments in different JVM processes. With
+ * this utility class one can spawn multiple independent JVM process, redirect
+ * their standard outputs to a single place and synchronize with their ends.
+ * 
+ * <br>
+ * <br>
+ * Alternatively, the experiments can be run in parallel within the current JVM
+ * with {@link #runExperimentsInProcess(List, int)}, each one in its own
+ * {@link SimulationContext}. This avoids starting a JVM per experiment and lets
+ * the experiments share the immutable inputs (e.g. workload traces and network
+ * topologies) they read through the {@link SharedInputCache}.
  * 
  * <br>
  * <br>
@@ -99,6 +111,145 @@ public class ExperimentsRunner {
         System.err.println("All experiments are finished");
     }
 
+    /**
+     * Runs a set of experiments in parallel within the current JVM. Each
+     * experiment is run on a work-stealing pool in its own
+     * {@link SimulationContext}, while their completion is awaited by virtual
+     * threads. The {@link SharedInputCache} is enabled during the run, so that
+     * the experiments load their common immutable inputs only once.
+     * 
+     * <br>
+     * <br>
+     * If an experiment's main class implements {@link Experiment}, a new
+     * instance is created and run and its result is reported. Otherwise its
+     * static main method is invoked. Since the experiments share the JVM, they
+     * must not call {@link System#exit(int)} and must not keep simulation
+     * state in their own static fields. The heap sizes of the definitions and
+     * the JVM arguments (i.e. starting with -X or -D) are ignored.
+     * 
+     * @param experimentsDefs
+     *            - the experiments' definitions.
+     * @param numFreeCPUs
+     *            - number of processors to leave unused. Must be non-negative.
+     *            For example if 0 - all processors/cores can be used if
+     *            required.
+     * @return the report with the results of the experiments, in the order of
+     *         their definitions.
+     * @throws Exception
+     *             - if something goes wrong.
+     */
+    public static synchronized ExperimentsReport runExperimentsInProcess(
+            final List<ExperimentDefinition> experimentsDefs, final int numFreeCPUs) throws Exception {
+        // If possible leave the requested processors free
+        int cores = Runtime.getRuntime().availableProcessors();
+        int coresToUse = cores <= numFreeCPUs ? 1 : cores - numFreeCPUs;
+
+        boolean cacheEnabled = SharedInputCache.isEnabled();
+        SharedInputCache.setEnabled(true);
+        resetPeakHeapUsage();
+        long start = System.currentTimeMillis();
+
+        List<ExperimentResult> results = new ArrayList<>();
+        ExecutorService pool = Executors.newWorkStealingPool(coresToUse);
+        try (ExecutorService orchestrator = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ExperimentResult>> futures = new ArrayList<>();
+            for (final ExperimentDefinition def : experimentsDefs) {
+                futures.add(orchestrator.submit(() -> {
+                    ExperimentResult result = pool.submit(() -> runInProcess(def)).get();
+                    if (!result.isSuccessful()) {
+                        System.err.println("!!! Experiment " + def.getMainClass().getCanonicalName()
+                                + " has failed!!!");
+                        result.getError().printStackTrace();
+                    }
+                    return result;
+                }));
+            }
+
+            // Wait until all are finished
+            for (Future<ExperimentResult> future : futures) {
+                results.add(future.get());
+            }
+        } finally {
+            pool.shutdown();
+            SharedInputCache.setEnabled(cacheEnabled);
+            if (!cacheEnabled) {
+                SharedInputCache.clear();
+            }
+        }
+
+        ExperimentsReport report = new ExperimentsReport(results, System.currentTimeMillis() - start,
+                getPeakHeapUsage());
+        System.err.println();
+        System.err.println("All experiments are finished");
+        report.print(System.err);
+        return report;
+    }
+
+    private static ExperimentResult runInProcess(final ExperimentDefinition def) {
+        List<String> appParams = new ArrayList<>();
+        for (String param : def.getArguements()) {
+            if (param.startsWith("-X") || param.startsWith("-D")) {
+                System.err.println("Ignoring JVM argument " + param + " of experiment "
+                        + def.getMainClass().getCanonicalName());
+            } else {
+                appParams.add(param);
+            }
+        }
+        final String[] args = appParams.toArray(new String[0]);
+
+        long start = System.currentTimeMillis();
+        long allocatedBefore = getCurrentThreadAllocatedBytes();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = new SimulationContext().call(() -> invoke(def.getMainClass(), args));
+        } catch (InvocationTargetException e) {
+            error = e.getCause();
+        } catch (Exception | Error e) {
+            error = e;
+        }
+        long allocatedAfter = getCurrentThreadAllocatedBytes();
+
+        return new ExperimentResult(def, result, error, System.currentTimeMillis() - start,
+                allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore);
+    }
+
+    private static Object invoke(final Class<?> mainClass, final String[] args) throws Exception {
+        if (Experiment.class.isAssignableFrom(mainClass)) {
+            Experiment experiment = (Experiment) mainClass.getDeclaredConstructor().newInstance();
+            return experiment.run(args);
+        }
+        mainClass.getMethod("main", String[].class).invoke(null, (Object) args);
+        return null;
+    }
+
+    private static long getCurrentThreadAllocatedBytes() {
+        ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+        if (threadMxBean instanceof com.sun.management.ThreadMXBean sunThreadMxBean
+                && sunThreadMxBean.isThreadAllocatedMemoryEnabled()) {
+            return sunThreadMxBean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static void resetPeakHeapUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long getPeakHeapUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
     private static int[] getHeapArgs() {
         RuntimeMXBean runtimeMxBean = ManagementFactory.getRuntimeMXBean();
         List<String> arguments = runtimeMxBean.getInputArguments();
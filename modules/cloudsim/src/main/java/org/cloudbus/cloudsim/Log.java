@@ -10,10 +10,23 @@ package org.cloudbus.cloudsim;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.util.AsyncOutputStream;
 
 /**
  * Logger used for performing logging of the simulation process. It provides the ability to
  * substitute the output stream by any OutputStream subclass.
+ * <p>
+ * The output stream and the disabled flag are kept per {@link SimulationContext}. The settings of a
+ * new context are initialised from the ones of the default context.
+ * <p>
+ * The arguments of a call are evaluated even when the logger is disabled: messages which are costly
+ * to build, e.g. by formatting numbers or concatenating many values, should be passed as a
+ * {@link Supplier} to {@link #print(Supplier)} or {@link #println(Supplier)}, or their building
+ * guarded by {@link #isEnabled()}. To write the messages without waiting for the output, e.g.,
+ * to a file, use an {@link AsyncOutputStream} as output.
  * 
  * @author Anton Beloglazov
  * @author Remo Andreoli
@@ -24,15 +37,45 @@ public class Log {
 	/** The Constant LINE_SEPARATOR. */
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
-	/** The stream where the log will the outputted. */
-	private static OutputStream output;
+	/** The state of the logger in a simulation context. */
+	private static final class State {
+		/** The stream where the log will the outputted. */
+		private OutputStream output;
 
-	/** Indicates if the logger is disabled or not. If set to true,
-         the call for any print method has no effect. */
-	private static boolean disabled;
-	
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static final StringBuilder buffer = new StringBuilder();
+		/** Indicates if the logger is disabled or not. If set to true,
+	         the call for any print method has no effect. */
+		private boolean disabled;
+
+		/** Buffer to avoid creating new string builder upon every print. */
+		private final StringBuilder buffer = new StringBuilder();
+
+		private State() {
+		}
+
+		private State(State other) {
+			output = other.output;
+			disabled = other.disabled;
+		}
+	}
+
+	/** The state of the logger in the default simulation context. */
+	private static final State DEFAULT_STATE = new State();
+
+	/** The buffer capturing the messages printed by each thread, if any. */
+	private static final ThreadLocal<StringBuilder> CAPTURE = new ThreadLocal<>();
+
+	/**
+	 * Gets the state of the logger in the current simulation context.
+	 *
+	 * @return the state of the logger
+	 */
+	private static State state() {
+		SimulationContext context = SimulationContext.current();
+		if (context.isDefault()) {
+			return DEFAULT_STATE;
+		}
+		return context.getComponent(State.class, () -> new State(DEFAULT_STATE));
+	}
 
 	/**
 	 * Prints a message.
@@ -41,8 +84,18 @@ public class Log {
 	 */
 	public static void print(String message) {
 		if (!isDisabled()) {
+			StringBuilder capture = CAPTURE.get();
+			if (capture != null) {
+				capture.append(message);
+				return;
+			}
 			try {
-				getOutput().write(message.getBytes());
+				OutputStream output = getOutput();
+				if (output instanceof AsyncOutputStream asyncOutput) {
+					asyncOutput.write(message); // encoded by the writing thread
+				} else {
+					output.write(message.getBytes());
+				}
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -60,6 +113,18 @@ public class Log {
 		}
 	}
 
+	/**
+	 * Prints a message built only if the logger is enabled.
+	 * 
+	 * @param message the supplier of the message
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static void print(Supplier<?> message) {
+		if (!isDisabled()) {
+			print(String.valueOf(message.get()));
+		}
+	}
+
 	/**
 	 * Prints a message and a new line.
 	 * 
@@ -94,7 +159,7 @@ public class Log {
 	 */
 	public static void printConcat(Object... messages) {
 		if (!isDisabled()) {
-			buffer.setLength(0); // Clear the buffer		    
+			StringBuilder buffer = concatBuffer();
             for (Object message : messages) {
                 buffer.append(message);
             }
@@ -109,7 +174,7 @@ public class Log {
 	 */
 	public static void printlnConcat(Object... messages) {
 		if (!isDisabled()) {
-			buffer.setLength(0); // Clear the buffer		    
+			StringBuilder buffer = concatBuffer();
             for (Object message : messages) {
                 buffer.append(message);
             }
@@ -117,6 +182,79 @@ public class Log {
 		}
 	}
 
+	/**
+	 * Prints the concatenated text representation of two arguments and a new line.
+	 * Unlike {@link #printlnConcat(Object...)}, no array is created for the arguments,
+	 * which matters when the logger is disabled.
+	 *
+	 * @param m1 the first message
+	 * @param m2 the second message
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static void printlnConcat(Object m1, Object m2) {
+		if (!isDisabled()) {
+			println(concatBuffer().append(m1).append(m2));
+		}
+	}
+
+	/**
+	 * Prints the concatenated text representation of three arguments and a new line.
+	 *
+	 * @see #printlnConcat(Object, Object)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static void printlnConcat(Object m1, Object m2, Object m3) {
+		if (!isDisabled()) {
+			println(concatBuffer().append(m1).append(m2).append(m3));
+		}
+	}
+
+	/**
+	 * Prints the concatenated text representation of four arguments and a new line.
+	 *
+	 * @see #printlnConcat(Object, Object)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static void printlnConcat(Object m1, Object m2, Object m3, Object m4) {
+		if (!isDisabled()) {
+			println(concatBuffer().append(m1).append(m2).append(m3).append(m4));
+		}
+	}
+
+	/**
+	 * Prints the concatenated text representation of five arguments and a new line.
+	 *
+	 * @see #printlnConcat(Object, Object)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static void printlnConcat(Object m1, Object m2, Object m3, Object m4, Object m5) {
+		if (!isDisabled()) {
+			println(concatBuffer().append(m1).append(m2).append(m3).append(m4).append(m5));
+		}
+	}
+
+	/**
+	 * Prints the concatenated text representation of six arguments and a new line.
+	 *
+	 * @see #printlnConcat(Object, Object)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static void printlnConcat(Object m1, Object m2, Object m3, Object m4, Object m5, Object m6) {
+		if (!isDisabled()) {
+			println(concatBuffer().append(m1).append(m2).append(m3).append(m4).append(m5).append(m6));
+		}
+	}
+
+	/**
+	 * Gets an empty buffer to concatenate messages: the one of the logger, or a new one
+	 * while the messages are captured, since the buffer of the logger is shared by the threads.
+	 */
+	private static StringBuilder concatBuffer() {
+		StringBuilder buffer = CAPTURE.get() == null ? state().buffer : new StringBuilder();
+		buffer.setLength(0);
+		return buffer;
+	}
+
 	@Deprecated
 	public static void printConcatLine(Object... messages) { printlnConcat(messages);}
 	
@@ -134,6 +272,18 @@ public class Log {
 
 	@Deprecated
 	public static void printLine(Object message) { println(message); }
+
+	/**
+	 * Prints a message built only if the logger is enabled, and a new line.
+	 * 
+	 * @param message the supplier of the message
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static void println(Supplier<?> message) {
+		if (!isDisabled()) {
+			println(String.valueOf(message.get()));
+		}
+	}
 	
 	
 	/**
@@ -160,13 +310,38 @@ public class Log {
 		}
 	}
 
+	/**
+	 * Runs a task, capturing the messages it prints in the current thread instead of writing them
+	 * to the output. It allows tasks running in parallel to print their messages later in a
+	 * deterministic order.
+	 *
+	 * @param task the task to run
+	 * @return the messages printed by the task
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static String capture(Runnable task) {
+		StringBuilder previous = CAPTURE.get();
+		StringBuilder capture = new StringBuilder();
+		CAPTURE.set(capture);
+		try {
+			task.run();
+		} finally {
+			if (previous == null) {
+				CAPTURE.remove();
+			} else {
+				CAPTURE.set(previous);
+			}
+		}
+		return capture.toString();
+	}
+
 	/**
 	 * Sets the output stream.
 	 * 
 	 * @param _output the new output
 	 */
 	public static void setOutput(OutputStream _output) {
-		output = _output;
+		state().output = _output;
 	}
 
 	/**
@@ -175,10 +350,11 @@ public class Log {
 	 * @return the output
 	 */
 	public static OutputStream getOutput() {
-		if (output == null) {
-			setOutput(System.out);
+		State state = state();
+		if (state.output == null) {
+			state.output = System.out;
 		}
-		return output;
+		return state.output;
 	}
 
 	/**
@@ -187,7 +363,7 @@ public class Log {
 	 * @param _disabled the new disabled
 	 */
 	public static void setDisabled(boolean _disabled) {
-		disabled = _disabled;
+		state().disabled = _disabled;
 	}
 
 	/**
@@ -196,7 +372,17 @@ public class Log {
 	 * @return true, if is disable
 	 */
 	public static boolean isDisabled() {
-		return disabled;
+		return state().disabled;
+	}
+
+	/**
+	 * Checks if the output is enabled, e.g., before building a costly message.
+	 * 
+	 * @return true, if is enabled
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static boolean isEnabled() {
+		return !isDisabled();
 	}
 
 	/**
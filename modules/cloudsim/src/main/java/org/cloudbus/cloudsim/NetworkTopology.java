@@ -9,15 +9,20 @@
 package org.cloudbus.cloudsim;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.network.DelayMatrix;
+import org.cloudbus.cloudsim.network.DelayMatrixType;
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
 import org.cloudbus.cloudsim.network.GraphReaderBrite;
 import org.cloudbus.cloudsim.network.TopologicalGraph;
 import org.cloudbus.cloudsim.network.TopologicalLink;
 import org.cloudbus.cloudsim.network.TopologicalNode;
+import org.cloudbus.cloudsim.util.SharedInputCache;
 
 /**
  * Implements the network layer in CloudSim. It reads a file in the <a href="http://www.cs.bu.edu/brite/user_manual/node29.html">BRITE format</a>,
@@ -30,6 +35,10 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * Nevertheless, each CloudSim entity must be mapped to one (and only one) BRITE node to allow
  * proper work of the network simulation. Each BRITE node can be mapped to only one entity at a
  * time.
+ * <p/>
+ * The topology is kept per {@link SimulationContext}, so that simulations running in parallel
+ * in the same JVM do not share it. When the {@link SharedInputCache} is enabled, the data parsed
+ * from a BRITE file is read only once and shared by all the simulations until they add links.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -40,34 +49,86 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * A private default constructor would be created to avoid instantiation.
  */
 public class NetworkTopology {
-        /**
-         * The BRITE id to use for the next node to be created in the network.
-         */
-	protected static int nextIdx = 0;
-
-	private static boolean networkEnabled = false;
-
-        /**
-         * A matrix containing the delay between every pair of nodes in the network.
-         */
-	protected static DelayMatrix_Float delayMatrix = null;
 
-        /**
-         * A matrix containing the bandwidth between every pair of nodes in the network.
-         */
-	protected static double[][] bwMatrix = null;
+	/** The network topology of a simulation context. */
+	protected static class Topology {
+	        /**
+	         * The BRITE id to use for the next node to be created in the network.
+	         */
+		protected int nextIdx = 0;
+
+		protected boolean networkEnabled = false;
+
+	        /**
+	         * A matrix containing the delay between every pair of nodes in the network.
+	         */
+		protected DelayMatrix delayMatrix = null;
+
+		/**
+		 * The type of the delay matrix.
+		 */
+		protected DelayMatrixType delayMatrixType = DelayMatrixType.DENSE;
+
+	        /**
+	         * A matrix containing the bandwidth between every pair of nodes in the network.
+	         * It is only created for {@link DelayMatrixType#isDense() dense} delay matrices.
+	         */
+		protected double[][] bwMatrix = null;
+
+	        /**
+	         * The Topological Graph of the network.
+	         */
+		protected TopologicalGraph graph = null;
+
+		/**
+	         * The map between CloudSim entities and BRITE entities.
+	         * Each key is a CloudSim entity ID and each value the corresponding
+	         * BRITE entity ID.
+	         */
+	        protected Map<Integer, Integer> map = null;
+
+		/**
+		 * Whether the graph and the matrices are shared with other simulations
+		 * through the {@link SharedInputCache}, so they must be copied before being modified.
+		 */
+		protected boolean shared = false;
+
+		/**
+		 * Whether the matrices are generated only when they are needed, instead of being
+		 * updated after each link is added.
+		 */
+		protected boolean batchBuild = false;
+
+		/**
+		 * Whether links have been added by a batch build since the matrices were generated.
+		 */
+		protected boolean matricesOutdated = false;
+	}
 
-        /**
-         * The Topological Graph of the network.
-         */
-	protected static TopologicalGraph graph = null;
+	/**
+	 * The immutable data generated from a BRITE file, which can be shared by the
+	 * simulations reading the same file.
+	 */
+	private static final class ParsedTopology {
+		private final TopologicalGraph graph;
+		private final DelayMatrix delayMatrix;
+		private final double[][] bwMatrix;
+
+		private ParsedTopology(TopologicalGraph graph, DelayMatrixType delayMatrixType) {
+			this.graph = graph;
+			this.delayMatrix = delayMatrixType.create(graph, false);
+			this.bwMatrix = delayMatrixType.isDense() ? createBwMatrix(graph, false) : null;
+		}
+	}
 
 	/**
-         * The map between CloudSim entities and BRITE entities.
-         * Each key is a CloudSim entity ID and each value the corresponding
-         * BRITE entity ID.
-         */
-        protected static Map<Integer, Integer> map = null;
+	 * Gets the network topology of the current simulation context.
+	 *
+	 * @return the network topology
+	 */
+	protected static Topology topology() {
+		return SimulationContext.current().getComponent(Topology.class, Topology::new);
+	}
 
 	/**
 	 * Creates the network topology if the file exists and can be successfully parsed. File is
@@ -78,15 +139,41 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void buildNetworkTopology(String fileName) {
+		buildNetworkTopology(fileName, DelayMatrixType.DENSE);
+	}
+
+	/**
+	 * Creates the network topology if the file exists and can be successfully parsed, using a
+	 * given type of delay matrix. The {@link DelayMatrixType#isDense() dense} matrices are the fastest,
+	 * while the other types allow simulating large topologies whose dense matrix does not fit in
+	 * the Java heap.
+	 *
+	 * @param fileName name of the BRITE file
+	 * @param delayMatrixType the type of the delay matrix
+	 * @pre fileName != null
+	 * @pre delayMatrixType != null
+	 * @post $none
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static void buildNetworkTopology(String fileName, DelayMatrixType delayMatrixType) {
 		Log.printlnConcat("Topology file: ", fileName);
 
-		// try to find the file
-		GraphReaderBrite reader = new GraphReaderBrite();
+		Topology topology = topology();
+		topology.delayMatrixType = delayMatrixType;
 
 		try {
-			graph = reader.readGraphFile(fileName);
-			map = new HashMap<>();
-			generateMatrices();
+			// the parsed file and its matrices are shared when running several simulations in the same JVM
+			ParsedTopology parsed = SharedInputCache.get("brite:" + delayMatrixType + ":" + Paths.get(fileName).toAbsolutePath(), () -> {
+				// try to find the file
+				GraphReaderBrite reader = new GraphReaderBrite();
+				return new ParsedTopology(reader.readGraphFile(fileName), delayMatrixType);
+			});
+			topology.graph = parsed.graph;
+			topology.delayMatrix = parsed.delayMatrix;
+			topology.bwMatrix = parsed.bwMatrix;
+			topology.shared = SharedInputCache.isEnabled();
+			topology.map = new HashMap<>();
+			topology.networkEnabled = true;
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
 			Log.printlnConcat("Problem in processing BRITE file. Network simulation is disabled. Error: ",
@@ -97,21 +184,74 @@ public class NetworkTopology {
 
 	/**
 	 * Generates the matrices used internally to set latency and bandwidth between elements.
+	 *
+	 * @param topology the topology to update
 	 */
-	private static void generateMatrices() {
+	private static void generateMatrices(Topology topology) {
 		// creates the delay matrix
-		delayMatrix = new DelayMatrix_Float(graph, false);
+		topology.delayMatrix = topology.delayMatrixType.create(topology.graph, false);
 
 		// creates the bw matrix
-		bwMatrix = createBwMatrix(graph, false);
+		if (topology.delayMatrixType.isDense()) {
+			topology.bwMatrix = createBwMatrix(topology.graph, false);
+		} else {
+			topology.bwMatrix = null;
+		}
 
-		networkEnabled = true;
+		topology.networkEnabled = true;
+	}
+
+	/**
+	 * Generates the matrices if links have been added since they were generated.
+	 *
+	 * @param topology the topology to update
+	 */
+	private static void updateMatrices(Topology topology) {
+		if (topology.matricesOutdated) {
+			generateMatrices(topology);
+			topology.matricesOutdated = false;
+		}
+	}
+
+	/**
+	 * Enables or disables the batch build of the network topology. While it is enabled,
+	 * {@link #addLink(int, int, double, double)} only adds the link to the topological graph and
+	 * the delay and bandwidth matrices are generated once, when a delay is first requested.
+	 * This is the fastest way of building a large topology link by link. While it is disabled
+	 * (the default), the matrices are updated after every link is added.
+	 *
+	 * @param batchBuild true to enable the batch build, false to disable it
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static void setBatchBuild(boolean batchBuild) {
+		Topology topology = topology();
+		topology.batchBuild = batchBuild;
+		if (!batchBuild) {
+			updateMatrices(topology);
+		}
+	}
+
+	/**
+	 * Checks whether the batch build of the network topology is enabled.
+	 *
+	 * @return true if the batch build is enabled, false otherwise
+	 * @see #setBatchBuild(boolean)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static boolean isBatchBuild() {
+		return topology().batchBuild;
 	}
 
 	/**
 	 * Adds a new link in the network topology.
          * The CloudSim entities that represent the source and destination of the link
          * will be mapped to BRITE entities.
+         * <p>
+         * Unless the {@link #setBatchBuild(boolean) batch build} is enabled, the delays between
+         * all pairs of nodes of a {@link DelayMatrixType#isDense() dense} delay matrix are updated
+         * incrementally in O(n<sup>2</sup>) time, while other delay matrices are generated again.
+         * The incrementally updated delays may differ from the ones of a matrix generated from
+         * scratch in their last bits, see {@link DelayMatrix_Float#addLink(int, int, float, boolean)}.
 	 * 
 	 * @param srcId ID of the CloudSim entity that represents the link's source node
 	 * @param destId ID of the CloudSim entity that represents the link's destination node
@@ -122,33 +262,71 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void addLink(int srcId, int destId, double bw, double lat) {
-
-		if (graph == null) {
-			graph = new TopologicalGraph();
+		Topology topology = topology();
+
+		// the matrices shared with other simulations are generated again instead of being updated
+		boolean regenerate = topology.shared;
+		if (topology.graph == null) {
+			topology.graph = new TopologicalGraph();
+		} else if (topology.shared) {
+			topology.graph = new TopologicalGraph(topology.graph);
+			topology.shared = false;
 		}
 
-		if (map == null) {
-			map = new HashMap<>();
+		if (topology.map == null) {
+			topology.map = new HashMap<>();
 		}
 
 		// maybe add the nodes
-		if (!map.containsKey(srcId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(srcId, nextIdx);
-			nextIdx++;
+		if (!topology.map.containsKey(srcId)) {
+			topology.graph.addNode(new TopologicalNode(topology.nextIdx));
+			topology.map.put(srcId, topology.nextIdx);
+			topology.nextIdx++;
 		}
 
-		if (!map.containsKey(destId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(destId, nextIdx);
-			nextIdx++;
+		if (!topology.map.containsKey(destId)) {
+			topology.graph.addNode(new TopologicalNode(topology.nextIdx));
+			topology.map.put(destId, topology.nextIdx);
+			topology.nextIdx++;
 		}
 
 		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
+		TopologicalLink link = new TopologicalLink(topology.map.get(srcId), topology.map.get(destId), (float) lat, (float) bw);
+		topology.graph.addLink(link);
+
+		if (topology.batchBuild) {
+			topology.matricesOutdated = true;
+			topology.networkEnabled = true;
+		} else if (regenerate || !(topology.delayMatrix instanceof DelayMatrix_Float)) {
+			// only the dense matrix can be updated incrementally
+			generateMatrices(topology);
+		} else {
+			addLinkToMatrices(topology, link);
+		}
 
-		generateMatrices();
+	}
 
+	/**
+	 * Updates the delay and bandwidth matrices with a new link, without generating them again.
+	 *
+	 * @param topology the topology to update
+	 * @param link the new link
+	 */
+	private static void addLinkToMatrices(Topology topology, TopologicalLink link) {
+		int nodes = topology.graph.getNumberOfNodes();
+		DelayMatrix_Float delayMatrix = (DelayMatrix_Float) topology.delayMatrix;
+		delayMatrix.addNodes(nodes);
+		delayMatrix.addLink(link.getSrcNodeID(), link.getDestNodeID(), link.getLinkDelay(), false);
+
+		if (topology.bwMatrix.length < nodes) {
+			double[][] mtx = new double[nodes][nodes];
+			for (int i = 0; i < topology.bwMatrix.length; i++) {
+				System.arraycopy(topology.bwMatrix[i], 0, mtx[i], 0, topology.bwMatrix[i].length);
+			}
+			topology.bwMatrix = mtx;
+		}
+		topology.bwMatrix[link.getSrcNodeID()][link.getDestNodeID()] = link.getLinkBw();
+		topology.bwMatrix[link.getDestNodeID()][link.getSrcNodeID()] = link.getLinkBw();
 	}
 
 	/**
@@ -194,7 +372,9 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void mapNode(int cloudSimEntityID, int briteID) {
-		if (networkEnabled) {
+		Topology topology = topology();
+		if (topology.networkEnabled) {
+			Map<Integer, Integer> map = topology.map;
 			try {
 				// this CloudSim entity was already mapped?
 				if (!map.containsKey(cloudSimEntityID)) {
@@ -222,9 +402,10 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void unmapNode(int cloudSimEntityID) {
-		if (networkEnabled) {
+		Topology topology = topology();
+		if (topology.networkEnabled) {
 			try {
-				map.remove(cloudSimEntityID);
+				topology.map.remove(cloudSimEntityID);
 			} catch (Exception e) {
 				Log.printlnConcat("Error in network unmapping. CloudSim node: ", cloudSimEntityID);
 			}
@@ -242,10 +423,12 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static double getDelay(int srcID, int destID) {
-		if (networkEnabled) {
+		Topology topology = topology();
+		if (topology.networkEnabled) {
+			updateMatrices(topology);
 			try {
 				// add the network latency
-				double delay = delayMatrix.getDelay(map.get(srcID), map.get(destID));
+				double delay = topology.delayMatrix.getDelay(topology.map.get(srcID), topology.map.get(destID));
 
 				return delay;
 			} catch (Exception e) {
@@ -265,7 +448,7 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static boolean isNetworkEnabled() {
-		return networkEnabled;
+		return topology().networkEnabled;
 	}
 
 }
@@ -17,6 +17,12 @@ package org.cloudbus.cloudsim;
  */
 public class UtilizationModelFull implements UtilizationModel {
 
+	/**
+	 * An instance which can be shared by any number of cloudlets, as the model has no state.
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static final UtilizationModelFull INSTANCE = new UtilizationModelFull();
+
 	/**
 	 * Gets the utilization percentage of a given resource
          * in relation to the total capacity of that resource allocated
@@ -17,6 +17,12 @@ package org.cloudbus.cloudsim;
  */
 public class UtilizationModelNull implements UtilizationModel {
 
+	/**
+	 * An instance which can be shared by any number of cloudlets, as the model has no state.
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static final UtilizationModelNull INSTANCE = new UtilizationModelNull();
+
 	@Override
 	public double getUtilization(double time) {
 		return 0;
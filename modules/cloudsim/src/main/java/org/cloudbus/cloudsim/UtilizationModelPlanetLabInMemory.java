@@ -3,6 +3,9 @@ package org.cloudbus.cloudsim;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.cloudbus.cloudsim.util.SharedInputCache;
 
 /**
  * Defines the resource utilization model based on 
@@ -28,15 +31,7 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	public UtilizationModelPlanetLabInMemory(String inputPath, double schedulingInterval)
 			throws NumberFormatException,
 			IOException {
-		data = new double[289];
-		setSchedulingInterval(schedulingInterval);
-		BufferedReader input = new BufferedReader(new FileReader(inputPath));
-		int n = data.length;
-		for (int i = 0; i < n - 1; i++) {
-			data[i] = Integer.parseInt(input.readLine()) / 100.0;
-		}
-		data[n - 1] = data[n - 2];
-		input.close();
+		this(inputPath, schedulingInterval, 289);
 	}
 	
 	/**
@@ -52,14 +47,30 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 			throws NumberFormatException,
 			IOException {
 		setSchedulingInterval(schedulingInterval);
-		data = new double[dataSamples];
-		BufferedReader input = new BufferedReader(new FileReader(inputPath));
-		int n = data.length;
-		for (int i = 0; i < n - 1; i++) {
-			data[i] = Integer.parseInt(input.readLine()) / 100.0;
+		data = SharedInputCache.get(
+				"planetlab:" + dataSamples + ":" + Paths.get(inputPath).toAbsolutePath(),
+				() -> readTrace(inputPath, dataSamples));
+	}
+
+	/**
+	 * Reads the samples of a PlanetLab trace file.
+	 *
+	 * @param inputPath The path of a PlanetLab datacenter trace.
+	 * @param dataSamples number of samples in the file
+	 * @return the utilization samples
+	 * @throws NumberFormatException the number format exception
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static double[] readTrace(String inputPath, int dataSamples) throws IOException {
+		double[] data = new double[dataSamples];
+		try (BufferedReader input = new BufferedReader(new FileReader(inputPath))) {
+			int n = data.length;
+			for (int i = 0; i < n - 1; i++) {
+				data[i] = Integer.parseInt(input.readLine()) / 100.0;
+			}
+			data[n - 1] = data[n - 2];
 		}
-		data[n - 1] = data[n - 2];
-		input.close();
+		return data;
 	}
 
 	@Override
@@ -94,6 +105,12 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 		return schedulingInterval;
 	}
 	
+	/**
+	 * Gets the utilization samples. The returned array may be shared with other models
+	 * reading the same trace (see {@link SharedInputCache}), so it must not be modified.
+	 *
+	 * @return the utilization samples
+	 */
 	public double[] getData(){
 		return data;
 	}
@@ -12,9 +12,11 @@ import org.cloudbus.cloudsim.container.core.Container;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.util.GuestKeyMap;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -54,9 +56,9 @@ public abstract class VmAllocationPolicy {
 	private List<? extends HostEntity> hostList;
 
 	/** The map between each guest and its allocated host.
-	 * The map key is a guest UID and the value is the allocated host for that VM.
+	 * The map key is a guest key (or UID) and the value is the allocated host for that VM.
 	 */
-	private Map<String, HostEntity> guestTable;
+	private GuestKeyMap<HostEntity> guestTable;
 
 	/**
 	 * Creates a new VmAllocationPolicy object.
@@ -67,7 +69,7 @@ public abstract class VmAllocationPolicy {
 	 */
 	public VmAllocationPolicy(List<? extends HostEntity> list) {
 		setHostList(list);
-		setGuestTable(new HashMap<>());
+		setGuestTable(new GuestKeyMap<>());
 	}
 
 	/**
@@ -112,7 +114,7 @@ public abstract class VmAllocationPolicy {
 		}
 
 		if (host.guestCreate(guest)) { // if vm has been successfully created in the host
-			getGuestTable().put(guest.getUid(), host);
+			getGuestTable().put(guest.getKey(), host);
 			Log.printlnConcat(CloudSim.clock(), ": ", datacenterName, ".guestAllocator: ", guest.getClassName(), " #", guest.getId(), " has been allocated to ", host.getClassName(), " #", host.getId());
 			return true;
 		}
@@ -145,7 +147,7 @@ public abstract class VmAllocationPolicy {
 	 * @post $none
 	 */
 	public void deallocateHostForGuest(GuestEntity guest) {
-		HostEntity host = getGuestTable().remove(guest.getUid());
+		HostEntity host = getGuestTable().remove(guest.getKey());
 		if (host != null) {
 			host.guestDestroy(guest);
 		}
@@ -154,6 +156,15 @@ public abstract class VmAllocationPolicy {
 	@Deprecated
 	public void deallocateHostForVm(Vm vm) { deallocateHostForGuest(vm); }
 
+	/**
+	 * Notifies that some hosts have updated the processing of their guests, which may have changed
+	 * the resources allocated to the guests. It does nothing by default.
+	 *
+	 * @param hosts the updated hosts
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void hostsUpdated(List<? extends HostEntity> hosts) { }
+
 	/**
 	 * Find host for guest entity.
 	 *
@@ -166,8 +177,8 @@ public abstract class VmAllocationPolicy {
 	public Host findHostForVm(Vm vm) { return (Host) findHostForGuest(vm); }
 
 
-	public Map<String, HostEntity> getGuestTable() { return guestTable; }
-	protected void setGuestTable(Map<String, HostEntity> guestTable) { this.guestTable = guestTable; }
+	public GuestKeyMap<HostEntity> getGuestTable() { return guestTable; }
+	protected void setGuestTable(GuestKeyMap<HostEntity> guestTable) { this.guestTable = guestTable; }
 
 	/**
 	 * Get the host that is executing the given VM.
@@ -177,10 +188,10 @@ public abstract class VmAllocationPolicy {
 	 * @pre $none
 	 * @post $none
 	 */
-	public HostEntity getHost(GuestEntity guest) { return getGuestTable().get(guest.getUid()); }
+	public HostEntity getHost(GuestEntity guest) { return getGuestTable().get(guest.getKey()); }
 
 	@Deprecated
-	public Host getHost(Vm vm) { return (Host) getGuestTable().get(vm.getUid()); }
+	public Host getHost(Vm vm) { return (Host) getGuestTable().get(vm.getKey()); }
 
 	/**
 	 * Get the host that is executing the given VM belonging to the given user.
@@ -191,7 +202,7 @@ public abstract class VmAllocationPolicy {
 	 * @pre $none
 	 * @post $none
 	 */
-	public HostEntity getHost(int vmId, int userId) { return getGuestTable().get(GuestEntity.getUid(userId, vmId)); };
+	public HostEntity getHost(int vmId, int userId) { return getGuestTable().get(GuestEntity.getKey(userId, vmId)); };
 
 	/**
 	 * Sets the host list.
@@ -214,4 +225,40 @@ public abstract class VmAllocationPolicy {
 
 	// Needed by ContainerCloudSim
 	public <T extends Datacenter> void setDatacenter(T datacenter) { }
+
+	/**
+	 * Gets the positions of the hosts sharing a guest with another host of a list, which cannot
+	 * be updated or even checked in parallel, since reading a guest may change it (e.g., a
+	 * stochastic utilization is drawn when first read): the hosts of a guest migrating from one
+	 * to the other, which is in both guest lists, and the hosts of guests which are in the list
+	 * themselves.
+	 *
+	 * @param hosts the hosts
+	 * @return the positions of the hosts sharing a guest
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static BitSet getHostsSharingGuests(List<? extends HostEntity> hosts) {
+		BitSet sharing = new BitSet(hosts.size());
+		Map<HostEntity, Integer> positions = null;
+		for (int i = 0; i < hosts.size(); i++) {
+			for (GuestEntity guest : hosts.get(i).getGuestList()) {
+				if (guest.isInMigration()) {
+					sharing.set(i);
+				} else if (guest instanceof HostEntity nested && !nested.getGuestList().isEmpty()) {
+					if (positions == null) {
+						positions = new IdentityHashMap<>();
+						for (int j = 0; j < hosts.size(); j++) {
+							positions.put(hosts.get(j), j);
+						}
+					}
+					Integer position = positions.get(nested);
+					if (position != null) {
+						sharing.set(i);
+						sharing.set(position);
+					}
+				}
+			}
+		}
+		return sharing;
+	}
 }
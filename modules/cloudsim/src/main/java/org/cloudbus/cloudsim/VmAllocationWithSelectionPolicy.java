@@ -1,5 +1,7 @@
 package org.cloudbus.cloudsim;
 
+import org.cloudbus.cloudsim.selectionPolicies.HostCapacityIndex;
+import org.cloudbus.cloudsim.selectionPolicies.RankedSelectionPolicy;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
@@ -15,6 +17,9 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
 
     private Set<HostEntity> excludedHostCandidates;
 
+    /** The index of the hosts by rank and capacity, or null if the hosts are scanned. */
+    private HostCapacityIndex<HostEntity> capacityIndex;
+
     public VmAllocationWithSelectionPolicy(List<? extends HostEntity> list, SelectionPolicy<HostEntity> selectionPolicy) {
         super(list);
         setExcludedHostCandidates(new HashSet<>());
@@ -22,14 +27,63 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
     }
 
     public SelectionPolicy<HostEntity> getSelectionPolicy() { return selectionPolicy; }
-    public void setSelectionPolicy(SelectionPolicy<HostEntity> selectionPolicy) { this.selectionPolicy = selectionPolicy; }
+    public void setSelectionPolicy(SelectionPolicy<HostEntity> selectionPolicy) {
+        this.selectionPolicy = selectionPolicy;
+        if (isCapacityIndexed()) {
+            setCapacityIndexed(true);
+        }
+    }
 
     public Set<HostEntity> getExcludedHostCandidates() { return excludedHostCandidates; }
     public void setExcludedHostCandidates(Set<HostEntity> excludedHostCandidates) { this.excludedHostCandidates = excludedHostCandidates; }
 
+    /**
+     * Enables or disables the host capacity index. When enabled, the host for a guest is selected
+     * through a {@link HostCapacityIndex}, which keeps the hosts sorted by the rank given by the
+     * selection policy and skips the hosts without enough available resources, instead of asking the
+     * policy to scan all the hosts, and then every remaining host after each unsuitable one.
+     * The selected hosts are the same.
+     * <p>
+     * The index is kept up to date for the guests allocated and deallocated through this policy,
+     * and for the hosts updated by the datacenter (see {@link #hostsUpdated(List)}). Any other
+     * change to the hosts must be notified through {@link #hostsUpdated(List)} as well.
+     * Guests already placed in a host are still placed by scanning the hosts.
+     *
+     * @param capacityIndexed true to select the hosts through an index, false to scan the hosts
+     * @throws UnsupportedOperationException if the selection policy does not rank the hosts
+     * @see RankedSelectionPolicy
+     * @since CloudSim Toolkit 7.0
+     */
+    public void setCapacityIndexed(boolean capacityIndexed) {
+        if (!capacityIndexed) {
+            capacityIndex = null;
+        } else if (getSelectionPolicy() instanceof RankedSelectionPolicy<HostEntity> rankedPolicy) {
+            capacityIndex = new HostCapacityIndex<>(getHostList(), rankedPolicy);
+        } else {
+            throw new UnsupportedOperationException(getSelectionPolicy().getClass().getSimpleName()
+                    + " does not rank the hosts, they cannot be indexed");
+        }
+    }
+
+    public boolean isCapacityIndexed() { return capacityIndex != null; }
+
     @Override
     public HostEntity findHostForGuest(GuestEntity guest) {
         clearExcludedHostCandidates();
+        if (capacityIndex != null && capacityIndex.size() != getHostList().size()) {
+            setCapacityIndexed(true); // hosts have been added to the list
+        }
+        if (capacityIndex != null && guest.getHost() == null) {
+            // a guest placed in a host may fit there using the resources it already holds
+            HostEntity selectedHost;
+            while ((selectedHost = capacityIndex.select(guest, excludedHostCandidates)) != null) {
+                if (selectedHost.isSuitableForGuest(guest)) {
+                    return selectedHost;
+                }
+                excludedHostCandidates.add(selectedHost);
+            }
+            return null;
+        }
         int tries = 0;
 
         do{
@@ -48,6 +102,33 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
         return null;
     }
 
+    @Override
+    public boolean allocateHostForGuest(GuestEntity guest, HostEntity host) {
+        boolean result = super.allocateHostForGuest(guest, host);
+        if (capacityIndex != null && host != null) {
+            capacityIndex.invalidate(host);
+        }
+        return result;
+    }
+
+    @Override
+    public void deallocateHostForGuest(GuestEntity guest) {
+        HostEntity host = getHost(guest);
+        super.deallocateHostForGuest(guest);
+        if (capacityIndex != null && host != null) {
+            capacityIndex.invalidate(host);
+        }
+    }
+
+    @Override
+    public void hostsUpdated(List<? extends HostEntity> hosts) {
+        if (capacityIndex != null) {
+            for (HostEntity host : hosts) {
+                capacityIndex.invalidate(host);
+            }
+        }
+    }
+
     public void clearExcludedHostCandidates() {
         excludedHostCandidates.clear();
     }
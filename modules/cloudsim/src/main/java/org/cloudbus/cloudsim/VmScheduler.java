@@ -8,12 +8,11 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.util.GuestKeyMap;
 
 /**
  * VmScheduler is an abstract class that represents the policy used by a Virtual Machine Monitor (VMM) 
@@ -34,14 +33,14 @@ public abstract class VmScheduler {
 
 	/** The map of VMs to PEs, where each key is a VM id and each value is
          * a list of PEs allocated to that VM. */
-	private Map<String, List<Pe>> peMap;
+	private GuestKeyMap<List<Pe>> peMap;
 
 	/** The map of VMs to MIPS, were each key is a VM id and each value is
          * the currently allocated MIPS from the respective PE to that VM. 
          * The PEs where the MIPS capacity is get are defined
          * in the {@link #peMap}.
          */
-	private Map<String, List<Double>> mipsMapAllocated;
+	private GuestKeyMap<List<Double>> mipsMapAllocated;
 
 	/** The total available MIPS that can be allocated on demand for VMs. */
     private double availableMips;
@@ -61,8 +60,8 @@ public abstract class VmScheduler {
 	 */
 	public VmScheduler(List<? extends Pe> pelist) {
 		setPeList(pelist);
-		setPeMap(new HashMap<>());
-		setMipsMapAllocated(new HashMap<>());
+		setPeMap(new GuestKeyMap<>());
+		setMipsMapAllocated(new GuestKeyMap<>());
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 		setGuestsMigratingIn(new ArrayList<>());
 		setGuestsMigratingOut(new ArrayList<>());
@@ -126,7 +125,7 @@ public abstract class VmScheduler {
 	 * @return the pes allocated for the given vm
 	 */
 	public List<Pe> getPesAllocatedForGuest(GuestEntity guest) {
-		return getPeMap().get(guest.getUid());
+		return getPeMap().get(guest.getKey());
 	}
 
 	@Deprecated
@@ -143,7 +142,7 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public List<Double> getAllocatedMipsForGuest(GuestEntity guest) {
-		return getMipsMapAllocated().get(guest.getUid());
+		return getMipsMapAllocated().get(guest.getKey());
 	}
 
 	@Deprecated
@@ -214,11 +213,11 @@ public abstract class VmScheduler {
 	public List<? extends Pe> getPeList() { return peList; }
 	protected void setPeList(List<? extends Pe> peList) { this.peList = peList; }
 
-	public Map<String, List<Pe>> getPeMap() { return peMap; }
-	protected void setPeMap(Map<String, List<Pe>> peMap) { this.peMap = peMap; }
+	public GuestKeyMap<List<Pe>> getPeMap() { return peMap; }
+	protected void setPeMap(GuestKeyMap<List<Pe>> peMap) { this.peMap = peMap; }
 
-	public Map<String, List<Double>> getMipsMapAllocated() { return mipsMapAllocated; }
-	protected void setMipsMapAllocated(Map<String, List<Double>> mipsMapAllocated) { this.mipsMapAllocated = mipsMapAllocated; }
+	public GuestKeyMap<List<Double>> getMipsMapAllocated() { return mipsMapAllocated; }
+	protected void setMipsMapAllocated(GuestKeyMap<List<Double>> mipsMapAllocated) { this.mipsMapAllocated = mipsMapAllocated; }
 
 	public double getAvailableMips() { return availableMips; }
 	protected void setAvailableMips(double availableMips) { this.availableMips = availableMips; }
@@ -231,6 +230,32 @@ public abstract class VmScheduler {
 	public List<String> getGuestsMigratingOut() { return guestsMigratingOut; }
 	protected void setGuestsMigratingOut(List<String> guestsMigratingOut) { this.guestsMigratingOut = guestsMigratingOut; }
 
+	/**
+	 * Checks whether a guest is migrating in the host. The uid of the guest is only built if
+	 * some guest is migrating in.
+	 *
+	 * @param guestKey the guest key
+	 * @return true if the guest is migrating in the host
+	 * @see GuestEntity#getKey()
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isGuestMigratingIn(long guestKey) {
+		return !getGuestsMigratingIn().isEmpty() && getGuestsMigratingIn().contains(GuestEntity.getUid(guestKey));
+	}
+
+	/**
+	 * Checks whether a guest is migrating out of the host. The uid of the guest is only built if
+	 * some guest is migrating out.
+	 *
+	 * @param guestKey the guest key
+	 * @return true if the guest is migrating out of the host
+	 * @see GuestEntity#getKey()
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isGuestMigratingOut(long guestKey) {
+		return !getGuestsMigratingOut().isEmpty() && getGuestsMigratingOut().contains(GuestEntity.getUid(guestKey));
+	}
+
 	@Deprecated
 	public List<String> getVmsMigratingIn() { return getGuestsMigratingIn(); }
 
@@ -239,5 +264,5 @@ public abstract class VmScheduler {
 	public List<String> getVmsMigratingOut() { return getGuestsMigratingOut(); }
 
 	@Deprecated
-	public Map<String, List<Double>> getMipsMap() { return mipsMapAllocated; }
+	public java.util.Map<String, List<Double>> getMipsMap() { return mipsMapAllocated; }
 }
@@ -9,12 +9,11 @@
 package org.cloudbus.cloudsim;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.GuestKeyMap;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 /**
  * VmSchedulerSpaceShared is a VMM allocation policy that allocates one or more PEs from a host to a 
@@ -32,7 +31,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 
 	/** A map between each VM and its allocated PEs, where the key is a VM ID and
          * the value a list of PEs allocated to VM. */
-	private Map<String, List<Pe>> peAllocationMap;
+	private GuestKeyMap<List<Pe>> peAllocationMap;
 
 	/** The list of free PEs yet available in the host. */
 	private List<Pe> freePes;
@@ -44,7 +43,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 */
 	public VmSchedulerSpaceShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setPeAllocationMap(new HashMap<>());
+		setPeAllocationMap(new GuestKeyMap<>());
 		setFreePes(new ArrayList<>());
 		getFreePes().addAll(pelist);
 	}
@@ -77,8 +76,8 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 
 		getFreePes().removeAll(selectedPes);
 
-		getPeAllocationMap().put(guest.getUid(), selectedPes);
-		getMipsMapAllocated().put(guest.getUid(), mipsShare);
+		getPeAllocationMap().put(guest.getKey(), selectedPes);
+		getMipsMapAllocated().put(guest.getKey(), mipsShare);
 		setAvailableMips(getAvailableMips() - totalMips);
 		guest.setCurrentAllocatedMips(mipsShare);
 
@@ -87,16 +86,15 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 
 	@Override
 	public void deallocatePesForGuest(GuestEntity guest) {
-		getFreePes().addAll(getPeAllocationMap().get(guest.getUid()));
-		getPeAllocationMap().remove(guest.getUid());
+		getFreePes().addAll(getPeAllocationMap().remove(guest.getKey()));
 
 		double totalMips = 0;
-		for (double mips : getMipsMapAllocated().get(guest.getUid())) {
+		for (double mips : getMipsMapAllocated().get(guest.getKey())) {
 			totalMips += mips;
 		}
 		setAvailableMips(getAvailableMips() + totalMips);
 
-		getMipsMapAllocated().remove(guest.getUid());
+		getMipsMapAllocated().remove(guest.getKey());
 	}
 
 	/**
@@ -104,7 +102,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @param peAllocationMap the pe allocation map
 	 */
-	protected void setPeAllocationMap(Map<String, List<Pe>> peAllocationMap) {
+	protected void setPeAllocationMap(GuestKeyMap<List<Pe>> peAllocationMap) {
 		this.peAllocationMap = peAllocationMap;
 	}
 
@@ -113,7 +111,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @return the pe allocation map
 	 */
-	protected Map<String, List<Pe>> getPeAllocationMap() {
+	protected GuestKeyMap<List<Pe>> getPeAllocationMap() {
 		return peAllocationMap;
 	}
 
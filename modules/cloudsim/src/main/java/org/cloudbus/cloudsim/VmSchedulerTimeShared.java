@@ -8,15 +8,15 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.PeProvisioner;
+import org.cloudbus.cloudsim.util.GuestKeyMap;
 
 /**
  * VmSchedulerTimeShared is a Virtual Machine Monitor (VMM) allocation policy that allocates one or more PEs 
@@ -36,11 +36,71 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	/** The map of requested mips, where each key is a VM
          * and each value is a list of MIPS requested by that VM. 
          */
-	private Map<String, List<Double>> mipsMapRequested;
+	private GuestKeyMap<List<Double>> mipsMapRequested;
 
 	/** The number of host's PEs in use. */
 	private int pesInUse;
 
+	/**
+	 * The spread of the MIPS share of each VM among the PEs at the last
+	 * {@link #updatePeProvisioning() update}, in the order of the allocated MIPS map.
+	 */
+	private final List<PeSpread> peSpreads = new ArrayList<>();
+
+	/** The spread of the MIPS share of a VM among the PEs. */
+	private static final class PeSpread {
+		private final long guestKey;
+
+		/** The MIPS share that was spread. */
+		private final double[] share;
+
+		/** The PE and its available MIPS before the spread. */
+		private final int startPe;
+		private final double startAvailableMips;
+
+		/** The PE and its available MIPS after the spread. */
+		private int endPe;
+		private double endAvailableMips;
+
+		/** The PE and MIPS of each provisioning, in order. */
+		private int[] pes = new int[2];
+		private double[] mips = new double[2];
+		private int size;
+
+		private PeSpread(long guestKey, List<Double> share, int startPe, double startAvailableMips) {
+			this.guestKey = guestKey;
+			this.share = new double[share.size()];
+			for (int i = 0; i < this.share.length; i++) {
+				this.share[i] = share.get(i);
+			}
+			this.startPe = startPe;
+			this.startAvailableMips = startAvailableMips;
+		}
+
+		private void add(int pe, double allocatedMips) {
+			if (size == pes.length) {
+				pes = Arrays.copyOf(pes, size * 2);
+				mips = Arrays.copyOf(mips, size * 2);
+			}
+			pes[size] = pe;
+			mips[size++] = allocatedMips;
+		}
+
+		/** Checks whether this is the spread of the current MIPS share of a VM. */
+		private boolean isSpreadOf(GuestKeyMap.Entry<List<Double>> entry) {
+			List<Double> current = entry.getValue();
+			if (entry.getGuestKey() != guestKey || current.size() != share.length) {
+				return false;
+			}
+			for (int i = 0; i < share.length; i++) {
+				if (current.get(i) != share[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 	/**
 	 * Instantiates a new vm time-shared scheduler.
 	 * 
@@ -48,7 +108,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	public VmSchedulerTimeShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setMipsMapRequested(new HashMap<>());
+		setMipsMapRequested(new GuestKeyMap<>());
 	}
 
 	@Override
@@ -63,7 +123,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		} else {
 			getGuestsMigratingOut().remove(guest.getUid());
 		}
-		boolean result = allocatePesForGuest(guest.getUid(), mipsShareRequested);
+		boolean result = allocatePesForGuest(guest.getKey(), mipsShareRequested);
 		updatePeProvisioning();
 		return result;
 	}
@@ -71,11 +131,12 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	/**
 	 * Allocate PEs for a vm.
 	 * 
-	 * @param vmUid the vm uid
+	 * @param guestKey the vm key
 	 * @param mipsShareRequested the list of mips share requested by the vm
 	 * @return true, if successful
+	 * @see GuestEntity#getKey()
 	 */
-	protected boolean allocatePesForGuest(String vmUid, List<Double> mipsShareRequested) {
+	protected boolean allocatePesForGuest(long guestKey, List<Double> mipsShareRequested) {
 		double totalRequestedMips = 0;
 		double peMips = getPeCapacity();
 		for (Double mips : mipsShareRequested) {
@@ -91,94 +152,162 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			return false;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
+		getMipsMapRequested().put(guestKey, mipsShareRequested);
 		setPesInUse(getPesInUse() + mipsShareRequested.size());
 
-		if (getGuestsMigratingIn().contains(vmUid)) {
+		if (isGuestMigratingIn(guestKey)) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
 		List<Double> mipsShareAllocated = new ArrayList<>();
 		for (Double mipsRequested : mipsShareRequested) {
-			if (getGuestsMigratingOut().contains(vmUid)) {
+			if (isGuestMigratingOut(guestKey)) {
 				// performance degradation due to migration = 10% MIPS
 				mipsRequested *= 0.9;
-			} else if (getGuestsMigratingIn().contains(vmUid)) {
+			} else if (isGuestMigratingIn(guestKey)) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				mipsRequested *= 0.1;
 			}
 			mipsShareAllocated.add(mipsRequested);
 		}
 
-		getMipsMapAllocated().put(vmUid, mipsShareAllocated);
+		getMipsMapAllocated().put(guestKey, mipsShareAllocated);
 		setAvailableMips(getAvailableMips() - totalRequestedMips);
 
 		return true;
 	}
 
 	/**
-	 * Update allocation of VMs on PEs.
-         * @todo The method is too long and may be refactored to make clearer its
-         * responsibility.
+	 * Update allocation of VMs on PEs. The MIPS share of each VM is spread among the PEs in the
+	 * order of the {@link #getMipsMapAllocated() allocated MIPS map}, filling each PE before
+	 * moving to the next one. Since that map keeps the order in which the VMs were allocated,
+	 * and no longer the hash order of their uids, the VMs are spread in allocation order.
+	 * <p>
+	 * The spread is incremental: the VMs whose MIPS share and preceding VMs have not changed
+	 * since the last update keep their PEs, and only the PEs from the first changed VM onwards
+	 * are provisioned again. Therefore, adding a VM only provisions the PEs it uses, and removing
+	 * a VM only provisions again the PEs of the VMs following it. The result is the same as
+	 * spreading all the VMs again.
 	 */
 	protected void updatePeProvisioning() {
-		getPeMap().clear();
-		for (Pe pe : getPeList()) {
-			pe.getPeProvisioner().deallocateMipsForAllGuests();
+		Iterator<GuestKeyMap.Entry<List<Double>>> entries = getMipsMapAllocated().entries().iterator();
+		GuestKeyMap.Entry<List<Double>> changed = null;
+		int first = 0;
+		while (first < peSpreads.size() && entries.hasNext()) {
+			GuestKeyMap.Entry<List<Double>> entry = entries.next();
+			if (!peSpreads.get(first).isSpreadOf(entry)) {
+				changed = entry;
+				break;
+			}
+			first++;
 		}
 
-		Iterator<? extends Pe> peIterator = getPeList().iterator();
-		Pe pe = peIterator.next();
-		PeProvisioner peProvisioner = pe.getPeProvisioner();
-		double availableMips = peProvisioner.getAvailableMips();
+		int pe;
+		double availableMips;
+		if (peSpreads.isEmpty()) {
+			getPeMap().clear();
+			for (Pe p : getPeList()) {
+				p.getPeProvisioner().deallocateMipsForAllGuests();
+			}
+			pe = 0;
+			availableMips = getPeList().getFirst().getPeProvisioner().getAvailableMips();
+		} else if (first < peSpreads.size()) {
+			pe = peSpreads.get(first).startPe;
+			availableMips = peSpreads.get(first).startAvailableMips;
+			undoPeSpreads(first);
+		} else {
+			pe = peSpreads.getLast().endPe;
+			availableMips = peSpreads.getLast().endAvailableMips;
+		}
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMapAllocated().entrySet()) {
-			String vmUid = entry.getKey();
-			getPeMap().put(vmUid, new LinkedList<>());
+		while (changed != null || entries.hasNext()) {
+			GuestKeyMap.Entry<List<Double>> entry = changed != null ? changed : entries.next();
+			changed = null;
+			long guestKey = entry.getGuestKey();
+			List<Pe> guestPes = new LinkedList<>();
+			getPeMap().put(guestKey, guestPes);
+			PeSpread spread = new PeSpread(guestKey, entry.getValue(), pe, availableMips);
 
 			// Spread mips share among the Pes
 			for (double mips : entry.getValue()) {
 				while (mips >= 0.1) { // rounding error
+					PeProvisioner peProvisioner = getPeList().get(pe).getPeProvisioner();
 					if (availableMips >= mips) {
-						peProvisioner.allocateMipsForGuest(vmUid, mips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForGuest(guestKey, mips);
+						spread.add(pe, mips);
+						guestPes.add(getPeList().get(pe));
 						availableMips -= mips;
 						break;
 					} else { // next pe needed, no more space
-						peProvisioner.allocateMipsForGuest(vmUid, availableMips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForGuest(guestKey, availableMips);
+						spread.add(pe, availableMips);
+						guestPes.add(getPeList().get(pe));
 						mips -= availableMips;
 						if (mips <= 0.1) {
 							break;
 						}
-						if (!peIterator.hasNext()) {
-							Log.printlnConcat("There is no enough MIPS (", mips, ") to accommodate VM ", vmUid);
-							// System.exit(0);
+						if (pe + 1 == getPeList().size()) {
+							// the allocation checks the available MIPS, so the PEs should not run out;
+							// if they do, the provisioning is started over at the next update
+							peSpreads.clear();
+							throw new IllegalStateException("There is no enough MIPS (" + mips
+									+ ") to accommodate VM " + GuestEntity.getUid(guestKey));
 						}
-						pe = peIterator.next();
-						peProvisioner = pe.getPeProvisioner();
-						availableMips = peProvisioner.getAvailableMips();
+						pe++;
+						availableMips = getPeList().get(pe).getPeProvisioner().getAvailableMips();
 					}
 				}
 			}
+			spread.endPe = pe;
+			spread.endAvailableMips = availableMips;
+			peSpreads.add(spread);
 		}
 	}
 
+	/**
+	 * Releases the PEs provisioned to the VMs from a given position of the spread onwards.
+	 * The first PE they use may be shared with the preceding VMs, whose MIPS are provisioned
+	 * to it again in the same order, so that its available MIPS are computed as by a full spread.
+	 *
+	 * @param first the position of the first VM to release
+	 */
+	private void undoPeSpreads(int first) {
+		int firstPe = peSpreads.get(first).startPe;
+		int lastPe = peSpreads.getLast().endPe;
+		for (int i = first; i < peSpreads.size(); i++) {
+			getPeMap().remove(peSpreads.get(i).guestKey);
+		}
+		for (int pe = firstPe; pe <= lastPe; pe++) {
+			getPeList().get(pe).getPeProvisioner().deallocateMipsForAllGuests();
+		}
+
+		int sharing = first;
+		while (sharing > 0 && peSpreads.get(sharing - 1).endPe == firstPe) {
+			sharing--;
+		}
+		PeProvisioner peProvisioner = getPeList().get(firstPe).getPeProvisioner();
+		for (int i = sharing; i < first; i++) {
+			PeSpread spread = peSpreads.get(i);
+			for (int chunk = 0; chunk < spread.size; chunk++) {
+				if (spread.pes[chunk] == firstPe) {
+					peProvisioner.allocateMipsForGuest(spread.guestKey, spread.mips[chunk]);
+				}
+			}
+		}
+		peSpreads.subList(first, peSpreads.size()).clear();
+	}
+
 	@Override
 	public void deallocatePesForGuest(GuestEntity guest) {
-		getMipsMapRequested().remove(guest.getUid());
+		getMipsMapRequested().remove(guest.getKey());
 		setPesInUse(0);
 		getMipsMapAllocated().clear();
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 
-		for (Pe pe : getPeList()) {
-			pe.getPeProvisioner().deallocateMipsForGuest(guest);
-		}
-
-		// Re-allocate to remaining guests
-		for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-			allocatePesForGuest(entry.getKey(), entry.getValue());
+		// Re-allocate to remaining guests, the PEs of the guest are released by updatePeProvisioning
+		for (GuestKeyMap.Entry<List<Double>> entry : getMipsMapRequested().entries()) {
+			allocatePesForGuest(entry.getGuestKey(), entry.getValue());
 		}
 		updatePeProvisioning();
 	}
@@ -192,6 +321,8 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	@Override
 	public void deallocatePesForAllGuests() {
 		super.deallocatePesForAllGuests();
+		// the PEs have been released, they are provisioned from scratch at the next update
+		peSpreads.clear();
 		getMipsMapRequested().clear();
 		setPesInUse(0);
 	}
@@ -230,7 +361,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @return the mips map requested
 	 */
-	protected Map<String, List<Double>> getMipsMapRequested() {
+	protected GuestKeyMap<List<Double>> getMipsMapRequested() {
 		return mipsMapRequested;
 	}
 
@@ -239,7 +370,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @param mipsMapRequested the mips map requested
 	 */
-	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+	protected void setMipsMapRequested(GuestKeyMap<List<Double>> mipsMapRequested) {
 		this.mipsMapRequested = mipsMapRequested;
 	}
 }
@@ -8,12 +8,10 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.util.GuestKeyMap;
 
 /**
  * This is a Time-Shared VM Scheduler, which allows over-subscription. In other words, the scheduler
@@ -43,12 +41,12 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
          * It cannot be allocated more CPU capacity for each virtual PE than the MIPS 
          * capacity of a single physical PE.
 	 * 
-	 * @param vmUid the vm uid
+	 * @param guestKey the vm key
 	 * @param mipsShareRequested the list of mips share requested
 	 * @return true, if successful
 	 */
 	@Override
-	protected boolean allocatePesForGuest(String vmUid, List<Double> mipsShareRequested) {
+	protected boolean allocatePesForGuest(long guestKey, List<Double> mipsShareRequested) {
 		double totalRequestedMips = 0;
 
 		// if the requested mips is bigger than the capacity of a single PE, we cap
@@ -65,10 +63,10 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 			}
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
+		getMipsMapRequested().put(guestKey, mipsShareRequested);
 		setPesInUse(getPesInUse() + mipsShareRequested.size());
 
-		if (getGuestsMigratingIn().contains(vmUid)) {
+		if (isGuestMigratingIn(guestKey)) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
@@ -76,17 +74,17 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		if (getAvailableMips() >= totalRequestedMips) {
 			List<Double> mipsShareAllocated = new ArrayList<>();
 			for (Double mipsRequested : mipsShareRequestedCapped) {
-				if (getGuestsMigratingOut().contains(vmUid)) {
+				if (isGuestMigratingOut(guestKey)) {
 					// performance degradation due to migration = 10% MIPS
 					mipsRequested *= 0.9;
-				} else if (getGuestsMigratingIn().contains(vmUid)) {
+				} else if (isGuestMigratingIn(guestKey)) {
 					// the destination host only experience 10% of the migrating VM's MIPS
 					mipsRequested *= 0.1;
 				}
 				mipsShareAllocated.add(mipsRequested);
 			}
 
-			getMipsMapAllocated().put(vmUid, mipsShareAllocated);
+			getMipsMapAllocated().put(guestKey, mipsShareAllocated);
 			setAvailableMips(getAvailableMips() - totalRequestedMips);
 		} else {
 			redistributeMipsDueToOverSubscription();
@@ -105,11 +103,11 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		// proportionally
 		double totalRequiredMipsByAllVms = 0;
 
-		Map<String, List<Double>> mipsMapCapped = new HashMap<>();
-		for (Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
+		GuestKeyMap<List<Double>> mipsMapCapped = new GuestKeyMap<>();
+		for (GuestKeyMap.Entry<List<Double>> entry : getMipsMapRequested().entries()) {
 
 			double requiredMipsByThisVm = 0.0;
-			String vmId = entry.getKey();
+			long guestKey = entry.getGuestKey();
 			List<Double> mipsShareRequested = entry.getValue();
 			List<Double> mipsShareRequestedCapped = new ArrayList<>();
 			double peMips = getPeCapacity();
@@ -123,9 +121,9 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 				}
 			}
 
-			mipsMapCapped.put(vmId, mipsShareRequestedCapped);
+			mipsMapCapped.put(guestKey, mipsShareRequestedCapped);
 
-			if (getGuestsMigratingIn().contains(entry.getKey())) {
+			if (isGuestMigratingIn(guestKey)) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				requiredMipsByThisVm *= 0.1;
 			}
@@ -139,18 +137,18 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		getMipsMapAllocated().clear();
 
 		// Update the actual MIPS allocated to the VMs
-		for (Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
-			String vmUid = entry.getKey();
+		for (GuestKeyMap.Entry<List<Double>> entry : mipsMapCapped.entries()) {
+			long guestKey = entry.getGuestKey();
 			List<Double> requestedMips = entry.getValue();
 
 			List<Double> updatedMipsAllocation = new ArrayList<>();
 			for (Double mips : requestedMips) {
-				if (getGuestsMigratingOut().contains(vmUid)) {
+				if (isGuestMigratingOut(guestKey)) {
 					// the original amount is scaled
 					mips *= scalingFactor;
 					// performance degradation due to migration = 10% MIPS
 					mips *= 0.9;
-				} else if (getGuestsMigratingIn().contains(vmUid)) {
+				} else if (isGuestMigratingIn(guestKey)) {
 					// the destination host only experiences 10% of the migrating VM's MIPS
 					mips *= 0.1;
 					// the final 10% of the requested MIPS are scaled
@@ -163,7 +161,7 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 			}
 
 			// add in the new map
-			getMipsMapAllocated().put(vmUid, updatedMipsAllocation);
+			getMipsMapAllocated().put(guestKey, updatedMipsAllocation);
 
 		}
 
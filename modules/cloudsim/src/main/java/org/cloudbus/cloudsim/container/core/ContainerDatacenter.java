@@ -101,6 +101,7 @@ public class ContainerDatacenter extends Datacenter {
         List<Container> containerList = (List<Container>) ev.getData();
 
         for (Container container : containerList) {
+            hostsChanging();
             boolean result = getContainerAllocationPolicy().allocateHostForGuest(container);
             if (ack) {
                 int[] data = new int[3];
@@ -115,6 +116,7 @@ public class ContainerDatacenter extends Datacenter {
                 send(ev.getSourceId(), CloudSim.getMinTimeBetweenEvents(), ContainerCloudSimTags.CONTAINER_CREATE_ACK, data);
             }
             if (result) {
+                hostChanging(container.getHost());
                 getContainerList().add(container);
 
                 if (container.isBeingInstantiated()) {
@@ -203,6 +205,8 @@ public class ContainerDatacenter extends Datacenter {
         Container container = migrate.container();
         HostEntity containerVm = (HostEntity) migrate.vm();
 
+        hostChanging(container.getHost());
+        hostChanging(containerVm);
         getContainerAllocationPolicy().deallocateHostForGuest(container);
         if(containerVm.getGuestsMigratingIn().contains(container)){
             containerVm.removeMigratingInGuest(container);}
@@ -316,6 +320,7 @@ public class ContainerDatacenter extends Datacenter {
 
         // get the cloudlet
         containerVm = (HostEntity) getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId, userId);
+        hostChanging(containerVm);
         Cloudlet cl = containerVm.getGuest(containerId, userId)
                                  .getCloudletScheduler().cloudletCancel(cloudletId);
 
@@ -342,6 +347,8 @@ public class ContainerDatacenter extends Datacenter {
                 if (containerVm == null) {
                     failed = true;
                 } else {
+                    hostChanging(containerVm);
+                    watchCompletions(containerVm.getGuest(containerDestId, userId));
                     // time to transfer the files
                     double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
                     containerVm.getGuest(containerDestId, userId).getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
@@ -367,85 +374,75 @@ public class ContainerDatacenter extends Datacenter {
     }
 
     /**
-     * Processes a Cloudlet submission.
+     * Submits a Cloudlet to the scheduler of its container.
      *
-     * @param ev  a SimEvent object
+     * @param cl  the cloudlet
      * @param ack an acknowledgement
-     * @pre ev != null
-     * @post $none
+     * @return the delay after which the cloudlet is expected to finish, or 0
      */
-    protected void processCloudletSubmit(SimEvent ev, boolean ack) {
-        updateCloudletProcessing();
-
-        try {
-            Cloudlet cl = (Cloudlet) ev.getData();
-
-            // checks whether this Cloudlet has finished or not
-            if (cl.isFinished()) {
-                String name = CloudSim.getEntityName(cl.getUserId());
-                Log.printlnConcat(getName(), ": Warning - Cloudlet #", cl.getCloudletId(), " owned by ", name,
-                        " is already completed/finished.");
-                Log.println("Therefore, it is not being executed again");
-                Log.println();
-
-                // NOTE: If a Cloudlet has finished, then it won't be processed.
-                // So, if ack is required, this method sends back a result.
-                // If ack is not required, this method don't send back a result.
-                // Hence, this might cause CloudSim to be hanged since waiting
-                // for this Cloudlet back.
-                if (ack) {
-                    int[] data = new int[3];
-                    data[0] = getId();
-                    data[1] = cl.getCloudletId();
-                    data[2] = CloudSimTags.FALSE;
-
-                    sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
-                }
-
-                sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+    @Override
+    protected double submitCloudlet(Cloudlet cl, boolean ack) {
+        // checks whether this Cloudlet has finished or not
+        if (cl.isFinished()) {
+            String name = CloudSim.getEntityName(cl.getUserId());
+            Log.printlnConcat(getName(), ": Warning - Cloudlet #", cl.getCloudletId(), " owned by ", name,
+                    " is already completed/finished.");
+            Log.println("Therefore, it is not being executed again");
+            Log.println();
+
+            // NOTE: If a Cloudlet has finished, then it won't be processed.
+            // So, if ack is required, this method sends back a result.
+            // If ack is not required, this method don't send back a result.
+            // Hence, this might cause CloudSim to be hanged since waiting
+            // for this Cloudlet back.
+            if (ack) {
+                int[] data = new int[3];
+                data[0] = getId();
+                data[1] = cl.getCloudletId();
+                data[2] = CloudSimTags.FALSE;
 
-                return;
+                sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
             }
 
-            // process this Cloudlet to this CloudResource
-            cl.setResourceParameter(getId(), getCharacteristics().getCostPerSecond(), getCharacteristics()
-                    .getCostPerBw());
+            sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
 
-            int userId = cl.getUserId();
-            int vmId = cl.getGuestId();
-            int containerId = cl.getContainerId();
+            return 0.0;
+        }
 
-            // time to transfer the files
-            double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
+        // process this Cloudlet to this CloudResource
+        cl.setResourceParameter(getId(), getCharacteristics().getCostPerSecond(), getCharacteristics()
+                .getCostPerBw());
 
-            HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
-            VirtualEntity vm = (VirtualEntity) host.getGuest(vmId, userId);
-            Container container = (Container) vm.getGuest(containerId, userId);
-            double estimatedFinishTime = container.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
+        int userId = cl.getUserId();
+        int vmId = cl.getGuestId();
+        int containerId = cl.getContainerId();
 
-            // if this cloudlet is in the exec queue
-            if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
-                estimatedFinishTime += fileTransferTime;
-                send(getId(), estimatedFinishTime, CloudActionTags.VM_DATACENTER_EVENT);
-            }
+        // time to transfer the files
+        double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 
-            if (ack) {
-                int[] data = new int[3];
-                data[0] = getId();
-                data[1] = cl.getCloudletId();
-                data[2] = CloudSimTags.TRUE;
+        HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+        hostChanging(host);
+        VirtualEntity vm = (VirtualEntity) host.getGuest(vmId, userId);
+        Container container = (Container) vm.getGuest(containerId, userId);
+        watchCompletions(container);
+        double estimatedFinishTime = container.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
 
-                sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
-            }
-        } catch (ClassCastException c) {
-            Log.println(String.format("%s.processCloudletSubmit(): ClassCastException error.", getName()));
-            c.printStackTrace();
-        } catch (Exception e) {
-            Log.println(String.format("%s.processCloudletSubmit(): Exception error.", getName()));
-            e.printStackTrace();
+        // if this cloudlet is in the exec queue
+        if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
+            estimatedFinishTime += fileTransferTime;
+        } else {
+            estimatedFinishTime = 0.0;
         }
 
-        checkCloudletCompletion();
+        if (ack) {
+            int[] data = new int[3];
+            data[0] = getId();
+            data[1] = cl.getCloudletId();
+            data[2] = CloudSimTags.TRUE;
+
+            sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+        }
+        return estimatedFinishTime;
     }
 
     /**
@@ -459,6 +456,7 @@ public class ContainerDatacenter extends Datacenter {
      * @post $none
      */
     protected void processCloudletResume(int cloudletId, int userId, int vmId, int containerId, boolean ack) {
+        hostChanging(getVmAllocationPolicy().getHost(vmId, userId));
         double eventTime = ((VirtualEntity) getVmAllocationPolicy().getHost(vmId, userId)
                             .getGuest(vmId, userId))
                             .getGuest(containerId, userId)
@@ -496,6 +494,7 @@ public class ContainerDatacenter extends Datacenter {
      * @post $none
      */
     protected void processCloudletPause(int cloudletId, int userId, int vmId, int containerId, boolean ack) {
+        hostChanging(getVmAllocationPolicy().getHost(vmId, userId));
         VirtualEntity containerVm = (VirtualEntity) getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId, userId);
         boolean status = containerVm.getGuest(containerId, userId)
                 .getCloudletScheduler().cloudletPause(cloudletId);
@@ -523,6 +522,7 @@ public class ContainerDatacenter extends Datacenter {
      * @post $none
      */
     protected void processCloudletCancel(int cloudletId, int userId, int vmId, int containerId) {
+        hostChanging(getVmAllocationPolicy().getHost(vmId, userId));
         HostEntity containerVm = (HostEntity) getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId, userId);
         Cloudlet cl = containerVm.getGuest(containerId, userId)
                 .getCloudletScheduler().cloudletCancel(cloudletId);
@@ -539,20 +539,31 @@ public class ContainerDatacenter extends Datacenter {
      * @TODO: Generalise this to work with every hybrid host-guest entity
      */
     protected void checkCloudletCompletion() {
+        if (isIncrementalHostUpdates()) {
+            // only the containers which reported a completion, in the same order
+            for (GuestEntity container : takeCompletedGuests(2)) {
+                returnFinishedCloudlets(container);
+            }
+            return;
+        }
         for (HostEntity host : getVmAllocationPolicy().getHostList()) {
             for (VirtualEntity vm : host.<VirtualEntity>getGuestList()) {
                 for (GuestEntity container : vm.getGuestList()) {
-                    while (container.getCloudletScheduler().isFinishedCloudlets()) {
-                        Cloudlet cl = container.getCloudletScheduler().getNextFinishedCloudlet();
-                        if (cl != null) {
-                            sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
-                        }
-                    }
+                    returnFinishedCloudlets(container);
                 }
             }
         }
     }
 
+    private void returnFinishedCloudlets(GuestEntity container) {
+        while (container.getCloudletScheduler().isFinishedCloudlets()) {
+            Cloudlet cl = container.getCloudletScheduler().getNextFinishedCloudlet();
+            if (cl != null) {
+                returnCloudlet(cl);
+            }
+        }
+    }
+
     public VmAllocationPolicy getContainerAllocationPolicy() { return containerAllocationPolicy; }
     public void setContainerAllocationPolicy(VmAllocationPolicy containerAllocationPolicy) {
         this.containerAllocationPolicy = containerAllocationPolicy;
@@ -581,5 +592,3 @@ public class ContainerDatacenter extends Datacenter {
         this.logAddress = logAddress;
     }
 }
-
-
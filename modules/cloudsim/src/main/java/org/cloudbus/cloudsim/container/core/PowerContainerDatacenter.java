@@ -112,8 +112,7 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
     protected void updateCloudletProcessing() {
 //        Log.printLine("Power data center is Updating the cloudlet processing");
         if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == CloudSim.clock()) {
-            CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-            schedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+            reschedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
             return;
         }
         double currentTime = CloudSim.clock();
@@ -175,8 +174,7 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
 
             // schedules an event to the next time
             if (minTime != Double.MAX_VALUE) {
-                CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-                send(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+                reschedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
             }
 
             setLastProcessTime(currentTime);
@@ -345,6 +343,12 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
         setCloudletSubmitted(CloudSim.clock());
     }
 
+    @Override
+    protected void processCloudletSubmitBatch(SimEvent ev) {
+        super.processCloudletSubmitBatch(ev);
+        setCloudletSubmitted(CloudSim.clock());
+    }
+
     /**
      * Gets the power.
      *
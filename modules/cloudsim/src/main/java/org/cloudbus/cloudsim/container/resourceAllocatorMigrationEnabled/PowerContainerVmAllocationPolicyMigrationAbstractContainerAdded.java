@@ -667,7 +667,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
                     System.exit(0);
                 }
 
-                getGuestTable().put(vm.getUid(), host);
+                getGuestTable().put(vm.getKey(), host);
             }
 //            vm.containerDestroyAll();
 //            vm.reallocateMigratingInContainers();
@@ -694,7 +694,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
 
                 }
                 getDatacenter().getContainerAllocationPolicy().
-                        getGuestTable().put(container.getUid(), vm);
+                        getGuestTable().put(container.getKey(), vm);
 //            container.setVm(vm);
 
             }
@@ -0,0 +1,407 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link FutureEventList} implemented as a calendar queue (R. Brown, "Calendar queues: a fast O(1)
+ * priority queue implementation for the simulation event set problem", CACM 1988).
+ * <p>
+ * Events are hashed by time into an array of buckets ("days") of fixed width, each bucket holding a
+ * sorted linked list of events. Dequeueing scans the buckets of the current "year" in order, so both
+ * insertion and extraction take amortised constant time as long as the bucket width matches the
+ * average separation between events. The number of buckets doubles or halves as the queue grows or
+ * shrinks and the width is re-estimated from a sample of the earliest events at every resize.
+ * <p>
+ * Ties are broken by {@link SimEvent#compareTo(SimEvent)}, therefore the dispatching order is
+ * exactly the same as the one of {@link EventQueue}. Since events scheduled at the same time are
+ * usually appended with increasing serial numbers, each bucket keeps a tail pointer that makes
+ * such insertions constant time.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see EventQueue
+ */
+public class CalendarEventQueue implements FutureEventList {
+
+	/** The minimum number of buckets. */
+	private static final int MIN_BUCKETS = 2;
+
+	/** The maximum number of events sampled to estimate the bucket width. */
+	private static final int WIDTH_SAMPLE_SIZE = 25;
+
+	/** A linked list node holding an event. */
+	private static final class Node {
+		private final SimEvent event;
+		private Node next;
+
+		private Node(SimEvent event) {
+			this.event = event;
+		}
+	}
+
+	/** A incremental number used for event attribute */
+	private long serial = 0;
+
+	/** The first node of each bucket. */
+	private Node[] heads;
+
+	/** The last node of each bucket. */
+	private Node[] tails;
+
+	/** The width (in simulation time) of each bucket. */
+	private double width;
+
+	/** The virtual (non-wrapped) index of the bucket that is currently being dequeued. */
+	private long currentDay;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** Whether a resize is allowed (it is disabled while the queue is being rebuilt). */
+	private boolean resizeEnabled = true;
+
+	/** The number of structural modifications, used to detect concurrent modifications. */
+	private int modCount;
+
+	/**
+	 * Creates a calendar queue with the default initial bucket width of 1.0.
+	 */
+	public CalendarEventQueue() {
+		this(1.0);
+	}
+
+	/**
+	 * Creates a calendar queue.
+	 *
+	 * @param initialWidth the initial width of each bucket, in simulation time;
+	 *                     it should approximate the average time between consecutive events
+	 */
+	public CalendarEventQueue(double initialWidth) {
+		if (initialWidth <= 0 || Double.isInfinite(initialWidth) || Double.isNaN(initialWidth)) {
+			throw new IllegalArgumentException("The bucket width should be positive, but is:" + initialWidth);
+		}
+		this.width = initialWidth;
+		this.heads = new Node[MIN_BUCKETS];
+		this.tails = new Node[MIN_BUCKETS];
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		enqueue(new Node(newEvent));
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(0);
+		enqueue(new Node(newEvent));
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (!CloudSim.running()) {
+			return null;
+		}
+		return dequeue();
+	}
+
+	@Override
+	public SimEvent peek() {
+		int bucket = findFirstBucket();
+		return bucket < 0 ? null : heads[bucket].event;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the current number of buckets.
+	 *
+	 * @return the number of buckets
+	 */
+	public int getNumberOfBuckets() {
+		return heads.length;
+	}
+
+	/**
+	 * Gets the current width of each bucket.
+	 *
+	 * @return the bucket width
+	 */
+	public double getBucketWidth() {
+		return width;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Itr();
+	}
+
+	/**
+	 * Gets the virtual day (non-wrapped bucket index) of a given time.
+	 */
+	private long dayOf(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	private int bucketOf(long day) {
+		return (int) Math.floorMod(day, (long) heads.length);
+	}
+
+	private void enqueue(Node node) {
+		long day = dayOf(node.event.eventTime());
+		if (size == 0 || day < currentDay) {
+			currentDay = day;
+		}
+		insert(node, bucketOf(day));
+		size++;
+		modCount++;
+
+		if (resizeEnabled && size > 2 * heads.length) {
+			resize(2 * heads.length);
+		}
+	}
+
+	private void insert(Node node, int bucket) {
+		Node tail = tails[bucket];
+		node.next = null;
+		if (tail == null) {
+			heads[bucket] = node;
+			tails[bucket] = node;
+		} else if (node.event.compareTo(tail.event) >= 0) {
+			tail.next = node;
+			tails[bucket] = node;
+		} else if (node.event.compareTo(heads[bucket].event) < 0) {
+			node.next = heads[bucket];
+			heads[bucket] = node;
+		} else {
+			Node prev = heads[bucket];
+			while (node.event.compareTo(prev.next.event) >= 0) {
+				prev = prev.next;
+			}
+			node.next = prev.next;
+			prev.next = node;
+		}
+	}
+
+	private SimEvent dequeue() {
+		int bucket = findFirstBucket();
+		if (bucket < 0) {
+			return null;
+		}
+
+		Node node = heads[bucket];
+		heads[bucket] = node.next;
+		if (node.next == null) {
+			tails[bucket] = null;
+		}
+		size--;
+		modCount++;
+
+		if (resizeEnabled && heads.length > MIN_BUCKETS && size < heads.length / 2) {
+			resize(heads.length / 2);
+		}
+		return node.event;
+	}
+
+	/**
+	 * Finds the bucket holding the first event, advancing the current day up to it.
+	 *
+	 * @return the bucket index, or -1 if the queue is empty
+	 */
+	private int findFirstBucket() {
+		if (size == 0) {
+			return -1;
+		}
+
+		// scan the days of the current year
+		final int nBuckets = heads.length;
+		for (int i = 0; i < nBuckets; i++, currentDay++) {
+			int bucket = bucketOf(currentDay);
+			Node head = heads[bucket];
+			if (head != null && dayOf(head.event.eventTime()) <= currentDay) {
+				return bucket;
+			}
+		}
+
+		// no event in the whole year, look for the earliest event directly
+		int first = -1;
+		for (int bucket = 0; bucket < nBuckets; bucket++) {
+			Node head = heads[bucket];
+			if (head != null && (first < 0 || head.event.compareTo(heads[first].event) < 0)) {
+				first = bucket;
+			}
+		}
+		currentDay = dayOf(heads[first].event.eventTime());
+		return first;
+	}
+
+	/**
+	 * Changes the number of buckets, re-estimating the bucket width and re-hashing all events.
+	 *
+	 * @param newBuckets the new number of buckets
+	 */
+	private void resize(int newBuckets) {
+		double newWidth = estimateWidth();
+
+		Node[] oldHeads = heads;
+		width = newWidth;
+		heads = new Node[newBuckets];
+		tails = new Node[newBuckets];
+
+		// the old buckets are sorted, so re-inserting them in order mostly appends to the tails
+		for (Node head : oldHeads) {
+			Node node = head;
+			while (node != null) {
+				Node next = node.next;
+				insert(node, bucketOf(dayOf(node.event.eventTime())));
+				node = next;
+			}
+		}
+
+		Node first = null;
+		for (Node head : heads) {
+			if (head != null && (first == null || head.event.compareTo(first.event) < 0)) {
+				first = head;
+			}
+		}
+		if (first != null) {
+			currentDay = dayOf(first.event.eventTime());
+		}
+	}
+
+	/**
+	 * Estimates a new bucket width as three times the average separation of the earliest events,
+	 * ignoring the separations which are larger than twice the average.
+	 *
+	 * @return the estimated width, or the current width if it cannot be estimated
+	 */
+	private double estimateWidth() {
+		int nSamples = Math.min(size, WIDTH_SAMPLE_SIZE);
+		if (nSamples < 2) {
+			return width;
+		}
+
+		resizeEnabled = false;
+		SimEvent[] samples = new SimEvent[nSamples];
+		for (int i = 0; i < nSamples; i++) {
+			samples[i] = dequeue();
+		}
+		for (SimEvent sample : samples) {
+			long day = dayOf(sample.eventTime());
+			if (day < currentDay) {
+				currentDay = day;
+			}
+			insert(new Node(sample), bucketOf(day));
+			size++;
+		}
+		resizeEnabled = true;
+
+		double total = samples[nSamples - 1].eventTime() - samples[0].eventTime();
+		double average = total / (nSamples - 1);
+		double sum = 0;
+		int count = 0;
+		for (int i = 1; i < nSamples; i++) {
+			double separation = samples[i].eventTime() - samples[i - 1].eventTime();
+			if (separation <= 2 * average) {
+				sum += separation;
+				count++;
+			}
+		}
+
+		double newWidth = 3 * sum / count;
+		return newWidth > 0 && !Double.isInfinite(newWidth) ? newWidth : width;
+	}
+
+	/**
+	 * An iterator over the buckets of the queue, supporting removal.
+	 */
+	private class Itr implements Iterator<SimEvent> {
+		private int bucket = -1;
+		private Node prev;
+		private Node current;
+		private Node next;
+		private boolean canRemove;
+		private int expectedModCount = modCount;
+
+		private Itr() {
+			advance();
+		}
+
+		private void advance() {
+			if (current != null && current.next != null) {
+				next = current.next;
+				return;
+			}
+			next = null;
+			while (++bucket < heads.length) {
+				if (heads[bucket] != null) {
+					next = heads[bucket];
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public SimEvent next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			prev = next == heads[bucket] ? null : current;
+			current = next;
+			canRemove = true;
+			advance();
+			return current.event;
+		}
+
+		@Override
+		public void remove() {
+			if (!canRemove) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+
+			int currentBucket = bucketOf(dayOf(current.event.eventTime()));
+			if (prev == null) {
+				heads[currentBucket] = current.next;
+			} else {
+				prev.next = current.next;
+			}
+			if (tails[currentBucket] == current) {
+				tails[currentBucket] = prev;
+			}
+
+			current = prev;
+			canRemove = false;
+			size--;
+			modCount++;
+			expectedModCount = modCount;
+		}
+	}
+}
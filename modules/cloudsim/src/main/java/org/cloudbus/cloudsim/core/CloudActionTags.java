@@ -253,5 +253,32 @@ public enum CloudActionTags implements CloudSimTags {
 
 	NETWORK_PKT_DOWN,
 
-    NETWORK_PKT_REACHED_HOST
+    NETWORK_PKT_REACHED_HOST,
+
+	/**
+	 * Denotes an internal event of a {@link org.cloudbus.cloudsim.network.datacenter.NetworkDatacenter}
+	 * using the flow-level network model, fired when the next flow is expected to finish.
+	 *
+	 * @since CloudSim Toolkit 7.0
+	 * @see org.cloudbus.cloudsim.network.datacenter.FlowNetwork
+	 */
+	NETWORK_FLOW_UPDATE,
+
+	/**
+	 * Denotes the submission of several Cloudlets at once, given as an array.
+	 * This tag is used by a broker submitting its Cloudlets in batches to a Datacenter.
+	 *
+	 * @since CloudSim Toolkit 7.0
+	 * @see org.cloudbus.cloudsim.DatacenterBroker#setCloudletBatchSubmission(boolean)
+	 */
+	CLOUDLET_SUBMIT_BATCH,
+
+	/**
+	 * Denotes the return of several Cloudlets back to their sender, given as an array.
+	 * A Datacenter returns the Cloudlets found finished at the same time in one batch
+	 * to the users which submitted Cloudlets in batches.
+	 *
+	 * @since CloudSim Toolkit 7.0
+	 */
+	CLOUDLET_RETURN_BATCH
 }
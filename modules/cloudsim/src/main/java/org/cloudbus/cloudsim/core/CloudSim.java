@@ -8,25 +8,22 @@
 
 package org.cloudbus.cloudsim.core;
 
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
-import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 import org.cloudbus.cloudsim.core.predicates.PredicateAny;
 import org.cloudbus.cloudsim.core.predicates.PredicateNone;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  *
  * The main class of the simulation.
  * It provides all the methods to start, pause and stop simulated entities.
  * It stores and dispatches all the discrete events to be processed at run-time by the entities.
+ * <p>
+ * The simulation state is kept by the {@link SimulationContext} bound to the current thread;
+ * the static methods of this class operate on that context.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -38,58 +35,23 @@ public class CloudSim {
 	/** The Constant CLOUDSIM_VERSION_STRING. */
 	private static final String CLOUDSIM_VERSION_STRING = "7.0";
 
-	/** The id of CIS entity. */
-	private static int cisId = -1;
-
-	/** The id of CloudSimShutdown entity. */
-	private static int shutdownId = -1;
-
-	/** The CIS object. */
-	private static CloudInformationService cis = null;
-
-	/** The Constant NOT_FOUND. */
-	private static final int NOT_FOUND = -1;
-
-	/** The trace flag. */
-	private static boolean traceFlag = false;
-
-	/** The calendar. */
-	private static Calendar calendar = null;
-
-	/** The termination time. */
-	private static double terminateAt = -1;
-
-	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
-	private static double minTimeBetweenEvents = 0.01;
-	
 	/**
-	 * Initialises all the common attributes.
-	 * 
-	 * @param _calendar the _calendar
-	 * @param _traceFlag the _trace flag
-	 * @param numUser number of users
-	 * @throws Exception This happens when creating this entity before initialising CloudSim package
-	 *             or this entity name is <tt>null</tt> or empty
-	 * @pre $none
-	 * @post $none
+	 * Gets the version of CloudSim.
+	 *
+	 * @return the version string
 	 */
-	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
-			throws Exception {
-		initialize();
-		// NOTE: the order for the below 3 lines are important
-		traceFlag = _traceFlag;
-
-		// Set the current Wall clock time as the starting time of
-		// simulation
-		if (_calendar == null) {
-			calendar = Calendar.getInstance();
-		} else {
-			calendar = _calendar;
-		}
+	public static String getVersion() {
+		return CLOUDSIM_VERSION_STRING;
+	}
 
-		// creates a CloudSimShutdown object
-		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
-		shutdownId = shutdown.getId();
+	/**
+	 * Gets the simulation context bound to the current thread.
+	 *
+	 * @return the current simulation context
+	 * @see SimulationContext#current()
+	 */
+	public static SimulationContext current() {
+		return SimulationContext.current();
 	}
 
 	/**
@@ -114,18 +76,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag) {
-		try {
-			initCommonVariable(cal, traceFlag, numUser);
-
-			// create a GIS object
-			cis = new CloudInformationService("CloudInformationService");
-
-			// set all the above entity IDs
-			cisId = cis.getId();
-		} catch (Exception s) {
-			Log.println("CloudSim.init(): The simulation has been terminated due to an unexpected error");
-			Log.println(s.getMessage());
-		}
+		current().init(numUser, cal, traceFlag);
 	}
 
 	/**
@@ -152,16 +103,32 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag, double minTimeBetweenEvents) {
-	    if (minTimeBetweenEvents <= 0) {
-		throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + minTimeBetweenEvents);
-	    }
-	    
-	    init(numUser, cal, traceFlag);
-	    CloudSim.minTimeBetweenEvents = minTimeBetweenEvents;
+		current().init(numUser, cal, traceFlag, minTimeBetweenEvents);
 	}
-	
-	
-	
+
+	/**
+	 * Initialises CloudSim parameters, using the given implementation of the future event list.
+	 * This method should be called before creating any entities.
+	 * <p>
+	 * The default future event list is an {@link EventQueue}, i.e., a binary heap. A
+	 * {@link CalendarEventQueue} provides amortised constant time insertion and extraction and is
+	 * faster for simulations that keep a large number of pending events.
+	 *
+	 * @param numUser the number of User Entities created. This parameters indicates that
+	 *            {@link CloudSimShutdown} first waits for all user entities's
+	 *            END_OF_SIMULATION signal before issuing terminate signal to other entities
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param futureEventList an empty future event list
+	 * @see FutureEventList
+	 * @pre numUser >= 0
+	 * @post $none
+	 */
+	public static void init(int numUser, Calendar cal, boolean traceFlag, FutureEventList futureEventList) {
+		current().init(numUser, cal, traceFlag, futureEventList);
+	}
+
 	/**
 	 * Starts the execution of CloudSim simulation. It waits for complete execution of all entities,
 	 * i.e. until all entities threads reach non-RUNNABLE state or there are no more events in the
@@ -177,23 +144,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static double startSimulation() throws NullPointerException {
-		Log.printlnConcat("Starting CloudSim version ", CLOUDSIM_VERSION_STRING);
-		try {
-			double clock = run();
-
-			// reset all static variables
-			cisId = -1;
-			shutdownId = -1;
-			cis = null;
-			calendar = null;
-			traceFlag = false;
-
-			return clock;
-		} catch (IllegalArgumentException e) {
-			e.printStackTrace();
-			throw new NullPointerException("CloudSim.startCloudSimulation() :"
-					+ " Error - you haven't initialized CloudSim.");
-		}
+		return current().startSimulation();
 	}
 
 	/**
@@ -208,12 +159,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void stopSimulation() throws NullPointerException {
-		try {
-			runStop();
-		} catch (IllegalArgumentException e) {
-			throw new NullPointerException("CloudSim.stopCloudSimulation() : "
-					+ "Error - can't stop Cloud Simulation.");
-		}
+		current().stopSimulation();
 	}
 
 	/**
@@ -222,8 +168,7 @@ public class CloudSim {
 	 * @return true, if successful; false otherwise.
 	 */
 	public static void terminateSimulation() {
-		running = false;
-		printMessage("Simulation: Reached termination time.");
+		current().terminateSimulation();
 	}
 
 	/**
@@ -233,21 +178,15 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean terminateSimulation(double time) {
-		if (time <= clock) {
-			return false;
-		} else {
-			terminateAt = time;
-		}
-		return true;
+		return current().terminateSimulation(time);
 	}
 
-	
 	/**
 	 * Returns the minimum time between events. Events within shorter periods after the last event are discarded. 
 	 * @return the minimum time between events.
 	 */
 	public static double getMinTimeBetweenEvents() {
-	    return minTimeBetweenEvents;
+		return current().getMinTimeBetweenEvents();
 	}
 
 	/**
@@ -258,13 +197,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static Calendar getSimulationCalendar() {
-		// make a new copy
-		Calendar clone = calendar;
-		if (calendar != null) {
-			clone = (Calendar) calendar.clone();
-		}
-
-		return clone;
+		return current().getSimulationCalendar();
 	}
 
 	/**
@@ -275,7 +208,7 @@ public class CloudSim {
 	 * @post $result >= -1
 	 */
 	public static int getCloudInfoServiceEntityId() {
-		return cisId;
+		return current().getCloudInfoServiceEntityId();
 	}
 
 	/**
@@ -288,60 +221,11 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static List<Integer> getCloudResourceList() {
-		if (cis == null) {
-			return null;
-		}
-
-		return cis.getList();
+		return current().getCloudResourceList();
 	}
 
 	// ======== SIMULATION METHODS ===============//
 
-	/** The entities. */
-	private static List<SimEntity> entities;
-
-	/** The future event queue. */
-	protected static EventQueue future;
-
-
-	/** 
-         * The current simulation clock.
-         */
-	private static double clock;
-
-	/** Flag for checking if the simulation is running. */
-	private static boolean running;
-
-	/** The entities by name. */
-	private static Map<String, SimEntity> entitiesByName;
-
-	// The predicates used in entity wait methods
-	/** The wait predicates. */
-	private static Map<Integer, Predicate> waitPredicates;
-
-	/** The paused. */
-	private static boolean paused = false;
-
-	/** The pause at. */
-	private static long pauseAt = -1;
-
-	/** The abrupt terminate. */
-	private static boolean abruptTerminate = false;
-
-	/**
-	 * Initialise the simulation for stand alone simulations. This function should be called at the
-	 * start of the simulation.
-	 */
-	protected static void initialize() {
-		Log.println("Initialising...");
-		entities = new ArrayList<>();
-		entitiesByName = new LinkedHashMap<>();
-		future = new EventQueue();
-		waitPredicates = new HashMap<>();
-		clock = 0;
-		running = false;
-	}
-
 	// The two standard predicates
 
 	/** A standard predicate that matches any event. */
@@ -358,7 +242,7 @@ public class CloudSim {
 	 * @return the simulation time
 	 */
 	public static double clock() {
-		return clock;
+		return current().clock();
 	}
 
 	/**
@@ -367,7 +251,7 @@ public class CloudSim {
 	 * @return The number of entities
 	 */
 	public static int getNumEntities() {
-		return entities.size();
+		return current().getNumEntities();
 	}
 
 	/**
@@ -377,7 +261,7 @@ public class CloudSim {
 	 * @return The entity, or if it could not be found
 	 */
 	public static SimEntity getEntity(int id) {
-		return entities.get(id);
+		return current().getEntity(id);
 	}
 
 	/**
@@ -387,7 +271,7 @@ public class CloudSim {
 	 * @return The entity
 	 */
 	public static SimEntity getEntity(String name) {
-		return entitiesByName.get(name);
+		return current().getEntity(name);
 	}
 
 	/**
@@ -397,12 +281,7 @@ public class CloudSim {
 	 * @return The entity's unique id number
 	 */
 	public static int getEntityId(String name) {
-		SimEntity obj = entitiesByName.get(name);
-		if (obj == null) {
-			return NOT_FOUND;
-		} else {
-			return obj.getId();
-		}
+		return current().getEntityId(name);
 	}
 
 	/**
@@ -414,11 +293,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static String getEntityName(int entityID) {
-		try {
-			return getEntity(entityID).getName();
-		} catch (Exception e) {
-			return null;
-		}
+		return current().getEntityName(entityID);
 	}
 
 	/**
@@ -430,10 +305,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static String getEntityName(Integer entityID) {
-		if (entityID != null) {
-			return getEntityName(entityID.intValue());
-		}
-		return null;
+		return current().getEntityName(entityID);
 	}
 
 	/**
@@ -442,10 +314,7 @@ public class CloudSim {
 	 * @return the entity iterator
 	 */
 	public static List<SimEntity> getEntityList() {
-		// create a new list to prevent the user from changing
-		// the list of entities used by Simulation
-		List<SimEntity> list = new LinkedList<>(entities);
-		return list;
+		return current().getEntityList();
 	}
 
 	// Public update methods
@@ -457,69 +326,14 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
-		SimEvent evt;
-		if (running) {
-			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
-			future.addEvent(evt);
-		}
-		if (e.getId() == -1) { // Only add once!
-			int id = entities.size();
-			e.setId(id);
-			entities.add(e);
-			entitiesByName.put(e.getName(), e);
-		}
-	}
-
-	/**
-	 * Internal method used to add a new entity to the simulation when the simulation is running. It
-	 * should <b>not</b> be called from user simulations.
-	 * 
-	 * @param e The new entity
-	 */
-	protected static void addEntityDynamically(SimEntity e) {
-		if (e == null) {
-			throw new IllegalArgumentException("Adding null entity.");
-		} else {
-			printMessage("Adding: " + e.getName());
-		}
-		e.startEntity();
-	}
-
-	/**
-	 * Internal method used to run one tick of the simulation. This method should <b>not</b> be
-	 * called in simulations.
-	 * 
-	 * @return true if there are events to be processed, false if event queue is empty
-	 */
-	private static boolean runClockTick() {
-		SimEntity ent;
-		for (int i = 0; i < entities.size(); i++) {
-			ent = entities.get(i);
-			if (ent.getState() == SimEntity.EntityStatus.RUNNABLE) {
-				ent.run();
-			}
-		}
-
-		if (future.isEmpty()) {
-			running = false;
-			printMessage(CloudSim.clock()+": Simulation: No more future events");
-			return false;
-		}
-
-		double clk = future.peek().eventTime();
-		while (!future.isEmpty() && future.peek().eventTime() == clk) {
-			dispatchEvent(future.poll());
-		}
-
-		return true;
+		current().addEntity(e);
 	}
 
 	/**
 	 * Internal method used to stop the simulation. This method should <b>not</b> be used directly.
 	 */
 	public static void runStop() {
-		printMessage("Simulation completed.");
+		current().runStop();
 	}
 
 	/**
@@ -529,9 +343,7 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void pause(int srcId, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, srcId);
-		future.addEvent(e);
-		entities.get(srcId).setState(SimEntity.EntityStatus.HOLDING);
+		current().pause(srcId, delay);
 	}
 
 	/**
@@ -544,15 +356,7 @@ public class CloudSim {
 	 * @param data the data
 	 */
 	public static void send(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
-		if (delay < 0) {
-			throw new IllegalArgumentException("Send delay can't be negative.");
-		}
-		if(delay >= Double.MAX_VALUE) {
-			throw new RuntimeException("Send delay can't be infinite.");
-		}
-
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
-		future.addEvent(e);
+		current().send(srcId, dstId, delay, tag, data);
 	}
 
 	/**
@@ -565,12 +369,28 @@ public class CloudSim {
 	 * @param data the data
 	 */
 	public static void sendFirst(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
-		if (delay < 0) {
-			throw new IllegalArgumentException("Send delay can't be negative.");
-		}
+		current().sendFirst(srcId, dstId, delay, tag, data);
+	}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
-		future.addEventFirst(e);
+	/**
+	 * Used to send a periodic event from one entity to another, replacing the events with the same
+	 * tag that the source entity has already scheduled. If the last of those events has been sent by
+	 * this method with exactly the same destination, time and data as the new one, and no other event
+	 * has been sent for the same time since, it is kept and no new event is created.
+	 * <p>
+	 * It is equivalent to a call to {@link #cancelAll(int, Predicate)} with a {@link org.cloudbus.cloudsim.core.predicates.PredicateType}
+	 * followed by {@link #send(int, int, double, CloudSimTags, Object)}: the kept event is dispatched
+	 * in the same order as the new event would be, but the future queue is not touched.
+	 *
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return true if an already scheduled event has been kept, false if a new event has been sent
+	 */
+	public static boolean reschedule(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		return current().reschedule(srcId, dstId, delay, tag, data);
 	}
 
 	/**
@@ -582,11 +402,7 @@ public class CloudSim {
 	 * @param p the p
 	 */
 	public static void wait(int srcId, Predicate p) {
-		entities.get(srcId).setState(SimEntity.EntityStatus.WAITING);
-		if (p != SIM_ANY) {
-			// If a predicate has been used store it in order to check it
-			waitPredicates.put(srcId, p);
-		}
+		current().waitForEvent(srcId, p);
 	}
 
 	/**
@@ -597,16 +413,7 @@ public class CloudSim {
 	 * @return the sim event
 	 */
 	public static SimEvent cancel(int srcId, Predicate p) {
-		SimEvent ev;
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSourceId() == srcId && p.match(ev)) {
-				iter.remove();
-				return ev;
-			}
-		}
-		return null;
+		return current().cancel(srcId, p);
 	}
 
 	/**
@@ -618,59 +425,7 @@ public class CloudSim {
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int srcId, Predicate p) {
-		SimEvent ev;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSourceId() == srcId && p.match(ev)) {
-				iter.remove();
-			}
-		}
-		return previousSize < future.size();
-	}
-
-	//
-	// Private internal methods
-	//
-
-	/**
-	 * Dispatch event to destination entity
-	 * 
-	 * @param e the e
-	 */
-	private static void dispatchEvent(SimEvent e) {
-		int dstId = e.getDestinationId();
-		int srcId = e.getSourceId();
-		SimEntity destEnt = entities.get(dstId);
-
-		// Update the system's clock
-		if (e.eventTime() < clock) {
-			throw new IllegalArgumentException("Past event detected.");
-		}
-		clock = e.eventTime();
-
-		// Ok now process it
-		switch (e.getType()) {
-			case SimEvent.ENULL -> throw new IllegalArgumentException("Event has a null type.");
-			case SimEvent.CREATE -> {
-				addEntityDynamically((SimEntity) e.getData());
-			}
-			case SimEvent.SEND -> {
-                if (destEnt.getState() == SimEntity.EntityStatus.WAITING) { // NOTE: this branch is never used
-                    Predicate p = waitPredicates.get(dstId);
-
-                    if ((p == null) || (p.match(e))) {
-                        destEnt.setState(SimEntity.EntityStatus.RUNNABLE);
-                        waitPredicates.remove(dstId);
-                    }
-                }
-				destEnt.getIncomingEvents().add(e);
-            }
-			case SimEvent.HOLD_DONE -> entities.get(srcId).setState(SimEntity.EntityStatus.RUNNABLE);
-			default -> {
-			}
-		}
+		return current().cancelAll(srcId, p);
 	}
 
 	/**
@@ -678,13 +433,7 @@ public class CloudSim {
 	 * simulations.
 	 */
 	public static void runStart() {
-		running = true;
-		// Start all the entities
-		for (SimEntity ent : entities) {
-			ent.startEntity();
-		}
-
-		printMessage("Entities started.");
+		current().runStart();
 	}
 
 	/**
@@ -694,7 +443,7 @@ public class CloudSim {
 	 * @return if the simulation is still running, otherwise
 	 */
 	public static boolean running() {
-		return running;
+		return current().running();
 	}
 
 	/**
@@ -703,8 +452,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation() {
-		paused = true;
-		return paused;
+		return current().pauseSimulation();
 	}
 
 	/**
@@ -714,12 +462,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation(long time) {
-		if (time <= clock) {
-			return false;
-		} else {
-			pauseAt = time;
-		}
-		return true;
+		return current().pauseSimulation(time);
 	}
 
 	/**
@@ -728,13 +471,7 @@ public class CloudSim {
 	 * @return if the simulation has been restarted or or otherwise.
 	 */
 	public static boolean resumeSimulation() {
-		paused = false;
-
-		if (pauseAt <= clock) {
-			pauseAt = -1;
-		}
-
-		return !paused;
+		return current().resumeSimulation();
 	}
 
 	/**
@@ -744,91 +481,14 @@ public class CloudSim {
 	 * @return the last clock value
 	 */
 	public static double run() {
-		if (!running) {
-			runStart();
-		}
-		while (true) {
-			if (!runClockTick() || abruptTerminate) {
-				break;
-			}
-
-			// this block allows termination of simulation at a specific time
-			if (terminateAt > 0.0 && clock >= terminateAt) {
-				terminateSimulation();
-				clock = terminateAt;
-				break;
-			}
-
-			if (pauseAt != -1
-					&& ((!future.isEmpty() && clock <= pauseAt && pauseAt <= future.peek()
-							.eventTime()) || future.isEmpty() && pauseAt <= clock)) {
-				pauseSimulation();
-				clock = pauseAt;
-			}
-
-			while (paused) {
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
-		}
-
-		double clock = clock();
-
-		finishSimulation();
-		runStop();
-
-		return clock;
-	}
-
-	/**
-	 * Internal method that allows the entities to terminate. This method should <b>not</b> be used
-	 * in user simulations.
-	 */
-	private static void finishSimulation() {
-		// Allow all entities to exit their body method
-		if (!abruptTerminate) {
-			for (SimEntity ent : entities) {
-				if (ent.getState() != SimEntity.EntityStatus.FINISHED) {
-					ent.run();
-				}
-			}
-		}
-
-		for (SimEntity ent : entities) {
-			ent.shutdownEntity();
-		}
-
-		// reset all static variables
-		// Private data members
-		entities = null;
-		entitiesByName = null;
-		future = null;
-		clock = 0L;
-		running = false;
-
-		waitPredicates = null;
-		paused = false;
-		pauseAt = -1;
-		abruptTerminate = false;
+		return current().run();
 	}
 
 	/**
 	 * Abruptally terminate.
 	 */
 	public static void abruptallyTerminate() {
-		abruptTerminate = true;
-	}
-
-	/**
-	 * Prints a message about the progress of the simulation.
-	 * 
-	 * @param message the message
-	 */
-	private static void printMessage(String message) {
-		Log.println(message);
+		current().abruptallyTerminate();
 	}
 
 	/**
@@ -837,7 +497,7 @@ public class CloudSim {
 	 * @return true, if is paused
 	 */
 	public static boolean isPaused() {
-		return paused;
+		return current().isPaused();
 	}
 
 }
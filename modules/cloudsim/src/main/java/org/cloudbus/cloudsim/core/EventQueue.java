@@ -8,19 +8,17 @@
 
 package org.cloudbus.cloudsim.core;
 
-import org.cloudbus.cloudsim.Log;
-
-import java.util.Iterator;
 import java.util.PriorityQueue;
 
 /**
- * This class implements the event queue used by {@link CloudSim}.
+ * This class implements the event queue used by {@link CloudSim} as a binary heap.
+ * It is the default {@link FutureEventList} and also holds the deferred events of each {@link SimEntity}.
  *
  * @author Remo Andreoli
  * @since CloudSim Toolkit 7.0
  *
  */
-public class EventQueue extends PriorityQueue<SimEvent> {
+public class EventQueue extends PriorityQueue<SimEvent> implements FutureEventList {
 	/** A incremental number used for event attribute */
 	private long serial = 0;
 
@@ -53,12 +51,4 @@ public class EventQueue extends PriorityQueue<SimEvent> {
 		return super.poll();
 	}
 
-	public void print() {
-		Iterator<SimEvent> iter = iterator();
-		int i = 0;
-		while(iter.hasNext()) {
-			Log.printlnConcat("[", i, "] -> ", iter.next().toString());
-			i++;
-		}
-	}
 }
\ No newline at end of file
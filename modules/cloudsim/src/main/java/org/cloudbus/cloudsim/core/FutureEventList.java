@@ -0,0 +1,88 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Log;
+
+import java.util.Iterator;
+
+/**
+ * The future event list used by {@link CloudSim} to store the events that have been scheduled
+ * but not dispatched yet. Implementations must return the events in the order defined by
+ * {@link SimEvent#compareTo(SimEvent)}, i.e., by event time first and by serial number for events
+ * occurring at the same time.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see EventQueue
+ * @see CalendarEventQueue
+ */
+public interface FutureEventList extends Iterable<SimEvent> {
+
+	/**
+	 * Adds a new event to the list, preserving the temporal order of the events.
+	 *
+	 * @param newEvent The event to be put in the list.
+	 */
+	void addEvent(SimEvent newEvent);
+
+	/**
+	 * Adds a new event to the head of the events occurring at the same time.
+	 *
+	 * @param newEvent The event to be put in the list.
+	 */
+	void addEventFirst(SimEvent newEvent);
+
+	/**
+	 * Retrieves and removes the first event of the list.
+	 *
+	 * @return the first event, or null if the list is empty or the simulation is not running
+	 */
+	SimEvent poll();
+
+	/**
+	 * Retrieves, but does not remove, the first event of the list.
+	 *
+	 * @return the first event, or null if the list is empty
+	 */
+	SimEvent peek();
+
+	/**
+	 * Gets the number of events in the list.
+	 *
+	 * @return the number of events
+	 */
+	int size();
+
+	/**
+	 * Checks whether the list is empty.
+	 *
+	 * @return true if there are no events, false otherwise
+	 */
+	boolean isEmpty();
+
+	/**
+	 * Gets an iterator over the events of the list, in no particular order.
+	 * The iterator must support {@link Iterator#remove()}.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	Iterator<SimEvent> iterator();
+
+	/**
+	 * Prints the events of the list.
+	 */
+	default void print() {
+		int i = 0;
+		for (SimEvent ev : this) {
+			Log.printlnConcat("[", i, "] -> ", ev.toString());
+			i++;
+		}
+	}
+}
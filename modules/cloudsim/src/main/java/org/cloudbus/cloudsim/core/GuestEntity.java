@@ -193,6 +193,42 @@ public interface GuestEntity extends CoreAttributes {
         return userId + "-" + vmId;
     }
 
+    /**
+     * Gets the unique key of the guest, which packs its user id and id in a long.
+     * It identifies the guest as {@link #getUid()} does, without building a string.
+     *
+     * @return the guest key
+     * @see org.cloudbus.cloudsim.util.GuestKeyMap
+     * @since CloudSim Toolkit 7.0
+     */
+    default long getKey() {
+        return getKey(getUserId(), getId());
+    }
+
+    /**
+     * Generates the unique key of a guest, which packs its user id and id in a long.
+     *
+     * @param userId the user id
+     * @param vmId the vm id
+     * @return the guest key
+     * @since CloudSim Toolkit 7.0
+     */
+    static long getKey(int userId, int vmId) {
+        return ((long) userId << 32) | (vmId & 0xffffffffL);
+    }
+
+    /**
+     * Generates the unique string identifier of a guest from its key.
+     *
+     * @param key the guest key
+     * @return string uid
+     * @see #getKey(int, int)
+     * @since CloudSim Toolkit 7.0
+     */
+    static String getUid(long key) {
+        return getUid((int) (key >> 32), (int) key);
+    }
+
     /** The mips allocation history.
      * @TODO Instead of using a list, this attribute would be
      * a map, where the key can be the history time
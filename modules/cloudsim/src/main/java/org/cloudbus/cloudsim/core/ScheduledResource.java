@@ -65,11 +65,12 @@ public class ScheduledResource extends SimEntity {
     }
 
     private void scheduleNext() {
-        CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
-        if (amountsLeft.isEmpty())
+        if (amountsLeft.isEmpty()) {
+            CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
             return;
+        }
         double delay = amountsLeft.getFirst().amountLeft / capacity * amountsLeft.size();
-        schedule(getId(), delay, CloudActionTags.NETWORK_PKT_FORWARD);
+        reschedule(getId(), delay, CloudActionTags.NETWORK_PKT_FORWARD);
     }
 
     // trigger an event with the specified parameters when amount is consumed
@@ -45,6 +45,9 @@ public abstract class SimEntity implements Cloneable {
 	private EntityStatus state;
 	protected EventQueue incomingEvents;
 
+	/** The simulation context the entity belongs to. */
+	private final SimulationContext context;
+
 	/**
 	 * Creates a new entity.
 	 * 
@@ -59,7 +62,8 @@ public abstract class SimEntity implements Cloneable {
 		state = EntityStatus.RUNNABLE;
 		incomingEvents = new EventQueue();
 
-		CloudSim.addEntity(this);
+		context = SimulationContext.current();
+		context.addEntity(this);
 	}
 
 	/**
@@ -80,6 +84,16 @@ public abstract class SimEntity implements Cloneable {
 		return id;
 	}
 
+	/**
+	 * Gets the simulation context the entity belongs to, i.e., the one that was current
+	 * when the entity was created.
+	 *
+	 * @return the simulation context
+	 */
+	public SimulationContext getSimulationContext() {
+		return context;
+	}
+
 	public EventQueue getIncomingEvents() {
 		return incomingEvents;
 	}
@@ -108,7 +122,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the sim event
 	 */
 	public SimEvent selectEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return null;
 		}
 
@@ -151,10 +165,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void schedule(int dstId, double delay, CloudSimTags tag, Object data) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return;
 		}
-		CloudSim.send(id, dstId, delay, tag, data);
+		context.send(id, dstId, delay, tag, data);
 	}
 
 	/**
@@ -177,7 +191,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void schedule(String dstName, double delay, CloudSimTags tag, Object data) {
-		schedule(CloudSim.getEntityId(dstName), delay, tag, data);
+		schedule(context.getEntityId(dstName), delay, tag, data);
 	}
 
 	/**
@@ -222,7 +236,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleNow(String dstName, CloudSimTags tag, Object data) {
-		schedule(CloudSim.getEntityId(dstName), 0, tag, data);
+		schedule(context.getEntityId(dstName), 0, tag, data);
 	}
 
 	/**
@@ -245,10 +259,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirst(int dstId, double delay, CloudSimTags tag, Object data) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return;
 		}
-		CloudSim.sendFirst(id, dstId, delay, tag, data);
+		context.sendFirst(id, dstId, delay, tag, data);
 	}
 
 	/**
@@ -271,7 +285,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirst(String dstName, double delay, CloudSimTags tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dstName), delay, tag, data);
+		scheduleFirst(context.getEntityId(dstName), delay, tag, data);
 	}
 
 	/**
@@ -318,7 +332,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirstNow(String dstName, CloudSimTags tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dstName), 0, tag, data);
+		scheduleFirst(context.getEntityId(dstName), 0, tag, data);
 	}
 
 	/**
@@ -332,6 +346,37 @@ public abstract class SimEntity implements Cloneable {
 		scheduleFirst(dstName, 0, tag, null);
 	}
 
+	/**
+	 * Sends a periodic event to another entity by id number, with data, replacing the events
+	 * with the same tag previously scheduled by this entity. The pending event is kept if it
+	 * already has the same destination, time and data, and the dispatching order does not change.
+	 *
+	 * @param dstId The unique id number of the destination entity
+	 * @param delay How long from the current simulation time the event should be sent
+	 * @param tag event type.
+	 * @param data The data to be sent with the event.
+	 * @see CloudSim#reschedule(int, int, double, CloudSimTags, Object)
+	 */
+	public void reschedule(int dstId, double delay, CloudSimTags tag, Object data) {
+		if (!context.running()) {
+			return;
+		}
+		context.reschedule(id, dstId, delay, tag, data);
+	}
+
+	/**
+	 * Sends a periodic event to another entity by id number and with <b>no</b> data, replacing
+	 * the events with the same tag previously scheduled by this entity.
+	 *
+	 * @param dstId The unique id number of the destination entity
+	 * @param delay How long from the current simulation time the event should be sent
+	 * @param tag event type.
+	 * @see CloudSim#reschedule(int, int, double, CloudSimTags, Object)
+	 */
+	public void reschedule(int dstId, double delay, CloudSimTags tag) {
+		reschedule(dstId, delay, tag, null);
+	}
+
 	/**
 	 * Sets the entity to be inactive for a time period.
 	 * 
@@ -341,10 +386,10 @@ public abstract class SimEntity implements Cloneable {
 		if (delay < 0) {
 			throw new IllegalArgumentException("Negative delay supplied.");
 		}
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return;
 		}
-		CloudSim.pause(id, delay);
+		context.pause(id, delay);
 	}
 
 	/**
@@ -375,11 +420,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The number of events cancelled (0 or 1)
 	 */
 	public SimEvent cancelEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return null;
 		}
 
-		return CloudSim.cancel(id, p);
+		return context.cancel(id, p);
 	}
 
 	/**
@@ -390,7 +435,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the simulation event
 	 */
 	public SimEvent getNextEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return null;
 		}
 		return selectEvent(p);
@@ -403,11 +448,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @param p The predicate to match
 	 */
 	public void waitForEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return;
 		}
 
-		CloudSim.wait(id, p);
+		context.waitForEvent(id, p);
 		state = EntityStatus.WAITING;
 	}
 
@@ -416,7 +461,7 @@ public abstract class SimEntity implements Cloneable {
 	 * It should be responsible for starting the entity up.
 	 */
 	public void startEntity() {
-		Log.printlnConcat(CloudSim.clock(), ": ", getName(), " is starting...");
+		Log.printlnConcat(context.clock(), ": ", getName(), " is starting...");
 	}
 
 	/**
@@ -434,7 +479,7 @@ public abstract class SimEntity implements Cloneable {
 	 * to save data in log files this is the method in which the corresponding code would be placed.
 	 */
 	public void shutdownEntity() {
-		Log.printlnConcat(CloudSim.clock(), ": ", getName(), " is shutting down...");
+		Log.printlnConcat(context.clock(), ": ", getName(), " is shutting down...");
 		incomingEvents = null;
 		state = EntityStatus.FINISHED;
 	}
@@ -502,6 +547,9 @@ public abstract class SimEntity implements Cloneable {
 	 */
 	protected void setState(EntityStatus state) {
 		this.state = state;
+		if (state == EntityStatus.RUNNABLE && incomingEvents != null && !incomingEvents.isEmpty()) {
+			context.markReady(this);
+		}
 	}
 
 	/**
@@ -587,7 +635,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @post $none
 	 */
 	protected void send(String dstName, double delay, CloudSimTags tag, Object data) {
-		send(CloudSim.getEntityId(dstName), delay, tag, data);
+		send(context.getEntityId(dstName), delay, tag, data);
 	}
 
 	/**
@@ -646,7 +694,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @post $none
 	 */
 	protected void sendNow(String dstId, CloudSimTags tag, Object data) {
-		send(CloudSim.getEntityId(dstId), 0, tag, data);
+		send(context.getEntityId(dstId), 0, tag, data);
 	}
 
 	/**
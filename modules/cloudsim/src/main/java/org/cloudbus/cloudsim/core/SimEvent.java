@@ -52,6 +52,12 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          */
 	private long serial = -1;
 
+	/**
+	 * Whether the event has been cancelled while still in the future event list.
+	 * Cancelled events are lazily discarded when they reach the head of the list.
+	 */
+	private boolean cancelled = false;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -81,6 +87,22 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.serial = serial;
 	}
 
+	/**
+	 * Marks the event as cancelled.
+	 */
+	void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Checks whether the event has been cancelled.
+	 *
+	 * @return true if the event has been cancelled, false otherwise
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
 	/**
 	 * Sets the time that the event was removed from the queue to start service. 
 	 * 
@@ -204,4 +226,20 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	public Object clone() {
 		return new SimEvent(etype, time, entSrc, entDst, tag, data);
 	}
+
+	/**
+	 * Creates a copy of this event carrying another tag and data, e.g., to process each item of
+	 * a batch event as if it had been sent in an event of its own.
+	 *
+	 * @param tag the tag of the copy
+	 * @param data the data of the copy
+	 * @return the copy, received at the same time as this event
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public SimEvent copy(CloudSimTags tag, Object data) {
+		SimEvent copy = new SimEvent(etype, time, entSrc, entDst, tag, data);
+		copy.serial = serial;
+		copy.endWaitingTime = endWaitingTime;
+		return copy;
+	}
 }
@@ -0,0 +1,1311 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * The state of a simulation: its clock, entities and future event queue, as well as the state of the
+ * other simulation-wide services (e.g., the network topology and the logger).
+ * <p>
+ * The static API of {@link CloudSim} is a facade over the context bound to the current thread,
+ * which is the {@link #getDefault() default context} unless another one has been bound with
+ * {@link #execute(Runnable)} or {@link #call(Callable)}. Several simulations can therefore be run in
+ * parallel in the same JVM, each one in its own context and thread:
+ * <pre>
+ * SimulationContext context = new SimulationContext();
+ * executor.submit(() -&gt; context.execute(() -&gt; {
+ *     CloudSim.init(1, null, false);
+ *     // create datacenters, brokers, VMs and cloudlets
+ *     CloudSim.startSimulation();
+ * }));
+ * </pre>
+ * Each {@link SimEntity} is bound to the context that was current when it was created.
+ * A context must be used by one thread at a time, except for {@link #getComponent(Class, Supplier)}.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see CloudSim
+ */
+public class SimulationContext {
+
+	/** The context used by the threads which have not been bound to another context. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+
+	/** The context bound to each thread. */
+	private static final ThreadLocal<SimulationContext> CURRENT = new ThreadLocal<>();
+
+	/** A context bound to a thread. */
+	private record Binding(Thread thread, SimulationContext context) {
+	}
+
+	/**
+	 * The context bound to the thread running the last started simulation, so that the calls of
+	 * {@link CloudSim}, such as {@link CloudSim#clock()}, get it without a thread-local lookup. It
+	 * is only updated by that thread, so a binding read by a thread for itself is up to date.
+	 */
+	private static volatile Binding simulationThread;
+
+	/**
+	 * The state of the other simulation-wide services, keyed by their type. It is a concurrent map since
+	 * the threads helping the simulation thread, e.g., to update hosts in parallel, also get them.
+	 */
+	private final Map<Class<?>, Object> components = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the context bound to the current thread.
+	 *
+	 * @return the current context, or the default one if the thread is not bound to any context
+	 */
+	public static SimulationContext current() {
+		Binding binding = simulationThread;
+		if (binding != null && binding.thread() == Thread.currentThread()) {
+			return binding.context();
+		}
+		SimulationContext context = CURRENT.get();
+		return context == null ? DEFAULT : context;
+	}
+
+	/**
+	 * Gets the default context, which is used by the threads which have not been bound to another context.
+	 *
+	 * @return the default context
+	 */
+	public static SimulationContext getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Checks whether this is the default context.
+	 *
+	 * @return true if this is the default context, false otherwise
+	 */
+	public boolean isDefault() {
+		return this == DEFAULT;
+	}
+
+	/**
+	 * Runs a task with this context bound to the current thread. The previous binding is restored
+	 * when the task finishes.
+	 *
+	 * @param task the task to run
+	 */
+	public void execute(Runnable task) {
+		SimulationContext previous = bind();
+		try {
+			task.run();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Runs a task with this context bound to the current thread and returns its result.
+	 * The previous binding is restored when the task finishes.
+	 *
+	 * @param task the task to run
+	 * @param <T> the type of the result
+	 * @return the result of the task
+	 * @throws Exception if the task fails
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SimulationContext previous = bind();
+		try {
+			return task.call();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Binds this context to the current thread.
+	 *
+	 * @return the context that was bound before
+	 */
+	private SimulationContext bind() {
+		SimulationContext previous = CURRENT.get();
+		CURRENT.set(this);
+		updateSimulationThread(this);
+		return previous;
+	}
+
+	/**
+	 * Restores the context that was bound to the current thread before calling {@link #bind()}.
+	 *
+	 * @param previous the previous context
+	 */
+	private static void restore(SimulationContext previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+		updateSimulationThread(previous == null ? DEFAULT : previous);
+	}
+
+	/**
+	 * Updates the context cached for the simulation thread, if the current thread is that one.
+	 *
+	 * @param context the context now bound to the current thread
+	 */
+	private static void updateSimulationThread(SimulationContext context) {
+		Binding binding = simulationThread;
+		if (binding != null && binding.thread() == Thread.currentThread()) {
+			simulationThread = new Binding(binding.thread(), context);
+		}
+	}
+
+	/**
+	 * Gets the state of a simulation-wide service in this context, creating it if needed.
+	 * It allows the classes exposing a static API (e.g., {@link org.cloudbus.cloudsim.NetworkTopology})
+	 * to keep their state per simulation. It can be called by several threads at the same time, and
+	 * the state is only created once.
+	 *
+	 * @param type the type of the state, used as key
+	 * @param factory the factory used to create the state the first time
+	 * @param <T> the type of the state
+	 * @return the state of the service
+	 */
+	public <T> T getComponent(Class<T> type, Supplier<? extends T> factory) {
+		return type.cast(components.computeIfAbsent(type, k -> factory.get()));
+	}
+
+	/** The id of CIS entity. */
+	private int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	private int shutdownId = -1;
+
+	/** The CIS object. */
+	private CloudInformationService cis = null;
+
+	/** The Constant NOT_FOUND. */
+	private static final int NOT_FOUND = -1;
+
+	/** The trace flag. */
+	private boolean traceFlag = false;
+
+	/** The calendar. */
+	private Calendar calendar = null;
+
+	/** The termination time. */
+	private double terminateAt = -1;
+
+	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
+	private double minTimeBetweenEvents = 0.01;
+	
+	/**
+	 * Initialises all the common attributes.
+	 * 
+	 * @param _calendar the _calendar
+	 * @param _traceFlag the _trace flag
+	 * @param numUser number of users
+	 * @throws Exception This happens when creating this entity before initialising CloudSim package
+	 *             or this entity name is <tt>null</tt> or empty
+	 * @pre $none
+	 * @post $none
+	 */
+	private void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
+			throws Exception {
+		initialize();
+		// NOTE: the order for the below 3 lines are important
+		traceFlag = _traceFlag;
+
+		// Set the current Wall clock time as the starting time of
+		// simulation
+		if (_calendar == null) {
+			calendar = Calendar.getInstance();
+		} else {
+			calendar = _calendar;
+		}
+
+		// creates a CloudSimShutdown object
+		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
+		shutdownId = shutdown.getId();
+	}
+
+	/**
+	 * Initialises CloudSim parameters. This method should be called before creating any entities.
+	 * <p>
+	 * Inside this method, it will create the following CloudSim entities:
+	 * <ul>
+	 * <li>CloudInformationService.
+	 * <li>CloudSimShutdown
+	 * </ul>
+	 * <p>
+	 * 
+	 * @param numUser the number of User Entities created. This parameters indicates that
+	 *            {@link CloudSimShutdown} first waits for all user entities's
+	 *            END_OF_SIMULATION signal before issuing terminate signal to other entities
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @see CloudSimShutdown
+	 * @see CloudInformationService
+	 * @pre numUser >= 0
+	 * @post $none
+	 */
+	public void init(int numUser, Calendar cal, boolean traceFlag) {
+		SimulationContext previous = bind();
+		try {
+			initCommonVariable(cal, traceFlag, numUser);
+
+			// create a GIS object
+			cis = new CloudInformationService("CloudInformationService");
+
+			// set all the above entity IDs
+			cisId = cis.getId();
+		} catch (Exception s) {
+			Log.println("CloudSim.init(): The simulation has been terminated due to an unexpected error");
+			Log.println(s.getMessage());
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Initialises CloudSim parameters. This method should be called before creating any entities.
+	 * <p>
+	 * Inside this method, it will create the following CloudSim entities:
+	 * <ul>
+	 * <li>CloudInformationService.
+	 * <li>CloudSimShutdown
+	 * </ul>
+	 * <p>
+	 * 
+	 * @param numUser the number of User Entities created. This parameters indicates that
+	 *            {@link CloudSimShutdown} first waits for all user entities's
+	 *            END_OF_SIMULATION signal before issuing terminate signal to other entities
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param minTimeBetweenEvents - the minimal period between events. Events within shorter periods
+	 * after the last event are discarded.
+	 * @see CloudSimShutdown
+	 * @see CloudInformationService
+	 * @pre numUser >= 0
+	 * @post $none
+	 */
+	public void init(int numUser, Calendar cal, boolean traceFlag, double minTimeBetweenEvents) {
+	    if (minTimeBetweenEvents <= 0) {
+		throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + minTimeBetweenEvents);
+	    }
+	    
+	    init(numUser, cal, traceFlag);
+	    this.minTimeBetweenEvents = minTimeBetweenEvents;
+	}
+
+	/**
+	 * Initialises CloudSim parameters, using the given implementation of the future event list.
+	 * This method should be called before creating any entities.
+	 * <p>
+	 * The default future event list is an {@link EventQueue}, i.e., a binary heap. A
+	 * {@link CalendarEventQueue} provides amortised constant time insertion and extraction and is
+	 * faster for simulations that keep a large number of pending events.
+	 *
+	 * @param numUser the number of User Entities created. This parameters indicates that
+	 *            {@link CloudSimShutdown} first waits for all user entities's
+	 *            END_OF_SIMULATION signal before issuing terminate signal to other entities
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param futureEventList an empty future event list
+	 * @see FutureEventList
+	 * @pre numUser >= 0
+	 * @post $none
+	 */
+	public void init(int numUser, Calendar cal, boolean traceFlag, FutureEventList futureEventList) {
+		if (futureEventList == null || !futureEventList.isEmpty()) {
+			throw new IllegalArgumentException("The future event list should be empty and not null.");
+		}
+
+		init(numUser, cal, traceFlag);
+		future = futureEventList;
+	}
+	
+	
+	
+	/**
+	 * Starts the execution of CloudSim simulation. It waits for complete execution of all entities,
+	 * i.e. until all entities threads reach non-RUNNABLE state or there are no more events in the
+	 * future event queue.
+	 * <p>
+	 * <b>Note</b>: This method should be called after all the entities have been setup and added.
+	 * 
+	 * @return the last clock time
+	 * @throws NullPointerException This happens when creating this entity before initialising
+	 *             CloudSim package or this entity name is <tt>null</tt> or empty.
+	 * @see CloudSim#init(int, Calendar, boolean)
+	 * @pre $none
+	 * @post $none
+	 */
+	public double startSimulation() throws NullPointerException {
+		SimulationContext previous = bind();
+		simulationThread = new Binding(Thread.currentThread(), this);
+		Log.printlnConcat("Starting CloudSim version ", CloudSim.getVersion());
+		try {
+			double clock = run();
+
+			// reset all the state variables
+			cisId = -1;
+			shutdownId = -1;
+			cis = null;
+			calendar = null;
+			traceFlag = false;
+
+			return clock;
+		} catch (IllegalArgumentException e) {
+			e.printStackTrace();
+			throw new NullPointerException("CloudSim.startCloudSimulation() :"
+					+ " Error - you haven't initialized CloudSim.");
+		} finally {
+			restore(previous);
+			// the finished simulation is not referenced anymore
+			if (simulationThread != null && simulationThread.thread() == Thread.currentThread()) {
+				simulationThread = null;
+			}
+		}
+	}
+
+	/**
+	 * Stops Cloud Simulation. This should be only called if
+	 * any of the user defined entities <b>explicitly</b> want to terminate simulation during
+	 * execution.
+	 * 
+	 * @throws NullPointerException This happens when creating this entity before initialising
+	 *             CloudSim package or this entity name is <tt>null</tt> or empty
+	 * @see CloudSim#init(int, Calendar, boolean)
+	 * @pre $none
+	 * @post $none
+	 */
+	public void stopSimulation() throws NullPointerException {
+		try {
+			runStop();
+		} catch (IllegalArgumentException e) {
+			throw new NullPointerException("CloudSim.stopCloudSimulation() : "
+					+ "Error - can't stop Cloud Simulation.");
+		}
+	}
+
+	/**
+	 * This method is called if one wants to terminate the simulation.
+	 * 
+	 * @return true, if successful; false otherwise.
+	 */
+	public void terminateSimulation() {
+		running = false;
+		printMessage("Simulation: Reached termination time.");
+	}
+
+	/**
+	 * This method is called if one wants to terminate the simulation at a given time.
+	 * 
+	 * @param time the time at which the simulation has to be terminated
+	 * @return true, if successful otherwise.
+	 */
+	public boolean terminateSimulation(double time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			terminateAt = time;
+		}
+		return true;
+	}
+
+	
+	/**
+	 * Returns the minimum time between events. Events within shorter periods after the last event are discarded. 
+	 * @return the minimum time between events.
+	 */
+	public double getMinTimeBetweenEvents() {
+	    return minTimeBetweenEvents;
+	}
+
+	/**
+	 * Gets a new copy of initial simulation Calendar.
+	 * 
+	 * @return a new copy of Calendar object or if CloudSim hasn't been initialized
+	 * @pre $none
+	 * @post $none
+	 */
+	public Calendar getSimulationCalendar() {
+		// make a new copy
+		Calendar clone = calendar;
+		if (calendar != null) {
+			clone = (Calendar) calendar.clone();
+		}
+
+		return clone;
+	}
+
+	/**
+	 * Gets the entity ID of <tt>CloudInformationService</tt>.
+	 * 
+	 * @return the Entity ID or if it is not found
+	 * @pre $none
+	 * @post $result >= -1
+	 */
+	public int getCloudInfoServiceEntityId() {
+		return cisId;
+	}
+
+	/**
+	 * Sends a request to Cloud Information Service (CIS) entity to get the list of all Cloud
+	 * hostList.
+	 * 
+	 * @return A List containing CloudResource ID (as an Integer object) or if a CIS entity hasn't
+	 *         been created before
+	 * @pre $none
+	 * @post $none
+	 */
+	public List<Integer> getCloudResourceList() {
+		if (cis == null) {
+			return null;
+		}
+
+		return cis.getList();
+	}
+
+	// ======== SIMULATION METHODS ===============//
+
+	/** The entities. */
+	private List<SimEntity> entities;
+
+	/** The future event queue. */
+	private FutureEventList future;
+
+	/**
+	 * The pending events of the future queue, indexed by source entity id and tag.
+	 * It allows cancelling events by {@link PredicateType} without scanning the whole queue.
+	 */
+	private Map<Integer, Map<CloudSimTags, Set<SimEvent>>> pendingEvents;
+
+	/** The number of cancelled events that are still in the future queue. */
+	private int cancelledEvents;
+
+	/**
+	 * The events sent by {@link #reschedule(int, int, double, CloudSimTags, Object)}, by time, as long as
+	 * no other event has been sent for the same time after them. Only these events can be kept by a later
+	 * reschedule without changing the order in which the events are dispatched.
+	 */
+	private Map<Double, SimEvent> lastRescheduledEvents;
+
+	/** The minimum number of cancelled events before the future queue is purged. */
+	private static final int MIN_CANCELLED_EVENTS_TO_PURGE = 1024;
+
+	/**
+	 * The flags of the runnable entities that have events in their deferred queue, indexed by id.
+	 * Only these entities are run at each clock tick.
+	 */
+	private BitSet readyEntities;
+
+
+	/** 
+         * The current simulation clock.
+         */
+	private double clock;
+
+	/** Flag for checking if the simulation is running. */
+	private boolean running;
+
+	/** The entities by name. */
+	private Map<String, SimEntity> entitiesByName;
+
+	// The predicates used in entity wait methods
+	/** The wait predicates. */
+	private Map<Integer, Predicate> waitPredicates;
+
+	/** The paused. */
+	private boolean paused = false;
+
+	/** The pause at. */
+	private long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	private boolean abruptTerminate = false;
+
+	/**
+	 * Initialise the simulation for stand alone simulations. This function should be called at the
+	 * start of the simulation.
+	 */
+	void initialize() {
+		Log.println("Initialising...");
+		entities = new ArrayList<>();
+		entitiesByName = new LinkedHashMap<>();
+		future = new EventQueue();
+		pendingEvents = new HashMap<>();
+		cancelledEvents = 0;
+		lastRescheduledEvents = new HashMap<>();
+		readyEntities = new BitSet();
+		waitPredicates = new HashMap<>();
+		clock = 0;
+		running = false;
+	}
+
+
+	// Public access methods
+
+	/**
+	 * Get the current simulation time.
+	 * 
+	 * @return the simulation time
+	 */
+	public double clock() {
+		return clock;
+	}
+
+	/**
+	 * Get the current number of entities in the simulation.
+	 * 
+	 * @return The number of entities
+	 */
+	public int getNumEntities() {
+		return entities.size();
+	}
+
+	/**
+	 * Get the entity with a given id.
+	 * 
+	 * @param id the entity's unique id number
+	 * @return The entity, or if it could not be found
+	 */
+	public SimEntity getEntity(int id) {
+		return entities.get(id);
+	}
+
+	/**
+	 * Get the entity with a given name.
+	 * 
+	 * @param name The entity's name
+	 * @return The entity
+	 */
+	public SimEntity getEntity(String name) {
+		return entitiesByName.get(name);
+	}
+
+	/**
+	 * Get the id of an entity with a given name.
+	 * 
+	 * @param name The entity's name
+	 * @return The entity's unique id number
+	 */
+	public int getEntityId(String name) {
+		SimEntity obj = entitiesByName.get(name);
+		if (obj == null) {
+			return NOT_FOUND;
+		} else {
+			return obj.getId();
+		}
+	}
+
+	/**
+	 * Gets name of the entity given its entity ID.
+	 * 
+	 * @param entityID the entity ID
+	 * @return the Entity name or if this object does not have one
+	 * @pre entityID > 0
+	 * @post $none
+	 */
+	public String getEntityName(int entityID) {
+		try {
+			return getEntity(entityID).getName();
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets name of the entity given its entity ID.
+	 * 
+	 * @param entityID the entity ID
+	 * @return the Entity name or if this object does not have one
+	 * @pre entityID > 0
+	 * @post $none
+	 */
+	public String getEntityName(Integer entityID) {
+		if (entityID != null) {
+			return getEntityName(entityID.intValue());
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a list of entities created for the simulation.
+	 * 
+	 * @return the entity iterator
+	 */
+	public List<SimEntity> getEntityList() {
+		// create a new list to prevent the user from changing
+		// the list of entities used by Simulation
+		List<SimEntity> list = new LinkedList<>(entities);
+		return list;
+	}
+
+	// Public update methods
+
+	/**
+	 * Add a new entity to the simulation. This is present for compatibility with existing
+	 * simulations since entities are automatically added to the simulation upon instantiation.
+	 * 
+	 * @param e The new entity
+	 */
+	public void addEntity(SimEntity e) {
+		SimEvent evt;
+		if (running) {
+			// Post an event to make this entity
+			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
+			addFutureEvent(evt, false);
+		}
+		if (e.getId() == -1) { // Only add once!
+			int id = entities.size();
+			e.setId(id);
+			entities.add(e);
+			entitiesByName.put(e.getName(), e);
+		}
+	}
+
+	/**
+	 * Internal method used to add a new entity to the simulation when the simulation is running. It
+	 * should <b>not</b> be called from user simulations.
+	 * 
+	 * @param e The new entity
+	 */
+	void addEntityDynamically(SimEntity e) {
+		if (e == null) {
+			throw new IllegalArgumentException("Adding null entity.");
+		} else {
+			printMessage("Adding: " + e.getName());
+		}
+		e.startEntity();
+	}
+
+	/**
+	 * Internal method used to run one tick of the simulation. This method should <b>not</b> be
+	 * called in simulations.
+	 * 
+	 * @return true if there are events to be processed, false if event queue is empty
+	 */
+	private boolean runClockTick() {
+		// run the entities with deferred events, in the order of their ids; as when all the entities
+		// were scanned, those which become ready meanwhile are run in this tick if their id is higher
+		for (int id = readyEntities.nextSetBit(0); id >= 0; id = readyEntities.nextSetBit(id + 1)) {
+			readyEntities.clear(id);
+			SimEntity ent = entities.get(id);
+			if (ent.getState() == SimEntity.EntityStatus.RUNNABLE) {
+				ent.run();
+			}
+		}
+
+		SimEvent first = peekFutureEvent();
+		if (first == null) {
+			running = false;
+			printMessage(clock+": Simulation: No more future events");
+			return false;
+		}
+
+		double clk = first.eventTime();
+		SimEvent next = first;
+		while (next != null && next.eventTime() == clk) {
+			dispatchEvent(pollFutureEvent());
+			next = peekFutureEvent();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Internal method used to stop the simulation. This method should <b>not</b> be used directly.
+	 */
+	public void runStop() {
+		printMessage("Simulation completed.");
+	}
+
+	/**
+	 * Used to pause an entity for some time.
+	 * 
+	 * @param srcId the entity source id
+	 * @param delay the delay
+	 */
+	public void pause(int srcId, double delay) {
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, srcId);
+		addFutureEvent(e, false);
+		entities.get(srcId).setState(SimEntity.EntityStatus.HOLDING);
+	}
+
+	/**
+	 * Used to send an event from one entity to another.
+	 * 
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 */
+	public void send(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+		if(delay >= Double.MAX_VALUE) {
+			throw new RuntimeException("Send delay can't be infinite.");
+		}
+
+		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
+		addFutureEvent(e, false);
+	}
+
+	/**
+	 * Used to send an event from one entity to another, with priority in the queue.
+	 * 
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 */
+	public void sendFirst(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+
+		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
+		addFutureEvent(e, true);
+	}
+
+	/**
+	 * Used to send a periodic event from one entity to another, replacing the events with the same
+	 * tag that the source entity has already scheduled. If the last of those events has been sent by
+	 * this method with exactly the same destination, time and data as the new one, and no other event
+	 * has been sent for the same time since, it is kept and no new event is created.
+	 * <p>
+	 * It is equivalent to a call to {@link #cancelAll(int, Predicate)} with a {@link PredicateType}
+	 * followed by {@link #send(int, int, double, CloudSimTags, Object)}: the kept event is dispatched
+	 * in the same order as the new event would be, but the future queue is not touched.
+	 *
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return true if an already scheduled event has been kept, false if a new event has been sent
+	 */
+	public boolean reschedule(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+		if(delay >= Double.MAX_VALUE) {
+			throw new RuntimeException("Send delay can't be infinite.");
+		}
+
+		double time = clock + delay;
+		SimEvent last = lastRescheduledEvents.get(time);
+		boolean kept = false;
+		Set<SimEvent> events = getPendingEvents(srcId, tag);
+		if (events != null) {
+			Iterator<SimEvent> iter = events.iterator();
+			while (iter.hasNext()) {
+				SimEvent ev = iter.next();
+				if (ev == last && ev.getType() == SimEvent.SEND && ev.getSourceId() == srcId
+						&& ev.getDestinationId() == dstId && ev.getData() == data) {
+					kept = true;
+				} else {
+					iter.remove();
+					markCancelled(ev);
+				}
+			}
+			prunePendingEvents(srcId, tag);
+		}
+
+		if (!kept) {
+			SimEvent e = new SimEvent(SimEvent.SEND, time, srcId, dstId, tag, data);
+			addFutureEvent(e, false);
+			lastRescheduledEvents.put(time, e);
+		}
+		purgeCancelledEvents();
+		return kept;
+	}
+
+	/**
+	 * Sets an entity's state to be waiting. The predicate used to wait for an event is now passed
+	 * to Sim_system. Only events that satisfy the predicate will be passed to the entity. This is
+	 * done to avoid unnecessary context switches.
+	 * 
+	 * @param srcId the src
+	 * @param p the p
+	 */
+	public void waitForEvent(int srcId, Predicate p) {
+		entities.get(srcId).setState(SimEntity.EntityStatus.WAITING);
+		if (p != CloudSim.SIM_ANY) {
+			// If a predicate has been used store it in order to check it
+			waitPredicates.put(srcId, p);
+		}
+	}
+
+	/**
+	 * Removes an event from the event queue.
+	 * 
+	 * @param srcId the entity source id
+	 * @param p the p
+	 * @return the sim event
+	 */
+	public SimEvent cancel(int srcId, Predicate p) {
+		if (p instanceof PredicateType predicateType) {
+			for (CloudSimTags tag : predicateType.getTags()) {
+				Set<SimEvent> events = getPendingEvents(srcId, tag);
+				if (events != null && !events.isEmpty()) {
+					SimEvent ev = events.iterator().next();
+					cancelPendingEvent(ev);
+					return ev;
+				}
+			}
+			return null;
+		}
+
+		for (SimEvent ev : future) {
+			if (!ev.isCancelled() && ev.getSourceId() == srcId && p.match(ev)) {
+				cancelPendingEvent(ev);
+				return ev;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes all events that match a given predicate from the future event queue returns true if
+	 * at least one event has been cancelled; false otherwise.
+	 * 
+	 * @param srcId the entity source id
+	 * @param p the p
+	 * @return true, if successful
+	 */
+	public boolean cancelAll(int srcId, Predicate p) {
+		boolean cancelled = false;
+		if (p instanceof PredicateType predicateType) {
+			Map<CloudSimTags, Set<SimEvent>> eventsByTag = pendingEvents.get(srcId);
+			if (eventsByTag == null) {
+				return false;
+			}
+			for (CloudSimTags tag : predicateType.getTags()) {
+				Set<SimEvent> events = eventsByTag.remove(tag);
+				if (events != null) {
+					for (SimEvent ev : events) {
+						markCancelled(ev);
+						cancelled = true;
+					}
+				}
+			}
+			if (eventsByTag.isEmpty()) {
+				pendingEvents.remove(srcId);
+			}
+		} else {
+			List<SimEvent> matches = new ArrayList<>();
+			for (SimEvent ev : future) {
+				if (!ev.isCancelled() && ev.getSourceId() == srcId && p.match(ev)) {
+					matches.add(ev);
+				}
+			}
+			for (SimEvent ev : matches) {
+				cancelPendingEvent(ev);
+			}
+			cancelled = !matches.isEmpty();
+		}
+
+		purgeCancelledEvents();
+		return cancelled;
+	}
+
+	//
+	// Private internal methods
+	//
+
+	/**
+	 * Adds an event to the future queue and to the index of pending events.
+	 *
+	 * @param e the event
+	 * @param first whether the event has priority over the events occurring at the same time
+	 */
+	private void addFutureEvent(SimEvent e, boolean first) {
+		if (first) {
+			future.addEventFirst(e);
+		} else {
+			future.addEvent(e);
+			if (!lastRescheduledEvents.isEmpty()) {
+				lastRescheduledEvents.remove(e.eventTime());
+			}
+		}
+		pendingEvents.computeIfAbsent(e.getSourceId(), k -> new HashMap<>())
+				.computeIfAbsent(e.getTag(), k -> new LinkedHashSet<>())
+				.add(e);
+	}
+
+	/**
+	 * Gets the events with a given tag scheduled by an entity and not yet dispatched.
+	 *
+	 * @param srcId the entity source id
+	 * @param tag the tag
+	 * @return the pending events in scheduling order, or null if there is none
+	 */
+	private Set<SimEvent> getPendingEvents(int srcId, CloudSimTags tag) {
+		Map<CloudSimTags, Set<SimEvent>> eventsByTag = pendingEvents.get(srcId);
+		return eventsByTag == null ? null : eventsByTag.get(tag);
+	}
+
+	/**
+	 * Removes an event from the index of pending events.
+	 *
+	 * @param e the event
+	 */
+	private void removePendingEvent(SimEvent e) {
+		Set<SimEvent> events = getPendingEvents(e.getSourceId(), e.getTag());
+		if (events != null && events.remove(e)) {
+			prunePendingEvents(e.getSourceId(), e.getTag());
+		}
+	}
+
+	/**
+	 * Removes the index entries of a tag and of an entity once they hold no pending event, so
+	 * that the index does not grow with every entity and tag ever used.
+	 *
+	 * @param srcId the entity source id
+	 * @param tag the tag
+	 */
+	private void prunePendingEvents(int srcId, CloudSimTags tag) {
+		Map<CloudSimTags, Set<SimEvent>> eventsByTag = pendingEvents.get(srcId);
+		if (eventsByTag != null) {
+			Set<SimEvent> events = eventsByTag.get(tag);
+			if (events != null && events.isEmpty()) {
+				eventsByTag.remove(tag);
+				if (eventsByTag.isEmpty()) {
+					pendingEvents.remove(srcId);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Cancels a pending event, leaving it in the future queue as a tombstone.
+	 *
+	 * @param e the event
+	 */
+	private void cancelPendingEvent(SimEvent e) {
+		removePendingEvent(e);
+		markCancelled(e);
+	}
+
+	/**
+	 * Marks an event that has already been removed from the index as cancelled.
+	 *
+	 * @param e the event
+	 */
+	private void markCancelled(SimEvent e) {
+		e.cancel();
+		cancelledEvents++;
+		if (!lastRescheduledEvents.isEmpty()) {
+			lastRescheduledEvents.remove(e.eventTime(), e);
+		}
+	}
+
+	/**
+	 * Removes the cancelled events from the future queue when they outnumber the pending ones,
+	 * so that the queue does not grow unbounded with events cancelled far in the future.
+	 */
+	private void purgeCancelledEvents() {
+		if (cancelledEvents < MIN_CANCELLED_EVENTS_TO_PURGE || cancelledEvents < future.size() - cancelledEvents) {
+			return;
+		}
+
+		Iterator<SimEvent> iter = future.iterator();
+		while (iter.hasNext()) {
+			if (iter.next().isCancelled()) {
+				iter.remove();
+			}
+		}
+		cancelledEvents = 0;
+	}
+
+	/**
+	 * Gets, without removing it, the first event of the future queue that has not been cancelled.
+	 * Cancelled events found at the head of the queue are discarded.
+	 *
+	 * @return the first event, or null if there is none
+	 */
+	private SimEvent peekFutureEvent() {
+		SimEvent e = future.peek();
+		while (e != null && e.isCancelled()) {
+			if (future.poll() == null) {
+				return null;
+			}
+			cancelledEvents--;
+			e = future.peek();
+		}
+		return e;
+	}
+
+	/**
+	 * Removes and returns the first event of the future queue that has not been cancelled.
+	 *
+	 * @return the first event, or null if there is none
+	 */
+	private SimEvent pollFutureEvent() {
+		if (peekFutureEvent() == null) {
+			return null;
+		}
+		SimEvent e = future.poll();
+		if (e != null) {
+			removePendingEvent(e);
+			if (!lastRescheduledEvents.isEmpty()) {
+				lastRescheduledEvents.remove(e.eventTime(), e);
+			}
+		}
+		return e;
+	}
+
+	/**
+	 * Dispatch event to destination entity
+	 * 
+	 * @param e the e
+	 */
+	private void dispatchEvent(SimEvent e) {
+		int dstId = e.getDestinationId();
+		int srcId = e.getSourceId();
+		SimEntity destEnt = entities.get(dstId);
+
+		// Update the system's clock
+		if (e.eventTime() < clock) {
+			throw new IllegalArgumentException("Past event detected.");
+		}
+		clock = e.eventTime();
+
+		// Ok now process it
+		switch (e.getType()) {
+			case SimEvent.ENULL -> throw new IllegalArgumentException("Event has a null type.");
+			case SimEvent.CREATE -> {
+				addEntityDynamically((SimEntity) e.getData());
+			}
+			case SimEvent.SEND -> {
+                if (destEnt.getState() == SimEntity.EntityStatus.WAITING) { // NOTE: this branch is never used
+                    Predicate p = waitPredicates.get(dstId);
+
+                    if ((p == null) || (p.match(e))) {
+                        destEnt.setState(SimEntity.EntityStatus.RUNNABLE);
+                        waitPredicates.remove(dstId);
+                    }
+                }
+				destEnt.getIncomingEvents().add(e);
+				if (destEnt.getState() == SimEntity.EntityStatus.RUNNABLE) {
+					markReady(destEnt);
+				}
+            }
+			case SimEvent.HOLD_DONE -> entities.get(srcId).setState(SimEntity.EntityStatus.RUNNABLE);
+			default -> {
+			}
+		}
+	}
+
+	/**
+	 * Marks an entity as having events to process at the next clock tick.
+	 * It is called when the entity is runnable and its deferred queue is not empty.
+	 *
+	 * @param ent the entity
+	 */
+	void markReady(SimEntity ent) {
+		int id = ent.getId();
+		if (readyEntities != null && id >= 0) {
+			readyEntities.set(id);
+		}
+	}
+
+	/**
+	 * Internal method used to start the simulation. This method should <b>not</b> be used by user
+	 * simulations.
+	 */
+	public void runStart() {
+		running = true;
+		// Start all the entities
+		for (SimEntity ent : entities) {
+			ent.startEntity();
+		}
+
+		printMessage("Entities started.");
+	}
+
+	/**
+	 * Check if the simulation is still running. This method should be used by entities to check if
+	 * they should continue executing.
+	 * 
+	 * @return if the simulation is still running, otherwise
+	 */
+	public boolean running() {
+		return running;
+	}
+
+	/**
+	 * This method is called if one wants to pause the simulation.
+	 * 
+	 * @return true, if successful otherwise.
+	 */
+	public boolean pauseSimulation() {
+		paused = true;
+		return paused;
+	}
+
+	/**
+	 * This method is called if one wants to pause the simulation at a given time.
+	 * 
+	 * @param time the time at which the simulation has to be paused
+	 * @return true, if successful otherwise.
+	 */
+	public boolean pauseSimulation(long time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			pauseAt = time;
+		}
+		return true;
+	}
+
+	/**
+	 * This method is called if one wants to resume the simulation that has previously been paused.
+	 * 
+	 * @return if the simulation has been restarted or or otherwise.
+	 */
+	public boolean resumeSimulation() {
+		paused = false;
+
+		if (pauseAt <= clock) {
+			pauseAt = -1;
+		}
+
+		return !paused;
+	}
+
+	/**
+	 * Start the simulation running. This should be called after all the entities have been setup
+	 * and added, and their ports linked.
+	 * 
+	 * @return the last clock value
+	 */
+	public double run() {
+		if (!running) {
+			runStart();
+		}
+		while (true) {
+			if (!runClockTick() || abruptTerminate) {
+				break;
+			}
+
+			// this block allows termination of simulation at a specific time
+			if (terminateAt > 0.0 && clock >= terminateAt) {
+				terminateSimulation();
+				clock = terminateAt;
+				break;
+			}
+
+			SimEvent next = peekFutureEvent();
+			if (pauseAt != -1
+					&& ((next != null && clock <= pauseAt && pauseAt <= next.eventTime())
+							|| next == null && pauseAt <= clock)) {
+				pauseSimulation();
+				clock = pauseAt;
+			}
+
+			while (paused) {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		double clock = clock();
+
+		finishSimulation();
+		runStop();
+
+		return clock;
+	}
+
+	/**
+	 * Internal method that allows the entities to terminate. This method should <b>not</b> be used
+	 * in user simulations.
+	 */
+	private void finishSimulation() {
+		// Allow all entities to exit their body method
+		if (!abruptTerminate) {
+			for (SimEntity ent : entities) {
+				if (ent.getState() != SimEntity.EntityStatus.FINISHED) {
+					ent.run();
+				}
+			}
+		}
+
+		for (SimEntity ent : entities) {
+			ent.shutdownEntity();
+		}
+
+		// reset all the state variables
+		// Private data members
+		entities = null;
+		entitiesByName = null;
+		future = null;
+		pendingEvents = null;
+		cancelledEvents = 0;
+		lastRescheduledEvents = null;
+		readyEntities = null;
+		clock = 0L;
+		running = false;
+
+		waitPredicates = null;
+		paused = false;
+		pauseAt = -1;
+		abruptTerminate = false;
+	}
+
+	/**
+	 * Abruptally terminate.
+	 */
+	public void abruptallyTerminate() {
+		abruptTerminate = true;
+	}
+
+	/**
+	 * Prints a message about the progress of the simulation.
+	 * 
+	 * @param message the message
+	 */
+	private void printMessage(String message) {
+		Log.println(message);
+	}
+
+	/**
+	 * Checks if is paused.
+	 * 
+	 * @return true, if is paused
+	 */
+	public boolean isPaused() {
+		return paused;
+	}
+
+}
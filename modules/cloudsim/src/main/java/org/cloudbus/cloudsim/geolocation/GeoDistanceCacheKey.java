@@ -15,8 +15,12 @@ public class GeoDistanceCacheKey {
 
     private static final int CACHE_SIZE = 10_000;
     private static final int INITIAL_CACHE_SIZE = 1_000;
-    /** In order to minimise the number of created instances, we keep a cache. */
-    private static final Cache<Integer, GeoDistanceCacheKey> CACHE = CacheBuilder.newBuilder().concurrencyLevel(1)
+    /**
+     * In order to minimise the number of created instances, we keep a cache. The keys are immutable,
+     * so the cache is shared by all simulations and may be accessed by several threads at a time.
+     */
+    private static final Cache<Integer, GeoDistanceCacheKey> CACHE = CacheBuilder.newBuilder()
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
             .initialCapacity(INITIAL_CACHE_SIZE).maximumSize(CACHE_SIZE).build();
 
     private final double lat1;
@@ -117,7 +121,8 @@ public class GeoDistanceCacheKey {
 
         int hash = computeHash(newLat1, newLon1, newLat2, newLon2);
         GeoDistanceCacheKey cached = CACHE.getIfPresent(hash);
-        if (cached == null || !areEqualCoords(lat1, lon1, lat1, lon1, lat2, cached.lon1, cached.lat2, cached.lon2)) {
+        if (cached == null || !areEqualCoords(newLat1, newLon1, newLat2, newLon2, cached.lat1, cached.lon1,
+                cached.lat2, cached.lon2)) {
             cached = new GeoDistanceCacheKey(newLat1, newLon1, newLat2, newLon2);
             CACHE.put(hash, cached);
         }
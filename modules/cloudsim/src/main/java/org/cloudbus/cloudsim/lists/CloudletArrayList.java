@@ -0,0 +1,606 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * An array-backed list of cloudlets, indexed by cloudlet id, used by the
+ * {@link org.cloudbus.cloudsim.CloudletScheduler CloudletSchedulers} to keep their queues.
+ * <p>
+ * Removed elements leave an empty slot behind, which is reclaimed by compacting the array once
+ * the empty slots outnumber the cloudlets. Therefore, the cloudlets keep their insertion order,
+ * while appending, removing the first cloudlet and finding or removing a cloudlet by id or by
+ * reference take amortised constant time. While there are empty slots, accessing a cloudlet by
+ * position or finding its position takes logarithmic time, using a count of the cloudlets in the
+ * slots which is only kept from the first such access until the next compaction.
+ * {@link #removeAll(Collection)} takes time linear in the number of elements to remove when
+ * they are fewer than the cloudlets, and linear time otherwise, as {@link #removeIf(Predicate)}.
+ * Null elements are not permitted.
+ *
+ * @param <T> the type of the cloudlets
+ * @since CloudSim Toolkit 7.0
+ * @see CloudletList#getById(java.util.List, int)
+ * @see CloudletList#removeById(java.util.List, int)
+ */
+public class CloudletArrayList<T extends Cloudlet> extends AbstractList<T> implements RandomAccess {
+
+	/** The minimum number of empty slots that triggers a compaction. */
+	private static final int MIN_EMPTY_SLOTS = 16;
+
+	/** The slots of the cloudlets, null if the cloudlet has been removed. */
+	private Object[] slots;
+
+	/** The first slot holding a cloudlet (or {@link #end} if the list is empty). */
+	private int head;
+
+	/** The number of used slots. */
+	private int end;
+
+	/** The number of cloudlets. */
+	private int size;
+
+	/** The slot of the first cloudlet with a given id, by id. */
+	private final SlotIndex slotById = new SlotIndex();
+
+	/**
+	 * The number of cloudlets in the slots, as a Fenwick tree, where the element i holds the
+	 * number of cloudlets in the slots i - (i &amp; -i) to i - 1. It is only kept while there are
+	 * empty slots and some cloudlet has been accessed by position, otherwise it is null.
+	 */
+	private int[] counts;
+
+	/** Whether some cloudlets with the same id have been added, so that the index is not exhaustive. */
+	private boolean duplicateIds;
+
+	/**
+	 * Creates an empty list.
+	 */
+	public CloudletArrayList() {
+		slots = new Object[10];
+	}
+
+	/**
+	 * Creates a list with the cloudlets of a given collection.
+	 *
+	 * @param cloudlets the cloudlets
+	 */
+	public CloudletArrayList(Collection<? extends T> cloudlets) {
+		slots = new Object[Math.max(10, cloudlets.size())];
+		addAll(cloudlets);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		Objects.checkIndex(index, size);
+		return (T) slots[slotOf(index)];
+	}
+
+	@Override
+	public T set(int index, T cl) {
+		Objects.checkIndex(index, size);
+		int slot = slotOf(index);
+		T old = get(index);
+		unindex(old, slot);
+		slots[slot] = cl;
+		index(cl, slot);
+		return old;
+	}
+
+	@Override
+	public boolean add(T cl) {
+		if (end == slots.length) {
+			if (end - head - size > 0 || head > 0) {
+				compact();
+			}
+			if (end == slots.length) {
+				slots = Arrays.copyOf(slots, slots.length + (slots.length >> 1) + 1);
+				counts = null;
+			}
+		}
+		slots[end] = cl;
+		index(cl, end);
+		updateCount(end, 1);
+		end++;
+		size++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void add(int index, T cl) {
+		Objects.checkIndex(index, size + 1);
+		if (index == size) {
+			add(cl);
+			return;
+		}
+
+		compact();
+		if (end == slots.length) {
+			slots = Arrays.copyOf(slots, slots.length + (slots.length >> 1) + 1);
+		}
+		System.arraycopy(slots, index, slots, index + 1, size - index);
+		slots[index] = cl;
+		end++;
+		size++;
+		modCount++;
+		reindex();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T remove(int index) {
+		Objects.checkIndex(index, size);
+		int slot = slotOf(index);
+		T cl = (T) slots[slot];
+		removeSlot(slot, true);
+		return cl;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		int slot = findSlot(o);
+		if (slot < 0) {
+			return false;
+		}
+		removeSlot(slot, true);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return findSlot(o) >= 0;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		int slot = findSlot(o);
+		return slot < 0 ? -1 : indexOfSlot(slot);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		if (c.size() <= size) { // removing the elements one by one is cheaper than scanning the list
+			boolean removed = false;
+			for (Object o : c) {
+				while (remove(o)) {
+					removed = true;
+				}
+			}
+			return removed;
+		}
+		return removeIf(new HashSet<>(c)::contains);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean removeIf(Predicate<? super T> filter) {
+		boolean removed = false;
+		for (int slot = head; slot < end; slot++) {
+			if (slots[slot] != null && filter.test((T) slots[slot])) {
+				removeSlot(slot, false);
+				removed = true;
+			}
+		}
+		if (removed) {
+			compactIfSparse();
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(slots, 0, end, null);
+		head = end = size = 0;
+		slotById.clear();
+		duplicateIds = false;
+		counts = null;
+		modCount++;
+	}
+
+	/**
+	 * Gets the cloudlet with a given id.
+	 *
+	 * @param id the cloudlet id
+	 * @return the first cloudlet with the given id, or null if not found
+	 */
+	@SuppressWarnings("unchecked")
+	public T getById(int id) {
+		int slot = findSlotById(id);
+		return slot < 0 ? null : (T) slots[slot];
+	}
+
+	/**
+	 * Gets the position of the cloudlet with a given id.
+	 *
+	 * @param id the cloudlet id
+	 * @return the position of the first cloudlet with the given id, or -1 if not found
+	 */
+	public int indexOfId(int id) {
+		int slot = findSlotById(id);
+		return slot < 0 ? -1 : indexOfSlot(slot);
+	}
+
+	/**
+	 * Removes the cloudlet with a given id.
+	 *
+	 * @param id the cloudlet id
+	 * @return the first cloudlet with the given id, which has been removed, or null if not found
+	 */
+	@SuppressWarnings("unchecked")
+	public T removeById(int id) {
+		int slot = findSlotById(id);
+		if (slot < 0) {
+			return null;
+		}
+		T cl = (T) slots[slot];
+		removeSlot(slot, true);
+		return cl;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Itr();
+	}
+
+	/**
+	 * Gets the slot of the cloudlet at a given position.
+	 */
+	private int slotOf(int index) {
+		if (index == 0) {
+			return head;
+		}
+		if (end - head == size) {
+			return head + index;
+		}
+
+		// the first slot such that the cloudlets up to it are index + 1
+		int[] counts = counts();
+		int slot = 0;
+		int remaining = index + 1;
+		for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+			int next = slot + step;
+			if (next < counts.length && counts[next] < remaining) {
+				slot = next;
+				remaining -= counts[next];
+			}
+		}
+		return slot;
+	}
+
+	/**
+	 * Gets the position of the cloudlet in a given slot.
+	 */
+	private int indexOfSlot(int slot) {
+		if (slot == head) {
+			return 0;
+		}
+		if (end - head == size) {
+			return slot - head;
+		}
+
+		// the number of cloudlets before the slot
+		int[] counts = counts();
+		int index = 0;
+		for (int i = slot; i > 0; i -= i & -i) {
+			index += counts[i];
+		}
+		return index;
+	}
+
+	/**
+	 * Gets the number of cloudlets in the slots, building it if needed.
+	 */
+	private int[] counts() {
+		if (counts == null) {
+			counts = new int[slots.length + 1];
+			for (int slot = head; slot < end; slot++) {
+				if (slots[slot] != null) {
+					counts[slot + 1] = 1;
+				}
+			}
+			for (int i = 1; i < counts.length; i++) {
+				int parent = i + (i & -i);
+				if (parent < counts.length) {
+					counts[parent] += counts[i];
+				}
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Updates the number of cloudlets in the slots, if it is kept.
+	 */
+	private void updateCount(int slot, int delta) {
+		if (counts != null) {
+			for (int i = slot + 1; i < counts.length; i += i & -i) {
+				counts[i] += delta;
+			}
+		}
+	}
+
+	private int findSlot(Object o) {
+		if (o instanceof Cloudlet cl) {
+			int slot = slotById.get(cl.getCloudletId());
+			if (slot >= 0 && slots[slot] == o) {
+				return slot;
+			}
+			if (!duplicateIds && slot < 0) {
+				return -1;
+			}
+		}
+
+		for (int slot = head; slot < end; slot++) {
+			if (slots[slot] != null && slots[slot].equals(o)) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private int findSlotById(int id) {
+		return slotById.get(id);
+	}
+
+	private void index(T cl, int slot) {
+		if (!slotById.putIfAbsent(cl.getCloudletId(), slot)) {
+			duplicateIds = true;
+		}
+	}
+
+	/**
+	 * Removes a cloudlet in a given slot from the index, indexing the next cloudlet with the same id, if any.
+	 */
+	@SuppressWarnings("unchecked")
+	private void unindex(T cl, int slot) {
+		int id = cl.getCloudletId();
+		if (slotById.remove(id, slot) && duplicateIds) {
+			for (int next = slot + 1; next < end; next++) {
+				if (slots[next] != null && ((T) slots[next]).getCloudletId() == id) {
+					slotById.put(id, next);
+					break;
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void removeSlot(int slot, boolean compactIfSparse) {
+		unindex((T) slots[slot], slot);
+		slots[slot] = null;
+		updateCount(slot, -1);
+		size--;
+		modCount++;
+		while (head < end && slots[head] == null) {
+			head++;
+		}
+		if (compactIfSparse) {
+			compactIfSparse();
+		}
+	}
+
+	private void compactIfSparse() {
+		int emptySlots = end - size;
+		if (emptySlots > MIN_EMPTY_SLOTS && emptySlots > size) {
+			compact();
+		}
+	}
+
+	/**
+	 * Moves all the cloudlets to the first slots of the array, keeping their order.
+	 */
+	private void compact() {
+		int to = 0;
+		for (int from = head; from < end; from++) {
+			if (slots[from] != null) {
+				slots[to++] = slots[from];
+			}
+		}
+		Arrays.fill(slots, to, end, null);
+		head = 0;
+		end = to;
+		counts = null;
+		reindex();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void reindex() {
+		slotById.clear();
+		duplicateIds = false;
+		for (int slot = head; slot < end; slot++) {
+			if (slots[slot] != null) {
+				index((T) slots[slot], slot);
+			}
+		}
+	}
+
+	/**
+	 * A map from cloudlet ids to slots, with open addressing and linear probing, which avoids
+	 * boxing the ids and slots.
+	 */
+	private static final class SlotIndex {
+		/** The ids, where the slot is not negative. */
+		private int[] ids = new int[16];
+
+		/** The slots, or -1 for the empty entries. */
+		private int[] slotsOfIds = newSlots(16);
+
+		/** The number of ids. */
+		private int size;
+
+		private static int[] newSlots(int capacity) {
+			int[] slots = new int[capacity];
+			Arrays.fill(slots, -1);
+			return slots;
+		}
+
+		private int entryOf(int id) {
+			int hash = id * 0x9E3779B9;
+			return (hash ^ hash >>> 16) & (ids.length - 1);
+		}
+
+		/**
+		 * Gets the slot of an id, or -1 if the id is missing.
+		 */
+		int get(int id) {
+			int mask = ids.length - 1;
+			for (int i = entryOf(id); slotsOfIds[i] >= 0; i = (i + 1) & mask) {
+				if (ids[i] == id) {
+					return slotsOfIds[i];
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Sets the slot of an id.
+		 */
+		void put(int id, int slot) {
+			int mask = ids.length - 1;
+			int i = entryOf(id);
+			for (; slotsOfIds[i] >= 0; i = (i + 1) & mask) {
+				if (ids[i] == id) {
+					slotsOfIds[i] = slot;
+					return;
+				}
+			}
+			ids[i] = id;
+			slotsOfIds[i] = slot;
+			if (++size > ids.length >> 1) {
+				resize();
+			}
+		}
+
+		/**
+		 * Sets the slot of an id if it is missing.
+		 *
+		 * @return true if the id was missing
+		 */
+		boolean putIfAbsent(int id, int slot) {
+			if (get(id) >= 0) {
+				return false;
+			}
+			put(id, slot);
+			return true;
+		}
+
+		/**
+		 * Removes an id if it has a given slot.
+		 *
+		 * @return true if the id has been removed
+		 */
+		boolean remove(int id, int slot) {
+			int mask = ids.length - 1;
+			int i = entryOf(id);
+			for (; slotsOfIds[i] >= 0; i = (i + 1) & mask) {
+				if (ids[i] == id) {
+					break;
+				}
+			}
+			if (slotsOfIds[i] != slot) {
+				return false;
+			}
+
+			// moves back the following entries which could not be placed in the removed one
+			for (int next = (i + 1) & mask; slotsOfIds[next] >= 0; next = (next + 1) & mask) {
+				int entry = entryOf(ids[next]);
+				if (i <= next ? entry <= i || entry > next : entry <= i && entry > next) {
+					ids[i] = ids[next];
+					slotsOfIds[i] = slotsOfIds[next];
+					i = next;
+				}
+			}
+			slotsOfIds[i] = -1;
+			size--;
+			return true;
+		}
+
+		void clear() {
+			if (size > 0) {
+				Arrays.fill(slotsOfIds, -1);
+				size = 0;
+			}
+		}
+
+		private void resize() {
+			int[] oldIds = ids;
+			int[] oldSlots = slotsOfIds;
+			ids = new int[oldIds.length << 1];
+			slotsOfIds = newSlots(oldIds.length << 1);
+			size = 0;
+			for (int i = 0; i < oldIds.length; i++) {
+				if (oldSlots[i] >= 0) {
+					put(oldIds[i], oldSlots[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * An iterator over the slots of the list. Removing a cloudlet through the iterator
+	 * never compacts the array.
+	 */
+	private class Itr implements Iterator<T> {
+		private int next = head;
+		private int last = -1;
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			while (next < end && slots[next] == null) {
+				next++;
+			}
+			return next < end;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next++;
+			return (T) slots[last];
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeSlot(last, false);
+			last = -1;
+			expectedModCount = modCount;
+		}
+	}
+}
@@ -30,6 +30,9 @@ public class CloudletList {
 	 * @return a Cloudlet with the given ID or $null if not found
 	 */
 	public static <T extends Cloudlet> T getById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof CloudletArrayList<T> indexedList) {
+			return indexedList.getById(id);
+		}
 		for (T cl : cloudletList) {
 			if (cl.getCloudletId() == id) {
 				return cl;
@@ -73,6 +76,9 @@ public class CloudletList {
 	 * @return the position of the cloudlet with the given id or -1 if not found
 	 */
 	public static <T extends Cloudlet> int getPositionById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof CloudletArrayList<T> indexedList) {
+			return indexedList.indexOfId(id);
+		}
 		int i = 0 ;
 	        for (T cloudlet : cloudletList) {
 			if (cloudlet.getCloudletId() == id) {
@@ -82,6 +88,22 @@ public class CloudletList {
 		}
 		return -1;
 	}
+
+	/**
+	 * Removes a cloudlet with a given id.
+	 *
+	 * @param cloudletList the list of existing cloudlets
+	 * @param id the cloudlet id
+	 * @return the removed cloudlet, or null if not found
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static <T extends Cloudlet> T removeById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof CloudletArrayList<T> indexedList) {
+			return indexedList.removeById(id);
+		}
+		int position = getPositionById(cloudletList, id);
+		return position >= 0 ? cloudletList.remove(position) : null;
+	}
 	
 	/**
 	 * Sorts the Cloudlets in a list based on their lengths.
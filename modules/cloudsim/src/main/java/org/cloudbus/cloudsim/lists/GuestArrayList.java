@@ -0,0 +1,142 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+
+/**
+ * An array-backed list of guest entities, indexed by guest id, used by the
+ * {@link org.cloudbus.cloudsim.DatacenterBroker DatacenterBrokers} to keep their guests.
+ * <p>
+ * The guests are kept in an {@link ArrayList}, so accessing, adding and removing them by position
+ * costs the same, while finding a guest by id takes constant time as long as the guests have
+ * distinct ids. Once guests with the same id have been added, the search by id is linear until
+ * the list is cleared. Null elements are not permitted.
+ *
+ * @param <T> the type of the guests
+ * @since CloudSim Toolkit 7.0
+ * @see VmList#getById(java.util.List, int)
+ */
+public class GuestArrayList<T extends GuestEntity> extends AbstractList<T> implements RandomAccess {
+
+	/** The guests. */
+	private final ArrayList<T> guests;
+
+	/** The guest with a given id, by id. */
+	private final Map<Integer, T> guestById = new HashMap<>();
+
+	/** Whether some guests with the same id have been added, so that the index is not used. */
+	private boolean duplicateIds;
+
+	/**
+	 * Creates an empty list.
+	 */
+	public GuestArrayList() {
+		guests = new ArrayList<>();
+	}
+
+	/**
+	 * Creates a list with the guests of a given collection.
+	 *
+	 * @param guests the guests
+	 */
+	public GuestArrayList(Collection<? extends T> guests) {
+		this.guests = new ArrayList<>(guests.size());
+		addAll(guests);
+	}
+
+	@Override
+	public int size() {
+		return guests.size();
+	}
+
+	@Override
+	public T get(int index) {
+		return guests.get(index);
+	}
+
+	@Override
+	public T set(int index, T guest) {
+		Objects.requireNonNull(guest);
+		T old = guests.set(index, guest);
+		unindex(old);
+		index(guest);
+		return old;
+	}
+
+	@Override
+	public void add(int index, T guest) {
+		Objects.requireNonNull(guest);
+		guests.add(index, guest);
+		index(guest);
+		modCount++;
+	}
+
+	@Override
+	public T remove(int index) {
+		T guest = guests.remove(index);
+		unindex(guest);
+		modCount++;
+		return guest;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			unindex(guests.get(i));
+		}
+		guests.subList(fromIndex, toIndex).clear();
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		guests.clear();
+		guestById.clear();
+		duplicateIds = false;
+		modCount++;
+	}
+
+	/**
+	 * Gets the guest with a given id.
+	 *
+	 * @param id the guest id
+	 * @return the first guest with the given id, or null if not found
+	 */
+	public T getById(int id) {
+		if (duplicateIds) {
+			for (T guest : guests) {
+				if (guest.getId() == id) {
+					return guest;
+				}
+			}
+			return null;
+		}
+		return guestById.get(id);
+	}
+
+	private void index(T guest) {
+		if (guestById.putIfAbsent(guest.getId(), guest) != null) {
+			duplicateIds = true;
+		}
+	}
+
+	private void unindex(T guest) {
+		guestById.remove(guest.getId(), guest);
+	}
+
+}
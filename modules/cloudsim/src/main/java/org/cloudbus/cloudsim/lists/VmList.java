@@ -50,6 +50,9 @@ public class VmList {
          * that has to be priorly assessed.
 	 */
 	public static <T extends GuestEntity> T getById(List<T> vmList, int id) {
+		if (vmList instanceof GuestArrayList<T> indexedList) {
+			return indexedList.getById(id);
+		}
 		for (T vm : vmList) {
 			if (vm.getId() == id) {
 				return vm;
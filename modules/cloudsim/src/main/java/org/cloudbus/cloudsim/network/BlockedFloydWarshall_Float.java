@@ -0,0 +1,187 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A blocked (tiled) Floyd-Warshall algorithm calculating the delay between all pairs of nodes.
+ * Unlike {@link FloydWarshall_Float}, it updates the matrix in place instead of copying it
+ * after every iteration, does not compute the predecessor matrix and processes the matrix in
+ * square tiles that fit in the CPU caches.
+ * <p>
+ * It finds the same shortest paths as {@link FloydWarshall_Float}, but a tile may use a path
+ * through a node of the diagonal tile that was improved by a later node of that tile, so the
+ * delays along a path may be added in a different order. The delays may hence differ from the
+ * ones of {@link FloydWarshall_Float} by a few ulps (about 1e-7 of the delay per link of the
+ * path), while delays whose partial sums are exact (e.g. integer delays) are identical.
+ * <p>
+ * For each diagonal tile k, the algorithm runs in three phases: it first computes the paths
+ * inside tile (k, k), then the tiles of row k and column k, which only depend on tile (k, k),
+ * and finally all the other tiles, which only depend on the tiles of row k and column k.
+ * The tiles of the second and third phases are independent, so they are run in parallel on a
+ * {@link ForkJoinPool}.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see FloydWarshall_Float
+ */
+public class BlockedFloydWarshall_Float {
+
+	/** The default size of the tiles. A tile of 64x64 delays takes 16 KB. */
+	public static final int DEFAULT_BLOCK_SIZE = 64;
+
+	/** The size of the tiles. */
+	private final int blockSize;
+
+	/** The pool running the tiles in parallel. */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a Floyd-Warshall algorithm with tiles of the default size,
+	 * running on the common pool.
+	 */
+	public BlockedFloydWarshall_Float() {
+		this(DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a Floyd-Warshall algorithm.
+	 *
+	 * @param blockSize the size of the tiles
+	 * @param pool the pool running the tiles in parallel
+	 */
+	public BlockedFloydWarshall_Float(int blockSize, ForkJoinPool pool) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("The block size should be positive, but is:" + blockSize);
+		}
+		this.blockSize = blockSize;
+		this.pool = pool;
+	}
+
+	/**
+	 * Calculates the delay between all pairs of nodes. As in {@link FloydWarshall_Float},
+	 * zero entries of the original matrix mean that there is no link between the nodes.
+	 *
+	 * @param adjMatrix original delay matrix, which is not modified
+	 * @return the delay matrix, with {@link Float#MAX_VALUE} for unconnected nodes
+	 */
+	public float[][] allPairsShortestPaths(float[][] adjMatrix) {
+		final int numVertices = adjMatrix.length;
+		final float[][] delays = new float[numVertices][numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			for (int j = 0; j < numVertices; j++) {
+				if (i == j) {
+					delays[i][j] = 0;
+				} else if (adjMatrix[i][j] != 0) {
+					delays[i][j] = adjMatrix[i][j];
+				} else {
+					delays[i][j] = Float.MAX_VALUE;
+				}
+			}
+		}
+
+		final int numBlocks = (numVertices + blockSize - 1) / blockSize;
+		for (int kb = 0; kb < numBlocks; kb++) {
+			final int k = kb;
+
+			// phase 1: the diagonal tile
+			updateBlock(delays, k, k, k);
+
+			// phase 2: the tiles of row k and column k
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int b = 0; b < numBlocks; b++) {
+				if (b != k) {
+					final int other = b;
+					tasks.add(() -> {
+						updateBlock(delays, k, other, k);
+						return null;
+					});
+					tasks.add(() -> {
+						updateBlock(delays, other, k, k);
+						return null;
+					});
+				}
+			}
+			runAll(tasks);
+
+			// phase 3: the other tiles, a row of tiles per task
+			tasks.clear();
+			for (int ib = 0; ib < numBlocks; ib++) {
+				if (ib != k) {
+					final int row = ib;
+					tasks.add(() -> {
+						for (int jb = 0; jb < numBlocks; jb++) {
+							if (jb != k) {
+								updateBlock(delays, row, jb, k);
+							}
+						}
+						return null;
+					});
+				}
+			}
+			runAll(tasks);
+		}
+
+		return delays;
+	}
+
+	/**
+	 * Updates the paths between the nodes of a tile going through the nodes of another tile.
+	 *
+	 * @param delays the delay matrix
+	 * @param ib the row of the tile to update
+	 * @param jb the column of the tile to update
+	 * @param kb the row and column of the diagonal tile whose nodes are used as intermediate nodes
+	 */
+	private void updateBlock(float[][] delays, int ib, int jb, int kb) {
+		final int n = delays.length;
+		final int iEnd = Math.min(n, (ib + 1) * blockSize);
+		final int jStart = jb * blockSize;
+		final int jEnd = Math.min(n, jStart + blockSize);
+		final int kEnd = Math.min(n, (kb + 1) * blockSize);
+
+		for (int k = kb * blockSize; k < kEnd; k++) {
+			final float[] rowK = delays[k];
+			for (int i = ib * blockSize; i < iEnd; i++) {
+				final float[] rowI = delays[i];
+				final float delayIK = rowI[k];
+				if (delayIK == Float.MAX_VALUE) {
+					continue;
+				}
+				for (int j = jStart; j < jEnd; j++) {
+					final float delay = delayIK + rowK[j];
+					if (delay < rowI[j]) {
+						rowI[j] = delay;
+					}
+				}
+			}
+		}
+	}
+
+	private void runAll(List<Callable<Void>> tasks) {
+		if (tasks.isEmpty()) {
+			return;
+		}
+		try {
+			for (Future<Void> future : pool.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while computing the shortest paths", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Error while computing the shortest paths", e.getCause());
+		}
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+/**
+ * The delays of the shortest paths between every pair of nodes inside a network topology.
+ * Unconnected nodes have a delay of {@link Float#MAX_VALUE}.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see DelayMatrixType
+ */
+public interface DelayMatrix {
+
+	/**
+	 * Gets the delay between two nodes.
+	 *
+	 * @param srcID the id of the source node
+	 * @param destID the id of the destination node
+	 * @return the delay between the given two nodes
+	 */
+	float getDelay(int srcID, int destID);
+
+	/**
+	 * Gets the number of nodes in the matrix.
+	 *
+	 * @return the number of nodes
+	 */
+	int getNumberOfNodes();
+}
@@ -0,0 +1,84 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+/**
+ * The available implementations of {@link DelayMatrix}, trading memory for lookup speed.
+ * For a topology of n nodes:
+ * <ul>
+ *   <li>{@link #DENSE} keeps an on-heap n&times;n matrix (4n<sup>2</sup> bytes, plus 16n<sup>2</sup>
+ *   bytes while it is computed) and supports incremental link additions;</li>
+ *   <li>{@link #DENSE_BLOCKED} keeps the same matrix, computed faster and in parallel (plus
+ *   4n<sup>2</sup> bytes while it is computed), but its delays may differ from the ones of
+ *   {@link #DENSE} by a few ulps;</li>
+ *   <li>{@link #FLAT} keeps an off-heap n&times;n matrix computed in place (4n<sup>2</sup> bytes);</li>
+ *   <li>{@link #ON_DEMAND} keeps only the links and computes the delays from a source node when they
+ *   are first requested, caching the most recently used sources. It is the only option for
+ *   topologies whose dense matrix does not fit in memory, and it suits sparse graphs where
+ *   only a few nodes send messages.</li>
+ * </ul>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public enum DelayMatrixType {
+
+	/** An on-heap matrix, see {@link DelayMatrix_Float}. */
+	DENSE {
+		@Override
+		public DelayMatrix create(TopologicalGraph graph, boolean directed) {
+			return new DelayMatrix_Float(graph, directed);
+		}
+	},
+
+	/**
+	 * An on-heap matrix computed with the blocked Floyd-Warshall algorithm,
+	 * see {@link DelayMatrix_Float} and {@link BlockedFloydWarshall_Float}.
+	 */
+	DENSE_BLOCKED {
+		@Override
+		public DelayMatrix create(TopologicalGraph graph, boolean directed) {
+			return new DelayMatrix_Float(graph, directed, true);
+		}
+	},
+
+	/** An off-heap matrix, see {@link FlatDelayMatrix}. */
+	FLAT {
+		@Override
+		public DelayMatrix create(TopologicalGraph graph, boolean directed) {
+			return new FlatDelayMatrix(graph, directed);
+		}
+	},
+
+	/** Shortest paths computed per source on demand, see {@link OnDemandDelayMatrix}. */
+	ON_DEMAND {
+		@Override
+		public DelayMatrix create(TopologicalGraph graph, boolean directed) {
+			return new OnDemandDelayMatrix(graph, directed);
+		}
+	};
+
+	/**
+	 * Creates a delay matrix of this type.
+	 *
+	 * @param graph the network topological graph
+	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
+	 * @return the delay matrix
+	 */
+	public abstract DelayMatrix create(TopologicalGraph graph, boolean directed);
+
+	/**
+	 * Checks whether the delay matrices of this type are {@link DelayMatrix_Float on-heap matrices},
+	 * which support incremental link additions.
+	 *
+	 * @return true if the matrices of this type are on-heap matrices, false otherwise
+	 */
+	public boolean isDense() {
+		return this == DENSE || this == DENSE_BLOCKED;
+	}
+}
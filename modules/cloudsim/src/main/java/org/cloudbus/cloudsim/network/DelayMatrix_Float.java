@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.network;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 /**
@@ -17,7 +18,7 @@ import java.util.Iterator;
  * @author Thomas Hohnstein
  * @since CloudSim Toolkit 1.0
  */
-public class DelayMatrix_Float {
+public class DelayMatrix_Float implements DelayMatrix {
 
 	/**
 	 * Matrix holding delay information between any two nodes.
@@ -37,17 +38,46 @@ public class DelayMatrix_Float {
 
 	/**
 	 * Creates an correctly initialized Float-Delay-Matrix.
+	 * If there are several links between the same nodes, the shortest one is used,
+	 * and links with zero delay are ignored, as if they were missing.
 	 * 
 	 * @param graph the network topological graph
 	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
 	 */
 	public DelayMatrix_Float(TopologicalGraph graph, boolean directed) {
+		this(graph, directed, false);
+	}
+
+	/**
+	 * Creates an correctly initialized Float-Delay-Matrix, computing the delays with
+	 * {@link FloydWarshall_Float} or with the faster {@link BlockedFloydWarshall_Float}.
+	 * The blocked algorithm adds the delays along a path in a different order, so its
+	 * delays may differ from the other ones by a few ulps.
+	 *
+	 * @param graph the network topological graph
+	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
+	 * @param blocked true to compute the delays with {@link BlockedFloydWarshall_Float}
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public DelayMatrix_Float(TopologicalGraph graph, boolean directed, boolean blocked) {
 
 		// lets preinitialize the Delay-Matrix
 		createDelayMatrix(graph, directed);
 
 		// now its time to calculate all possible connection-delays
-		calculateShortestPath();
+		calculateShortestPath(blocked);
+	}
+
+	/**
+	 * Creates a delay matrix for a given number of nodes without any link between them.
+	 * Links can be added afterwards with {@link #addLink(int, int, float, boolean)}.
+	 *
+	 * @param numNodes the number of nodes
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public DelayMatrix_Float(int numNodes) {
+		mDelayMatrix = new float[0][];
+		addNodes(numNodes);
 	}
 
 	/**
@@ -57,6 +87,7 @@ public class DelayMatrix_Float {
 	 * @param destID the id of the destination node
 	 * @return the delay between the given two nodes
 	 */
+	@Override
 	public float getDelay(int srcID, int destID) {
 		// check the nodeIDs against internal array-boundarys
 		if (srcID > mTotalNodeNum || destID > mTotalNodeNum) {
@@ -66,6 +97,113 @@ public class DelayMatrix_Float {
 		return mDelayMatrix[srcID][destID];
 	}
 
+	/**
+	 * Gets the number of nodes in the matrix.
+	 *
+	 * @return the number of nodes
+	 * @since CloudSim Toolkit 7.0
+	 */
+	@Override
+	public int getNumberOfNodes() {
+		return mTotalNodeNum;
+	}
+
+	/**
+	 * Adds nodes without any link to the matrix, so that it holds the given number of nodes.
+	 * The storage grows geometrically, so adding nodes one at a time takes amortised O(n) time.
+	 *
+	 * @param numNodes the new number of nodes; nothing is done if it is not higher than the current one
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void addNodes(int numNodes) {
+		if (numNodes <= mTotalNodeNum) {
+			return;
+		}
+
+		if (numNodes > mDelayMatrix.length) {
+			int capacity = Math.max(numNodes, 2 * mDelayMatrix.length);
+			float[][] matrix = new float[capacity][];
+			for (int row = 0; row < capacity; ++row) {
+				matrix[row] = new float[capacity];
+				Arrays.fill(matrix[row], Float.MAX_VALUE);
+				if (row < mTotalNodeNum) {
+					System.arraycopy(mDelayMatrix[row], 0, matrix[row], 0, mTotalNodeNum);
+				}
+			}
+			mDelayMatrix = matrix;
+		}
+
+		for (int node = mTotalNodeNum; node < numNodes; ++node) {
+			mDelayMatrix[node][node] = 0;
+		}
+		mTotalNodeNum = numNodes;
+	}
+
+	/**
+	 * Adds a link to the network, updating the shortest paths between all pairs of nodes
+	 * in O(n<sup>2</sup>) time instead of recomputing them from scratch. Since delays are
+	 * non-negative, a shortest path uses the new link at most once, so it is enough to check,
+	 * for each pair (i, j), whether going from i to the link source and from the link
+	 * destination to j is shorter than the current path.
+	 * <p>
+	 * As in the computation from a graph, links with zero delay are ignored. If there are
+	 * several links between the same nodes, the shortest one is used.
+	 * <p>
+	 * The delays are the same shortest paths as the ones computed from the graph with all the
+	 * links, but the float sums along a path may be rounded in a different order. A delay may
+	 * hence differ from the one computed from scratch by a few ulps (about 1e-7 of the delay
+	 * per link of the path), while delays whose partial sums are exact (e.g. integer delays)
+	 * are identical.
+	 *
+	 * @param srcID the id of the link source node
+	 * @param destID the id of the link destination node
+	 * @param delay the link delay
+	 * @param directed indicates if the link can only be used from the source to the destination (true)
+	 *                 or in both directions (false)
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void addLink(int srcID, int destID, float delay, boolean directed) {
+		addNodes(Math.max(srcID, destID) + 1);
+		if (delay == 0) {
+			return;
+		}
+
+		relax(srcID, destID, delay);
+		if (!directed) {
+			relax(destID, srcID, delay);
+		}
+	}
+
+	/**
+	 * Updates the delays between all pairs of nodes using a new link.
+	 *
+	 * @param srcID the id of the link source node
+	 * @param destID the id of the link destination node
+	 * @param delay the link delay
+	 */
+	private void relax(int srcID, int destID, float delay) {
+		// copies of the delays to the link source and from the link destination,
+		// since they can be updated while relaxing
+		float[] toSrc = new float[mTotalNodeNum];
+		for (int row = 0; row < mTotalNodeNum; ++row) {
+			toSrc[row] = mDelayMatrix[row][srcID];
+		}
+		float[] fromDest = Arrays.copyOf(mDelayMatrix[destID], mTotalNodeNum);
+
+		for (int row = 0; row < mTotalNodeNum; ++row) {
+			if (toSrc[row] == Float.MAX_VALUE) {
+				continue;
+			}
+			float viaLink = toSrc[row] + delay;
+			float[] delays = mDelayMatrix[row];
+			for (int col = 0; col < mTotalNodeNum; ++col) {
+				if (fromDest[col] != Float.MAX_VALUE && viaLink + fromDest[col] < delays[col]) {
+					delays[col] = viaLink + fromDest[col];
+				}
+			}
+		}
+	}
+
 	/**
 	 * Creates all internal necessary network-distance structures from the given graph. 
          * For similarity, we assume all communication-distances are symmetrical, 
@@ -94,11 +232,19 @@ public class DelayMatrix_Float {
 		while (itr.hasNext()) {
 			edge = itr.next();
 
-			mDelayMatrix[edge.getSrcNodeID()][edge.getDestNodeID()] = edge.getLinkDelay();
+			// links with zero delay are ignored by the shortest path computation
+			if (edge.getLinkDelay() == 0) {
+				continue;
+			}
+
+			// if there are several links between the same nodes, the shortest one is used
+			mDelayMatrix[edge.getSrcNodeID()][edge.getDestNodeID()] =
+					Math.min(mDelayMatrix[edge.getSrcNodeID()][edge.getDestNodeID()], edge.getLinkDelay());
 
 			if (!directed) {
 				// according to aproximity of symmetry to all communication-paths
-				mDelayMatrix[edge.getDestNodeID()][edge.getSrcNodeID()] = edge.getLinkDelay();
+				mDelayMatrix[edge.getDestNodeID()][edge.getSrcNodeID()] =
+						Math.min(mDelayMatrix[edge.getDestNodeID()][edge.getSrcNodeID()], edge.getLinkDelay());
 			}
 
 		}
@@ -106,8 +252,15 @@ public class DelayMatrix_Float {
 
 	/**
 	 * Calculates the shortest path between all pairs of nodes.
+	 *
+	 * @param blocked true to use {@link BlockedFloydWarshall_Float}, false to use {@link FloydWarshall_Float}
 	 */
-	private void calculateShortestPath() {
+	private void calculateShortestPath(boolean blocked) {
+		if (blocked) {
+			mDelayMatrix = new BlockedFloydWarshall_Float().allPairsShortestPaths(mDelayMatrix);
+			return;
+		}
+
 		FloydWarshall_Float floyd = new FloydWarshall_Float();
 
 		floyd.initialize(mTotalNodeNum);
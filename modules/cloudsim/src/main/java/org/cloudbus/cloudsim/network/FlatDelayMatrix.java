@@ -0,0 +1,155 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * A {@link DelayMatrix} stored off-heap in row-major order. The delays are computed with an
+ * in-place Floyd-Warshall algorithm, without the second matrix and the predecessor matrices of
+ * {@link FloydWarshall_Float}, so a topology of n nodes takes 4n<sup>2</sup> bytes outside the
+ * Java heap. Since a direct buffer is limited to 2 GB, large matrices are split into several
+ * buffers holding consecutive rows.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see DelayMatrixType#FLAT
+ */
+public class FlatDelayMatrix implements DelayMatrix {
+
+	/** The maximum number of delays in each buffer (i.e., 1 GB). */
+	private static final int MAX_BUFFER_SIZE = 1 << 28;
+
+	/** Number of nodes in the distance-aware-topology. */
+	private final int numNodes;
+
+	/** The number of rows of the matrix in each buffer. */
+	private final int rowsPerBuffer;
+
+	/** The buffers holding the rows of the matrix. */
+	private final FloatBuffer[] buffers;
+
+	/**
+	 * Creates a delay matrix from a topological graph.
+	 *
+	 * @param graph the network topological graph
+	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
+	 */
+	public FlatDelayMatrix(TopologicalGraph graph, boolean directed) {
+		numNodes = graph.getNumberOfNodes();
+		rowsPerBuffer = Math.max(1, MAX_BUFFER_SIZE / Math.max(1, numNodes));
+		buffers = new FloatBuffer[(numNodes + rowsPerBuffer - 1) / rowsPerBuffer];
+		for (int i = 0; i < buffers.length; i++) {
+			int rows = Math.min(rowsPerBuffer, numNodes - i * rowsPerBuffer);
+			buffers[i] = ByteBuffer.allocateDirect(rows * numNodes * Float.BYTES)
+					.order(ByteOrder.nativeOrder()).asFloatBuffer();
+		}
+
+		createDelayMatrix(graph, directed);
+		calculateShortestPaths();
+	}
+
+	@Override
+	public float getDelay(int srcID, int destID) {
+		if (srcID >= numNodes || destID >= numNodes) {
+			throw new ArrayIndexOutOfBoundsException("srcID or destID is higher than highest stored node-ID!");
+		}
+		return buffers[srcID / rowsPerBuffer].get(index(srcID, destID));
+	}
+
+	@Override
+	public int getNumberOfNodes() {
+		return numNodes;
+	}
+
+	/**
+	 * Gets the index of a delay in the buffer holding its row.
+	 */
+	private int index(int row, int col) {
+		return (row % rowsPerBuffer) * numNodes + col;
+	}
+
+	private void readRow(int row, float[] delays) {
+		buffers[row / rowsPerBuffer].get(index(row, 0), delays, 0, numNodes);
+	}
+
+	private void writeRow(int row, float[] delays) {
+		buffers[row / rowsPerBuffer].put(index(row, 0), delays, 0, numNodes);
+	}
+
+	private void setDelay(int srcID, int destID, float delay) {
+		buffers[srcID / rowsPerBuffer].put(index(srcID, destID), delay);
+	}
+
+	/**
+	 * Fills the matrix with the delays of the links of the graph. As in {@link DelayMatrix_Float},
+	 * links with zero delay are ignored and the shortest of several parallel links is used.
+	 */
+	private void createDelayMatrix(TopologicalGraph graph, boolean directed) {
+		float[] delays = new float[numNodes];
+		for (int row = 0; row < numNodes; ++row) {
+			Arrays.fill(delays, Float.MAX_VALUE);
+			delays[row] = 0;
+			writeRow(row, delays);
+		}
+
+		Iterator<TopologicalLink> itr = graph.getLinkIterator();
+		while (itr.hasNext()) {
+			TopologicalLink edge = itr.next();
+			float delay = edge.getLinkDelay();
+			if (delay == 0) {
+				continue;
+			}
+
+			int src = edge.getSrcNodeID();
+			int dest = edge.getDestNodeID();
+			if (src != dest && delay < getDelay(src, dest)) {
+				setDelay(src, dest, delay);
+			}
+			if (!directed && src != dest && delay < getDelay(dest, src)) {
+				setDelay(dest, src, delay);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the shortest path between all pairs of nodes with the Floyd-Warshall algorithm.
+	 * The matrix can be updated in place because the row and the column of the intermediate node k
+	 * do not change while iterating over k.
+	 */
+	private void calculateShortestPaths() {
+		float[] rowK = new float[numNodes];
+		float[] rowI = new float[numNodes];
+
+		for (int k = 0; k < numNodes; ++k) {
+			readRow(k, rowK);
+			for (int i = 0; i < numNodes; ++i) {
+				float delayIK = getDelay(i, k);
+				if (i == k || delayIK == Float.MAX_VALUE) {
+					continue;
+				}
+
+				readRow(i, rowI);
+				boolean changed = false;
+				for (int j = 0; j < numNodes; ++j) {
+					if (rowK[j] != Float.MAX_VALUE && delayIK + rowK[j] < rowI[j]) {
+						rowI[j] = delayIK + rowK[j];
+						changed = true;
+					}
+				}
+				if (changed) {
+					writeRow(i, rowI);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link DelayMatrix} which keeps only the links of the topology, in compressed adjacency arrays,
+ * and computes the delays from a source node with Dijkstra's algorithm when they are first requested.
+ * The delays of the most recently used sources are cached, evicting the least recently used ones,
+ * so a topology of n nodes and l links takes O(l + c&middot;n) memory for c cached sources.
+ * <p>
+ * Since link delays are non-negative, no re-weighting (as in Johnson's algorithm) is needed.
+ * The matrix can be shared by simulations running in parallel.
+ * <p>
+ * In an undirected topology, the delays between two nodes are always computed from the node
+ * with the lower id, so that a delay does not depend on which sources are cached and is the
+ * same in both directions. The delays are the same shortest paths as the ones of
+ * {@link DelayMatrix_Float}, but their float sums may be rounded in a different order.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see DelayMatrixType#ON_DEMAND
+ */
+public class OnDemandDelayMatrix implements DelayMatrix {
+
+	/** The default maximum number of sources whose delays are cached. */
+	public static final int DEFAULT_MAX_CACHED_SOURCES = 1024;
+
+	/** Number of nodes in the distance-aware-topology. */
+	private final int numNodes;
+
+	/** Whether the links can only be used from their source to their destination. */
+	private final boolean directed;
+
+	/** The index in {@link #linkDest} of the first outgoing link of each node, plus the total number of links. */
+	private final int[] firstLink;
+
+	/** The destination node of each link, grouped by source node. */
+	private final int[] linkDest;
+
+	/** The delay of each link, grouped by source node. */
+	private final float[] linkDelay;
+
+	/** The delays from the most recently used sources, in access order. */
+	private final LinkedHashMap<Integer, float[]> cache;
+
+	/**
+	 * Creates a delay matrix caching the delays of up to {@link #DEFAULT_MAX_CACHED_SOURCES} sources.
+	 *
+	 * @param graph the network topological graph
+	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
+	 */
+	public OnDemandDelayMatrix(TopologicalGraph graph, boolean directed) {
+		this(graph, directed, DEFAULT_MAX_CACHED_SOURCES);
+	}
+
+	/**
+	 * Creates a delay matrix.
+	 *
+	 * @param graph the network topological graph
+	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
+	 * @param maxCachedSources the maximum number of sources whose delays are cached
+	 */
+	public OnDemandDelayMatrix(TopologicalGraph graph, boolean directed, final int maxCachedSources) {
+		if (maxCachedSources < 1) {
+			throw new IllegalArgumentException("At least one source should be cached, but the maximum is:" + maxCachedSources);
+		}
+
+		this.numNodes = graph.getNumberOfNodes();
+		this.directed = directed;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, float[]> eldest) {
+				return size() > maxCachedSources;
+			}
+		};
+
+		// count the outgoing links of each node, ignoring the links with zero delay as DelayMatrix_Float does
+		firstLink = new int[numNodes + 1];
+		Iterator<TopologicalLink> itr = graph.getLinkIterator();
+		while (itr.hasNext()) {
+			TopologicalLink edge = itr.next();
+			if (edge.getLinkDelay() != 0) {
+				firstLink[edge.getSrcNodeID() + 1]++;
+				if (!directed) {
+					firstLink[edge.getDestNodeID() + 1]++;
+				}
+			}
+		}
+		for (int node = 0; node < numNodes; node++) {
+			firstLink[node + 1] += firstLink[node];
+		}
+
+		// fill the links of each node
+		linkDest = new int[firstLink[numNodes]];
+		linkDelay = new float[firstLink[numNodes]];
+		int[] next = Arrays.copyOf(firstLink, numNodes);
+		itr = graph.getLinkIterator();
+		while (itr.hasNext()) {
+			TopologicalLink edge = itr.next();
+			if (edge.getLinkDelay() != 0) {
+				int i = next[edge.getSrcNodeID()]++;
+				linkDest[i] = edge.getDestNodeID();
+				linkDelay[i] = edge.getLinkDelay();
+				if (!directed) {
+					i = next[edge.getDestNodeID()]++;
+					linkDest[i] = edge.getSrcNodeID();
+					linkDelay[i] = edge.getLinkDelay();
+				}
+			}
+		}
+	}
+
+	@Override
+	public float getDelay(int srcID, int destID) {
+		if (srcID >= numNodes || destID >= numNodes) {
+			throw new ArrayIndexOutOfBoundsException("srcID or destID is higher than highest stored node-ID!");
+		}
+
+		// the delays are symmetric, so they are computed from a canonical source
+		if (!directed && destID < srcID) {
+			int node = srcID;
+			srcID = destID;
+			destID = node;
+		}
+
+		float[] delays;
+		synchronized (cache) {
+			delays = cache.get(srcID);
+		}
+
+		if (delays == null) {
+			delays = calculateShortestPaths(srcID);
+			synchronized (cache) {
+				cache.put(srcID, delays);
+			}
+		}
+		return delays[destID];
+	}
+
+	@Override
+	public int getNumberOfNodes() {
+		return numNodes;
+	}
+
+	/**
+	 * Calculates the delays from a source node to all the nodes with Dijkstra's algorithm,
+	 * using an indexed binary heap of the nodes whose delay is not final yet.
+	 *
+	 * @param srcID the id of the source node
+	 * @return the delays from the source node, {@link Float#MAX_VALUE} for unreachable nodes
+	 */
+	protected float[] calculateShortestPaths(int srcID) {
+		float[] delays = new float[numNodes];
+		Arrays.fill(delays, Float.MAX_VALUE);
+		delays[srcID] = 0;
+
+		int[] heap = new int[numNodes];
+		int[] position = new int[numNodes];
+		Arrays.fill(position, -1);
+		int size = 0;
+
+		heap[size] = srcID;
+		position[srcID] = size++;
+
+		while (size > 0) {
+			int node = heap[0];
+			position[node] = -2;
+			if (--size > 0) {
+				heap[0] = heap[size];
+				position[heap[0]] = 0;
+				siftDown(heap, position, delays, size, 0);
+			}
+
+			for (int i = firstLink[node]; i < firstLink[node + 1]; i++) {
+				int dest = linkDest[i];
+				float delay = delays[node] + linkDelay[i];
+				if (position[dest] != -2 && delay < delays[dest]) {
+					delays[dest] = delay;
+					if (position[dest] < 0) {
+						heap[size] = dest;
+						position[dest] = size++;
+					}
+					siftUp(heap, position, delays, position[dest]);
+				}
+			}
+		}
+
+		return delays;
+	}
+
+	private static void siftUp(int[] heap, int[] position, float[] delays, int index) {
+		int node = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (delays[heap[parent]] <= delays[node]) {
+				break;
+			}
+			heap[index] = heap[parent];
+			position[heap[index]] = index;
+			index = parent;
+		}
+		heap[index] = node;
+		position[node] = index;
+	}
+
+	private static void siftDown(int[] heap, int[] position, float[] delays, int size, int index) {
+		int node = heap[index];
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && delays[heap[child + 1]] < delays[heap[child]]) {
+				child++;
+			}
+			if (delays[node] <= delays[heap[child]]) {
+				break;
+			}
+			heap[index] = heap[child];
+			position[heap[index]] = index;
+			index = child;
+		}
+		heap[index] = node;
+		position[node] = index;
+	}
+}
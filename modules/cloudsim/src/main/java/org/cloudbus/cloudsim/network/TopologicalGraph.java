@@ -43,6 +43,17 @@ public class TopologicalGraph {
 		nodeList = new LinkedList<>();
 	}
 
+	/**
+	 * Creates a graph-object holding the same nodes and links of another graph.
+	 * The nodes and links themselves are not copied.
+	 *
+	 * @param graph the graph to copy
+	 */
+	public TopologicalGraph(TopologicalGraph graph) {
+		linkList = new LinkedList<>(graph.linkList);
+		nodeList = new LinkedList<>(graph.nodeList);
+	}
+
 	/**
 	 * Adds an link between two topological nodes.
 	 * 
@@ -0,0 +1,386 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+
+/**
+ * A flow-level model of the network of a {@link NetworkDatacenter}, used instead of simulating
+ * each packet hop by hop through the {@link Switch} entities.
+ * <p>
+ * Each packet sent to another host becomes a flow along the same route a packet would follow
+ * (sender guest, edge, aggregate and root switches, receiver host). The bandwidth of every link
+ * (the bandwidth of the sender guest, the uplink and downlink ports of the switches) is shared
+ * among its flows with max-min fairness, and the rates are only recomputed when a flow starts or
+ * finishes. A single {@link CloudActionTags#NETWORK_FLOW_UPDATE} event is kept pending for the next
+ * flow completion, therefore the number of events does not depend on the number of hops and ports.
+ * <p>
+ * Flows are modelled as a fluid: a transfer takes as long as its data needs at its bottleneck rate,
+ * plus the switching delays of the traversed switches and the virtualization overheads. Contrary
+ * to the packet-level model, the transmission times of the hops are not added up.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see NetworkDatacenter#setFlowLevelNetwork(boolean)
+ */
+public class FlowNetwork {
+
+	/** A link, whose bandwidth is shared among the flows traversing it. */
+	private static final class Link {
+		/** The capacity of the link (bits/sec). */
+		private final double capacity;
+
+		/** The flows traversing the link. */
+		private final List<Flow> flows = new ArrayList<>();
+
+		/** The capacity not assigned yet while computing the rates. */
+		private double residual;
+
+		/** The number of flows whose rate is not fixed yet while computing the rates. */
+		private int unfixed;
+
+		/** Whether some flows traversing the link finished and must be removed from it. */
+		private boolean hasFinishedFlows;
+
+		private Link(double capacity) {
+			this.capacity = capacity;
+		}
+	}
+
+	/** A transfer of a packet between two hosts. */
+	private static final class Flow {
+		private final NetworkPacket npkt;
+
+		/** The links traversed by the flow. */
+		private final List<Link> route;
+
+		/** The constant part of the transfer time (switching delays and virtualization overheads). */
+		private final double latency;
+
+		/** The bits still to be transferred. */
+		private double remaining;
+
+		/** The current rate of the flow (bits/sec). */
+		private double rate;
+
+		/** Whether the rate has been fixed while computing the rates. */
+		private boolean fixed;
+
+		/** Whether the flow finished and must be removed from the active flows. */
+		private boolean finished;
+
+		private Flow(NetworkPacket npkt, List<Link> route, double latency) {
+			this.npkt = npkt;
+			this.route = route;
+			this.latency = latency;
+			this.remaining = 8 * npkt.pkt.data;
+		}
+	}
+
+	/** The datacenter whose network is modelled. */
+	private final NetworkDatacenter dc;
+
+	/** The links between switches, by their endpoints (see {@link #key(int, int)}). */
+	private final Map<Long, Link> links = new HashMap<>();
+
+	/** The links from the edge switches to the hosts, by host id. */
+	private final Map<Integer, Link> hostLinks = new HashMap<>();
+
+	/** The uplinks of the sender guests, by guest id. */
+	private final Map<Integer, Link> guestLinks = new HashMap<>();
+
+	/** The active flows, in the order they started. */
+	private final List<Flow> flows = new ArrayList<>();
+
+	/** The last time the progress of the flows was updated. */
+	private double lastUpdateTime;
+
+	/** Whether the rates must be recomputed, since flows started or finished. */
+	private boolean ratesOutdated;
+
+	/** The number of flows completed so far. */
+	private long completedFlows;
+
+	/**
+	 * Creates the flow-level network of a datacenter.
+	 *
+	 * @param dc the datacenter
+	 */
+	public FlowNetwork(NetworkDatacenter dc) {
+		this.dc = dc;
+	}
+
+	/**
+	 * Starts the transfer of a packet to a guest placed on another host. The rates of the flows
+	 * are not updated until {@link #updateRates()} is called, so that many flows started at the
+	 * same time only cause one update.
+	 * <p>
+	 * The packet is dropped if the receiver cannot be reached through the switches, or if a link
+	 * of its route has no bandwidth, since the flow would never finish.
+	 *
+	 * @param senderHost the host of the sender guest
+	 * @param sender the sender guest
+	 * @param npkt the packet
+	 * @return true if the flow started, false if the packet was dropped
+	 */
+	public boolean startFlow(NetworkHost senderHost, GuestEntity sender, NetworkPacket npkt) {
+		int recvGuestId = npkt.pkt.receiverGuestId;
+		Integer recvHostId = dc.VmtoHostlist.get(recvGuestId);
+		Integer recvEdgeId = dc.VmToSwitchid.get(recvGuestId);
+		if (recvHostId == null || recvEdgeId == null) {
+			Log.println(" No destination for this packet");
+			return false;
+		}
+		npkt.receiverHostId = recvHostId;
+		Switch edge = senderHost.getSwitch();
+		Switch recvEdge = dc.getSwitchList().get(recvEdgeId);
+
+		List<Link> route = new ArrayList<>(6);
+		route.add(guestLinks.computeIfAbsent(sender.getId(), k -> new Link(sender.getBw())));
+		double latency = npkt.pkt.accumulatedVirtualizationOverhead + edge.switchingDelay;
+
+		// same routing as the switches (ASSUMPTION: EACH EDGE is Connected to one aggregate level switch only)
+		if (edge != recvEdge) {
+			Switch aggr = edge.uplinkSwitches.getFirst();
+			route.add(link(edge, aggr, edge.uplinkBw));
+			latency += aggr.switchingDelay;
+
+			if (!aggr.downlinkSwitches.contains(recvEdge)) {
+				Switch root = aggr.uplinkSwitches.getFirst();
+				route.add(link(aggr, root, aggr.uplinkBw));
+				latency += root.switchingDelay;
+
+				aggr = null;
+				for (Switch sw : root.downlinkSwitches) {
+					if (sw.downlinkSwitches.contains(recvEdge)) {
+						aggr = sw;
+						break;
+					}
+				}
+				if (aggr == null) {
+					Log.println(" No destination for this packet");
+					return false;
+				}
+				route.add(link(root, aggr, root.downlinkBw));
+				latency += aggr.switchingDelay;
+			}
+
+			route.add(link(aggr, recvEdge, aggr.downlinkBw));
+			latency += recvEdge.switchingDelay;
+		}
+
+		NetworkHost recvHost = findReceiverHost(recvEdge, npkt);
+		if (recvHost == null) {
+			Log.println(" No destination for this packet");
+			return false;
+		}
+		route.add(hostLinks.computeIfAbsent(recvHost.getId(), k -> new Link(recvEdge.downlinkBw)));
+		for (Link link : route) {
+			if (link.capacity <= 0) {
+				Log.println(" No bandwidth for this packet");
+				return false;
+			}
+		}
+		// simulate traversal overhead of the virtualization layers (host -> (nested) receiver guest)
+		latency += recvHost.getTotalVirtualizationOverhead(recvGuestId, recvHost.getGuestList().iterator(), 0);
+
+		advance();
+		Flow flow = new Flow(npkt, route, latency);
+		for (Link link : route) {
+			link.flows.add(flow);
+		}
+		flows.add(flow);
+		ratesOutdated = true;
+		return true;
+	}
+
+	/**
+	 * Recomputes the rates of the flows if some flow started or finished since the last update,
+	 * and schedules the next {@link CloudActionTags#NETWORK_FLOW_UPDATE} event at the time the
+	 * first flow is expected to finish.
+	 */
+	public void updateRates() {
+		if (!ratesOutdated) {
+			return;
+		}
+		ratesOutdated = false;
+		computeMaxMinFairRates();
+
+		double nextCompletion = Double.MAX_VALUE;
+		for (Flow flow : flows) {
+			if (flow.rate > 0) {
+				nextCompletion = Math.min(nextCompletion, flow.remaining / flow.rate);
+			}
+		}
+		if (nextCompletion != Double.MAX_VALUE) {
+			dc.reschedule(dc.getId(), nextCompletion, CloudActionTags.NETWORK_FLOW_UPDATE);
+		}
+	}
+
+	/**
+	 * Processes a {@link CloudActionTags#NETWORK_FLOW_UPDATE} event: the finished flows are
+	 * removed and their packets are delivered to the receiver hosts after their latency,
+	 * then the rates of the remaining flows are updated.
+	 */
+	public void processFlowUpdate() {
+		advance();
+		// the next completion is always rescheduled, even if the event fired a bit too early
+		ratesOutdated = true;
+
+		long completedBefore = completedFlows;
+		List<Link> updatedLinks = new ArrayList<>();
+		for (Flow flow : flows) {
+			// ignore the rounding error of the completion time
+			if (flow.remaining <= flow.rate * 1e-9 || flow.remaining <= 1e-6) {
+				flow.finished = true;
+				for (Link link : flow.route) {
+					if (!link.hasFinishedFlows) {
+						link.hasFinishedFlows = true;
+						updatedLinks.add(link);
+					}
+				}
+				completedFlows++;
+				dc.schedule(dc.getId(), flow.latency, CloudActionTags.NETWORK_PKT_REACHED_HOST, flow.npkt);
+			}
+		}
+
+		// the finished flows are removed in a single pass over each list, keeping the order of the others
+		if (completedFlows > completedBefore) {
+			flows.removeIf(flow -> flow.finished);
+			for (Link link : updatedLinks) {
+				link.flows.removeIf(flow -> flow.finished);
+				link.hasFinishedFlows = false;
+			}
+		}
+
+		updateRates();
+	}
+
+	/**
+	 * Stores a packet whose flow finished in the network interface of the receiver cloudlet.
+	 *
+	 * @param npkt the packet
+	 */
+	public void deliver(NetworkPacket npkt) {
+		Switch edge = dc.getSwitchList().get(dc.HostToSwitchid.get(npkt.receiverHostId));
+		NetworkHost hs = edge.hostList.get(npkt.receiverHostId);
+		npkt.pkt.recvTime = CloudSim.clock();
+		hs.getNics().get(npkt.pkt.receiverCloudletId).getReceivedPkts().add(npkt.pkt);
+	}
+
+	/**
+	 * Gets the number of flows currently transferring data.
+	 *
+	 * @return the number of active flows
+	 */
+	public int getNumberOfActiveFlows() {
+		return flows.size();
+	}
+
+	/**
+	 * Gets the number of flows completed so far.
+	 *
+	 * @return the number of completed flows
+	 */
+	public long getNumberOfCompletedFlows() {
+		return completedFlows;
+	}
+
+	/**
+	 * Updates the data still to be transferred by each flow up to the current time.
+	 */
+	private void advance() {
+		double elapsed = CloudSim.clock() - lastUpdateTime;
+		if (elapsed > 0) {
+			for (Flow flow : flows) {
+				flow.remaining = Math.max(0, flow.remaining - flow.rate * elapsed);
+			}
+		}
+		lastUpdateTime = CloudSim.clock();
+	}
+
+	/**
+	 * Computes max-min fair rates by progressive filling: the link offering the smallest fair share
+	 * to its flows is the bottleneck of all of them, so their rate is fixed to that share and removed
+	 * from the capacity of the other links they traverse, until all the rates are fixed.
+	 */
+	private void computeMaxMinFairRates() {
+		Map<Link, Link> active = new LinkedHashMap<>();
+		for (Flow flow : flows) {
+			flow.fixed = false;
+			for (Link link : flow.route) {
+				if (active.put(link, link) == null) {
+					link.residual = link.capacity;
+					link.unfixed = link.flows.size();
+				}
+			}
+		}
+
+		while (true) {
+			Link bottleneck = null;
+			double share = Double.MAX_VALUE;
+			for (Link link : active.values()) {
+				if (link.unfixed > 0 && link.residual / link.unfixed < share) {
+					share = link.residual / link.unfixed;
+					bottleneck = link;
+				}
+			}
+			if (bottleneck == null) {
+				return;
+			}
+
+			share = Math.max(0, share);
+			for (Flow flow : bottleneck.flows) {
+				if (!flow.fixed) {
+					flow.fixed = true;
+					flow.rate = share;
+					for (Link link : flow.route) {
+						link.residual -= share;
+						link.unfixed--;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the receiver host of a packet among the hosts of its edge switch.
+	 */
+	private static NetworkHost findReceiverHost(Switch recvEdge, NetworkPacket npkt) {
+		NetworkHost hs = recvEdge.hostList.get(npkt.receiverHostId);
+		if (hs == null) { // nested virtualization edge-case
+			for (NetworkHost candidateHs : recvEdge.hostList.values()) {
+				if (candidateHs.getNics().get(npkt.pkt.receiverCloudletId) != null) {
+					hs = candidateHs;
+
+					// Replace packet host
+					npkt.receiverHostId = hs.getId();
+					break;
+				}
+			}
+		}
+		return hs;
+	}
+
+	private Link link(Switch from, Switch to, long bw) {
+		return links.computeIfAbsent(key(from.getId(), to.getId()), k -> new Link(bw));
+	}
+
+	private static long key(int from, int to) {
+		return ((long) from << 32) | (to & 0xffffffffL);
+	}
+}
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Storage;
@@ -70,6 +71,12 @@ public class NetworkDatacenter extends Datacenter {
 	/** Total data transmitted through the network of this datacenter (in bytes) */
 	public double totalDataTransfer = 0;
 
+	/**
+	 * The flow-level model of the network, or null if packets are simulated hop by hop
+	 * through the switches (the default).
+	 */
+	private FlowNetwork flowNetwork;
+
 	/**
 	 * Instantiates a new NetworkDatacenter object.
 	 * 
@@ -107,6 +114,65 @@ public class NetworkDatacenter extends Datacenter {
 
 	public Map<Integer, Switch> getSwitchList() { return SwitchList; }
 
+	/**
+	 * Enables or disables the flow-level network model. When enabled, the packets sent between
+	 * hosts are simulated as flows sharing the bandwidth of the links with max-min fairness,
+	 * instead of being forwarded by the switches. The switch topology is configured the same way.
+	 * It should be set before the simulation starts.
+	 *
+	 * @param enabled true to use the flow-level network model, false to simulate each packet
+	 * @since CloudSim Toolkit 7.0
+	 * @see FlowNetwork
+	 */
+	public void setFlowLevelNetwork(boolean enabled) {
+		flowNetwork = enabled ? new FlowNetwork(this) : null;
+	}
+
+	/**
+	 * Checks whether the flow-level network model is used.
+	 *
+	 * @return true if the flow-level network model is used, false if each packet is simulated
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isFlowLevelNetwork() {
+		return flowNetwork != null;
+	}
+
+	/**
+	 * Gets the flow-level model of the network.
+	 *
+	 * @return the flow-level network, or null if it is not used
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public FlowNetwork getFlowNetwork() {
+		return flowNetwork;
+	}
+
+	/**
+	 * The hosts send packets through the switches while being updated.
+	 */
+	@Override
+	protected boolean isParallelHostUpdatesSupported() {
+		return false;
+	}
+
+	@Override
+	protected void processOtherEvent(SimEvent ev) {
+		if (ev != null && flowNetwork != null) {
+			if (ev.getTag() == CloudActionTags.NETWORK_FLOW_UPDATE) {
+				flowNetwork.processFlowUpdate();
+				return;
+			} else if (ev.getTag() == CloudActionTags.NETWORK_PKT_REACHED_HOST) {
+				// let the receiver cloudlets complete their stage right away
+				flowNetwork.deliver((NetworkPacket) ev.getData());
+				updateCloudletProcessing();
+				checkCloudletCompletion();
+				return;
+			}
+		}
+		super.processOtherEvent(ev);
+	}
+
 	@Override
 	protected void processVmCreate(SimEvent ev, boolean ack) {
 		super.processVmCreate(ev, ack);
@@ -125,16 +191,17 @@ public class NetworkDatacenter extends Datacenter {
 	}
 
 	@Override
-	protected void processCloudletSubmit(SimEvent ev, boolean ack) {
-		super.processCloudletSubmit(ev, ack);
+	protected double submitCloudlet(Cloudlet cl, boolean ack) {
+		double estimatedFinishTime = super.submitCloudlet(cl, ack);
 
-		NetworkCloudlet ncl = (NetworkCloudlet) ev.getData();
+		NetworkCloudlet ncl = (NetworkCloudlet) cl;
 
 		int userId = ncl.getUserId();
 		int vmId = ncl.getGuestId();
 		NetworkedEntity host = (NetworkedEntity) getVmAllocationPolicy().getHost(vmId, userId);
 
 		host.getNics().put(ncl.getCloudletId(), ncl.getNic());
+		return estimatedFinishTime;
 	}
 
 	/**
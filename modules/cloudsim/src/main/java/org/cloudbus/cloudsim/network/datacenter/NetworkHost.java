@@ -92,6 +92,11 @@ public class NetworkHost extends Host implements NetworkedEntity {
 			nic.getPktsToSend().clear();
 		}
 
+		FlowNetwork flowNetwork = null;
+		if (!sendPktExternally.isEmpty() && getDatacenter() instanceof NetworkDatacenter dc) {
+			flowNetwork = dc.getFlowNetwork();
+		}
+
 		// send to edge switch, since destination guest is hosted on another host
 		for (Integer guestId : sendPktExternally.keySet()) {
 			GuestEntity sender = VmList.getById(this.getGuestList(), guestId);
@@ -100,6 +105,14 @@ public class NetworkHost extends Host implements NetworkedEntity {
 			}
 
 			for (NetworkPacket npkt : sendPktExternally.get(guestId)) {
+				if (flowNetwork != null) {
+					// the dropped packets are not transferred
+					if (flowNetwork.startFlow(this, sender, npkt)) {
+						((NetworkDatacenter) getDatacenter()).totalDataTransfer += npkt.pkt.data;
+					}
+					continue;
+				}
+
 				// Assumption: no overprovisioning of guest's bandwidth
 				double avband = (double) sender.getBw() / sendPktExternally.get(guestId).size();
 				double delay = (8 * npkt.pkt.data / avband) + npkt.pkt.accumulatedVirtualizationOverhead;
@@ -112,6 +125,10 @@ public class NetworkHost extends Host implements NetworkedEntity {
 		}
 		sendPktExternally.clear();
 
+		if (flowNetwork != null) {
+			flowNetwork.updateRates();
+		}
+
 		if (flag) {
 			for (GuestEntity guest : super.getGuestList()) {
 				guest.updateCloudletsProcessing(CloudSim.clock(), getGuestScheduler().getAllocatedMipsForGuest(guest));
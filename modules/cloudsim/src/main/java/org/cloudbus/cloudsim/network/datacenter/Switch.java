@@ -10,13 +10,13 @@ package org.cloudbus.cloudsim.network.datacenter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.*;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * This class represents a Network Switch in a Datacenter network.
@@ -114,6 +114,27 @@ public class Switch extends SimEntity {
          */
 	public double switchingDelay;
 
+	/**
+	 * The time the received packets should be forwarded at, i.e., the switching delay
+	 * after the last packet was received.
+	 */
+	private double forwardTime;
+
+	/**
+	 * The time the last packet was received at.
+	 */
+	private double lastReceiveTime = -1;
+
+	/**
+	 * The forward time before the packets received at {@link #lastReceiveTime}.
+	 */
+	private double previousForwardTime;
+
+	/**
+	 * Whether a {@link CloudActionTags#NETWORK_PKT_FORWARD} event is pending.
+	 */
+	private boolean forwardPending;
+
 	public Switch(String name, double numPort, SwitchLevel level, double switchingDelay, long downlinkBw, long uplinkBw, NetworkDatacenter dc) {
 		super(name);
 		this.level = level;
@@ -126,10 +147,12 @@ public class Switch extends SimEntity {
 		this.dc = dc;
 
 		hostList = new HashMap<>();
-		pktsToHosts = new HashMap<>();
+		// the packet maps only hold the ports which have packets waiting, in the order
+		// their first packet arrived, so forwarding does not scan all the ports
+		pktsToHosts = new LinkedHashMap<>();
 
-		pktsToDownlinkSwitches = new HashMap<>();
-		pktsToUplinkSwitches = new HashMap<>();
+		pktsToDownlinkSwitches = new LinkedHashMap<>();
+		pktsToUplinkSwitches = new LinkedHashMap<>();
 
 		downlinkSwitches = new ArrayList<>();
 		uplinkSwitches = new ArrayList<>();
@@ -150,7 +173,7 @@ public class Switch extends SimEntity {
         } else if (tag == CloudActionTags.NETWORK_PKT_DOWN) {
             processPacketDown(ev);
         } else if (tag == CloudActionTags.NETWORK_PKT_FORWARD) {
-            forwardProcessedPackets();
+            processForward();
         } else if (tag == CloudActionTags.NETWORK_PKT_REACHED_HOST) {
             storePacketInHost(ev);
         } else if (tag == CloudActionTags.NETWORK_ATTACH_HOST) {
@@ -182,18 +205,17 @@ public class Switch extends SimEntity {
 	protected void processPacketDown(SimEvent ev) {
 		NetworkPacket npkt = (NetworkPacket) ev.getData();
 		int recvVMid = npkt.pkt.receiverGuestId;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
-		schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
+		scheduleForward();
 
 		// packet is to be received by the host
 		if (level == SwitchLevel.EDGE_LEVEL) {
 			int hostid = dc.VmtoHostlist.get(recvVMid);
 			npkt.receiverHostId = hostid;
-			pktsToHosts.computeIfAbsent(hostid, k -> new ArrayList<>()).add(npkt);
+			enqueuePacket(pktsToHosts, hostid, npkt);
 		} else if (level == SwitchLevel.AGGR_LEVEL) { // From root level to edge level
 			// find the id for edgelevel switch
 			int switchId = dc.VmToSwitchid.get(recvVMid);
-			pktsToDownlinkSwitches.computeIfAbsent(switchId, k -> new ArrayList<>()).add(npkt);
+			enqueuePacket(pktsToDownlinkSwitches, switchId, npkt);
 		}
 
 	}
@@ -208,8 +230,7 @@ public class Switch extends SimEntity {
 		NetworkPacket npkt = (NetworkPacket) ev.getData();
 		int recvVMid = npkt.pkt.receiverGuestId;
 
-		CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
-		schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
+		scheduleForward();
 
 		// Packet is to be sent from an host
 		if (level == SwitchLevel.EDGE_LEVEL) {
@@ -219,14 +240,14 @@ public class Switch extends SimEntity {
 
 			// Receiver host directly connected to the switch -- found!
 			if (hs != null) {
-				pktsToHosts.computeIfAbsent(hostId, k -> new ArrayList<>()).add(npkt);
+				enqueuePacket(pktsToHosts, hostId, npkt);
 				return;
 			}
 
 			// Send to aggregate level
 			// ASSUMPTION: EACH EDGE is Connected to one aggregate level switch only
 			Switch sw = uplinkSwitches.getFirst();
-			pktsToUplinkSwitches.computeIfAbsent(sw.getId(), k -> new ArrayList<>()).add(npkt);
+			enqueuePacket(pktsToUplinkSwitches, sw.getId(), npkt);
 		}
 		else if (level == SwitchLevel.AGGR_LEVEL) { // packet received from edge router
 			// find the id for edgelevel switch
@@ -234,10 +255,10 @@ public class Switch extends SimEntity {
 
 			// send to edge (it's not going up, but same level)
             if (downlinkSwitches.stream().anyMatch(sw -> sw.getId() == switchId)) {
-				pktsToDownlinkSwitches.computeIfAbsent(switchId, k -> new ArrayList<>()).add(npkt);
+				enqueuePacket(pktsToDownlinkSwitches, switchId, npkt);
 			} else {// send to up to root level (ASSUMPTION: EACH EDGE is Connected to one aggregate level switch only)
 				Switch sw = uplinkSwitches.getFirst();
-				pktsToUplinkSwitches.computeIfAbsent(sw.getId(), k -> new ArrayList<>()).add(npkt);
+				enqueuePacket(pktsToUplinkSwitches, sw.getId(), npkt);
 			}
 		}
 		// @TODO: confusing, this packet is going down, not up!!!
@@ -257,13 +278,90 @@ public class Switch extends SimEntity {
 			if (aggrSwitchId < 0) {
 				Log.println(" No destination for this packet");
 			} else {
-				pktsToDownlinkSwitches.computeIfAbsent(aggrSwitchId, k -> new ArrayList<>()).add(npkt);
+				enqueuePacket(pktsToDownlinkSwitches, aggrSwitchId, npkt);
 			}
 		} else {
 			throw new IllegalStateException("Unknown switch level " + level);
 		}
 	}
         
+	/**
+	 * Adds a packet to the ones waiting to be forwarded through a port.
+	 *
+	 * @param pkts the packets waiting in each port, i.e., {@link #pktsToHosts},
+	 *             {@link #pktsToDownlinkSwitches} or {@link #pktsToUplinkSwitches}
+	 * @param port the id of the switch or host the packet is forwarded to
+	 * @param npkt the packet
+	 */
+	protected void enqueuePacket(Map<Integer, List<NetworkPacket>> pkts, int port, NetworkPacket npkt) {
+		pkts.computeIfAbsent(port, k -> new ArrayList<>()).add(npkt);
+	}
+
+	/**
+	 * Schedules the forwarding of the received packets after the switching delay.
+	 * While packets keep arriving, the forwarding is postponed until the switching delay has
+	 * elapsed since the last one. Rather than cancelling and scheduling a forwarding event for
+	 * each packet, only the forwarding time is updated and a single event is kept pending,
+	 * which is postponed when it fires too early (see {@link #processForward()}).
+	 */
+	protected void scheduleForward() {
+		double clock = CloudSim.clock();
+		if (clock != lastReceiveTime) {
+			lastReceiveTime = clock;
+			previousForwardTime = forwardTime;
+		}
+		forwardTime = clock + switchingDelay;
+		if (!forwardPending) {
+			forwardPending = true;
+			schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
+		}
+	}
+
+	/**
+	 * Processes a pending forwarding event, forwarding the received packets if the
+	 * switching delay has elapsed since the last one arrived, or postponing the event otherwise.
+	 * <p>
+	 * As when a forwarding event was cancelled and scheduled for each packet, the packets
+	 * received at the forwarding time do not postpone the forwarding, since the event to
+	 * cancel has already been taken from the future events. The packets received before the
+	 * event are forwarded with the others, and the ones received afterward are forwarded
+	 * after another switching delay.
+	 */
+	protected void processForward() {
+		double clock = CloudSim.clock();
+		double dueTime = clock == lastReceiveTime ? previousForwardTime : forwardTime;
+		if (clock < dueTime) {
+			scheduleForwardEvent(clock);
+			return;
+		}
+
+		forwardProcessedPackets();
+		if (clock < forwardTime) {
+			// packets were received at the forwarding time, before the event
+			scheduleForwardEvent(clock);
+		} else {
+			forwardPending = false;
+		}
+	}
+
+	/**
+	 * Schedules the pending forwarding event at the forward time. The event must happen exactly
+	 * at that time, as the event scheduled when the last packet arrived would, so the rounding
+	 * error of its delay is corrected.
+	 *
+	 * @param clock the current simulation time
+	 */
+	private void scheduleForwardEvent(double clock) {
+		double delay = forwardTime - clock;
+		while (clock + delay < forwardTime) {
+			delay = Math.nextUp(delay);
+		}
+		while (clock + delay > forwardTime) {
+			delay = Math.nextDown(delay);
+		}
+		schedule(getId(), delay, CloudActionTags.NETWORK_PKT_FORWARD);
+	}
+
 	/**
 	 * Register a host that is connected to the switch.
 	 * Resource characteristics answer (@TODO: not in use)
@@ -302,13 +400,17 @@ public class Switch extends SimEntity {
 	/**
 	 * Forwards the processed packets to their respective destinations:
 	 * an host, a downlink switch, or a uplink switch.
+	 * The forwarded ports are removed from the packet maps, so that only the ports
+	 * which have packets waiting are visited.
 	 *
 	 */
 	protected void forwardProcessedPackets() {
 		// Iterate over the packets in the downlink switch
-		for (Entry<Integer, List<NetworkPacket>> es : pktsToDownlinkSwitches.entrySet()) {
+		for (Iterator<Map.Entry<Integer, List<NetworkPacket>>> it = pktsToDownlinkSwitches.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<Integer, List<NetworkPacket>> es = it.next();
 			int receiverSwitchId = es.getKey();
 			List<NetworkPacket> hspktlist = es.getValue();
+			it.remove();
 			if (!hspktlist.isEmpty()) {
 				double avband = (double) downlinkBw / hspktlist.size();
 				for (NetworkPacket hspkt : hspktlist) {
@@ -316,13 +418,14 @@ public class Switch extends SimEntity {
 
 					this.send(receiverSwitchId, delay, CloudActionTags.NETWORK_PKT_DOWN, hspkt);
 				}
-				hspktlist.clear();
 			}
 		}
 
-		for (Entry<Integer, List<NetworkPacket>> es : pktsToUplinkSwitches.entrySet()) {
+		for (Iterator<Map.Entry<Integer, List<NetworkPacket>>> it = pktsToUplinkSwitches.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<Integer, List<NetworkPacket>> es = it.next();
 			int receiverSwitchId = es.getKey();
 			List<NetworkPacket> hspktlist = es.getValue();
+			it.remove();
 			if (!hspktlist.isEmpty()) {
 				// sharing bandwidth between packets
 				double avband = (double) uplinkBw / hspktlist.size();
@@ -331,12 +434,12 @@ public class Switch extends SimEntity {
 
 					this.send(receiverSwitchId, delay, CloudActionTags.NETWORK_PKT_UP, hspkt);
 				}
-				hspktlist.clear();
 			}
 		}
 
-		for (Entry<Integer, List<NetworkPacket>> es : pktsToHosts.entrySet()) {
-			List<NetworkPacket> hspktlist = es.getValue();
+		for (Iterator<List<NetworkPacket>> it = pktsToHosts.values().iterator(); it.hasNext(); ) {
+			List<NetworkPacket> hspktlist = it.next();
+			it.remove();
 			if (!hspktlist.isEmpty()) {
 				double avband = (double) downlinkBw / hspktlist.size();
 				for (NetworkPacket npkt : hspktlist) {
@@ -360,7 +463,6 @@ public class Switch extends SimEntity {
 					double delay = (8 * npkt.pkt.data / avband) + virtOverhead;
 					this.send(getId(), delay, CloudActionTags.NETWORK_PKT_REACHED_HOST, npkt);
 				}
-				hspktlist.clear();
 			}
 		}
 	}
@@ -80,8 +80,7 @@ public class PowerDatacenter extends Datacenter {
 	@Override
 	protected void updateCloudletProcessing() {
 		if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == CloudSim.clock()) {
-			CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-			schedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+			reschedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
 			return;
 		}
 		double currentTime = CloudSim.clock();
@@ -135,8 +134,7 @@ public class PowerDatacenter extends Datacenter {
 
 			// schedules an event to the next time
 			if (minTime != Double.MAX_VALUE) {
-				CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-				send(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+				reschedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
 			}
 
 			setLastProcessTime(currentTime);
@@ -173,22 +171,34 @@ public class PowerDatacenter extends Datacenter {
 		double timeDiff = currentTime - getLastProcessTime();
 		double timeFrameDatacenterEnergy = 0.0;
 
+		// the messages of each host are only built when they are printed
+		boolean logging = Log.isEnabled();
 		Log.println("\n\n--------------------------------------------------------------\n\n");
 		Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
 
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			Log.println();
+		List<PowerHost> hosts = getHostList();
+		double[] times = new double[hosts.size()];
+		forEachHost(hosts, i -> {
+			PowerHost host = hosts.get(i);
+			if (logging) {
+				Log.println();
+			}
+
+			times[i] = host.updateCloudletsProcessing(currentTime); // inform VMs to update processing
 
-			double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update processing
+			if (logging) {
+				Log.formatLine(
+						"%.2f: [Host #%d] utilization is %.2f%%",
+						currentTime,
+						host.getId(),
+						host.getUtilizationOfCpu() * 100);
+			}
+		});
+		getVmAllocationPolicy().hostsUpdated(hosts);
+		for (double time : times) {
 			if (time < minTime) {
 				minTime = time;
 			}
-
-			Log.formatLine(
-					"%.2f: [Host #%d] utilization is %.2f%%",
-					currentTime,
-					host.getId(),
-					host.getUtilizationOfCpu() * 100);
 		}
 
 		if (timeDiff > 0) {
@@ -197,28 +207,35 @@ public class PowerDatacenter extends Datacenter {
 					getLastProcessTime(),
 					currentTime);
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
+			double[] energies = new double[hosts.size()];
+			forEachHost(hosts, i -> {
+				PowerHost host = hosts.get(i);
 				double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
 				double utilizationOfCpu = host.getUtilizationOfCpu();
-				double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
+				energies[i] = host.getEnergyLinearInterpolation(
 						previousUtilizationOfCpu,
 						utilizationOfCpu,
 						timeDiff);
-				timeFrameDatacenterEnergy += timeFrameHostEnergy;
 
-				Log.println();
-				Log.formatLine(
-						"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
-						currentTime,
-						host.getId(),
-						getLastProcessTime(),
-						previousUtilizationOfCpu * 100,
-						utilizationOfCpu * 100);
-				Log.formatLine(
-						"%.2f: [Host #%d] energy is %.2f W*sec",
-						currentTime,
-						host.getId(),
-						timeFrameHostEnergy);
+				if (logging) {
+					Log.println();
+					Log.formatLine(
+							"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
+							currentTime,
+							host.getId(),
+							getLastProcessTime(),
+							previousUtilizationOfCpu * 100,
+							utilizationOfCpu * 100);
+					Log.formatLine(
+							"%.2f: [Host #%d] energy is %.2f W*sec",
+							currentTime,
+							host.getId(),
+							energies[i]);
+				}
+			});
+			// summed in the order of the host list, as the sequential updates do
+			for (double timeFrameHostEnergy : energies) {
+				timeFrameDatacenterEnergy += timeFrameHostEnergy;
 			}
 
 			Log.formatLine(
@@ -262,6 +279,12 @@ public class PowerDatacenter extends Datacenter {
 		setCloudletSubmitted(CloudSim.clock());
 	}
 
+	@Override
+	protected void processCloudletSubmitBatch(SimEvent ev) {
+		super.processCloudletSubmitBatch(ev);
+		setCloudletSubmitted(CloudSim.clock());
+	}
+
 	/**
 	 * Gets the power.
 	 * 
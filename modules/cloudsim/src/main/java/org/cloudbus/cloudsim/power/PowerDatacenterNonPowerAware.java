@@ -20,7 +20,6 @@ import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.CloudActionTags;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * PowerDatacenterNonPowerAware is a class that represents a <b>non-power</b> aware data center in the
@@ -64,8 +63,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 	@Override
 	protected void updateCloudletProcessing() {
 		if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == CloudSim.clock()) {
-			CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-			schedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+			reschedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
 			return;
 		}
 		double currentTime = CloudSim.clock();
@@ -75,10 +73,14 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 			double timeDiff = currentTime - getLastProcessTime();
 			double minTime = Double.MAX_VALUE;
 
+			// the messages of each host are only built when they are printed
+			boolean logging = Log.isEnabled();
 			Log.println("\n");
 
 			for (PowerHost host : this.<PowerHost> getHostList()) {
-				Log.formatLine("%.2f: Host #%d", CloudSim.clock(), host.getId());
+				if (logging) {
+					Log.formatLine("%.2f: Host #%d", CloudSim.clock(), host.getId());
+				}
 
 				double hostPower = 0.0;
 
@@ -89,27 +91,37 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 					e.printStackTrace();
 				}
 
-				Log.formatLine(
-						"%.2f: Host #%d utilization is %.2f%%",
-						CloudSim.clock(),
-						host.getId(),
-						host.getUtilizationOfCpu() * 100);
-				Log.formatLine(
-						"%.2f: Host #%d energy is %.2f W*sec",
-						CloudSim.clock(),
-						host.getId(),
-						hostPower);
+				if (logging) {
+					Log.formatLine(
+							"%.2f: Host #%d utilization is %.2f%%",
+							CloudSim.clock(),
+							host.getId(),
+							host.getUtilizationOfCpu() * 100);
+					Log.formatLine(
+							"%.2f: Host #%d energy is %.2f W*sec",
+							CloudSim.clock(),
+							host.getId(),
+							hostPower);
+				}
 			}
 
 			Log.formatLine("\n%.2f: Consumed energy is %.2f W*sec\n", CloudSim.clock(), timeframePower);
 
 			Log.println("\n\n--------------------------------------------------------------\n\n");
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
-				Log.formatLine("\n%.2f: Host #%d", CloudSim.clock(), host.getId());
+			List<PowerHost> hosts = getHostList();
+			double[] times = new double[hosts.size()];
+			forEachHost(hosts, i -> {
+				PowerHost host = hosts.get(i);
+				if (logging) {
+					Log.formatLine("\n%.2f: Host #%d", CloudSim.clock(), host.getId());
+				}
 
-				double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update
+				times[i] = host.updateCloudletsProcessing(currentTime); // inform VMs to update
 																		// processing
+			});
+			getVmAllocationPolicy().hostsUpdated(hosts);
+			for (double time : times) {
 				if (time < minTime) {
 					minTime = time;
 				}
@@ -170,9 +182,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
 			// schedules an event to the next time
 			if (minTime != Double.MAX_VALUE) {
-				CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-				// CloudSim.cancelAll(getId(), CloudSim.SIM_ANY);
-				send(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+				reschedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
 			}
 
 			setLastProcessTime(currentTime);
@@ -18,6 +18,7 @@ import org.cloudbus.cloudsim.core.PowerHostEntity;
 import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.HistoryStat;
 
 /**
  * PowerHost class enables simulation of power-aware hosts.
@@ -117,14 +118,26 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 	 * @return the host CPU utilization percentage history
 	 */
 	public double[] getUtilizationHistory() {
+		return getUtilizationHistory(this.<PowerVm>getGuestList(), getTotalMips());
+	}
+
+	/**
+	 * Gets the CPU utilization percentage history of a host running some VMs.
+	 *
+	 * @param vms the VMs of the host
+	 * @param hostMips the total MIPS of the host
+	 * @return the host CPU utilization percentage history
+	 * @see PowerHostProjection#getUtilizationHistory()
+	 */
+	static double[] getUtilizationHistory(List<? extends PowerVm> vms, double hostMips) {
 		double[] utilizationHistory = new double[PowerHostEntity.HISTORY_LENGTH];
-		double hostMips = getTotalMips();
 		int maxlen = 0;
-		for (PowerVm vm : this.<PowerVm>getGuestList()) {
+		for (PowerVm vm : vms) {
 			double guestMips = vm.getMips();
+			HistoryStat vmUtilization = vm.getUtilizationHistory();
 			int i = 0;
-			for (double u : vm.getUtilizationHistory()) {
-				utilizationHistory[i++] += u * guestMips / hostMips;
+			for (; i < vmUtilization.size(); i++) {
+				utilizationHistory[i] += vmUtilization.get(i) * guestMips / hostMips;
 			}
 			if (i > maxlen)
 				maxlen = i;
@@ -0,0 +1,312 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+
+/**
+ * A projection of a power host with some guests hypothetically added to it or removed from it.
+ * It is used by the power-aware VM allocation policies to evaluate a placement (what-if) without
+ * creating the guests in the host and destroying them afterwards: the projection changes neither
+ * the host, its provisioners and VM scheduler, nor the guests.
+ * <p>
+ * The resources of an added guest are projected from its current request, as checked by
+ * {@link HostEntity#isSuitableForGuest(GuestEntity)}, and the resources of a removed guest from
+ * its current allocation. The projection reads the host each time it is queried, so it
+ * follows the changes of the host.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see PowerVmAllocationPolicyMigrationAbstract#isHostOverUtilized(PowerHostProjection)
+ */
+public class PowerHostProjection {
+
+	/** The host. */
+	private final PowerHost host;
+
+	/** The guests added to the host, in order. */
+	private final List<GuestEntity> addedGuests = new ArrayList<>();
+
+	/** The guests of the host that are removed from it. */
+	private final List<GuestEntity> removedGuests = new ArrayList<>();
+
+	/**
+	 * Instantiates a projection of a host, without any change yet.
+	 *
+	 * @param host the host
+	 */
+	public PowerHostProjection(PowerHost host) {
+		this.host = host;
+	}
+
+	/**
+	 * Adds a guest to the projected host. Adding a guest which has been removed cancels its removal.
+	 *
+	 * @param guest the guest
+	 * @return this projection
+	 */
+	public PowerHostProjection addGuest(GuestEntity guest) {
+		if (!removedGuests.remove(guest)) {
+			addedGuests.add(guest);
+		}
+		return this;
+	}
+
+	/**
+	 * Removes a guest from the projected host. Removing a guest which has been added cancels its addition.
+	 *
+	 * @param guest the guest
+	 * @return this projection
+	 * @throws IllegalArgumentException if the guest is neither in the host nor added to the projection
+	 */
+	public PowerHostProjection removeGuest(GuestEntity guest) {
+		if (!addedGuests.remove(guest)) {
+			if (!host.getGuestList().contains(guest) || removedGuests.contains(guest)) {
+				throw new IllegalArgumentException(guest.getClassName() + " #" + guest.getId()
+						+ " is not in host #" + host.getId());
+			}
+			removedGuests.add(guest);
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the projected host.
+	 *
+	 * @return the host
+	 */
+	public PowerHost getHost() {
+		return host;
+	}
+
+	/**
+	 * Checks whether guests have been added to or removed from the host.
+	 *
+	 * @return true if the projection differs from the host; false otherwise
+	 */
+	public boolean isModified() {
+		return !addedGuests.isEmpty() || !removedGuests.isEmpty();
+	}
+
+	/**
+	 * Gets the guests added to the host.
+	 *
+	 * @return the added guests
+	 */
+	public List<GuestEntity> getAddedGuests() {
+		return Collections.unmodifiableList(addedGuests);
+	}
+
+	/**
+	 * Gets the guests removed from the host.
+	 *
+	 * @return the removed guests
+	 */
+	public List<GuestEntity> getRemovedGuests() {
+		return Collections.unmodifiableList(removedGuests);
+	}
+
+	/**
+	 * Gets the projected guest list: the guests of the host which have not been removed,
+	 * followed by the added guests, as if the latter were created in the host.
+	 *
+	 * @param <T> the generic type
+	 * @return the guest list
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends GuestEntity> List<T> getGuestList() {
+		if (!isModified()) {
+			return host.getGuestList();
+		}
+		List<GuestEntity> guestList = new ArrayList<>(host.getGuestList());
+		guestList.removeAll(removedGuests);
+		guestList.addAll(addedGuests);
+		return (List<T>) guestList;
+	}
+
+	/**
+	 * Checks whether the host can accommodate the added guests, after the removed ones
+	 * have released their resources.
+	 *
+	 * @return true if the added guests fit in the host; false otherwise
+	 */
+	public boolean isSuitable() {
+		long storage = host.getStorage() + getReleasedStorage();
+		int ram = host.getGuestRamProvisioner().getAvailableRam() + getReleasedRam();
+		long bw = host.getGuestBwProvisioner().getAvailableBw() + getReleasedBw();
+		double mips = host.getGuestScheduler().getAvailableMips() + getReleasedMips();
+		double peCapacity = host.getGuestScheduler().getPeCapacity();
+		for (GuestEntity guest : addedGuests) {
+			if (storage < guest.getSize()
+					|| peCapacity < guest.getCurrentRequestedMaxMips()
+					|| mips < guest.getCurrentRequestedTotalMips()
+					|| ram < getRequestedRam(guest)
+					|| bw < guest.getCurrentRequestedBw()) {
+				return false;
+			}
+			storage -= guest.getSize();
+			ram -= getRequestedRam(guest);
+			bw -= guest.getCurrentRequestedBw();
+			mips -= guest.getCurrentRequestedTotalMips();
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the projected free storage.
+	 *
+	 * @return the storage
+	 */
+	public long getStorage() {
+		long storage = host.getStorage() + getReleasedStorage();
+		for (GuestEntity guest : addedGuests) {
+			storage -= guest.getSize();
+		}
+		return storage;
+	}
+
+	/**
+	 * Gets the projected available RAM.
+	 *
+	 * @return the available RAM
+	 */
+	public int getAvailableRam() {
+		int ram = host.getGuestRamProvisioner().getAvailableRam() + getReleasedRam();
+		for (GuestEntity guest : addedGuests) {
+			ram -= getRequestedRam(guest);
+		}
+		return ram;
+	}
+
+	/**
+	 * Gets the projected available BW.
+	 *
+	 * @return the available BW
+	 */
+	public long getAvailableBw() {
+		long bw = host.getGuestBwProvisioner().getAvailableBw() + getReleasedBw();
+		for (GuestEntity guest : addedGuests) {
+			bw -= guest.getCurrentRequestedBw();
+		}
+		return bw;
+	}
+
+	/**
+	 * Gets the projected MIPS available in the VM scheduler.
+	 *
+	 * @return the available MIPS
+	 */
+	public double getAvailableMips() {
+		double mips = host.getGuestScheduler().getAvailableMips() + getReleasedMips();
+		for (GuestEntity guest : addedGuests) {
+			mips -= guest.getCurrentRequestedTotalMips();
+		}
+		return mips;
+	}
+
+	/**
+	 * Gets the projected CPU utilization in MIPS: the MIPS allocated to the guests of the host
+	 * which have not been removed, counting the whole MIPS of the guests migrating in, plus
+	 * the MIPS requested by the added guests.
+	 *
+	 * @return the CPU utilization in MIPS
+	 */
+	public double getUtilizationOfCpuMips() {
+		double utilizationMips = 0;
+		for (GuestEntity guest : host.getGuestList()) {
+			if (removedGuests.contains(guest)) {
+				continue;
+			}
+			if (host.getGuestsMigratingIn().contains(guest)) {
+				// calculate additional potential CPU usage of a migrating in VM
+				utilizationMips += host.getTotalAllocatedMipsForGuest(guest) * 0.9 / 0.1;
+			}
+			utilizationMips += host.getTotalAllocatedMipsForGuest(guest);
+		}
+		for (GuestEntity guest : addedGuests) {
+			utilizationMips += guest.getCurrentRequestedTotalMips();
+		}
+		return utilizationMips;
+	}
+
+	/**
+	 * Gets the projected CPU utilization percentage, assuming that the load is balanced
+	 * between the PEs. It may exceed 1 if the host is over-subscribed.
+	 *
+	 * @return the CPU utilization percentage
+	 * @see #getUtilizationOfCpuMips()
+	 */
+	public double getUtilizationOfCpu() {
+		return getUtilizationOfCpuMips() / host.getTotalMips();
+	}
+
+	/**
+	 * Gets the projected power consumption.
+	 *
+	 * @return the power consumption
+	 * @see #getUtilizationOfCpu()
+	 */
+	public double getPower() {
+		return host.getPower(getUtilizationOfCpu());
+	}
+
+	/**
+	 * Gets the projected CPU utilization percentage history, computed from the utilization
+	 * history of the projected guests.
+	 *
+	 * @return the CPU utilization percentage history
+	 * @see PowerHost#getUtilizationHistory()
+	 */
+	public double[] getUtilizationHistory() {
+		return PowerHost.getUtilizationHistory(this.<PowerVm>getGuestList(), host.getTotalMips());
+	}
+
+	private long getReleasedStorage() {
+		long storage = 0;
+		for (GuestEntity guest : removedGuests) {
+			storage += guest.getSize();
+		}
+		return storage;
+	}
+
+	private int getReleasedRam() {
+		int ram = 0;
+		for (GuestEntity guest : removedGuests) {
+			ram += host.getGuestRamProvisioner().getAllocatedRamForGuest(guest);
+		}
+		return ram;
+	}
+
+	private long getReleasedBw() {
+		long bw = 0;
+		for (GuestEntity guest : removedGuests) {
+			bw += host.getGuestBwProvisioner().getAllocatedBwForGuest(guest);
+		}
+		return bw;
+	}
+
+	private double getReleasedMips() {
+		double mips = 0;
+		for (GuestEntity guest : removedGuests) {
+			mips += host.getTotalAllocatedMipsForGuest(guest);
+		}
+		return mips;
+	}
+
+	/**
+	 * Gets the RAM an added guest would be given by the RAM provisioner: no more than the guest RAM.
+	 */
+	private static int getRequestedRam(GuestEntity guest) {
+		return Math.min(guest.getCurrentRequestedRam(), guest.getRam());
+	}
+}
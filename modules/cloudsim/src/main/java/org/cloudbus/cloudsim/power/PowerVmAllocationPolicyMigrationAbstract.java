@@ -9,17 +9,22 @@
 package org.cloudbus.cloudsim.power;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
 
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.lists.VmList;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
@@ -95,6 +100,15 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
          */
 	private final List<Double> executionTimeHistoryTotal = new ArrayList<>();
 
+	/** The number of consecutive hosts checked by each task with parallel overload detection. */
+	private static final int OVERLOAD_DETECTION_CHUNK_SIZE = 64;
+
+	/**
+	 * The pool checking the hosts for overload in parallel, or null to check them sequentially.
+	 * @see #setParallelOverloadDetection(ForkJoinPool)
+	 */
+	private ForkJoinPool overloadDetectionPool;
+
 	/**
 	 * Instantiates a new PowerVmAllocationPolicyMigrationAbstract.
 	 * 
@@ -271,18 +285,15 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 
 	/**
 	 * Checks if a host will be over utilized after placing of a candidate VM.
+	 * The VM is not in fact placed at the host, the check is made on a projection of the host.
 	 * 
 	 * @param host the host to verify
 	 * @param vm the candidate vm 
 	 * @return true, if the host will be over utilized after VM placement; false otherwise
 	 */
 	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, GuestEntity vm) {
-		boolean isHostOverUtilizedAfterAllocation = true;
-		if (host.guestCreate(vm)) {
-			isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
-			host.guestDestroy(vm);
-		}
-		return isHostOverUtilizedAfterAllocation;
+		PowerHostProjection projection = new PowerHostProjection(host).addGuest(vm);
+		return !projection.isSuitable() || isHostOverUtilized(projection);
 	}
 
 	@Override
@@ -409,6 +420,16 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 */
 	protected List<PowerHost> getOverUtilizedHosts() {
 		List<PowerHost> overUtilizedHosts = new LinkedList<>();
+		if (overloadDetectionPool != null && getHostList().size() > OVERLOAD_DETECTION_CHUNK_SIZE) {
+			List<PowerHost> hosts = getHostList();
+			boolean[] overUtilized = getOverUtilizedHostsInParallel(hosts);
+			for (int i = 0; i < overUtilized.length; i++) {
+				if (overUtilized[i]) {
+					overUtilizedHosts.add(hosts.get(i));
+				}
+			}
+			return overUtilizedHosts;
+		}
 		for (PowerHost host : this.<PowerHost> getHostList()) {
 			if (isHostOverUtilized(host)) {
 				overUtilizedHosts.add(host);
@@ -417,6 +438,83 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		return overUtilizedHosts;
 	}
 
+	/**
+	 * Checks the hosts for overload with the tasks of the overload detection pool, each one
+	 * checking a fixed chunk of consecutive hosts. The hosts sharing a guest (see
+	 * {@link VmAllocationPolicy#getHostsSharingGuests(List)}) are checked afterwards, one after
+	 * the other. The messages logged by the checks are printed in the order of the hosts.
+	 *
+	 * @param hosts the hosts
+	 * @return whether each host is over utilized, by position in the host list
+	 */
+	private boolean[] getOverUtilizedHostsInParallel(List<PowerHost> hosts) {
+		int size = hosts.size();
+		boolean[] overUtilized = new boolean[size];
+		SimulationContext context = SimulationContext.current();
+		boolean logging = !Log.isDisabled();
+		BitSet sequential = VmAllocationPolicy.getHostsSharingGuests(hosts);
+		String[] logs = logging ? new String[size] : null;
+		IntConsumer check = i -> overUtilized[i] = isHostOverUtilized(hosts.get(i));
+		IntConsumer checkAndLog = logging ? i -> logs[i] = Log.capture(() -> check.accept(i)) : check;
+		int chunks = (size + OVERLOAD_DETECTION_CHUNK_SIZE - 1) / OVERLOAD_DETECTION_CHUNK_SIZE;
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			int from = chunk * OVERLOAD_DETECTION_CHUNK_SIZE;
+			int to = Math.min(size, from + OVERLOAD_DETECTION_CHUNK_SIZE);
+			tasks.add(overloadDetectionPool.submit(() -> context.execute(() -> {
+				for (int i = sequential.nextClearBit(from); i < to; i = sequential.nextClearBit(i + 1)) {
+					checkAndLog.accept(i);
+				}
+			})));
+		}
+		for (ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+		for (int i = sequential.nextSetBit(0); i >= 0; i = sequential.nextSetBit(i + 1)) {
+			checkAndLog.accept(i);
+		}
+		if (logging) {
+			for (String log : logs) {
+				if (!log.isEmpty()) {
+					Log.print(log);
+				}
+			}
+		}
+		return overUtilized;
+	}
+
+	/**
+	 * Enables or disables parallel overload detection. When enabled, the hosts are checked
+	 * for overload by the tasks of the given pool, while the over utilized hosts are still
+	 * listed in the order of the host list, so that the VMs to migrate are the same as with
+	 * sequential checks.
+	 * <p>
+	 * It is meant for large datacenters with policies whose check of a host takes a
+	 * significant time, such as the Local Regression policies. It requires
+	 * {@link #isHostOverUtilized(PowerHost)}, and the one of a fallback policy, to only read
+	 * the host and its guests, apart from {@link #addHistoryEntry(HostDynamicWorkload, double)}
+	 * which can be called concurrently. Since reading a guest may still change it (e.g., its
+	 * stochastic utilization), the hosts sharing a guest, such as the source and destination
+	 * hosts of a migrating VM, are checked one after the other. It applies to the policies of
+	 * this package.
+	 *
+	 * @param pool the pool used to check the hosts, or null to check them sequentially
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void setParallelOverloadDetection(ForkJoinPool pool) {
+		this.overloadDetectionPool = pool;
+	}
+
+	/**
+	 * Checks whether parallel overload detection is enabled.
+	 *
+	 * @return true if the hosts are checked for overload in parallel, false otherwise
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean isParallelOverloadDetection() {
+		return overloadDetectionPool != null;
+	}
+
 	/**
 	 * Gets the switched off hosts.
 	 * 
@@ -482,12 +580,54 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	protected abstract boolean isHostOverUtilized(PowerHost host);
 
 	/**
-	 * Adds an entry for each history map of a host.
+	 * Checks if a host would be over utilized with the guests added to or removed from it
+	 * by a projection.
+	 * <p>
+	 * The policies of this package evaluate the projection without changing the host. This
+	 * default implementation, meant for the policies which only implement
+	 * {@link #isHostOverUtilized(PowerHost)}, applies the projection to the host for the time
+	 * of the check: the removed guests are destroyed and the added ones are created, then the
+	 * guests are destroyed and created back.
+	 *
+	 * @param host the projected host
+	 * @return true, if the projected host is over utilized, or if the added guests cannot
+	 * be created; false otherwise
+	 */
+	protected boolean isHostOverUtilized(PowerHostProjection host) {
+		PowerHost powerHost = host.getHost();
+		if (!host.isModified()) {
+			return isHostOverUtilized(powerHost);
+		}
+
+		for (GuestEntity guest : host.getRemovedGuests()) {
+			powerHost.guestDestroy(guest);
+		}
+		List<GuestEntity> createdGuests = new ArrayList<>();
+		for (GuestEntity guest : host.getAddedGuests()) {
+			if (!powerHost.guestCreate(guest)) {
+				break;
+			}
+			createdGuests.add(guest);
+		}
+		boolean isHostOverUtilized = createdGuests.size() < host.getAddedGuests().size()
+				|| isHostOverUtilized(powerHost);
+		for (GuestEntity guest : createdGuests) {
+			powerHost.guestDestroy(guest);
+		}
+		for (GuestEntity guest : host.getRemovedGuests()) {
+			powerHost.guestCreate(guest);
+		}
+		return isHostOverUtilized;
+	}
+
+	/**
+	 * Adds an entry for each history map of a host. It can be called by concurrent
+	 * overload checks.
 	 * 
 	 * @param host the host to add metric history entries
 	 * @param metric the metric to be added to the metric history map
 	 */
-	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
+	protected synchronized void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
 		growIfNeeded(timeHistory, hostId);
 		if (timeHistory.get(hostId) == null) {
@@ -540,7 +680,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 				Log.printlnConcat("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
 				System.exit(0);
 			}
-			getGuestTable().put(vm.getUid(), host);
+			getGuestTable().put(vm.getKey(), host);
 		}
 	}
 
@@ -554,14 +694,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the power after allocation
 	 */
 	protected double getPowerAfterAllocation(PowerHost host, GuestEntity vm) {
-		double power = 0;
-		try {
-			power = host.getPowerModel().getPower(getMaxUtilizationAfterAllocation(host, vm));
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.exit(0);
-		}
-		return power;
+		return host.getPower(getMaxUtilizationAfterAllocation(host, vm));
 	}
 
 	/**
@@ -576,10 +709,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the power after allocation
 	 */
 	protected double getMaxUtilizationAfterAllocation(PowerHost host, GuestEntity vm) {
-		double requestedTotalMips = vm.getCurrentRequestedTotalMips();
-		double hostUtilizationMips = getUtilizationOfCpuMips(host);
-		double hostPotentialUtilizationMips = hostUtilizationMips + requestedTotalMips;
-        return hostPotentialUtilizationMips / host.getTotalMips();
+		return new PowerHostProjection(host).addGuest(vm).getUtilizationOfCpu();
 	}
 	
 	/**
@@ -590,15 +720,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the utilization of the CPU in MIPS
 	 */
 	protected double getUtilizationOfCpuMips(PowerHost host) {
-		double hostUtilizationMips = 0;
-		for (GuestEntity vm2 : host.getGuestList()) {
-			if (host.getGuestsMigratingIn().contains(vm2)) {
-				// calculate additional potential CPU usage of a migrating in VM
-				hostUtilizationMips += host.getTotalAllocatedMipsForGuest(vm2) * 0.9 / 0.1;
-			}
-			hostUtilizationMips += host.getTotalAllocatedMipsForGuest(vm2);
-		}
-		return hostUtilizationMips;
+		return new PowerHostProjection(host).getUtilizationOfCpuMips();
 	}
 
 	/**
@@ -13,7 +13,7 @@ import java.util.List;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
-import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.LoessEstimator;
 
 /**
  * A VM allocation policy that uses Local Regression (LR) to predict host utilization (load)
@@ -34,6 +34,13 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllocationPolicyMigrationAbstract {
 
+	/** The number of utilization values the regression is computed on. We use 10 to make the
+	 * regression responsive enough to latest values. */
+	private static final int REGRESSION_LENGTH = 10;
+
+	/** The estimator of the regression parameters, for windows of {@link #REGRESSION_LENGTH} values. */
+	private final LoessEstimator loessEstimator = new LoessEstimator(REGRESSION_LENGTH);
+
 	/** The scheduling interval that defines the periodicity of VM migrations. */
 	private double schedulingInterval;
 
@@ -108,8 +115,19 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-        double[] utilizationHistory = host.getUtilizationHistory();
-		int length = 10; // we use 10 to make the regression responsive enough to latest values
+		return isHostOverUtilized(new PowerHostProjection(host));
+	}
+
+	/**
+	 * Checks if a projected host is over utilized.
+	 * 
+	 * @param host the projected host
+	 * @return true, if is host over utilized; false otherwise
+	 */
+	@Override
+	protected boolean isHostOverUtilized(PowerHostProjection host) {
+		double[] utilizationHistory = host.getUtilizationHistory();
+		int length = REGRESSION_LENGTH;
 		if (utilizationHistory.length < length) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
@@ -123,11 +141,11 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		} catch (IllegalArgumentException e) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
-		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime((PowerHost) host) / getSchedulingInterval());
+		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime(host) / getSchedulingInterval());
 		double predictedUtilization = estimates[0] + estimates[1] * (length + migrationIntervals);
 		predictedUtilization *= getSafetyParameter();
 
-		addHistoryEntry(host, predictedUtilization);
+		addHistoryEntry(host.getHost(), predictedUtilization);
 
 		return predictedUtilization >= 1;
 	}
@@ -139,7 +157,17 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 * @return the utilization estimates
 	 */
 	protected double[] getParameterEstimates(double[] utilizationHistoryReversed) {
-		return MathUtil.getLoessParameterEstimates(utilizationHistoryReversed);
+		return getLoessEstimator().estimate(utilizationHistoryReversed);
+	}
+
+	/**
+	 * Gets the estimator of the regression parameters.
+	 * 
+	 * @return the Loess estimator
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected LoessEstimator getLoessEstimator() {
+		return loessEstimator;
 	}
 
 	/**
@@ -149,6 +177,16 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 * @return the maximum vm migration time
 	 */
 	protected double getMaximumVmMigrationTime(PowerHost host) {
+		return getMaximumVmMigrationTime(new PowerHostProjection(host));
+	}
+
+	/**
+	 * Gets the maximum vm migration time of a projected host.
+	 * 
+	 * @param host the projected host
+	 * @return the maximum vm migration time
+	 */
+	protected double getMaximumVmMigrationTime(PowerHostProjection host) {
 		int maxRam = Integer.MIN_VALUE;
 		for (GuestEntity vm : host.getGuestList()) {
 			int ram = vm.getRam();
@@ -156,7 +194,7 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 				maxRam = ram;
 			}
 		}
-		return maxRam / ((double) host.getBw() / (2 * 8000));
+		return maxRam / ((double) host.getHost().getBw() / (2 * 8000));
 	}
 
 	/**
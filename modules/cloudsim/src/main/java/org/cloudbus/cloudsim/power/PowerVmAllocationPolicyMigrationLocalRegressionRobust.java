@@ -13,7 +13,6 @@ import java.util.List;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
-import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
  * A VM allocation policy that uses Local Regression Robust (LRR) to predict host utilization (load)
@@ -85,7 +84,7 @@ public class PowerVmAllocationPolicyMigrationLocalRegressionRobust extends
 	 */
 	@Override
 	protected double[] getParameterEstimates(double[] utilizationHistoryReversed) {
-		return MathUtil.getRobustLoessParameterEstimates(utilizationHistoryReversed);
+		return getLoessEstimator().estimateRobust(utilizationHistoryReversed);
 	}
 
 }
@@ -111,18 +111,29 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-        double upperThreshold = 0;
+		return isHostOverUtilized(new PowerHostProjection(host));
+	}
+
+	/**
+	 * Checks if a projected host is over utilized, based on CPU utilization.
+	 * 
+	 * @param host the projected host
+	 * @return true, if the host is over utilized; false otherwise
+	 */
+	@Override
+	protected boolean isHostOverUtilized(PowerHostProjection host) {
+		double upperThreshold = 0;
 		try {
-    			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationMad(host);
+			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationMad(host);
 		} catch (IllegalArgumentException e) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
-		addHistoryEntry(host, upperThreshold);
+		addHistoryEntry(host.getHost(), upperThreshold);
 		double totalRequestedMips = 0;
 		for (GuestEntity vm : host.getGuestList()) {
 			totalRequestedMips += vm.getCurrentRequestedTotalMips();
 		}
-		double utilization = totalRequestedMips / host.getTotalMips();
+		double utilization = totalRequestedMips / host.getHost().getTotalMips();
 		return utilization > upperThreshold;
 	}
 
@@ -133,6 +144,16 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	 * @return the host utilization MAD
 	 */
 	protected double getHostUtilizationMad(PowerHost host) throws IllegalArgumentException {
+		return getHostUtilizationMad(new PowerHostProjection(host));
+	}
+
+	/**
+	 * Gets the host utilization MAD of a projected host.
+	 * 
+	 * @param host the projected host
+	 * @return the host utilization MAD
+	 */
+	protected double getHostUtilizationMad(PowerHostProjection host) throws IllegalArgumentException {
 		double[] data = host.getUtilizationHistory();
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
 			return MathUtil.mad(data);
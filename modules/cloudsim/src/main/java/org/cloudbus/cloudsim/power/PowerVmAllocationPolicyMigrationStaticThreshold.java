@@ -62,12 +62,23 @@ public class PowerVmAllocationPolicyMigrationStaticThreshold extends PowerVmAllo
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-		addHistoryEntry(host, getUtilizationThreshold());
+		return isHostOverUtilized(new PowerHostProjection(host));
+	}
+
+	/**
+	 * Checks if a projected host is over utilized, based on CPU usage.
+	 * 
+	 * @param host the projected host
+	 * @return true, if the host is over utilized; false otherwise
+	 */
+	@Override
+	protected boolean isHostOverUtilized(PowerHostProjection host) {
+		addHistoryEntry(host.getHost(), getUtilizationThreshold());
 		double totalRequestedMips = 0;
 		for (GuestEntity vm : host.getGuestList()) {
 			totalRequestedMips += vm.getCurrentRequestedTotalMips();
 		}
-		double utilization = totalRequestedMips / host.getTotalMips();
+		double utilization = totalRequestedMips / host.getHost().getTotalMips();
 		return utilization > getUtilizationThreshold();
 	}
 
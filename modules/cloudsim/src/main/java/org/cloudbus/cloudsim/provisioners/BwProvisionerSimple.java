@@ -8,10 +8,8 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.GuestKeyMap;
 
 /**
  * BwProvisionerSimple is an extension of {@link BwProvisioner} which uses a best-effort policy to
@@ -27,7 +25,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	/** The BW map, where each key is a VM id and each value
          * is the amount of BW allocated to that VM. */
-	private Map<String, Long> bwTable;
+	private GuestKeyMap<Long> bwTable;
 
 	/**
 	 * Instantiates a new bw provisioner simple.
@@ -36,7 +34,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	public BwProvisionerSimple(long bw) {
 		super(bw);
-		setBwTable(new HashMap<>());
+		setBwTable(new GuestKeyMap<>());
 	}
 
 	@Override
@@ -45,7 +43,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 		if (getAvailableBw() + old_bw >= bw) {
 			setAvailableBw(getAvailableBw() + old_bw - bw);
-			bwTable.put(guest.getUid(), bw);
+			bwTable.put(guest.getKey(), bw);
 			guest.setCurrentAllocatedBw(bw);
 			return true;
 		}
@@ -55,7 +53,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public long getAllocatedBwForGuest(GuestEntity guest) {
-		Long bw = bwTable.get(guest.getUid());
+		Long bw = bwTable.get(guest.getKey());
 		if (bw != null)
 			return bw;
 		else
@@ -64,7 +62,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public void deallocateBwForGuest(GuestEntity guest) {
-		Long allocatedBw = bwTable.remove(guest.getUid());
+		Long allocatedBw = bwTable.remove(guest.getKey());
 		if (allocatedBw != null)
 			setAvailableBw(getAvailableBw() + allocatedBw);
 		guest.setCurrentAllocatedBw(0);
@@ -78,13 +76,8 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public boolean isSuitableForGuest(GuestEntity guest, long bw) {
-		long allocatedBw = getAllocatedBwForGuest(guest);
-		boolean result = allocateBwForGuest(guest, bw);
-		deallocateBwForGuest(guest);
-		if (allocatedBw > 0) {
-			allocateBwForGuest(guest, allocatedBw);
-		}
-		return result;
+		// the same check as allocateBwForGuest, without allocating
+		return bw <= getAvailableBw() + getAllocatedBwForGuest(guest);
 	}
 
 	/**
@@ -92,7 +85,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @return the bw map
 	 */
-	protected Map<String, Long> getBwTable() {
+	protected GuestKeyMap<Long> getBwTable() {
 		return bwTable;
 	}
 
@@ -101,7 +94,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @param bwTable the bw map
 	 */
-	protected void setBwTable(Map<String, Long> bwTable) {
+	protected void setBwTable(GuestKeyMap<Long> bwTable) {
 		this.bwTable = bwTable;
 	}
 
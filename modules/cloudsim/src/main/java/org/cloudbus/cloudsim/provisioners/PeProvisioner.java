@@ -80,6 +80,21 @@ public abstract class PeProvisioner {
 	@Deprecated
 	public boolean allocateMipsForVm(String vmUid, double mips) { return allocateMipsForGuest(vmUid, mips);}
 
+	/**
+	 * Allocates a new virtual PE with a specific capacity for a given VM key.
+	 * By default, it allocates the virtual PE by the VM uid.
+	 *
+	 * @param guestKey the key of the virtual machine for which the new virtual PE is being allocated
+	 * @param mips the mips to be allocated to the virtual PE of the given VM
+	 *
+	 * @return $true if the virtual PE could be allocated; $false otherwise
+	 * @see GuestEntity#getKey()
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public boolean allocateMipsForGuest(long guestKey, double mips) {
+		return allocateMipsForGuest(GuestEntity.getUid(guestKey), mips);
+	}
+
 	/**
 	 * Allocates a new set of virtual PE with a specific capacity, replacing the old set (if any), for a given VM.
 	 *
@@ -9,11 +9,10 @@
 package org.cloudbus.cloudsim.provisioners;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.GuestKeyMap;
 
 /**
  * PeProvisionerSimple is an extension of {@link PeProvisioner} which uses a best-effort policy to
@@ -28,7 +27,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 	/** The PE map, where each key is a VM id and each value
          * is the list of in terms of their allocated amount of MIPS to that VM. */
-	private Map<String, List<Double>> peTable;
+	private GuestKeyMap<List<Double>> peTable;
 
 	/**
 	 * Instantiates a new pe provisioner simple.
@@ -40,12 +39,12 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	public PeProvisionerSimple(double availableMips) {
 		super(availableMips);
-		setPeTable(new HashMap<String, ArrayList<Double>>());
+		setPeTable(new GuestKeyMap<>());
 	}
 
 	@Override
 	public boolean allocateMipsForGuest(GuestEntity guest, double mips) {
-		return allocateMipsForGuest(guest.getUid(), mips);
+		return allocateMipsForGuest(guest.getKey(), mips);
 	}
 
 	@Override
@@ -62,11 +61,29 @@ public class PeProvisionerSimple extends PeProvisioner {
 		return true;
 	}
 
+	@Override
+	public boolean allocateMipsForGuest(long guestKey, double mips) {
+		if (getAvailableMips() < mips) {
+			return false;
+		}
+
+		List<Double> allocatedMips = getPeTable().get(guestKey);
+		if (allocatedMips == null) {
+			allocatedMips = new ArrayList<>();
+			getPeTable().put(guestKey, allocatedMips);
+		}
+
+        allocatedMips.add(mips);
+		setAvailableMips(getAvailableMips() - mips);
+
+		return true;
+	}
+
 	@Override
 	public boolean allocateMipsForGuest(GuestEntity guest, List<Double> mips) {
 		deallocateMipsForGuest(guest);
 		for (double _mips : mips) {
-			if (!allocateMipsForGuest(guest.getUid(), _mips)) {
+			if (!allocateMipsForGuest(guest.getKey(), _mips)) {
 				return false;
 			}
 		}
@@ -91,10 +108,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 	@Override
 	public List<Double> getAllocatedMipsForGuest(GuestEntity guest) {
-		if (getPeTable().containsKey(guest.getUid())) {
-			return getPeTable().get(guest.getUid());
-		}
-		return null;
+		return getPeTable().get(guest.getKey());
 	}
 
 	@Override
@@ -119,7 +133,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 			for (double mips : allocatedMips) {
 				setAvailableMips(getAvailableMips() + mips);
 			}
-			getPeTable().remove(guest.getUid());
+			getPeTable().remove(guest.getKey());
 		}
 	}
 
@@ -128,7 +142,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @return the pe map
 	 */
-	protected Map<String, List<Double>> getPeTable() {
+	protected GuestKeyMap<List<Double>> getPeTable() {
 		return peTable;
 	}
 
@@ -137,8 +151,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @param peTable the peTable to set
 	 */
-	@SuppressWarnings("unchecked")
-	protected void setPeTable(Map<String, ? extends List<Double>> peTable) {
-		this.peTable = (Map<String, List<Double>>) peTable;
+	protected void setPeTable(GuestKeyMap<List<Double>> peTable) {
+		this.peTable = peTable;
 	}
 }
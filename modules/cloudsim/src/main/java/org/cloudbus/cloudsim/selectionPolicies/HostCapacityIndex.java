@@ -0,0 +1,280 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.selectionPolicies;
+
+import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+
+import java.util.*;
+
+/**
+ * An index of hosts by the rank given by a {@link RankedSelectionPolicy} and by their available
+ * capacity, which selects the host a policy would select for a guest among the hosts that can
+ * accommodate it, without scanning every host.
+ * <p>
+ * The hosts are the leaves of a segment tree, in the order of the host list, and each node keeps
+ * the lowest rank of its hosts and, for each resource, the greatest capacity available in them:
+ * the MIPS available in the VM scheduler, the PE capacity, and the RAM and BW available in the
+ * provisioners. A selection descends the tree towards the lowest ranks, skipping the subtrees
+ * whose hosts cannot have enough of some resource for the guest, so it usually visits
+ * O(log H) nodes for H hosts. It may visit more nodes when the hosts of lowest rank are not
+ * suitable, since no single host of a subtree may have all the greatest capacities.
+ * <p>
+ * A host is only skipped when it is certainly not suitable for the guest, according to
+ * {@link HostEntity#isSuitableForGuest(GuestEntity)}; the RAM and BW of a host are only compared
+ * when it uses the simple provisioners. The selected host still has to be checked for suitability,
+ * so the selection with an index gives the same host as the selection by a scan of the hosts.
+ * <p>
+ * The index caches the state of the hosts: a host must be {@link #invalidate(HostEntity) invalidated}
+ * whenever its guests or their allocated resources change. The invalidated hosts are refreshed at
+ * the next selection.
+ *
+ * @param <T> the type of the hosts
+ * @since CloudSim toolkit 7.0
+ * @see org.cloudbus.cloudsim.VmAllocationWithSelectionPolicy#setCapacityIndexed(boolean)
+ */
+public class HostCapacityIndex<T extends HostEntity> {
+    /** The indexed hosts. */
+    private final List<? extends T> hosts;
+
+    /** The policy ranking the hosts. */
+    private final RankedSelectionPolicy<? super T> policy;
+
+    /** The position of each host in the host list. */
+    private final Map<HostEntity, Integer> positions = new IdentityHashMap<>();
+
+    /** The number of leaves, a power of two; the node 1 is the root and the leaf of a host at position i is the node leaves + i. */
+    private final int leaves;
+
+    /** The lowest rank of the hosts of each node. */
+    private final double[] rank;
+
+    /** The greatest MIPS available in the VM scheduler of the hosts of each node. */
+    private final double[] mips;
+
+    /** The greatest PE capacity of the hosts of each node. */
+    private final double[] peCapacity;
+
+    /** The greatest RAM available in the hosts of each node. */
+    private final double[] ram;
+
+    /** The greatest BW available in the hosts of each node. */
+    private final double[] bw;
+
+    /** The positions of the hosts to refresh. */
+    private final BitSet invalidated = new BitSet();
+
+    /** The resources requested by the guest to select a host for. */
+    private double requestedMaxMips;
+    private double requestedMips;
+    private double requestedRam;
+    private double requestedBw;
+
+    /** The hosts excluded from the selection. */
+    private Set<? extends HostEntity> excludedHosts;
+
+    /** The rank and the position of the best host found so far by the selection. */
+    private double selectedRank;
+    private int selectedPosition;
+
+    /**
+     * Creates an index of a list of hosts, ranked by a selection policy.
+     *
+     * @param hosts the hosts
+     * @param policy the selection policy
+     */
+    public HostCapacityIndex(List<? extends T> hosts, RankedSelectionPolicy<? super T> policy) {
+        this.hosts = hosts;
+        this.policy = policy;
+        int leaves = 1;
+        while (leaves < hosts.size()) {
+            leaves <<= 1;
+        }
+        this.leaves = leaves;
+        rank = new double[2 * leaves];
+        mips = new double[2 * leaves];
+        peCapacity = new double[2 * leaves];
+        ram = new double[2 * leaves];
+        bw = new double[2 * leaves];
+        for (int i = 0; i < leaves; i++) {
+            if (i < hosts.size()) {
+                positions.put(hosts.get(i), i);
+                refreshLeaf(i);
+            } else {
+                setUnselectable(leaves + i);
+            }
+        }
+        for (int node = leaves - 1; node >= 1; node--) {
+            refreshNode(node);
+        }
+    }
+
+    /**
+     * Gets the number of indexed hosts.
+     *
+     * @return the number of hosts
+     */
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Invalidates a host whose guests or their allocated resources have changed, so that
+     * it is refreshed at the next selection. Hosts which are not indexed are ignored.
+     *
+     * @param host the host
+     */
+    public void invalidate(HostEntity host) {
+        Integer position = positions.get(host);
+        if (position != null) {
+            invalidated.set(position);
+        }
+    }
+
+    /**
+     * Invalidates all the hosts.
+     */
+    public void invalidateAll() {
+        invalidated.set(0, hosts.size());
+    }
+
+    /**
+     * Selects the host the selection policy would select for a guest among the hosts which are
+     * not excluded and may be suitable for it. The selected host may still not be suitable for
+     * the guest; then it should be excluded, and a host selected again.
+     *
+     * @param guest the guest
+     * @param excludedHosts the hosts to be ignored
+     * @return the selected host, or null if no host can be suitable for the guest
+     */
+    public T select(GuestEntity guest, Set<? extends HostEntity> excludedHosts) {
+        refresh();
+        this.excludedHosts = excludedHosts;
+        requestedMaxMips = guest.getCurrentRequestedMaxMips();
+        // a container VM compares its available MIPS to the total MIPS of the guest instead
+        requestedMips = Math.min(guest.getCurrentRequestedTotalMips(), guest.getTotalMips());
+        requestedRam = Math.min(guest.getCurrentRequestedRam(), guest.getRam());
+        requestedBw = guest.getCurrentRequestedBw();
+        selectedRank = Double.POSITIVE_INFINITY;
+        selectedPosition = Integer.MAX_VALUE;
+        try {
+            search(1, 0, leaves);
+        } finally {
+            this.excludedHosts = null;
+        }
+        return selectedPosition == Integer.MAX_VALUE ? null : hosts.get(selectedPosition);
+    }
+
+    /**
+     * Searches a subtree for a host of lower rank than the best host found so far, or of equal
+     * rank but earlier in the host list.
+     *
+     * @param node the root of the subtree
+     * @param from the position of the first host of the subtree
+     * @param size the number of leaves of the subtree
+     */
+    private void search(int node, int from, int size) {
+        if (!mayFit(node)
+                || rank[node] > selectedRank
+                || (rank[node] == selectedRank && from > selectedPosition)) {
+            return;
+        }
+        if (size == 1) {
+            if (!excludedHosts.contains(hosts.get(from))) {
+                selectedRank = rank[node];
+                selectedPosition = from;
+            }
+            return;
+        }
+        int half = size / 2;
+        int left = 2 * node;
+        int right = left + 1;
+        if (rank[right] < rank[left]) {
+            search(right, from + half, half);
+            search(left, from, half);
+        } else {
+            search(left, from, half);
+            search(right, from + half, half);
+        }
+    }
+
+    private boolean mayFit(int node) {
+        return peCapacity[node] >= requestedMaxMips
+                && mips[node] >= requestedMips
+                && ram[node] >= requestedRam
+                && bw[node] >= requestedBw;
+    }
+
+    /**
+     * Refreshes the invalidated hosts, and their ancestors in the tree. When most hosts are
+     * invalidated, the whole tree is rebuilt instead.
+     */
+    private void refresh() {
+        int count = invalidated.cardinality();
+        if (count == 0) {
+            return;
+        }
+        int depth = Integer.numberOfTrailingZeros(leaves);
+        if ((long) count * depth >= leaves) {
+            for (int i = invalidated.nextSetBit(0); i >= 0; i = invalidated.nextSetBit(i + 1)) {
+                refreshLeaf(i);
+            }
+            for (int node = leaves - 1; node >= 1; node--) {
+                refreshNode(node);
+            }
+        } else {
+            for (int i = invalidated.nextSetBit(0); i >= 0; i = invalidated.nextSetBit(i + 1)) {
+                refreshLeaf(i);
+                for (int node = (leaves + i) / 2; node >= 1; node /= 2) {
+                    refreshNode(node);
+                }
+            }
+        }
+        invalidated.clear();
+    }
+
+    private void refreshLeaf(int position) {
+        T host = hosts.get(position);
+        int node = leaves + position;
+        double hostRank = policy.getRank(host);
+        if (Double.isNaN(hostRank)) {
+            setUnselectable(node);
+            return;
+        }
+        VmScheduler scheduler = host.getGuestScheduler();
+        rank[node] = hostRank;
+        mips[node] = scheduler.getAvailableMips();
+        peCapacity[node] = scheduler.getPeCapacity();
+        // other provisioners may accept a guest regardless of the available resources
+        ram[node] = host.getGuestRamProvisioner().getClass() == RamProvisionerSimple.class
+                ? host.getGuestRamProvisioner().getAvailableRam() : Double.POSITIVE_INFINITY;
+        bw[node] = host.getGuestBwProvisioner().getClass() == BwProvisionerSimple.class
+                ? host.getGuestBwProvisioner().getAvailableBw() : Double.POSITIVE_INFINITY;
+    }
+
+    private void setUnselectable(int node) {
+        rank[node] = Double.POSITIVE_INFINITY;
+        mips[node] = Double.NEGATIVE_INFINITY;
+        peCapacity[node] = Double.NEGATIVE_INFINITY;
+        ram[node] = Double.NEGATIVE_INFINITY;
+        bw[node] = Double.NEGATIVE_INFINITY;
+    }
+
+    private void refreshNode(int node) {
+        int left = 2 * node;
+        int right = left + 1;
+        rank[node] = Math.min(rank[left], rank[right]);
+        mips[node] = Math.max(mips[left], mips[right]);
+        peCapacity[node] = Math.max(peCapacity[left], peCapacity[right]);
+        ram[node] = Math.max(ram[left], ram[right]);
+        bw[node] = Math.max(bw[left], bw[right]);
+    }
+}
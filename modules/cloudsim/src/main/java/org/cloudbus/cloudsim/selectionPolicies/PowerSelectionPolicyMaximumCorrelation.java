@@ -8,13 +8,14 @@
 
 package org.cloudbus.cloudsim.selectionPolicies;
 
-import java.util.ArrayDeque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
 import org.cloudbus.cloudsim.core.PowerGuestEntity;
+import org.cloudbus.cloudsim.util.HistoryStat;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
@@ -41,6 +42,12 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
          * the  Maximum Correlation policy doesn't have data to be computed. */
 	private SelectionPolicy<PowerGuestEntity> fallbackPolicy;
 
+	/** The host of the last selection, whose correlations are kept in {@link #lastCorrelations}. */
+	private Object lastHost;
+
+	/** The correlations of the candidates of the last selection, or null if they were not kept. */
+	private Correlations lastCorrelations;
+
 	/**
 	 * Instantiates a new PowerSelectionPolicyMaximumCorrelation.
 	 * 
@@ -57,16 +64,16 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 			return null;
 		}
 
-		List<Double> metrics = null;
+		double[] metrics = null;
 		try {
-			metrics = getCorrelationCoefficients(getUtilizationMatrix(candidates));
+			metrics = getCorrelationCoefficients(candidates, host);
 		} catch (IllegalArgumentException e) { // the degrees of freedom must be greater than zero
 			return getFallbackPolicy().select(candidates, host, excludedCandidates);
 		}
 		double maxMetric = Double.MIN_VALUE;
 		int maxIndex = 0;
-		for (int i = 0; i < metrics.size(); i++) {
-			double metric = metrics.get(i);
+		for (int i = 0; i < metrics.length; i++) {
+			double metric = metrics[i];
 			if (metric > maxMetric) {
 				maxMetric = metric;
 				maxIndex = i;
@@ -75,6 +82,51 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 		return candidates.get(maxIndex);
 	}
 
+	/**
+	 * Gets the correlation coefficients of the candidate VMs of a host, i.e., the coefficient of
+	 * determination (R<sup>2</sup>) of the regression of the utilization of each VM on the utilization
+	 * of the other VMs.
+	 * <p>
+	 * All the coefficients are obtained from the inverse of the Gram matrix of the centered
+	 * utilization histories: the R<sup>2</sup> of a VM i is 1 - 1 / (G<sub>ii</sub> (G<sup>-1</sup>)<sub>ii</sub>).
+	 * The inverse is kept after a selection, so that when the next selection is made for the same
+	 * host among the same VMs but one, with unchanged histories, as while selecting the VMs to migrate
+	 * from an over utilized host, it is obtained by a rank-one downdate of the kept inverse.
+	 * When the Gram matrix is not positive definite enough to be inverted, the coefficients are
+	 * computed by {@link #getCorrelationCoefficients(double[][])} instead. Since the inverse is
+	 * kept, a policy should not select VMs for several threads at once.
+	 *
+	 * @param vmList the candidate VMs
+	 * @param host the host of the VMs
+	 * @return the correlation coefficients, by position in the candidate list
+	 * @throws IllegalArgumentException if the histories are too short to compute the coefficients
+	 * @since CloudSim Toolkit 7.0
+	 */
+	protected double[] getCorrelationCoefficients(final List<PowerGuestEntity> vmList, final Object host) {
+		Correlations correlations = null;
+		if (host == lastHost && lastCorrelations != null) {
+			correlations = lastCorrelations.withoutOneOf(vmList, getMinUtilizationHistorySize(vmList));
+		}
+		lastHost = null;
+		lastCorrelations = null;
+		if (correlations == null) {
+			double[][] data = getUtilizationMatrix(vmList);
+			correlations = Correlations.create(vmList, data);
+			if (correlations == null) {
+				List<Double> coefficients = getCorrelationCoefficients(data);
+				double[] metrics = new double[coefficients.size()];
+				int i = 0;
+				for (double coefficient : coefficients) {
+					metrics[i++] = coefficient;
+				}
+				return metrics;
+			}
+		}
+		lastHost = host;
+		lastCorrelations = correlations;
+		return correlations.getCoefficients();
+	}
+
 	/**
 	 * Gets the CPU utilization percentage matrix for a given list of VMs.
 	 * 
@@ -93,10 +145,9 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 		int m = getMinUtilizationHistorySize(vmList);
 		double[][] utilization = new double[n][m];
 		for (int i = 0; i < n; i++) {
-			ArrayDeque<Double> vmUtilization = vmList.get(i).getUtilizationHistory();
-			int j = 0;
-			for (double u : vmUtilization)
-				utilization[i][j++] = u;
+			HistoryStat vmUtilization = vmList.get(i).getUtilizationHistory();
+			for (int j = 0; j < vmUtilization.size(); j++)
+				utilization[i][j] = vmUtilization.get(j);
 		}
 		return utilization;
 	}
@@ -147,6 +198,163 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 		return correlationCoefficients;
 	}
 
+	/**
+	 * The inverse of the Gram matrix of the centered utilization histories of some VMs.
+	 */
+	private static final class Correlations {
+		/** The relative error tolerated on G<sub>ii</sub> (G<sup>-1</sup>)<sub>ii</sub>, which is at least 1. */
+		private static final double TOLERANCE = 1e-9;
+
+		/** The VMs. */
+		private final PowerGuestEntity[] vms;
+
+		/** The number of samples offered to the history of each VM, when the matrix was computed. */
+		private final long[] offeredCounts;
+
+		/** The length of the histories. */
+		private final int historyLength;
+
+		/** The diagonal of the Gram matrix. */
+		private final double[] gramDiagonal;
+
+		/** The inverse of the Gram matrix. */
+		private final double[][] inverse;
+
+		private Correlations(PowerGuestEntity[] vms, long[] offeredCounts, int historyLength,
+				double[] gramDiagonal, double[][] inverse) {
+			this.vms = vms;
+			this.offeredCounts = offeredCounts;
+			this.historyLength = historyLength;
+			this.gramDiagonal = gramDiagonal;
+			this.inverse = inverse;
+		}
+
+		/**
+		 * Inverts the Gram matrix of the centered utilization histories of some VMs.
+		 *
+		 * @param vmList the VMs
+		 * @param data the utilization histories of the VMs
+		 * @return the inverse, or null if there are less than 3 VMs, not more samples than VMs, or if
+		 * the Gram matrix cannot be accurately inverted
+		 */
+		static Correlations create(List<PowerGuestEntity> vmList, double[][] data) {
+			int n = data.length;
+			int m = n == 0 ? 0 : data[0].length;
+			// two VMs have the same coefficient, so leave the choice to the reference computation
+			if (n < 3 || m <= n) {
+				return null;
+			}
+			double[][] centered = new double[n][m];
+			for (int i = 0; i < n; i++) {
+				double mean = 0;
+				for (int k = 0; k < m; k++) {
+					mean += data[i][k];
+				}
+				mean /= m;
+				for (int k = 0; k < m; k++) {
+					centered[i][k] = data[i][k] - mean;
+				}
+			}
+			double[][] gram = new double[n][n];
+			for (int i = 0; i < n; i++) {
+				for (int j = i; j < n; j++) {
+					double product = 0;
+					for (int k = 0; k < m; k++) {
+						product += centered[i][k] * centered[j][k];
+					}
+					gram[i][j] = gram[j][i] = product;
+				}
+			}
+			double[] gramDiagonal = new double[n];
+			for (int i = 0; i < n; i++) {
+				gramDiagonal[i] = gram[i][i];
+			}
+			double[][] inverse;
+			try {
+				inverse = new CholeskyDecomposition(new Array2DRowRealMatrix(gram, false))
+						.getSolver().getInverse().getData();
+			} catch (IllegalArgumentException e) { // not positive definite
+				return null;
+			}
+
+			PowerGuestEntity[] vms = vmList.toArray(new PowerGuestEntity[0]);
+			long[] offeredCounts = new long[n];
+			for (int i = 0; i < n; i++) {
+				offeredCounts[i] = vms[i].getUtilizationHistory().getOfferedCount();
+			}
+			Correlations correlations = new Correlations(vms, offeredCounts, m, gramDiagonal, inverse);
+			return correlations.isAccurate() ? correlations : null;
+		}
+
+		/**
+		 * Gets the inverse for the same VMs but one, by a rank-one downdate of this inverse.
+		 *
+		 * @param vmList the VMs, in the same order as the VMs of this inverse
+		 * @param historyLength the length of the histories of the VMs
+		 * @return the inverse, or null if the VMs are not the same but one, or if their histories have changed
+		 */
+		Correlations withoutOneOf(List<PowerGuestEntity> vmList, int historyLength) {
+			int n = vms.length - 1;
+			if (vmList.size() != n || historyLength != this.historyLength || n < 3 || historyLength <= n) {
+				return null;
+			}
+			PowerGuestEntity[] candidates = vmList.toArray(new PowerGuestEntity[0]);
+			int removed = -1;
+			for (int i = 0, j = 0; i <= n; i++) {
+				if (j < n && candidates[j] == vms[i]) {
+					if (vms[i].getUtilizationHistory().getOfferedCount() != offeredCounts[i]) {
+						return null;
+					}
+					j++;
+				} else if (removed < 0) {
+					removed = i;
+				} else {
+					return null;
+				}
+			}
+			PowerGuestEntity[] keptVms = new PowerGuestEntity[n];
+			long[] keptOfferedCounts = new long[n];
+			double[] keptGramDiagonal = new double[n];
+			double[][] keptInverse = new double[n][n];
+			double pivot = inverse[removed][removed];
+			for (int i = 0, ki = 0; i <= n; i++) {
+				if (i == removed) {
+					continue;
+				}
+				keptVms[ki] = vms[i];
+				keptOfferedCounts[ki] = offeredCounts[i];
+				keptGramDiagonal[ki] = gramDiagonal[i];
+				double factor = inverse[i][removed] / pivot;
+				for (int j = 0, kj = 0; j <= n; j++) {
+					if (j != removed) {
+						keptInverse[ki][kj++] = inverse[i][j] - factor * inverse[removed][j];
+					}
+				}
+				ki++;
+			}
+			Correlations correlations = new Correlations(keptVms, keptOfferedCounts, historyLength,
+					keptGramDiagonal, keptInverse);
+			return correlations.isAccurate() ? correlations : null;
+		}
+
+		private boolean isAccurate() {
+			for (int i = 0; i < vms.length; i++) {
+				if (!(gramDiagonal[i] * inverse[i][i] >= 1 - TOLERANCE)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		double[] getCoefficients() {
+			double[] coefficients = new double[vms.length];
+			for (int i = 0; i < vms.length; i++) {
+				coefficients[i] = 1 - 1 / (gramDiagonal[i] * inverse[i][i]);
+			}
+			return coefficients;
+		}
+	}
+
 	/**
 	 * Gets the fallback policy.
 	 * 
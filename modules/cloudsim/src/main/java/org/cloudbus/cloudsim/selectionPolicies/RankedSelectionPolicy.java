@@ -0,0 +1,27 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.selectionPolicies;
+
+/**
+ * A selection policy that selects, among the candidates which are not excluded, the one with the
+ * lowest rank, and the first one in the candidate list among candidates of equal rank.
+ * Since the rank of a candidate does not depend on the other candidates, the candidates can be
+ * kept sorted by rank, e.g., by a {@link HostCapacityIndex}, rather than scanned at each selection.
+ *
+ * @param <T> the type of the candidates
+ * @since CloudSim toolkit 7.0
+ */
+public interface RankedSelectionPolicy<T> extends SelectionPolicy<T> {
+    /**
+     * Gets the rank of a candidate, from its current state.
+     *
+     * @param candidate the candidate
+     * @return the rank of the candidate, or NaN if the candidate is never selected
+     */
+    double getRank(T candidate);
+}
@@ -20,7 +20,7 @@ import java.util.Set;
  * @since CloudSim toolkit 7.0
  */
 
-public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy<CandidateEntity> {
+public class SelectionPolicyFirstFit<CandidateEntity> implements RankedSelectionPolicy<CandidateEntity> {
     @Override
     public CandidateEntity select(List<CandidateEntity> candidates, Object obj, Set<CandidateEntity> excludedCandidates) {
         CandidateEntity selectedHost = null;
@@ -33,4 +33,10 @@ public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy
         }
         return selectedHost;
     }
+
+    @Override
+    public double getRank(CandidateEntity candidate) {
+        // all the candidates are equal, the first one is selected
+        return 0;
+    }
 }
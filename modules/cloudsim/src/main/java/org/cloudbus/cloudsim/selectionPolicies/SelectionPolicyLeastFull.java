@@ -19,7 +19,7 @@ import java.util.Set;
  *
  * @since CloudSim toolkit 7.0
  */
-public class SelectionPolicyLeastFull<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyLeastFull<T extends HostEntity> implements RankedSelectionPolicy<T> {
     @Override
     public T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
         double maxAvailable = Double.MIN_VALUE;
@@ -30,12 +30,7 @@ public class SelectionPolicyLeastFull<T extends HostEntity> implements Selection
                 continue;
             }
 
-            double hostAvailable;
-            if (hostCandidate instanceof PowerHost powerHost) {
-                hostAvailable = powerHost.getUtilizationOfCpu();
-            } else {
-                hostAvailable = hostCandidate.getGuestScheduler().getAvailableMips();
-            }
+            double hostAvailable = getAvailable(hostCandidate);
 
             if (hostAvailable > maxAvailable) {
                 maxAvailable = hostAvailable;
@@ -44,4 +39,24 @@ public class SelectionPolicyLeastFull<T extends HostEntity> implements Selection
         }
         return selectedHost;
     }
+
+    @Override
+    public double getRank(T candidate) {
+        double hostAvailable = getAvailable(candidate);
+        // the same condition as in select: the host with the greatest value is selected
+        return hostAvailable > Double.MIN_VALUE ? -hostAvailable : Double.NaN;
+    }
+
+    /**
+     * Gets the measure of the available capacity of a host compared by this policy.
+     *
+     * @param host the host
+     * @return the CPU utilization of a power host, or the available MIPS of another host
+     */
+    private double getAvailable(T host) {
+        if (host instanceof PowerHost powerHost) {
+            return powerHost.getUtilizationOfCpu();
+        }
+        return host.getGuestScheduler().getAvailableMips();
+    }
 }
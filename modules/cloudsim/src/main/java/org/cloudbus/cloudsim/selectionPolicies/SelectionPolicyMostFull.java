@@ -19,7 +19,7 @@ import java.util.Set;
  *
  * @since CloudSim toolkit 7.0
  */
-public class SelectionPolicyMostFull<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyMostFull<T extends HostEntity> implements RankedSelectionPolicy<T> {
     @Override
     public T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
         double minAvailable = Double.MAX_VALUE;
@@ -30,12 +30,7 @@ public class SelectionPolicyMostFull<T extends HostEntity> implements SelectionP
                 continue;
             }
 
-            double hostAvailable;
-            if (hostCandidate instanceof PowerHost powerHost) {
-                hostAvailable = powerHost.getUtilizationOfCpu();
-            } else {
-                hostAvailable = hostCandidate.getGuestScheduler().getAvailableMips();
-            }
+            double hostAvailable = getAvailable(hostCandidate);
 
             if (hostAvailable < minAvailable ) {
                 minAvailable = hostAvailable;
@@ -44,4 +39,24 @@ public class SelectionPolicyMostFull<T extends HostEntity> implements SelectionP
         }
         return selectedHost;
     }
+
+    @Override
+    public double getRank(T candidate) {
+        double hostAvailable = getAvailable(candidate);
+        // the same condition as in select: the host with the lowest value is selected
+        return hostAvailable < Double.MAX_VALUE ? hostAvailable : Double.NaN;
+    }
+
+    /**
+     * Gets the measure of the available capacity of a host compared by this policy.
+     *
+     * @param host the host
+     * @return the CPU utilization of a power host, or the available MIPS of another host
+     */
+    private double getAvailable(T host) {
+        if (host instanceof PowerHost powerHost) {
+            return powerHost.getUtilizationOfCpu();
+        }
+        return host.getGuestScheduler().getAvailableMips();
+    }
 }
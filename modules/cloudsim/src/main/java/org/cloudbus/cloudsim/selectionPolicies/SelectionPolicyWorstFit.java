@@ -20,7 +20,7 @@ import java.util.*;
  * @since CloudSim toolkit 7.0
  */
 
-public class SelectionPolicyWorstFit<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyWorstFit<T extends HostEntity> implements RankedSelectionPolicy<T> {
     /** The map between each VM and the number of Pes used.
      * The map key is a VM UID and the value is the number of used Pes for that VM. */
     private Map<String, Integer> usedPes;
@@ -46,6 +46,12 @@ public class SelectionPolicyWorstFit<T extends HostEntity> implements SelectionP
         return selectedHost;
     }
 
+    @Override
+    public double getRank(T candidate) {
+        // the host with the most free PEs is selected
+        return -candidate.getNumberOfFreePes();
+    }
+
     protected List<Integer> getFreePes() { return freePes; }
     protected void setFreePes(List<Integer> freePes) { this.freePes = freePes; }
 
@@ -0,0 +1,318 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An output stream that writes to another stream in a background thread, so that the threads
+ * writing to it, e.g., the simulation thread printing the messages of {@link org.cloudbus.cloudsim.Log},
+ * do not wait for the output.
+ * <p>
+ * The messages are records queued in a bounded lock-free ring buffer, from which the background
+ * thread takes them in order and writes them to the target stream through a buffer. A message
+ * given as a String is only encoded by the background thread, with the default charset as by
+ * {@link String#getBytes()}. When the ring buffer is full, the writing threads wait for the
+ * background thread to free a slot, so the messages are never dropped.
+ * <p>
+ * The messages are written in the order they are queued. {@link #flush()} waits until all the
+ * messages queued before have been written and the target stream flushed; {@link #close()} also
+ * stops the background thread and closes the target stream. A message is either queued before the
+ * stream is closed, and then written, or rejected with an exception. An error of the target
+ * stream, including a runtime exception, is thrown by the next operation on this stream.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see org.cloudbus.cloudsim.Log#setOutput(OutputStream)
+ */
+public class AsyncOutputStream extends OutputStream {
+
+	/** The default number of slots of the ring buffer. */
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	/** The size of the buffer of the target stream. */
+	private static final int TARGET_BUFFER_SIZE = 1 << 16;
+
+	/** The time the background thread waits for messages before checking again, in nanoseconds. */
+	private static final long IDLE_PARK_NANOS = 1_000_000;
+
+	/** The number of times a writing thread spins on a full ring buffer before parking. */
+	private static final int FULL_SPINS = 100;
+
+	/** The time a writing thread parks on a full ring buffer before checking again, in nanoseconds. */
+	private static final long FULL_PARK_NANOS = 10_000;
+
+	/** The buffered target stream, only used by the background thread. */
+	private final OutputStream target;
+
+	/** The queued records: messages, as Strings or byte arrays, or flush requests. */
+	private final Object[] records;
+
+	/**
+	 * The sequence number of each slot: the position of the next record to be queued in the slot
+	 * while it is free, or that position plus one once it holds the record.
+	 */
+	private final AtomicLongArray sequences;
+
+	/** The mask giving the slot of a position; the capacity is a power of two. */
+	private final int mask;
+
+	/** The position of the next record to be queued. */
+	private final AtomicLong tail = new AtomicLong();
+
+	/** The position of the next record to be written, only updated by the background thread. */
+	private long head;
+
+	/** The thread writing the records. */
+	private final Thread drainer;
+
+	/** Whether the background thread is waiting for records. */
+	private volatile boolean idle;
+
+	/** Whether the stream has been closed, after which no message is accepted. */
+	private volatile boolean closed;
+
+	/**
+	 * The number of threads queueing a record. It is incremented before checking whether the
+	 * stream is closed, so that closing it waits for the records which are being queued.
+	 */
+	private final AtomicInteger writers = new AtomicInteger();
+
+	/** Whether the background thread stops once all the queued records are written. */
+	private volatile boolean stopping;
+
+	/** The first error of the target stream. */
+	private volatile Exception error;
+
+	/** A request to flush the target stream, queued as a record. */
+	private static final class FlushRequest {
+		private final CountDownLatch done = new CountDownLatch(1);
+	}
+
+	/**
+	 * Creates a stream writing asynchronously to a target stream, with a ring buffer of
+	 * {@link #DEFAULT_CAPACITY} slots.
+	 *
+	 * @param target the target stream
+	 */
+	public AsyncOutputStream(OutputStream target) {
+		this(target, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a stream writing asynchronously to a target stream.
+	 *
+	 * @param target the target stream
+	 * @param capacity the minimal number of messages which can be queued, rounded up to a power of two
+	 */
+	public AsyncOutputStream(OutputStream target, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+		int slots = Integer.highestOneBit(capacity);
+		if (slots < capacity) {
+			slots <<= 1;
+		}
+		this.target = new BufferedOutputStream(target, TARGET_BUFFER_SIZE);
+		records = new Object[slots];
+		sequences = new AtomicLongArray(slots);
+		for (int i = 0; i < slots; i++) {
+			sequences.set(i, i);
+		}
+		mask = slots - 1;
+		drainer = new Thread(this::drain, "AsyncOutputStream");
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	/**
+	 * Queues a message, which the background thread encodes with the default charset.
+	 *
+	 * @param message the message
+	 * @throws IOException if the stream is closed or the target stream failed
+	 */
+	public void write(String message) throws IOException {
+		offer(message);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		offer(new byte[] { (byte) b });
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (len > 0) {
+			byte[] copy = new byte[len];
+			System.arraycopy(b, off, copy, 0, len);
+			offer(copy);
+		}
+	}
+
+	/**
+	 * Waits until the messages queued before have been written, and the target stream flushed.
+	 *
+	 * @throws IOException if the stream is closed, the target stream failed or the thread is interrupted
+	 */
+	@Override
+	public void flush() throws IOException {
+		FlushRequest request = new FlushRequest();
+		offer(request);
+		try {
+			request.done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while flushing");
+		}
+		checkError();
+	}
+
+	/**
+	 * Rejects the next messages, writes the queued ones, stops the background thread and closes
+	 * the target stream. Closing a closed stream has no effect.
+	 *
+	 * @throws IOException if the target stream failed or the thread is interrupted
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		// the threads which did not see the stream closed finish queueing their records
+		while (writers.get() > 0) {
+			LockSupport.unpark(drainer);
+			Thread.yield();
+		}
+		stopping = true;
+		LockSupport.unpark(drainer);
+		try {
+			drainer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while closing");
+		}
+		try {
+			target.close();
+		} catch (IOException | RuntimeException e) {
+			if (error == null) {
+				error = e;
+			}
+		}
+		checkError();
+	}
+
+	private void checkError() throws IOException {
+		Exception e = error;
+		if (e != null) {
+			throw new IOException("The target stream failed", e);
+		}
+	}
+
+	/**
+	 * Queues a record in the ring buffer, waiting for a free slot if it is full.
+	 *
+	 * @param record the record
+	 * @throws IOException if the stream is closed or the target stream failed
+	 */
+	private void offer(Object record) throws IOException {
+		writers.incrementAndGet();
+		try {
+			if (closed) {
+				throw new IOException("The stream is closed");
+			}
+			checkError();
+			long position;
+			int slot;
+			int spins = 0;
+			while (true) {
+				position = tail.get();
+				slot = (int) position & mask;
+				long available = sequences.get(slot) - position;
+				if (available == 0) {
+					if (tail.compareAndSet(position, position + 1)) {
+						break;
+					}
+				} else if (available < 0) { // full, wait for the background thread
+					if (!drainer.isAlive()) {
+						throw new IOException("The background thread stopped", error);
+					}
+					LockSupport.unpark(drainer);
+					if (++spins < FULL_SPINS) {
+						Thread.onSpinWait();
+					} else {
+						LockSupport.parkNanos(this, FULL_PARK_NANOS);
+					}
+				}
+			}
+			records[slot] = record;
+			sequences.set(slot, position + 1);
+		} finally {
+			writers.decrementAndGet();
+		}
+		if (idle) {
+			LockSupport.unpark(drainer);
+		}
+	}
+
+	/**
+	 * Writes the queued records until the stream is closed and all of them are written.
+	 */
+	private void drain() {
+		while (true) {
+			int slot = (int) head & mask;
+			if (sequences.get(slot) == head + 1) {
+				Object record = records[slot];
+				records[slot] = null;
+				sequences.set(slot, head + records.length);
+				head++;
+				write(record);
+				continue;
+			}
+			if (stopping) {
+				// no record is queued once stopping, but one may have been queued since the check
+				if (sequences.get(slot) != head + 1) {
+					return;
+				}
+				continue;
+			}
+			idle = true;
+			if (sequences.get(slot) != head + 1 && !stopping) {
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			}
+			idle = false;
+		}
+	}
+
+	private void write(Object record) {
+		try {
+			if (record instanceof FlushRequest request) {
+				if (error == null) {
+					target.flush();
+				}
+				request.done.countDown();
+			} else if (error == null) {
+				target.write(record instanceof String message ? message.getBytes() : (byte[]) record);
+			}
+		} catch (IOException | RuntimeException e) {
+			error = e;
+			if (record instanceof FlushRequest request) {
+				request.done.countDown();
+			}
+		}
+	}
+
+}
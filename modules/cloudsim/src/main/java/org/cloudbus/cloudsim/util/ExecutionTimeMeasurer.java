@@ -11,8 +11,11 @@ package org.cloudbus.cloudsim.util;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
+
 /**
  * Measurement of execution times of CloudSim's methods.
+ * The measurements are kept per {@link SimulationContext}.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 3.0
@@ -30,7 +33,9 @@ public class ExecutionTimeMeasurer {
          * It in fact stores the method/process start time,
          * no the time it spent executing.
          */
-	private final static Map<String, Long> executionTimes = new HashMap<>();
+	private static final class ExecutionTimes {
+		private final Map<String, Long> times = new HashMap<>();
+	}
 
 	/**
 	 * Start measuring the execution time of a method/process.
@@ -38,7 +43,7 @@ public class ExecutionTimeMeasurer {
          * that has to be its execution time measured.
 	 * 
 	 * @param name the name of the method/process being measured.
-         * @see #executionTimes
+         * @see #getExecutionTimes()
 	 */
 	public static void start(String name) {
 		getExecutionTimes().put(name, System.currentTimeMillis());
@@ -49,7 +54,7 @@ public class ExecutionTimeMeasurer {
 	 * 
 	 * @param name the name of the method/process being measured.
 	 * @return the time the method/process spent in execution (in seconds)
-         * @see #executionTimes
+         * @see #getExecutionTimes()
 	 */
 	public static double end(String name) {
 		double time = (System.currentTimeMillis() - getExecutionTimes().get(name)) / 1000.0;
@@ -61,10 +66,10 @@ public class ExecutionTimeMeasurer {
 	 * Gets map the execution times.
 	 * 
 	 * @return the execution times map
-         * @see #executionTimes
+         * @see #getExecutionTimes()
 	 */
 	public static Map<String, Long> getExecutionTimes() {
-		return executionTimes;
+		return SimulationContext.current().getComponent(ExecutionTimes.class, ExecutionTimes::new).times;
 	}
 
 }
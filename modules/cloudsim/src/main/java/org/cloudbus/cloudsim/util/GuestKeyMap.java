@@ -0,0 +1,408 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+
+/**
+ * A map whose keys are guests, identified by their {@link GuestEntity#getKey() long key}, used by
+ * the allocation policies, VM schedulers and provisioners to keep their per-guest tables.
+ * <p>
+ * The entries are kept in insertion order in primitive arrays, indexed by an open-addressing hash
+ * table, so looking up a guest by key neither builds nor hashes a string. The map is also a
+ * {@code Map<String, V>} keyed by the {@link GuestEntity#getUid() guest uid} ("userId-guestId"),
+ * which is converted to and from the long key; looking up a string which is not a valid uid finds
+ * nothing.
+ *
+ * @param <V> the type of the values
+ * @since CloudSim Toolkit 7.0
+ * @see GuestEntity#getKey(int, int)
+ */
+public class GuestKeyMap<V> extends AbstractMap<String, V> {
+
+	/** The value stored for null values, since null marks the removed entries. */
+	private static final Object NULL_VALUE = new Object();
+
+	/** The minimum number of entries. */
+	private static final int MIN_CAPACITY = 4;
+
+	/** The keys of the entries, in insertion order. */
+	private long[] keys;
+
+	/** The values of the entries, in insertion order; null if the entry has been removed. */
+	private Object[] values;
+
+	/** The hash table, holding the position of each entry plus one, or 0 for the free slots. */
+	private int[] table;
+
+	/** The number of used entries, including the removed ones. */
+	private int end;
+
+	/** The number of entries. */
+	private int size;
+
+	/** The number of structural modifications, to detect concurrent modifications while iterating. */
+	private int modCount;
+
+	/** The entry set view. */
+	private EntrySet entrySet;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public GuestKeyMap() {
+		init(MIN_CAPACITY);
+	}
+
+	/**
+	 * An entry of the map, which also exposes the key of the guest.
+	 *
+	 * @param <V> the type of the value
+	 */
+	public interface Entry<V> extends Map.Entry<String, V> {
+		/**
+		 * Gets the key of the guest.
+		 *
+		 * @return the guest key
+		 */
+		long getGuestKey();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the value of a guest.
+	 *
+	 * @param key the guest key
+	 * @return the value, or null if the guest is not in the map
+	 */
+	public V get(long key) {
+		int slot = slotOf(key);
+		return table[slot] == 0 ? null : valueAt(table[slot] - 1);
+	}
+
+	/**
+	 * Checks whether a guest is in the map.
+	 *
+	 * @param key the guest key
+	 * @return true if the guest is in the map
+	 */
+	public boolean containsKey(long key) {
+		return table[slotOf(key)] != 0;
+	}
+
+	/**
+	 * Sets the value of a guest.
+	 *
+	 * @param key the guest key
+	 * @param value the value
+	 * @return the previous value, or null if the guest was not in the map
+	 */
+	public V put(long key, V value) {
+		int slot = slotOf(key);
+		if (table[slot] != 0) {
+			int entry = table[slot] - 1;
+			V old = valueAt(entry);
+			values[entry] = value == null ? NULL_VALUE : value;
+			return old;
+		}
+
+		if (end == keys.length) {
+			// compact the removed entries, growing if more than half the entries are used
+			init(size >= keys.length / 2 ? keys.length * 2 : keys.length);
+			slot = slotOf(key);
+		}
+		keys[end] = key;
+		values[end] = value == null ? NULL_VALUE : value;
+		table[slot] = ++end;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	/**
+	 * Removes a guest from the map.
+	 *
+	 * @param key the guest key
+	 * @return the value of the guest, or null if the guest was not in the map
+	 */
+	public V remove(long key) {
+		int slot = slotOf(key);
+		if (table[slot] == 0) {
+			return null;
+		}
+		int entry = table[slot] - 1;
+		V old = valueAt(entry);
+		values[entry] = null;
+		freeSlot(slot);
+		size--;
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public V get(Object uid) {
+		Long key = parseUid(uid);
+		return key == null ? null : get(key.longValue());
+	}
+
+	@Override
+	public boolean containsKey(Object uid) {
+		Long key = parseUid(uid);
+		return key != null && containsKey(key.longValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException if the uid is not a valid guest uid
+	 */
+	@Override
+	public V put(String uid, V value) {
+		Long key = parseUid(uid);
+		if (key == null) {
+			throw new IllegalArgumentException("Invalid guest uid: " + uid);
+		}
+		return put(key.longValue(), value);
+	}
+
+	@Override
+	public V remove(Object uid) {
+		Long key = parseUid(uid);
+		return key == null ? null : remove(key.longValue());
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(values, 0, end, null);
+		Arrays.fill(table, 0);
+		end = size = 0;
+		modCount++;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Set<Map.Entry<String, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+		return (Set<Map.Entry<String, V>>) (Set<?>) entrySet;
+	}
+
+	/**
+	 * Gets the entries of the map in insertion order, exposing the keys of the guests.
+	 *
+	 * @return the entries
+	 */
+	public Iterable<Entry<V>> entries() {
+		return EntryIterator::new;
+	}
+
+	/**
+	 * Rebuilds the arrays with a given number of entries, keeping the entries in order.
+	 */
+	private void init(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		int oldEnd = end;
+
+		keys = new long[capacity];
+		values = new Object[capacity];
+		table = new int[Integer.highestOneBit(capacity - 1) << 2];
+		end = 0;
+		for (int i = 0; i < oldEnd; i++) {
+			if (oldValues[i] != null) {
+				keys[end] = oldKeys[i];
+				values[end] = oldValues[i];
+				table[slotOf(oldKeys[i])] = ++end;
+			}
+		}
+	}
+
+	/**
+	 * Gets the slot of the hash table holding a key, or the free slot where it would be stored.
+	 */
+	private int slotOf(long key) {
+		int mask = table.length - 1;
+		for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+			if (table[slot] == 0 || keys[table[slot] - 1] == key) {
+				return slot;
+			}
+		}
+	}
+
+	/**
+	 * Frees a slot of the hash table, moving back the following entries of the probe sequence.
+	 */
+	private void freeSlot(int slot) {
+		int mask = table.length - 1;
+		for (int next = (slot + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+			int home = hash(keys[table[next] - 1]) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				table[slot] = table[next];
+				slot = next;
+			}
+		}
+		table[slot] = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int entry) {
+		Object value = values[entry];
+		return value == NULL_VALUE ? null : (V) value;
+	}
+
+	private static int hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+	/**
+	 * Converts a guest uid ("userId-guestId") to a guest key.
+	 *
+	 * @return the guest key, or null if the object is not a valid uid
+	 */
+	private static Long parseUid(Object uid) {
+		if (!(uid instanceof String s)) {
+			return null;
+		}
+		// the user id may be negative
+		int separator = s.indexOf('-', 1);
+		if (separator < 0) {
+			return null;
+		}
+		try {
+			int userId = Integer.parseInt(s, 0, separator, 10);
+			int guestId = Integer.parseInt(s, separator + 1, s.length(), 10);
+			return GuestEntity.getKey(userId, guestId);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<V>> {
+		@Override
+		public Iterator<Entry<V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			GuestKeyMap.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Entry<V>> {
+		private int next;
+		private int last = -1;
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			while (next < end && values[next] == null) {
+				next++;
+			}
+			return next < end;
+		}
+
+		@Override
+		public Entry<V> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next++;
+			return new MapEntry(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			// removing never moves the entries, so the iteration can go on
+			GuestKeyMap.this.remove(keys[last]);
+			last = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	private final class MapEntry implements Entry<V> {
+		private final int entry;
+
+		private MapEntry(int entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public long getGuestKey() {
+			return keys[entry];
+		}
+
+		@Override
+		public String getKey() {
+			return GuestEntity.getUid(keys[entry]);
+		}
+
+		@Override
+		public V getValue() {
+			return valueAt(entry);
+		}
+
+		@Override
+		public V setValue(V value) {
+			V old = valueAt(entry);
+			values[entry] = value == null ? NULL_VALUE : value;
+			return old;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Map.Entry<?, ?> e
+					&& getKey().equals(e.getKey())
+					&& Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			V value = getValue();
+			return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
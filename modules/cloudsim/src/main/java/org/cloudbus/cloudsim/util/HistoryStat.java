@@ -1,88 +1,202 @@
 package org.cloudbus.cloudsim.util;
 
-import java.util.ArrayDeque;
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 /**
- * Variant of ArrayDeque that provides fast computation of the mean and median of a moving window of last offer()ed samples.
- * The median uses two heaps that are not used until the first invocation of the getMedian() method.
- * 
- * @TODO The implementation needs to be completed with all methods from the ArrayDeque interface.
+ * A moving window of the last offer()ed samples, which provides fast computation of their mean, median,
+ * median absolute deviation (MAD) and interquartile range (IQR).
+ * The samples are kept in a ring buffer of primitive doubles, from the oldest to the newest, and can be read
+ * by position without copying or boxing them. The median, MAD and IQR use a sorted copy of the window, which
+ * is not kept until the first invocation of one of these methods: each sample is then inserted in it and
+ * evicted from it by binary search. For the short windows of the utilization histories, shifting the
+ * sorted samples is cheaper than maintaining a search tree.
+ * <p>
+ * Since CloudSim Toolkit 7.0, it no longer extends {@code ArrayDeque<Double>}: the samples are read with
+ * {@link #get(int)}, {@link #toArray()} or {@link #iterator()}, and only added with {@link #offer(double)}.
  */
-public class HistoryStat extends ArrayDeque<Double> {
+public class HistoryStat implements Iterable<Double> {
     private final int max_size;
+    private final double[] samples;
+    private int head = 0;
+    private int size = 0;
     private double sum = 0.0;
-    private PriorityQueue<Double> lower;
-    private PriorityQueue<Double> higher;
+    private double[] sorted;
+    private long offered = 0;
 
     public HistoryStat(int max_size) {
-        super(max_size);
         assert(max_size >= 2);
         this.max_size = max_size;
+        this.samples = new double[max_size];
     }
 
-    private void enableFastMedian() {
-        lower = new PriorityQueue<>((max_size + 1) / 2, Comparator.reverseOrder());
-        higher  = new PriorityQueue<>((max_size + 1) / 2, Comparator.naturalOrder());
-        for (double val : this)
-            addHeaps(val);
+    private void enableSortedSamples() {
+        sorted = new double[max_size];
+        for (int i = 0; i < size; i++)
+            sorted[i] = get(i);
+        Arrays.sort(sorted, 0, size);
     }
 
-    private void addHeaps(double val) {
-        double low = Double.MAX_VALUE;
-        if (!lower.isEmpty())
-            low = lower.peek();
-        if (val <= low) {
-            lower.add(val);
-            if (lower.size() > higher.size() + 1)
-                higher.add(lower.poll());
-        } else {
-            higher.add(val);
-            if (higher.size() > lower.size() + 1)
-                lower.add(higher.poll());
+    private int sortedIndexOf(double val) {
+        int i = Arrays.binarySearch(sorted, 0, size, val);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    public boolean offer(double val) {
+        if (size == max_size) {
+            double oldest = samples[head];
+            head = (head + 1) % max_size;
+            size--;
+            sum -= oldest;
+            if (sorted != null) {
+                int i = sortedIndexOf(oldest);
+                System.arraycopy(sorted, i + 1, sorted, i, size - i);
+            }
+        }
+        samples[(head + size) % max_size] = val;
+        if (sorted != null) {
+            int i = sortedIndexOf(val);
+            System.arraycopy(sorted, i, sorted, i + 1, size - i);
+            sorted[i] = val;
         }
+        size++;
+        sum += val;
+        offered++;
+        return true;
+    }
+
+    /**
+     * Gets the number of samples offered since the creation of the window, including the evicted ones.
+     * It tells whether the window has changed since it was last read.
+     *
+     * @return the number of offered samples
+     */
+    public long getOfferedCount() {
+        return offered;
     }
 
-    private void delHeaps(double val) {
-        if (!lower.isEmpty() && val <= lower.peek())
-            lower.remove(val);
-        else
-            higher.remove(val);
+    /**
+     * Gets a sample of the window.
+     *
+     * @param index the position of the sample, from 0 for the oldest sample to size() - 1 for the newest
+     * @return the sample
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        return samples[(head + index) % max_size];
     }
 
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets a copy of the samples, from the oldest to the newest.
+     *
+     * @return the samples
+     */
+    public double[] toArray() {
+        double[] array = new double[size];
+        int first = Math.min(size, max_size - head);
+        System.arraycopy(samples, head, array, 0, first);
+        System.arraycopy(samples, 0, array, first, size - first);
+        return array;
+    }
+
+    /**
+     * Iterates over the samples, from the oldest to the newest.
+     * Use {@link PrimitiveIterator.OfDouble#nextDouble()} or {@link #get(int)} to avoid boxing them.
+     */
     @Override
-    public boolean offer(Double val) {
-        if (size() == max_size) {
-            double oldest = poll();
-            sum -= oldest;
-            if (lower != null)
-                delHeaps(oldest);
-        }
-        boolean rv = super.offer(val);
-        sum += val;
-        if (lower != null)
-            addHeaps(val);
-        return rv;
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (next >= size)
+                    throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
     }
 
     public double getMedian() {
-        if (lower == null) {
-            enableFastMedian();
+        if (sorted == null) {
+            enableSortedSamples();
+        }
+        if (size == 0)
+            return 0.0;
+        if (size % 2 == 1)
+            return sorted[size / 2];
+        return (sorted[size / 2 - 1] + sorted[size / 2]) / 2.0;
+    }
+
+    /**
+     * Gets the median absolute deviation (MAD) of the samples from their {@link #getMedian() median}.
+     * The median of the deviations is estimated as by {@link MathUtil#median(double[])}.
+     *
+     * @return the MAD, or 0 if there are no samples
+     */
+    public double getMad() {
+        if (size == 0)
+            return 0.0;
+        double median = getMedian();
+        // the k-th smallest deviation, merging the deviations below and above the median
+        double pos = (size + 1) / 2.0;
+        int intPos = (int) Math.floor(pos);
+        if (pos >= size)
+            return getMaxDeviation(median);
+        int below = sortedIndexOf(median) - 1;
+        int above = below + 1;
+        double lower = 0.0;
+        double upper = 0.0;
+        for (int k = 0; k <= intPos; k++) {
+            double deviation;
+            if (above >= size || (below >= 0 && Math.abs(median - sorted[below]) <= Math.abs(median - sorted[above])))
+                deviation = Math.abs(median - sorted[below--]);
+            else
+                deviation = Math.abs(median - sorted[above++]);
+            if (k == intPos - 1)
+                lower = deviation;
+            upper = deviation;
         }
-        if (lower.isEmpty() && higher.isEmpty())
+        return lower + (pos - intPos) * (upper - lower);
+    }
+
+    private double getMaxDeviation(double median) {
+        return Math.max(Math.abs(median - sorted[0]), Math.abs(median - sorted[size - 1]));
+    }
+
+    /**
+     * Gets the interquartile range (IQR) of the samples, with the quartiles chosen as by
+     * {@link MathUtil#iqr(double[])}.
+     *
+     * @return the IQR, or 0 if there are less than 2 samples
+     */
+    public double getIqr() {
+        if (size < 2)
             return 0.0;
-        if (lower.isEmpty() || lower.size() < higher.size())
-            return higher.peek();
-        if (higher.isEmpty() || higher.size() < lower.size())
-            return lower.peek();
-        if (lower.size() == higher.size())
-            return (lower.peek() + higher.peek()) / 2.0;
-        assert(false);
-        return 0.0;
+        if (sorted == null) {
+            enableSortedSamples();
+        }
+        int q1 = (int) Math.round(0.25 * (size + 1)) - 1;
+        int q3 = (int) Math.round(0.75 * (size + 1)) - 1;
+        return sorted[q3] - sorted[q1];
     }
 
     public double getMean() {
-        return sum / size();
+        return sum / size;
     }
 }
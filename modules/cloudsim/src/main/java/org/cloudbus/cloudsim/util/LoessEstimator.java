@@ -0,0 +1,235 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * Computes the Local Regression (Loess) parameter estimates of windows of a fixed length,
+ * as {@link MathUtil#getLoessParameterEstimates(double[])} and
+ * {@link MathUtil#getRobustLoessParameterEstimates(double[])} do.
+ * <p>
+ * Everything depending only on the length of the window, i.e., the abscissae and the tricube
+ * weights, is computed once by the constructor. The estimates are then computed in a single
+ * pass over the window, with the same updating formulas as the commons-math
+ * {@code SimpleRegression} used by {@link MathUtil}, but without creating a regression and its
+ * results at each estimate. The estimates are therefore exactly those of {@link MathUtil}.
+ * <p>
+ * An estimator is immutable, so it can be shared by threads.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class LoessEstimator {
+
+	/** The length of the windows. */
+	private final int length;
+
+	/** The abscissae of the samples of a window, from 1 to the length of the window. */
+	private final double[] x;
+
+	/** The tricube weights of the samples of a window. */
+	private final double[] tricubeWeights;
+
+	/**
+	 * The square roots of the tricube weights, or null if the regression ignores them.
+	 * @see MathUtil#createWeigthedLinearRegression(double[], double[], double[])
+	 */
+	private final double[] tricubeWeightRoots;
+
+	/**
+	 * Instantiates a new estimator.
+	 *
+	 * @param length the length of the windows
+	 * @throws IllegalArgumentException if the length is lower than 3
+	 */
+	public LoessEstimator(int length) {
+		if (length < 3) {
+			throw new IllegalArgumentException("The window must contain at least 3 samples");
+		}
+		this.length = length;
+		x = new double[length];
+		for (int i = 0; i < length; i++) {
+			x[i] = i + 1;
+		}
+		tricubeWeights = MathUtil.getTricubeWeigts(length);
+		tricubeWeightRoots = getWeightRoots(tricubeWeights);
+	}
+
+	/**
+	 * Gets the length of the windows.
+	 *
+	 * @return the length of the windows
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Gets the Loess parameter estimates of a window.
+	 *
+	 * @param y the samples of the window
+	 * @return the intercept and the slope
+	 * @throws IllegalArgumentException if the window does not have the length of the estimator
+	 * @see MathUtil#getLoessParameterEstimates(double[])
+	 */
+	public double[] estimate(final double[] y) {
+		checkLength(y);
+		return new Regression(x, y, tricubeWeightRoots).getParameterEstimates();
+	}
+
+	/**
+	 * Gets the robust Loess parameter estimates of a window.
+	 *
+	 * @param y the samples of the window
+	 * @return the intercept and the slope
+	 * @throws IllegalArgumentException if the window does not have the length of the estimator
+	 * @see MathUtil#getRobustLoessParameterEstimates(double[])
+	 */
+	public double[] estimateRobust(final double[] y) {
+		checkLength(y);
+		Regression tricubeRegression = new Regression(x, y, tricubeWeightRoots);
+		double[] residuals = new double[length];
+		for (int i = 0; i < length; i++) {
+			residuals[i] = y[i] - tricubeRegression.predict(x[i]);
+		}
+		Regression tricubeBisquareRegression = new Regression(x, y,
+				getWeightRoots(getTricubeBisquareWeights(residuals)));
+
+		double[] estimates = tricubeBisquareRegression.getParameterEstimates();
+		if (Double.isNaN(estimates[0]) || Double.isNaN(estimates[1])) {
+			return tricubeRegression.getParameterEstimates();
+		}
+		return estimates;
+	}
+
+	private void checkLength(final double[] y) {
+		if (y.length != length) {
+			throw new IllegalArgumentException("The window contains " + y.length
+					+ " samples instead of " + length);
+		}
+	}
+
+	/**
+	 * Gets the tricube bisquare weights, as {@link MathUtil#getTricubeBisquareWeigts(double[])}.
+	 *
+	 * @param residuals the residuals
+	 * @return the tricube bisquare weights
+	 */
+	private double[] getTricubeBisquareWeights(final double[] residuals) {
+		double[] absResiduals = MathUtil.abs(residuals);
+		Arrays.sort(absResiduals);
+		double median = Double.isNaN(absResiduals[length - 1]) // the NaNs are left out of the median
+				? MathUtil.median(MathUtil.abs(residuals))
+				: MathUtil.medianOfSorted(absResiduals);
+		double s6 = median * 6;
+		double[] weights = new double[length];
+		for (int i = 2; i < length; i++) {
+			double k = Math.pow(1 - Math.pow(residuals[i] / s6, 2), 2);
+			if (k > 0) {
+				weights[i] = (1 / k) * tricubeWeights[i];
+			} else {
+				weights[i] = Double.MAX_VALUE;
+			}
+		}
+		weights[0] = weights[1] = weights[2];
+		return weights;
+	}
+
+	/**
+	 * Gets the square roots of weights applied to the samples by the weighted regression,
+	 * which only applies them when at least 40% of the weights are not positive.
+	 *
+	 * @param weights the weights
+	 * @return the square roots of the weights, or null if the regression ignores them
+	 * @see MathUtil#createWeigthedLinearRegression(double[], double[], double[])
+	 */
+	private static double[] getWeightRoots(final double[] weights) {
+		int numZeroWeights = 0;
+		for (double weight : weights) {
+			if (weight <= 0) {
+				numZeroWeights++;
+			}
+		}
+		if (numZeroWeights < 0.4 * weights.length) {
+			return null;
+		}
+		double[] roots = new double[weights.length];
+		for (int i = 0; i < weights.length; i++) {
+			roots[i] = Math.sqrt(weights[i]);
+		}
+		return roots;
+	}
+
+	/**
+	 * The sums of a simple linear regression with an intercept, updated sample by sample as by
+	 * {@code SimpleRegression.addData(double, double)}.
+	 */
+	private static final class Regression {
+		private final int n;
+		private double sumX;
+		private double sumY;
+		private double sumXX;
+		private double sumXY;
+
+		Regression(final double[] x, final double[] y, final double[] weightRoots) {
+			n = x.length;
+			double xbar = 0;
+			double ybar = 0;
+			for (int i = 0; i < n; i++) {
+				double xi = weightRoots == null ? x[i] : weightRoots[i] * x[i];
+				double yi = weightRoots == null ? y[i] : weightRoots[i] * y[i];
+				if (i == 0) {
+					xbar = xi;
+					ybar = yi;
+				} else {
+					double fact1 = 1.0 + i;
+					double fact2 = i / (1.0 + i);
+					double dx = xi - xbar;
+					double dy = yi - ybar;
+					sumXX += dx * dx * fact2;
+					sumXY += dx * dy * fact2;
+					xbar += dx / fact1;
+					ybar += dy / fact1;
+				}
+				sumX += xi;
+				sumY += yi;
+			}
+		}
+
+		double getSlope() {
+			if (Math.abs(sumXX) < 10 * Double.MIN_VALUE) {
+				return Double.NaN;
+			}
+			return sumXY / sumXX;
+		}
+
+		double getIntercept(double slope) {
+			return (sumY - slope * sumX) / n;
+		}
+
+		double predict(double x) {
+			double slope = getSlope();
+			return getIntercept(slope) + slope * x;
+		}
+
+		/**
+		 * Gets the intercept and the slope, as {@code SimpleRegression.regress()}.
+		 */
+		double[] getParameterEstimates() {
+			if (Math.abs(sumXX) > Precision.SAFE_MIN) {
+				double slope = getSlope();
+				return new double[] { getIntercept(slope), slope };
+			}
+			return new double[] { sumY / n, Double.NaN };
+		}
+	}
+
+}
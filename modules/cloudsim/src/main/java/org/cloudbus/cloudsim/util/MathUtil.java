@@ -165,23 +165,56 @@ public class MathUtil {
 	public static double mad(final double[] data) {
 		double mad = 0;
 		if (data.length > 0) {
-			double median = median(data);
-			double[] deviationSum = new double[data.length];
+			double[] sorted = data.clone();
+			Arrays.sort(sorted);
+			if (Double.isNaN(sorted[sorted.length - 1])) { // the NaNs are left out of the medians
+				double median = median(data);
+				double[] deviationSum = new double[data.length];
+				for (int i = 0; i < data.length; i++) {
+					deviationSum[i] = Math.abs(median - data[i]);
+				}
+				return median(deviationSum);
+			}
+			double median = medianOfSorted(sorted);
+			// the deviations are stored in the copy, then sorted as well
+			double[] deviationSum = sorted;
 			for (int i = 0; i < data.length; i++) {
 				deviationSum[i] = Math.abs(median - data[i]);
 			}
-			mad = median(deviationSum);
+			Arrays.sort(deviationSum);
+			mad = medianOfSorted(deviationSum);
 		}
 		return mad;
 	}
 
+	/**
+	 * Gets the median of a sorted array of numbers, estimated as by {@link #median(double[])}
+	 * without copying the array.
+	 *
+	 * @param sorted the sorted array of numbers, without NaNs
+	 * @return the median
+	 */
+	static double medianOfSorted(final double[] sorted) {
+		double pos = 0.5 * (sorted.length + 1);
+		if (pos >= sorted.length) {
+			return sorted[sorted.length - 1];
+		}
+		int intPos = (int) Math.floor(pos);
+		double lower = sorted[intPos - 1];
+		double upper = sorted[intPos];
+		return lower + (pos - intPos) * (upper - lower);
+	}
+
 	/**
 	 * Gets the Interquartile Range (IQR) from an array of numbers.
 	 * 
 	 * @param data the array of numbers
-	 * @return the IQR
+	 * @return the IQR, or 0 if there are less than 2 numbers
 	 */
 	public static double iqr(final double[] data) {
+		if (data.length < 2) {
+			return 0;
+		}
 		Arrays.sort(data);
 		int q1 = (int) Math.round(0.25 * (data.length + 1)) - 1;
 		int q3 = (int) Math.round(0.75 * (data.length + 1)) - 1;
@@ -0,0 +1,116 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A JVM-wide cache of immutable simulation inputs (e.g., PlanetLab traces and BRITE topologies),
+ * so that several simulations run in the same JVM load each input only once and share it.
+ * <p>
+ * The cache is disabled by default, in which case every input is loaded again by each request.
+ * When enabled, the cached objects are shared by all simulations, therefore they must never be
+ * modified by their users. The cache can be safely accessed by several threads at a time.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see org.cloudbus.cloudsim.EX.util.ExperimentsRunner#runExperimentsInProcess(java.util.List, int)
+ */
+public final class SharedInputCache {
+
+	/**
+	 * Loads an input.
+	 *
+	 * @param <T> the type of the input
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+		/**
+		 * Loads the input.
+		 *
+		 * @return the loaded input
+		 * @throws IOException if the input cannot be read
+		 */
+		T load() throws IOException;
+	}
+
+	/** The cached inputs, by key. */
+	private static final ConcurrentMap<String, Object> CACHE = new ConcurrentHashMap<>();
+
+	/** Whether the cache is enabled. */
+	private static volatile boolean enabled = false;
+
+	private SharedInputCache() {
+	}
+
+	/**
+	 * Gets an input from the cache, loading it if it is not cached yet. If the cache is disabled,
+	 * the input is always loaded.
+	 *
+	 * @param key the key that uniquely identifies the input (e.g., its kind and the absolute file path)
+	 * @param loader the loader used when the input is not cached
+	 * @param <T> the type of the input
+	 * @return the input
+	 * @throws IOException if the input cannot be loaded
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T get(String key, Loader<T> loader) throws IOException {
+		if (!enabled) {
+			return loader.load();
+		}
+
+		try {
+			return (T) CACHE.computeIfAbsent(key, k -> {
+				try {
+					return loader.load();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Checks whether the cache is enabled.
+	 *
+	 * @return true if the cache is enabled, false otherwise
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables the cache. Disabling the cache does not remove the cached inputs.
+	 *
+	 * @param enabled true to enable the cache, false to disable it
+	 */
+	public static void setEnabled(boolean enabled) {
+		SharedInputCache.enabled = enabled;
+	}
+
+	/**
+	 * Removes all the cached inputs.
+	 */
+	public static void clear() {
+		CACHE.clear();
+	}
+
+	/**
+	 * Gets the number of cached inputs.
+	 *
+	 * @return the number of cached inputs
+	 */
+	public static int size() {
+		return CACHE.size();
+	}
+}
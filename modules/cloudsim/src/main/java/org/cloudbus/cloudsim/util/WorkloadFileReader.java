@@ -8,19 +8,25 @@
 
 package org.cloudbus.cloudsim.util;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelFull;
 
@@ -35,7 +41,8 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
  * <li>If you need to load multiple trace files, then you need to create multiple instances of this
  * class <tt>each with a unique entity name</tt>.
  * <li>If size of the trace file is huge or contains lots of traces, please increase the JVM heap
- * size accordingly by using <tt>java -Xmx</tt> option when running the simulation.
+ * size accordingly by using <tt>java -Xmx</tt> option when running the simulation, or read the
+ * jobs one at a time with {@link #streamWorkload()}.
  * <li>The default job file size for sending to and receiving from a resource is
  * {@link gridsim.net.Link#DEFAULT_MTU}. However, you can specify the file size by using
  * {@link #setCloudletFileSize(int)}.
@@ -145,9 +152,15 @@ public class WorkloadFileReader implements WorkloadModel {
     private static final int IRRELEVANT = -1; 
 
     /**
-     * A temp array storing all the fields read from a line of the trace file.
+     * The size of the buffer in which the trace file is read, in bytes. It is
+     * enlarged if a line of the trace does not fit in it.
      */
-    private String[] fieldArray = null; 
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The value of a field which is not a valid integer.
+     */
+    private static final long INVALID = Long.MIN_VALUE;
 
     /**
      * Create a new WorkloadFileReader object.
@@ -192,28 +205,39 @@ public class WorkloadFileReader implements WorkloadModel {
             if (jobs == null) {
                     jobs = new ArrayList<>();
 
-                    // create a temp array
-                    fieldArray = new String[MAX_FIELD];
-
-                    try {
-                            /*//@TODO It would be implemented
-                            using specific classes to avoid using ifs.
-                            If a new format is included, the code has to be
-                            changed to include another if*/
-                            if (file.getName().endsWith(".gz")) {
-                                    readGZIPFile(file);
-                            } else if (file.getName().endsWith(".zip")) {
-                                    readZipFile(file);
-                            } else {
-                                    readFile(file);
-                            }
-                    } catch (final IOException e) {
+                    try (Stream<WorkloadJob> stream = streamWorkload()) {
+                            stream.forEach(job -> jobs.add(job.cloudlet()));
+                    } catch (final UncheckedIOException e) {
                     }
             }
 
             return jobs;
     }
 
+    /**
+     * Reads job information from a trace file while the returned stream is consumed,
+     * so that only the jobs not consumed yet are kept in memory. The file is closed
+     * when its last job has been read or when the stream is closed.
+     * <p/>
+     * The lines which do not describe a job, because they do not have the expected number of
+     * fields or a field is not a valid integer, are skipped; their number is logged once the
+     * file is closed.
+     *
+     * @return the stream of jobs, in the order of the trace file
+     * @throws UncheckedIOException if the file cannot be opened, or an error occurs when reading it
+     * @see #generateWorkload()
+     */
+    @Override
+    public Stream<WorkloadJob> streamWorkload() {
+            final TraceParser parser;
+            try {
+                    parser = new TraceParser();
+            } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+            }
+            return StreamSupport.stream(parser, false).onClose(parser::close);
+    }
+
     /**
      * Sets the string that identifies the start of a comment line.
      * 
@@ -306,7 +330,7 @@ public class WorkloadFileReader implements WorkloadModel {
     // ------------------- PRIVATE METHODS -------------------
 
     /**
-     * Creates a Cloudlet with the given information and adds to the list of {@link #jobs}.
+     * Creates a Cloudlet with the given information.
      * 
      * @param id a Cloudlet ID
      * @param submitTime Cloudlet's submit time
@@ -317,6 +341,7 @@ public class WorkloadFileReader implements WorkloadModel {
      * (//@TODO the parameter is not being used and it is not clear what it is)
      * @param userID user id
      * @param groupID user's group id
+     * @return the created Cloudlet
      * @pre id >= 0
      * @pre submitTime >= 0
      * @pre runTime >= 0
@@ -324,7 +349,7 @@ public class WorkloadFileReader implements WorkloadModel {
      * @post $none
      * @see #rating
      */
-    private void createJob(
+    private Cloudlet createJob(
                     final int id,
                     final long submitTime,
                     final int runTime,
@@ -334,8 +359,8 @@ public class WorkloadFileReader implements WorkloadModel {
                     final int groupID) {
             // create the cloudlet
             final int len = runTime * rating;
-            UtilizationModel utilizationModel = new UtilizationModelFull();
-            final Cloudlet wgl = new Cloudlet(
+            UtilizationModel utilizationModel = UtilizationModelFull.INSTANCE;
+            return new Cloudlet(
                             id,
                             len,
                             numProc,
@@ -344,48 +369,274 @@ public class WorkloadFileReader implements WorkloadModel {
                             utilizationModel,
                             utilizationModel,
                             utilizationModel);
-            jobs.add(wgl);
     }
 
     /**
-     * Extracts relevant information from a given array of fields,
-     * representing a line from the trace file, and create a cloudlet 
-     * using this information.
-     * 
-     * @param array the array of fields generated from a line of the trace file.
-     * @param line the line number
-     * @pre array != null
-     * @pre line > 0
-     * //@TODO The name of the method doesn't describe what it in fact does.
+     * Reads the jobs of the trace {@link #file}, one line at a time. The lines are split
+     * into fields and the fields parsed directly from the bytes read, without creating
+     * a String for each line or field. A zip file is read one entry after the other.
      */
-    private void extractField(final String[] array, final int line) {
-            try {
-                    Integer obj = null;
+    private final class TraceParser implements Spliterator<WorkloadJob> {
 
-                    // get the job number
-                    int id = 0;
-                    if (JOB_NUM == IRRELEVANT) {
-                            id = jobs.size() + 1;
+            /** The zip file being read, or null if the trace is not a zip file. */
+            private final ZipFile zipFile;
+
+            /** The entries of the zip file not read yet. */
+            private final Enumeration<? extends ZipEntry> zipEntries;
+
+            /** The stream being read, or null when all of them have been read. */
+            private InputStream input;
+
+            /** The bytes read from the stream. */
+            private byte[] buffer = new byte[BUFFER_SIZE];
+
+            /** The start of the current line in the {@link #buffer}. */
+            private int position = 0;
+
+            /** The end of the bytes read in the {@link #buffer}. */
+            private int limit = 0;
+
+            /** Whether the end of the stream being read has been reached. */
+            private boolean endOfInput = false;
+
+            /** The start and the end of the fields of the current line. */
+            private final int[] fieldStarts = new int[MAX_FIELD];
+            private final int[] fieldEnds = new int[MAX_FIELD];
+
+            /** The bytes starting a comment line. */
+            private final byte[] comment = COMMENT.getBytes();
+
+            /** The number of jobs read. */
+            private int jobCount = 0;
+
+            /** The number of lines which are not comments but do not describe a job. */
+            private int skippedLines = 0;
+
+            private boolean closed = false;
+
+            TraceParser() throws IOException {
+                    /*//@TODO It would be implemented
+                    using specific classes to avoid using ifs.
+                    If a new format is included, the code has to be
+                    changed to include another if*/
+                    if (file.getName().endsWith(".zip")) {
+                            // ZipFile offers an Enumeration of all the files in the file
+                            zipFile = new ZipFile(file);
+                            zipEntries = zipFile.entries();
+                            nextInput();
                     } else {
-                            obj = Integer.valueOf(array[JOB_NUM].trim());
-                            id = obj;
+                            zipFile = null;
+                            zipEntries = null;
+                            final InputStream fileInput = new FileInputStream(file);
+                            try {
+                                    input = file.getName().endsWith(".gz")
+                                                    ? new GZIPInputStream(fileInput, BUFFER_SIZE)
+                                                    : fileInput;
+                            } catch (final IOException e) {
+                                    fileInput.close();
+                                    throw e;
+                            }
+                    }
+            }
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super WorkloadJob> action) {
+                    try {
+                            while (input != null) {
+                                    final int end = nextLine();
+                                    if (end < 0) {
+                                            nextInput();
+                                            continue;
+                                    }
+
+                                    final WorkloadJob job = parseLine(position, end);
+                                    position = end + 1;
+                                    if (job != null) {
+                                            action.accept(job);
+                                            return true;
+                                    }
+                            }
+                    } catch (final IOException e) {
+                            close();
+                            throw new UncheckedIOException(e);
+                    }
+                    close();
+                    return false;
+            }
+
+            @Override
+            public Spliterator<WorkloadJob> trySplit() {
+                    return null;
+            }
+
+            @Override
+            public long estimateSize() {
+                    return Long.MAX_VALUE;
+            }
+
+            @Override
+            public int characteristics() {
+                    return ORDERED | NONNULL;
+            }
+
+            /**
+             * Closes the stream being read and the zip file. Closing it again has no effect.
+             */
+            void close() {
+                    if (closed) {
+                            return;
+                    }
+                    closed = true;
+                    try {
+                            if (input != null) {
+                                    input.close();
+                                    input = null;
+                            }
+                            if (zipFile != null) {
+                                    zipFile.close();
+                            }
+                    } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                    } finally {
+                            if (skippedLines > 0) {
+                                    Log.printlnConcat("WorkloadFileReader: ", skippedLines, " lines of ", file.getName(),
+                                                    " do not describe a job and were skipped");
+                            }
+                    }
+            }
+
+            /**
+             * Closes the stream being read and opens the next entry of the zip file, if any.
+             */
+            private void nextInput() throws IOException {
+                    if (input != null) {
+                            input.close();
+                            input = null;
+                    }
+                    if (zipEntries != null && zipEntries.hasMoreElements()) {
+                            input = zipFile.getInputStream(zipEntries.nextElement());
+                    }
+                    position = 0;
+                    limit = 0;
+                    endOfInput = false;
+            }
+
+            /**
+             * Finds the end of the line starting at the {@link #position}, reading more bytes
+             * of the stream if needed.
+             *
+             * @return the end of the line, exclusive, or -1 if there is no line left in the stream
+             */
+            private int nextLine() throws IOException {
+                    int scan = position;
+                    while (true) {
+                            for (; scan < limit; scan++) {
+                                    if (buffer[scan] == '\n' || buffer[scan] == '\r') {
+                                            return scan;
+                                    }
+                            }
+                            if (endOfInput) {
+                                    return position < limit ? limit : -1;
+                            }
+
+                            // keep the beginning of the line, then read more bytes after it
+                            if (position > 0) {
+                                    System.arraycopy(buffer, position, buffer, 0, limit - position);
+                                    scan -= position;
+                                    limit -= position;
+                                    position = 0;
+                            } else if (limit == buffer.length) {
+                                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                            }
+                            final int read = input.read(buffer, limit, buffer.length - limit);
+                            if (read < 0) {
+                                    endOfInput = true;
+                            } else {
+                                    limit += read;
+                            }
+                    }
+            }
+
+            /**
+             * Breaks a line from the trace file into fields, then creates the job they describe.
+             * 
+             * @param start the start of the line in the {@link #buffer}
+             * @param end the end of the line, exclusive
+             * @return the job, or null if the line is a comment or does not describe a job
+             */
+            private WorkloadJob parseLine(final int start, final int end) {
+                    // skip a comment line
+                    if (end - start >= comment.length
+                                    && Arrays.equals(buffer, start, start + comment.length, comment, 0, comment.length)) {
+                            return null;
                     }
 
+                    // split the fields based on white spaces
+                    int index = 0;
+                    int i = start;
+                    while (true) {
+                            while (i < end && isWhitespace(buffer[i])) {
+                                    i++;
+                            }
+                            if (i == end) {
+                                    break;
+                            }
+                            if (index == fieldStarts.length) { // too many fields
+                                    skippedLines++;
+                                    return null;
+                            }
+                            fieldStarts[index] = i;
+                            while (i < end && !isWhitespace(buffer[i])) {
+                                    i++;
+                            }
+                            fieldEnds[index] = i;
+                            index++;
+                    }
+
+                    if (index < fieldStarts.length) {
+                            if (index > 0) { // not an empty line
+                                    skippedLines++;
+                            }
+                            return null;
+                    }
+
+                    final WorkloadJob job = extractJob();
+                    if (job == null) {
+                            skippedLines++;
+                    }
+                    return job;
+            }
+
+            /**
+             * Extracts relevant information from the fields of the current line and
+             * creates a job using this information.
+             *
+             * @return the job, or null if a field is not valid
+             */
+            private WorkloadJob extractJob() {
+                    // get the job number
+                    final long id = JOB_NUM == IRRELEVANT ? jobCount + 1 : parseField(JOB_NUM, true);
+
                     // get the submit time
-                    final long l = Long.parseLong(array[SUBMIT_TIME].trim());
-                    final long submitTime = (int) l;
+                    final long l = parseField(SUBMIT_TIME, false);
 
                     // get the user estimated run time
-                    obj = Integer.valueOf(array[REQ_RUN_TIME].trim());
-                    final int reqRunTime = obj;
+                    final long reqRunTime = parseField(REQ_RUN_TIME, true);
 
                     // if the required run time field is ignored, then use
                     // the actual run time
-                    obj = Integer.valueOf(array[RUN_TIME].trim());
-                    int runTime = obj;
+                    long runTime = parseField(RUN_TIME, true);
+
+                    final long userID = parseField(USER_ID, true);
+                    final long groupID = parseField(GROUP_ID, true);
 
-                    final int userID = Integer.parseInt(array[USER_ID].trim());
-                    final int groupID = Integer.parseInt(array[GROUP_ID].trim());
+                    // get the number of allocated processors
+                    long numProc = parseField(REQ_NUM_PROC, true);
+
+                    if (id == INVALID || l == INVALID || reqRunTime == INVALID || runTime == INVALID
+                                    || userID == INVALID || groupID == INVALID || numProc == INVALID) {
+                            return null;
+                    }
 
                     // according to the SWF manual, runtime of 0 is possible due
                     // to rounding down. E.g. runtime is 0.4 seconds -> runtime = 0
@@ -393,158 +644,73 @@ public class WorkloadFileReader implements WorkloadModel {
                             runTime = 1; // change to 1 second
                     }
 
-                    // get the number of allocated processors
-                    obj = Integer.valueOf(array[REQ_NUM_PROC].trim());
-                    int numProc = obj;
-
                     // if the required num of allocated processors field is ignored
                     // or zero, then use the actual field
                     if (numProc == IRRELEVANT || numProc == 0) {
-                            obj = Integer.valueOf(array[NUM_PROC].trim());
-                            numProc = obj;
+                            numProc = parseField(NUM_PROC, true);
+                            if (numProc == INVALID) {
+                                    return null;
+                            }
                     }
 
                     // finally, check if the num of PEs required is valid or not
                     if (numProc <= 0) {
                             numProc = 1;
                     }
-                    createJob(id, submitTime, runTime, numProc, reqRunTime, userID, groupID);
-            } catch (final Exception e) {
 
+                    jobCount++;
+                    final long submitTime = (int) l;
+                    return new WorkloadJob(submitTime, createJob((int) id, submitTime, (int) runTime, (int) numProc,
+                                    (int) reqRunTime, (int) userID, (int) groupID));
             }
-    }
-
-    /**
-     * Breaks a line from the trace file into many fields into the
-     * {@link #fieldArray}.
-     * 
-     * @param line a line from the trace file
-     * @param lineNum the line number
-     * @pre line != null
-     * @pre lineNum > 0
-     * @post $none
-     */
-    private void parseValue(final String line, final int lineNum) {
-            // skip a comment line
-            if (line.startsWith(COMMENT)) {
-                    return;
-            }
-
-            final String[] sp = line.split("\\s+"); // split the fields based on a
-            // space
-            int len = 0; // length of a string
-            int index = 0; // the index of an array
 
-            // check for each field in the array
-            for (final String elem : sp) {
-                    len = elem.length(); // get the length of a string
-
-                    // if it is empty then ignore
-                    if (len == 0) {
-                            continue;
+            /**
+             * Parses a field of the current line as a decimal integer, with an optional sign.
+             *
+             * @param index the index of the field
+             * @param isInt whether the value must be in the range of an int, or of a long
+             * @return the value of the field, or {@link #INVALID} if it is not a valid integer
+             */
+            private long parseField(final int index, final boolean isInt) {
+                    if (index >= fieldStarts.length) {
+                            return INVALID;
+                    }
+                    int i = fieldStarts[index];
+                    final int end = fieldEnds[index];
+                    final boolean negative = buffer[i] == '-';
+                    if (negative || buffer[i] == '+') {
+                            i++;
+                    }
+                    if (i == end) {
+                            return INVALID;
                     }
-                    fieldArray[index] = elem;
-                    index++;
-            }
-
-            if (index == MAX_FIELD) {
-                    extractField(fieldArray, lineNum);
-            }
-    }
-
-    /**
-     * Reads traces from a text file, one line at a time.
-     * 
-     * @param fl a file name
-     * @return <code>true</code> if successful, <code>false</code> otherwise.
-     * @throws IOException if the there was any error reading the file
-     * @throws FileNotFoundException if the file was not found
-     */
-    private boolean readFile(final File fl) throws IOException, FileNotFoundException {
-            boolean success = false;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(fl)))) {
-
-            // read one line at the time
-            int line = 1;
-            String readLine = null;
-            while (reader.ready() && (readLine = reader.readLine()) != null) {
-                parseValue(readLine, line);
-                line++;
-            }
-
-            reader.close();
-            success = true;
-        }
-
-            return success;
-    }
-
-    /**
-     * Reads traces from a gzip file, one line at a time.
-     * 
-     * @param fl a gzip file name
-     * @return <code>true</code> if successful; <code>false</code> otherwise.
-     * @throws IOException if the there was any error reading the file
-     * @throws FileNotFoundException if the file was not found
-     */
-    private boolean readGZIPFile(final File fl) throws IOException, FileNotFoundException {
-            boolean success = false;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(fl))))) {
-
-            // read one line at the time
-            int line = 1;
-            String readLine = null;
-            while (reader.ready() && (readLine = reader.readLine()) != null) {
-                parseValue(readLine, line);
-                line++;
-            }
-
-            reader.close();
-            success = true;
-        }
-
-            return success;
-    }
 
-    /**
-     * Reads traces from a Zip file, one line at a time.
-     * 
-     * @param fl a zip file name
-     * @return <code>true</code> if reading a file is successful; <code>false</code> otherwise.
-     * @throws IOException if the there was any error reading the file
-     */
-    private boolean readZipFile(final File fl) throws IOException {
-            boolean success = false;
-            ZipFile zipFile = null;
-            try {
-                    BufferedReader reader = null;
-
-                    // ZipFile offers an Enumeration of all the files in the file
-                    zipFile = new ZipFile(fl);
-                    final Enumeration<? extends ZipEntry> e = zipFile.entries();
-                    while (e.hasMoreElements()) {
-                            success = false; // reset the value again
-                            final ZipEntry zipEntry = e.nextElement();
-
-                            reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(zipEntry)));
-
-                            // read one line at the time
-                            int line = 1;                       
-                            String readLine = null;
-                            while (reader.ready() && (readLine = reader.readLine()) != null)  {
-                                    parseValue(readLine, line);
-                                    line++;
+                    long value = 0;
+                    for (; i < end; i++) {
+                            final int digit = buffer[i] - '0';
+                            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                                    return INVALID;
                             }
-
-                            reader.close();
-                            success = true;
+                            value = value * 10 + digit;
+                    }
+                    if (negative) {
+                            value = -value;
                     }
-            } finally {
-                    if (zipFile != null) {
-                            zipFile.close();
+                    if (isInt && (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)) {
+                            return INVALID;
                     }
+                    return value;
             }
+    }
 
-            return success;
+    /**
+     * Checks whether a byte is a white space separating the fields of a line,
+     * as matched by <tt>\s</tt> in a regular expression.
+     *
+     * @param b the byte
+     * @return <code>true</code> if it is a white space, <code>false</code> otherwise
+     */
+    private static boolean isWhitespace(final byte b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
     }
 }
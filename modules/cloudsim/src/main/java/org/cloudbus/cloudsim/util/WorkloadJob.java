@@ -0,0 +1,22 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * A job of a workload: the {@link Cloudlet} to be executed and the time it is submitted.
+ *
+ * @param submitTime the submit time of the job, in seconds since the start of the workload
+ * @param cloudlet the cloudlet executing the job
+ * @since CloudSim Toolkit 7.0
+ * @see WorkloadModel#streamWorkload()
+ */
+public record WorkloadJob(long submitTime, Cloudlet cloudlet) {
+}
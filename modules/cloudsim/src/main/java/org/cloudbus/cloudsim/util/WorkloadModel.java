@@ -9,6 +9,7 @@
 package org.cloudbus.cloudsim.util;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.cloudbus.cloudsim.Cloudlet;
 
@@ -32,4 +33,23 @@ public interface WorkloadModel {
 	 */
 	List<Cloudlet> generateWorkload();
 
+	/**
+	 * Streams the jobs of the workload, in the order they are generated, so that they do not
+	 * have to be kept in memory at once. The stream should be closed if it is not read
+	 * until its end.
+	 * <p>
+	 * By default, the jobs are those of {@link #generateWorkload()}, all submitted at time 0.
+	 *
+	 * @return the stream of jobs
+	 * @throws java.io.UncheckedIOException if the workload cannot be read
+	 * @since CloudSim Toolkit 7.0
+	 */
+	default Stream<WorkloadJob> streamWorkload() {
+		List<Cloudlet> cloudlets = generateWorkload();
+		if (cloudlets == null) {
+			return Stream.empty();
+		}
+		return cloudlets.stream().map(cloudlet -> new WorkloadJob(0, cloudlet));
+	}
+
 }
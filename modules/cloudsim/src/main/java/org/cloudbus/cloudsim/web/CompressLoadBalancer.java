@@ -80,13 +80,16 @@ public class CompressLoadBalancer extends BaseWebLoadBalancer implements ILoadBa
                 cpuUtilReverseComparator.setUsedASServers(usedASServers.keySet());
                 vms.sort(cpuUtilReverseComparator);
 
-                // For debug purposes:
-                debugSB.setLength(0);
-                for (HddVm vm : vms) {
-                    debugSB.append(String.format("%s[%s] cpu(%.2f), ram(%.2f), cdlts(%d), sess(%d); ", vm,
-                            (usedASServers.containsKey(vm.getId()) ? "" : "FREE, ") + vm.getStatus(), vm.getCPUUtil(),
-                            vm.getRAMUtil(), vm.getCloudletScheduler().getCloudletExecList().size(),
-                            usedASServers.getOrDefault(vm.getId(), 0)));
+                // For debug purposes, only built if it is logged:
+                boolean debug = CustomLog.isLevelHighEnough(null);
+                if (debug) {
+                    debugSB.setLength(0);
+                    for (HddVm vm : vms) {
+                        debugSB.append(String.format("%s[%s] cpu(%.2f), ram(%.2f), cdlts(%d), sess(%d); ", vm,
+                                (usedASServers.containsKey(vm.getId()) ? "" : "FREE, ") + vm.getStatus(), vm.getCPUUtil(),
+                                vm.getRAMUtil(), vm.getCloudletScheduler().getCloudletExecList().size(),
+                                usedASServers.getOrDefault(vm.getId(), 0)));
+                    }
                 }
 
                 HddVm hostVM = vms.get(vms.size() - 1);
@@ -98,21 +101,23 @@ public class CompressLoadBalancer extends BaseWebLoadBalancer implements ILoadBa
                 }
 
                 session.setAppVmId(hostVM.getId());
-                CustomLog
-                        .printf("[Load Balancer](%s): Assigning sesssion %d to %s[%s] cpu(%.2f), ram(%.2f), cdlts(%d), sess(%d);",
-                                broker, session.getSessionId(), hostVM, hostVM.getStatus(), hostVM.getCPUUtil(),
-                                hostVM.getRAMUtil(), hostVM.getCloudletScheduler().getCloudletExecList().size(),
-                                usedASServers.getOrDefault(hostVM.getId(), 0));
-                CustomLog.printf("[Load Balancer](%s), Candidate VMs: %s", broker, debugSB);
-
-                // Log the state of the DB servers
-                debugSB.setLength(0);
-                for (HddVm dbVm : getDbBalancer().getVMs()) {
-                    debugSB.append(String.format("%s cpu(%.2f), ram(%.2f), disk(%.2f), cdlts(%d);", dbVm,
-                            dbVm.getCPUUtil(), dbVm.getRAMUtil(), dbVm.getDiskUtil(), dbVm.getCloudletScheduler()
-                                    .getCloudletExecList().size()));
+                if (debug) {
+                    CustomLog
+                            .printf("[Load Balancer](%s): Assigning sesssion %d to %s[%s] cpu(%.2f), ram(%.2f), cdlts(%d), sess(%d);",
+                                    broker, session.getSessionId(), hostVM, hostVM.getStatus(), hostVM.getCPUUtil(),
+                                    hostVM.getRAMUtil(), hostVM.getCloudletScheduler().getCloudletExecList().size(),
+                                    usedASServers.getOrDefault(hostVM.getId(), 0));
+                    CustomLog.printf("[Load Balancer](%s), Candidate VMs: %s", broker, debugSB);
+
+                    // Log the state of the DB servers
+                    debugSB.setLength(0);
+                    for (HddVm dbVm : getDbBalancer().getVMs()) {
+                        debugSB.append(String.format("%s cpu(%.2f), ram(%.2f), disk(%.2f), cdlts(%d);", dbVm,
+                                dbVm.getCPUUtil(), dbVm.getRAMUtil(), dbVm.getDiskUtil(), dbVm.getCloudletScheduler()
+                                        .getCloudletExecList().size()));
+                    }
+                    CustomLog.printf("[Load Balancer](%s), DB VMs: %s", broker, debugSB);
                 }
-                CustomLog.printf("[Load Balancer](%s), DB VMs: %s", broker, debugSB);
             }
 
             // Set the DB VM
@@ -48,9 +48,9 @@ public class PerformanceLoggingWebBroker extends WebBroker {
     }
 
     @Override
-    protected void processCloudletReturn(final SimEvent ev) {
+    protected void processCloudletReturn(final Cloudlet cloudlet) {
         lastTimeCloudletReturned = CloudSim.clock();
-        super.processCloudletReturn(ev);
+        super.processCloudletReturn(cloudlet);
     }
 
     @Override
@@ -403,12 +403,11 @@ public class WebBroker extends MonitoringBrokerEX {
      * 
      * @see
      * org.cloudbus.cloudsim.DatacenterBroker#processCloudletReturn(org.cloudbus
-     * .cloudsim.plus.SimEvent)
+     * .cloudsim.Cloudlet)
      */
     @Override
-    protected void processCloudletReturn(final SimEvent ev) {
-        super.processCloudletReturn(ev);
-        Cloudlet cloudlet = (Cloudlet) ev.getData();
+    protected void processCloudletReturn(final Cloudlet cloudlet) {
+        super.processCloudletReturn(cloudlet);
         if (CloudSim.clock() < getLifeLength()) {
             // kill the broker only if its life length is over/expired
             if (cloudlet instanceof WebCloudlet) {
@@ -3,6 +3,7 @@
 import static org.junit.Assert.assertSame;
 
 import java.util.LinkedList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -15,10 +16,17 @@ package org.cloudbus.cloudsim;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.util.LinkedList;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * @author		Anton Beloglazov
@@ -94,4 +102,68 @@ public class CloudletTest {
 		testGetUtilizationOfBw();
 	}
 
+	@Test
+	public void testMigration() {
+		cloudlet = new Cloudlet(0, CLOUDLET_LENGTH, PES_NUMBER, CLOUDLET_FILE_SIZE, CLOUDLET_OUTPUT_SIZE,
+				utilizationModelCpu, utilizationModelRam, utilizationModelBw, true);
+		assertNull(cloudlet.getAllResourceId());
+		assertEquals(-1, cloudlet.getResourceId());
+
+		cloudlet.setResourceParameter(2, 3.0);
+		cloudlet.setCloudletFinishedSoFar(100);
+		assertArrayEquals(new int[] { 2 }, cloudlet.getAllResourceId());
+		assertEquals(3.0, cloudlet.getCostPerSec(), 0);
+
+		cloudlet.setResourceParameter(5, 4.0);
+		assertArrayEquals(new int[] { 2, 5 }, cloudlet.getAllResourceId());
+		assertEquals(5, cloudlet.getResourceId());
+		assertEquals(100, cloudlet.getCloudletFinishedSoFar(2));
+		assertEquals(3.0, cloudlet.getCostPerSec(2), 0);
+		assertEquals(4.0, cloudlet.getCostPerSec(), 0);
+		assertEquals(0, cloudlet.getCloudletFinishedSoFar());
+		assertNull(cloudlet.getResourceById(7));
+
+		cloudlet.setCloudletStatus(Cloudlet.CloudletStatus.INEXEC);
+
+		String newline = System.getProperty("line.separator");
+		String history = cloudlet.getCloudletHistory();
+		assertTrue(history.startsWith("Time below denotes the simulation time." + newline));
+		assertTrue(history.contains("0.00   Creates Cloudlet ID #0" + newline));
+		assertTrue(history.contains("0.00   Sets the length's finished so far to 100" + newline));
+		// the history keeps its text, which reads the resource and the status once updated
+		assertTrue(history.contains("0.00   Moves Cloudlet from null (ID #5) to null (ID #5) with cost = $4.0/sec" + newline));
+		assertTrue(history.contains("0.00   Sets Cloudlet status from INEXEC to INEXEC" + newline));
+	}
+
+	@Test
+	public void testRequiredFiles() {
+		assertFalse(cloudlet.requiresFiles());
+		cloudlet.getRequiredFiles().add("file1");
+		assertTrue(cloudlet.requiresFiles());
+		cloudlet.addRequiredFile("file2");
+		assertEquals(List.of("file1", "file2"), cloudlet.getRequiredFiles());
+		assertTrue(cloudlet.deleteRequiredFile("file1"));
+		assertEquals(List.of("file2"), cloudlet.getRequiredFiles());
+	}
+
+	@Test
+	public void testFootprint() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threadBean.isThreadAllocatedMemoryEnabled());
+
+		// Measured with compressed references: 296 bytes per cloudlet with a list of
+		// resources, a list of required files and a UID created by the constructor,
+		// 152 bytes with the resource inline and the rest created when needed.
+		UtilizationModel utilizationModel = UtilizationModelFull.INSTANCE;
+		Cloudlet[] cloudlets = new Cloudlet[10000];
+		long allocated = threadBean.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < cloudlets.length; i++) {
+			cloudlets[i] = new Cloudlet(i, CLOUDLET_LENGTH, PES_NUMBER, CLOUDLET_FILE_SIZE, CLOUDLET_OUTPUT_SIZE,
+					utilizationModel, utilizationModel, utilizationModel);
+		}
+		allocated = threadBean.getCurrentThreadAllocatedBytes() - allocated;
+		assertTrue(allocated / cloudlets.length <= 192, allocated / cloudlets.length + " bytes per cloudlet");
+	}
+
 }
@@ -0,0 +1,341 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.EX.DatacenterBrokerEX;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.WorkloadJob;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class DatacenterBrokerTest {
+
+	private static void createDatacenter(int hosts) throws Exception {
+		createDatacenter(hosts, new ArrayList<>());
+	}
+
+	/**
+	 * Creates a datacenter recording the times of the {@link CloudActionTags#VM_DATACENTER_EVENT}
+	 * events it processes.
+	 */
+	private static void createDatacenter(int hosts, List<Double> datacenterEvents) throws Exception {
+		List<Host> hostList = new ArrayList<>();
+		for (int id = 0; id < hosts; id++) {
+			List<Pe> peList = List.of(new Pe(0, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(id, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		new Datacenter("Datacenter_0", new DatacenterCharacteristics("x86", "Linux", "Xen", hostList, 10.0, 3.0,
+				0.05, 0.001, 0.0), new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0) {
+			@Override
+			public void processEvent(SimEvent ev) {
+				if (ev.getTag() == CloudActionTags.VM_DATACENTER_EVENT) {
+					datacenterEvents.add(CloudSim.clock());
+				}
+				super.processEvent(ev);
+			}
+		};
+	}
+
+	private static List<Cloudlet> createCloudlets(int userId, int count) {
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int id = 0; id < count; id++) {
+			UtilizationModel model = UtilizationModelFull.INSTANCE;
+			Cloudlet cloudlet = new Cloudlet(id, 10000 + 1000L * (id % 7), 1, 0, 0, model, model, model);
+			cloudlet.setUserId(userId);
+			cloudletList.add(cloudlet);
+		}
+		return cloudletList;
+	}
+
+	@Test
+	public void testPostponedCloudlets() throws Exception {
+		Log.disable();
+		try {
+			CloudSim.init(1, Calendar.getInstance(), false);
+			createDatacenter(3);
+
+			// the cloudlets bound to the second and third VMs wait for their creation
+			DatacenterBrokerEX broker = new DatacenterBrokerEX("Broker");
+			Vm vm0 = new Vm(0, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerSpaceShared());
+			Vm vm1 = new Vm(1, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerSpaceShared());
+			Vm vm2 = new Vm(2, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerSpaceShared());
+			broker.submitGuestList(List.of(vm0));
+			broker.createVmsAfter(List.of(vm1, vm2), 50);
+			broker.submitCloudletList(createCloudlets(broker.getId(), 9));
+			for (int id = 0; id < 9; id++) {
+				broker.bindCloudletToVm(id, id % 3);
+			}
+
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+
+			List<Cloudlet> received = broker.getCloudletReceivedList();
+			assertEquals(9, received.size());
+			for (Cloudlet cloudlet : received) {
+				assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+				assertEquals(cloudlet.getCloudletId() % 3, cloudlet.getGuestId());
+				if (cloudlet.getGuestId() != 0) {
+					assertTrue(cloudlet.getExecStartTime() >= 50);
+				}
+			}
+
+			// the postponed cloudlets are submitted in the order they were postponed, whatever their VM
+			List<Integer> postponed = broker.getCloudletSubmittedList().stream()
+					.filter(cloudlet -> cloudlet.getGuestId() != 0).map(Cloudlet::getCloudletId).toList();
+			assertEquals(List.of(1, 2, 4, 5, 7, 8), postponed);
+		} finally {
+			Log.enable();
+		}
+	}
+
+	private static List<Cloudlet> runCloudlets(boolean batches) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		createDatacenter(3);
+		// a broker overriding the processing of the return events, which must see every cloudlet
+		List<Cloudlet> returned = new ArrayList<>();
+		DatacenterBrokerEX broker = new DatacenterBrokerEX("Broker") {
+			@Override
+			protected void processCloudletReturn(SimEvent ev) {
+				assertEquals(CloudActionTags.CLOUDLET_RETURN, ev.getTag());
+				returned.add((Cloudlet) ev.getData());
+				super.processCloudletReturn(ev);
+			}
+		};
+		broker.setCloudletBatchSubmission(batches);
+		List<Vm> vmList = new ArrayList<>();
+		for (int id = 0; id < 3; id++) {
+			vmList.add(new Vm(id, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		broker.submitGuestList(vmList);
+		List<Cloudlet> cloudletList = createCloudlets(broker.getId(), 20);
+		broker.submitCloudletList(cloudletList, 5);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		assertEquals(20, broker.getCloudletReceivedList().size());
+		assertEquals(broker.getCloudletReceivedList(), returned);
+		return cloudletList;
+	}
+
+	@Test
+	public void testBatchSubmission() throws Exception {
+		Log.disable();
+		try {
+			List<Cloudlet> expected = runCloudlets(false);
+			List<Cloudlet> actual = runCloudlets(true);
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(Cloudlet.CloudletStatus.SUCCESS, actual.get(i).getStatus());
+				assertEquals(expected.get(i).getGuestId(), actual.get(i).getGuestId());
+				assertEquals(expected.get(i).getExecStartTime(), actual.get(i).getExecStartTime());
+				assertEquals(expected.get(i).getExecFinishTime(), actual.get(i).getExecFinishTime());
+			}
+		} finally {
+			Log.enable();
+		}
+	}
+
+	private static List<Double> runEqualCloudlets(boolean batches) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		List<Double> datacenterEvents = new ArrayList<>();
+		createDatacenter(6, datacenterEvents);
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		broker.setCloudletBatchSubmission(batches);
+		List<Vm> vmList = new ArrayList<>();
+		for (int id = 0; id < 6; id++) {
+			vmList.add(new Vm(id, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		broker.submitGuestList(vmList);
+		// one cloudlet per VM, all expected to finish at the same time
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int id = 0; id < 6; id++) {
+			UtilizationModel model = UtilizationModelFull.INSTANCE;
+			Cloudlet cloudlet = new Cloudlet(id, 10000, 1, 0, 0, model, model, model);
+			cloudlet.setUserId(broker.getId());
+			cloudletList.add(cloudlet);
+		}
+		broker.submitCloudletList(cloudletList);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		assertEquals(6, broker.getCloudletReceivedList().size());
+		for (Cloudlet cloudlet : cloudletList) {
+			assertEquals(cloudletList.getFirst().getExecFinishTime(), cloudlet.getExecFinishTime());
+		}
+		return datacenterEvents;
+	}
+
+	@Test
+	public void testBatchSchedulesOneEventPerFinishTime() throws Exception {
+		Log.disable();
+		try {
+			List<Double> expected = runEqualCloudlets(false);
+			List<Double> actual = runEqualCloudlets(true);
+			// the datacenter is updated at the same times, but only once at each time
+			assertEquals(expected.stream().distinct().toList(), actual);
+			assertTrue(expected.size() > actual.size());
+		} finally {
+			Log.enable();
+		}
+	}
+
+	@Test
+	public void testOnlyBatchedCloudletsReturnedInBatches() throws Exception {
+		Log.disable();
+		try {
+			CloudSim.init(1, Calendar.getInstance(), false);
+			createDatacenter(3);
+			List<Integer> returnedAlone = new ArrayList<>();
+			List<Integer> returnedInBatches = new ArrayList<>();
+			DatacenterBrokerEX broker = new DatacenterBrokerEX("Broker") {
+				@Override
+				public void processEvent(SimEvent ev) {
+					if (ev.getTag() == CloudActionTags.CLOUDLET_RETURN) {
+						returnedAlone.add(((Cloudlet) ev.getData()).getCloudletId());
+					} else if (ev.getTag() == CloudActionTags.CLOUDLET_RETURN_BATCH) {
+						for (Cloudlet cloudlet : (Cloudlet[]) ev.getData()) {
+							returnedInBatches.add(cloudlet.getCloudletId());
+						}
+					}
+					super.processEvent(ev);
+				}
+
+				@Override
+				protected void submitCloudlets() {
+					super.submitCloudlets();
+					// only the first cloudlets are submitted in a batch
+					setCloudletBatchSubmission(false);
+				}
+			};
+			broker.setCloudletBatchSubmission(true);
+			List<Vm> vmList = new ArrayList<>();
+			for (int id = 0; id < 3; id++) {
+				vmList.add(new Vm(id, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+			}
+			broker.submitGuestList(vmList);
+			List<Cloudlet> cloudletList = createCloudlets(broker.getId(), 6);
+			broker.submitCloudletList(cloudletList.subList(0, 3));
+			// submitted one by one while the batch is still running
+			broker.submitCloudletList(new ArrayList<>(cloudletList.subList(3, 6)), 5);
+
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+			assertEquals(List.of(0, 1, 2), returnedInBatches.stream().sorted().toList());
+			assertEquals(List.of(3, 4, 5), returnedAlone.stream().sorted().toList());
+		} finally {
+			Log.enable();
+		}
+	}
+
+	/**
+	 * Runs a workload whose jobs are submitted at different times, some of them at once.
+	 *
+	 * @param taken the times at which the broker took each job from the workload
+	 * @return the broker
+	 */
+	private static DatacenterBroker runWorkload(List<WorkloadJob> jobs, boolean retainCloudlets, List<Double> taken)
+			throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		createDatacenter(2);
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		broker.setRetainCloudlets(retainCloudlets);
+		List<Vm> vmList = new ArrayList<>();
+		for (int id = 0; id < 2; id++) {
+			vmList.add(new Vm(id, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		broker.submitGuestList(vmList);
+		Iterator<WorkloadJob> iterator = jobs.iterator();
+		broker.submitWorkload(new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public WorkloadJob next() {
+				taken.add(CloudSim.clock());
+				return iterator.next();
+			}
+		});
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		return broker;
+	}
+
+	private static List<WorkloadJob> createJobs() {
+		long[] submitTimes = { 10, 10, 15, 40, 40, 40, 100, 500 };
+		List<WorkloadJob> jobs = new ArrayList<>();
+		List<Cloudlet> cloudlets = createCloudlets(-1, submitTimes.length);
+		for (int i = 0; i < submitTimes.length; i++) {
+			jobs.add(new WorkloadJob(submitTimes[i], cloudlets.get(i)));
+		}
+		return jobs;
+	}
+
+	@Test
+	public void testSubmitWorkload() throws Exception {
+		Log.disable();
+		try {
+			List<WorkloadJob> jobs = createJobs();
+			List<Double> taken = new ArrayList<>();
+			DatacenterBroker broker = runWorkload(jobs, true, taken);
+
+			assertEquals(jobs.size(), broker.getCloudletSubmittedList().size());
+			assertEquals(jobs.size(), broker.getCloudletReceivedList().size());
+			for (int i = 0; i < jobs.size(); i++) {
+				WorkloadJob job = jobs.get(i);
+				// a job is only taken once the previous one has arrived
+				assertTrue(taken.get(i) <= job.submitTime());
+				if (i > 0) {
+					assertEquals(jobs.get(i - 1).submitTime(), taken.get(i));
+				}
+				assertEquals(broker.getId(), job.cloudlet().getUserId());
+				assertEquals(Cloudlet.CloudletStatus.SUCCESS, job.cloudlet().getStatus());
+				assertEquals(job.submitTime(), job.cloudlet().getSubmissionTime());
+			}
+		} finally {
+			Log.enable();
+		}
+	}
+
+	@Test
+	public void testNotRetainingCloudlets() throws Exception {
+		Log.disable();
+		try {
+			List<WorkloadJob> jobs = createJobs();
+			DatacenterBroker broker = runWorkload(jobs, false, new ArrayList<>());
+
+			assertTrue(broker.getCloudletSubmittedList().isEmpty());
+			assertTrue(broker.getCloudletReceivedList().isEmpty());
+			for (WorkloadJob job : jobs) {
+				assertEquals(Cloudlet.CloudletStatus.SUCCESS, job.cloudlet().getStatus());
+			}
+		} finally {
+			Log.enable();
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.WorkloadJob;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the results of a simulation whose hosts are updated incrementally or in parallel with
+ * the ones of a sequential full sweep of the hosts.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class DatacenterTest {
+
+	/**
+	 * Runs random jobs arriving over time on VMs spread over more hosts than VMs, so that most
+	 * hosts are idle at any time.
+	 *
+	 * @param pool the pool updating the hosts in parallel, or null to update them sequentially
+	 * @return the cloudlets in the order they were received, then the time the simulation ended
+	 */
+	private static List<String> runSimulation(long seed, boolean incrementalHostUpdates, ForkJoinPool pool)
+			throws Exception {
+		return new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, Calendar.getInstance(), false);
+			Random gen = new Random(seed);
+
+			List<Host> hostList = new ArrayList<>();
+			for (int id = 0; id < 40; id++) {
+				List<Pe> peList = List.of(new Pe(0, new PeProvisionerSimple(1000)), new Pe(1, new PeProvisionerSimple(1000)));
+				hostList.add(new Host(id, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000), 1000000,
+						peList, new VmSchedulerTimeShared(peList)));
+			}
+			Datacenter datacenter = new Datacenter("Datacenter_0", new DatacenterCharacteristics("x86", "Linux", "Xen",
+					hostList, 10.0, 3.0, 0.05, 0.001, 0.0), new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+			datacenter.setIncrementalHostUpdates(incrementalHostUpdates);
+			datacenter.setParallelHostUpdates(pool);
+
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+			List<Vm> vmList = new ArrayList<>();
+			for (int id = 0; id < 24; id++) {
+				CloudletScheduler scheduler = id % 3 == 0 ? new CloudletSchedulerSpaceShared()
+						: new CloudletSchedulerTimeShared();
+				vmList.add(new Vm(id, broker.getId(), 250 * (1 + id % 4), 1, 512, 1000, 10000, "Xen", scheduler));
+			}
+			broker.submitGuestList(vmList);
+
+			// jobs arriving in bursts, some of them at the same time, on random VMs
+			List<WorkloadJob> jobs = new ArrayList<>();
+			long submitTime = 0;
+			for (int id = 0; id < 300; id++) {
+				submitTime += gen.nextInt(4) == 0 ? 0 : gen.nextInt(id % 50 < 40 ? 20 : 400);
+				Cloudlet cloudlet = new Cloudlet(id, 1000 + gen.nextInt(40000), 1, 300, 300,
+						UtilizationModelFull.INSTANCE, UtilizationModelFull.INSTANCE, UtilizationModelFull.INSTANCE);
+				cloudlet.setGuestId(gen.nextInt(vmList.size()));
+				jobs.add(new WorkloadJob(submitTime, cloudlet));
+			}
+			broker.submitWorkload(jobs.iterator());
+
+			double clock = CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+			assertEquals(jobs.size(), broker.getCloudletReceivedList().size());
+			List<String> results = new ArrayList<>();
+			for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+				results.add(cloudlet.getCloudletId() + " " + cloudlet.getGuestId() + " " + cloudlet.getStatus() + " "
+						+ cloudlet.getExecStartTime() + " " + cloudlet.getExecFinishTime() + " " + cloudlet.getActualCPUTime());
+			}
+			results.add(String.valueOf(clock));
+			return results;
+		});
+	}
+
+	@Test
+	public void testIncrementalHostUpdatesCompared() throws Exception {
+		for (long seed = 0; seed < 3; seed++) {
+			List<String> expected = runSimulation(seed, false, null);
+			assertTrue(expected.size() > 300);
+			assertEquals(expected, runSimulation(seed, true, null));
+		}
+	}
+
+	@Test
+	public void testParallelHostUpdatesCompared() throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (long seed = 0; seed < 3; seed++) {
+				List<String> expected = runSimulation(seed, false, null);
+				assertEquals(expected, runSimulation(seed, false, pool));
+				assertEquals(expected, runSimulation(seed, true, pool));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
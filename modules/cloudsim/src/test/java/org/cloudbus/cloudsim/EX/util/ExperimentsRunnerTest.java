@@ -0,0 +1,267 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.EX.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.NetworkTopology;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.SharedInputCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests running experiments in process and sharing their inputs.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class ExperimentsRunnerTest {
+
+    private static final String TRACE = "146-179_surfsnel_dsl_internl_net_colostate_557.dat";
+
+    private static final String TOPOLOGY = String.join("\n",
+            "Topology: ( 4 Nodes, 4 Edges )",
+            "Model (1 - RTWaxman):  4 5 5 1  2  0.15 0.2 1 1 10.0 1024.0",
+            "",
+            "Nodes: ( 4 )",
+            "0\t1\t3\t3\t3\t-1\tRT_NODE",
+            "1\t0\t3\t3\t3\t-1\tRT_NODE",
+            "2\t4\t3\t3\t3\t-1\tRT_NODE",
+            "3\t3\t1\t3\t3\t-1\tRT_NODE",
+            "",
+            "",
+            "Edges: ( 4 )",
+            "0\t0\t1\t3.0\t1.5\t10.0\t-1\t-1\tE_RT\tU",
+            "1\t1\t2\t4.0\t2.5\t10.0\t-1\t-1\tE_RT\tU",
+            "2\t2\t3\t2.8\t3.5\t10.0\t-1\t-1\tE_RT\tU",
+            "3\t0\t3\t3.6\t9.0\t10.0\t-1\t-1\tE_RT\tU",
+            "");
+
+    /**
+     * Runs a simulation whose cloudlets follow a PlanetLab trace, and reads
+     * the delays of a BRITE topology to which a link may be added. The
+     * arguments are the number of cloudlets, the trace, the topology file and
+     * whether to add a link.
+     */
+    public static class SimulationExperiment implements Experiment {
+
+        @Override
+        public Object run(String[] args) throws Exception {
+            Log.disable();
+            int cloudlets = Integer.parseInt(args[0]);
+            List<Object> results = new ArrayList<>();
+
+            NetworkTopology.buildNetworkTopology(args[2]);
+            for (int node = 0; node < 4; node++) {
+                NetworkTopology.mapNode(100 + node, node);
+            }
+            if (Boolean.parseBoolean(args[3])) {
+                NetworkTopology.addLink(100, 102, 10, 0.5);
+            }
+            results.add(NetworkTopology.getDelay(100, 102));
+            results.add(NetworkTopology.getDelay(101, 103));
+
+            CloudSim.init(1, Calendar.getInstance(), false);
+            List<Host> hostList = new ArrayList<>();
+            for (int id = 0; id < 2; id++) {
+                List<Pe> peList = List.of(new Pe(0, new PeProvisionerSimple(1000)));
+                hostList.add(new Host(id, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000), 1000000,
+                        peList, new VmSchedulerTimeShared(peList)));
+            }
+            new Datacenter("Datacenter_0", new DatacenterCharacteristics("x86", "Linux", "Xen", hostList, 10.0, 3.0,
+                    0.05, 0.001, 0.0), new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+
+            DatacenterBroker broker = new DatacenterBroker("Broker");
+            List<Vm> vmList = new ArrayList<>();
+            for (int id = 0; id < 3; id++) {
+                vmList.add(new Vm(id, broker.getId(), 500, 1, 512, 1000, 10000, "Xen",
+                        new CloudletSchedulerTimeShared()));
+            }
+            broker.submitGuestList(vmList);
+            UtilizationModel trace = new UtilizationModelPlanetLabInMemory(args[1], 300);
+            List<Cloudlet> cloudletList = new ArrayList<>();
+            for (int id = 0; id < cloudlets; id++) {
+                Cloudlet cloudlet = new Cloudlet(id, 1000 + 250L * (id % 5), 1, 300, 300, trace,
+                        UtilizationModelFull.INSTANCE, UtilizationModelFull.INSTANCE);
+                cloudlet.setUserId(broker.getId());
+                cloudletList.add(cloudlet);
+            }
+            broker.submitCloudletList(cloudletList);
+
+            results.add(CloudSim.startSimulation());
+            CloudSim.stopSimulation();
+            for (Cloudlet cloudlet : cloudletList) {
+                results.add(cloudlet.getExecFinishTime());
+            }
+            return results;
+        }
+    }
+
+    /**
+     * An experiment that fails.
+     */
+    public static class FailingExperiment implements Experiment {
+
+        @Override
+        public Object run(String[] args) throws Exception {
+            throw new IllegalStateException(args[0]);
+        }
+    }
+
+    private String tracePath;
+
+    private Path topologyPath;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tracePath = getClass().getClassLoader().getResource(TRACE).getPath();
+        topologyPath = dir.resolve("topology.brite");
+        Files.writeString(topologyPath, TOPOLOGY);
+        SharedInputCache.setEnabled(false);
+        SharedInputCache.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SharedInputCache.setEnabled(false);
+        SharedInputCache.clear();
+    }
+
+    private List<ExperimentDefinition> definitions() {
+        List<ExperimentDefinition> defs = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            // the experiments adding a link must not change the topology read by the others
+            defs.add(new ExperimentDefinition(SimulationExperiment.class, 1, 1, String.valueOf(5 + 3 * i), tracePath,
+                    topologyPath.toString(), String.valueOf(i % 3 == 0)));
+        }
+        return defs;
+    }
+
+    @Test
+    public void testRunExperimentsInProcess() throws Exception {
+        List<ExperimentDefinition> defs = definitions();
+        List<Object> expected = new ArrayList<>();
+        for (ExperimentDefinition def : defs) {
+            expected.add(new SimulationContext().call(() -> new SimulationExperiment().run(def.getArguements())));
+        }
+        assertEquals(0, SharedInputCache.size());
+
+        ExperimentsReport report = ExperimentsRunner.runExperimentsInProcess(defs, 0);
+        assertEquals(0, report.getNumberOfFailures());
+        assertEquals(defs.size(), report.getResults().size());
+        for (int i = 0; i < defs.size(); i++) {
+            ExperimentResult result = report.getResults().get(i);
+            assertSame(defs.get(i), result.getDefinition());
+            assertTrue(result.isSuccessful());
+            assertEquals(expected.get(i), result.getResult());
+        }
+
+        // the cache was only enabled during the run
+        assertFalse(SharedInputCache.isEnabled());
+        assertEquals(0, SharedInputCache.size());
+    }
+
+    @Test
+    public void testFailedExperiment() throws Exception {
+        List<ExperimentDefinition> defs = definitions().subList(0, 2);
+        defs = new ArrayList<>(defs);
+        defs.add(1, new ExperimentDefinition(FailingExperiment.class, 1, 1, "failure"));
+
+        ExperimentsReport report = ExperimentsRunner.runExperimentsInProcess(defs, 0);
+        assertEquals(1, report.getNumberOfFailures());
+        assertTrue(report.getResults().get(0).isSuccessful());
+        assertTrue(report.getResults().get(2).isSuccessful());
+        ExperimentResult failed = report.getResults().get(1);
+        assertFalse(failed.isSuccessful());
+        assertTrue(failed.getError() instanceof IllegalStateException);
+        assertEquals("failure", failed.getError().getMessage());
+    }
+
+    private static List<Double> readDelays() {
+        List<Double> delays = new ArrayList<>();
+        for (int node = 0; node < 4; node++) {
+            NetworkTopology.mapNode(100 + node, node);
+        }
+        delays.add(NetworkTopology.getDelay(100, 102));
+        delays.add(NetworkTopology.getDelay(101, 103));
+        return delays;
+    }
+
+    @Test
+    public void testSharedInputCache() throws Exception {
+        List<Double> expected = new SimulationContext().call(() -> {
+            Log.disable();
+            NetworkTopology.buildNetworkTopology(topologyPath.toString());
+            return readDelays();
+        });
+        double[] data = new UtilizationModelPlanetLabInMemory(tracePath, 300).getData();
+        assertNotSame(data, new UtilizationModelPlanetLabInMemory(tracePath, 300).getData());
+
+        SharedInputCache.setEnabled(true);
+        double[] shared = new UtilizationModelPlanetLabInMemory(tracePath, 300).getData();
+        assertSame(shared, new UtilizationModelPlanetLabInMemory(tracePath, 300).getData());
+        assertNotSame(shared, new UtilizationModelPlanetLabInMemory(tracePath, 300, 100).getData());
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], shared[i]);
+        }
+
+        // a simulation adding a link to a shared topology does not change it for the others
+        SimulationContext first = new SimulationContext();
+        SimulationContext second = new SimulationContext();
+        for (SimulationContext context : List.of(first, second)) {
+            context.execute(() -> {
+                Log.disable();
+                NetworkTopology.buildNetworkTopology(topologyPath.toString());
+            });
+        }
+        assertEquals(3, SharedInputCache.size());
+        first.execute(() -> {
+            assertEquals(expected, readDelays());
+            NetworkTopology.addLink(100, 102, 10, 0.5);
+            assertTrue(NetworkTopology.getDelay(100, 102) < expected.get(0));
+        });
+        second.execute(() -> assertEquals(expected, readDelays()));
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.network.DelayMatrix;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the delays updated incrementally when links are added with the ones generated from scratch.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class NetworkTopologyTest {
+
+	private static final int NODES = 60;
+
+	private static final int LINKS = 150;
+
+	/**
+	 * Adds random links between entities 0 to {@link #NODES} - 1, in batch or one at a time.
+	 *
+	 * @param exact whether the delays are multiples of 0.25, whose sums are exact
+	 * @return the delays between all pairs of entities
+	 */
+	private static double[][] buildTopology(long seed, boolean exact, boolean batchBuild) throws Exception {
+		return new SimulationContext().call(() -> {
+			Random gen = new Random(seed);
+			NetworkTopology.setBatchBuild(batchBuild);
+			DelayMatrix delayMatrix = null;
+			for (int i = 0; i < LINKS; i++) {
+				int src = i < NODES - 1 ? i : gen.nextInt(NODES);
+				int dest = i < NODES - 1 ? i + 1 : gen.nextInt(NODES);
+				double lat = exact ? 0.25 * (1 + gen.nextInt(40)) : 0.1 + 10 * gen.nextDouble();
+				NetworkTopology.addLink(src, dest, 1000, lat);
+
+				NetworkTopology.Topology topology = NetworkTopology.topology();
+				assertEquals(batchBuild, topology.matricesOutdated);
+				if (!batchBuild) {
+					// the matrix created with the first link is then updated in place
+					if (i > 0) {
+						assertSame(delayMatrix, topology.delayMatrix);
+					}
+					delayMatrix = topology.delayMatrix;
+					if (i % 10 == 0) {
+						assertTrue(NetworkTopology.getDelay(src, dest) <= (float) lat);
+					}
+				}
+			}
+
+			double[][] delays = new double[NODES][NODES];
+			for (int src = 0; src < NODES; src++) {
+				for (int dest = 0; dest < NODES; dest++) {
+					delays[src][dest] = NetworkTopology.getDelay(src, dest);
+				}
+			}
+			assertFalse(NetworkTopology.topology().matricesOutdated);
+			return delays;
+		});
+	}
+
+	@Test
+	public void testExactDelaysCompared() throws Exception {
+		for (long seed = 0; seed < 5; seed++) {
+			double[][] expected = buildTopology(seed, true, true);
+			double[][] actual = buildTopology(seed, true, false);
+			for (int src = 0; src < NODES; src++) {
+				for (int dest = 0; dest < NODES; dest++) {
+					assertEquals(expected[src][dest], actual[src][dest]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDelaysCompared() throws Exception {
+		for (long seed = 0; seed < 5; seed++) {
+			double[][] expected = buildTopology(seed, false, true);
+			double[][] actual = buildTopology(seed, false, false);
+			for (int src = 0; src < NODES; src++) {
+				for (int dest = 0; dest < NODES; dest++) {
+					// the sums along a path may be rounded differently
+					assertEquals(expected[src][dest], actual[src][dest], expected[src][dest] * 1e-5);
+				}
+			}
+		}
+	}
+
+}
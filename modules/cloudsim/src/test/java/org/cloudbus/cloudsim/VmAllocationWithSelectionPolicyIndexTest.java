@@ -0,0 +1,122 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyLeastFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyWorstFit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that selecting the hosts through the host capacity index selects the same hosts as
+ * scanning them.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class VmAllocationWithSelectionPolicyIndexTest {
+
+	private static final int HOSTS = 37;
+
+	@Test
+	public void testLeastFull() {
+		checkRandomPlacements(SelectionPolicyLeastFull::new, 1);
+	}
+
+	@Test
+	public void testMostFull() {
+		checkRandomPlacements(SelectionPolicyMostFull::new, 2);
+	}
+
+	@Test
+	public void testFirstFit() {
+		checkRandomPlacements(SelectionPolicyFirstFit::new, 3);
+	}
+
+	@Test
+	public void testWorstFit() {
+		checkRandomPlacements(SelectionPolicyWorstFit::new, 4);
+	}
+
+	@Test
+	public void testUnrankedPolicy() {
+		VmAllocationWithSelectionPolicy policy = new VmAllocationWithSelectionPolicy(createHosts(),
+				(candidates, obj, excluded) -> null);
+		assertThrows(UnsupportedOperationException.class, () -> policy.setCapacityIndexed(true));
+	}
+
+	private static List<Host> createHosts() {
+		List<Host> hosts = new ArrayList<>();
+		for (int id = 0; id < HOSTS; id++) {
+			List<Pe> peList = new ArrayList<>();
+			for (int pe = 0; pe < 1 + id % 4; pe++) {
+				peList.add(new Pe(pe, new PeProvisionerSimple(1000 + 500 * (id % 3))));
+			}
+			hosts.add(new Host(id, new RamProvisionerSimple(2048 * (1 + id % 5)), new BwProvisionerSimple(10000),
+					1000000, peList, new VmSchedulerTimeShared(peList)));
+		}
+		return hosts;
+	}
+
+	private static void checkRandomPlacements(Supplier<SelectionPolicy<HostEntity>> policyFactory, long seed) {
+		Random random = new Random(seed);
+		List<Host> scannedHosts = createHosts();
+		List<Host> indexedHosts = createHosts();
+		VmAllocationWithSelectionPolicy scanned = new VmAllocationWithSelectionPolicy(scannedHosts, policyFactory.get());
+		VmAllocationWithSelectionPolicy indexed = new VmAllocationWithSelectionPolicy(indexedHosts, policyFactory.get());
+		indexed.setCapacityIndexed(true);
+		List<Vm> scannedVms = new ArrayList<>();
+		List<Vm> indexedVms = new ArrayList<>();
+
+		for (int i = 0; i < 3000; i++) {
+			if (scannedVms.isEmpty() || random.nextInt(10) < 6) {
+				double mips = 250 * (1 + random.nextInt(8));
+				int pes = 1 + random.nextInt(3);
+				int ram = 256 * (1 + random.nextInt(8));
+				long bw = 500 * (1 + random.nextInt(4));
+				Vm scannedVm = new Vm(i, 0, mips, pes, ram, bw, 1000, "", null);
+				Vm indexedVm = new Vm(i, 0, mips, pes, ram, bw, 1000, "", null);
+				HostEntity scannedHost = scanned.findHostForGuest(scannedVm);
+				HostEntity indexedHost = indexed.findHostForGuest(indexedVm);
+				assertEquals(scannedHost == null ? -1 : scannedHost.getId(), indexedHost == null ? -1 : indexedHost.getId());
+				if (scannedHost != null) {
+					assertNotNull(indexedHost);
+					scannedHost.guestCreate(scannedVm);
+					indexedHost.guestCreate(indexedVm);
+					indexed.hostsUpdated(List.of(indexedHost));
+					scannedVms.add(scannedVm);
+					indexedVms.add(indexedVm);
+				}
+			} else {
+				int vm = random.nextInt(scannedVms.size());
+				Vm scannedVm = scannedVms.remove(vm);
+				Vm indexedVm = indexedVms.remove(vm);
+				HostEntity indexedHost = indexedVm.getHost();
+				scannedVm.getHost().guestDestroy(scannedVm);
+				indexedHost.guestDestroy(indexedVm);
+				indexed.hostsUpdated(List.of(indexedHost));
+			}
+		}
+	}
+
+}
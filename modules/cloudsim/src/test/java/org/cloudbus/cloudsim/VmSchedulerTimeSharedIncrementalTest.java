@@ -0,0 +1,141 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.cloudbus.cloudsim.provisioners.PeProvisioner;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.util.GuestKeyMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Checks that the incremental PE provisioning of the time-shared VM schedulers provisions the
+ * PEs as spreading all the VMs again.
+ * <p>
+ * The VMs are spread in the order of the allocated MIPS map, which is now their allocation
+ * order. The map used to be a {@code HashMap} keyed by the VM uids, so the VMs were spread in
+ * the hash order of their uids, and a VM may now be placed on other PEs than before. The full
+ * spread below follows the new order, so it checks the incremental provisioning, not the order.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class VmSchedulerTimeSharedIncrementalTest {
+
+	private static final double MIPS = 1000;
+
+	private static final int PES = 8;
+
+	@Test
+	public void testTimeSharedMatchesFullSpread() {
+		checkRandomOperations(VmSchedulerTimeShared::new, 3);
+	}
+
+	@Test
+	public void testOverSubscriptionMatchesFullSpread() {
+		checkRandomOperations(VmSchedulerTimeSharedOverSubscription::new, 5);
+	}
+
+	private static List<Pe> createPeList() {
+		List<Pe> peList = new ArrayList<>();
+		for (int i = 0; i < PES; i++) {
+			peList.add(new Pe(i, new PeProvisionerSimple(MIPS)));
+		}
+		return peList;
+	}
+
+	private static void checkRandomOperations(Function<List<Pe>, VmSchedulerTimeShared> factory, long seed) {
+		Random random = new Random(seed);
+		List<Pe> peList = createPeList();
+		VmSchedulerTimeShared vmScheduler = factory.apply(peList);
+		List<Vm> vms = new ArrayList<>();
+		for (int id = 0; id < 16; id++) {
+			vms.add(new Vm(id, id % 3, MIPS, 1 + random.nextInt(3), 0, 0, 0, "", null));
+		}
+
+		for (int i = 0; i < 5000; i++) {
+			Vm vm = vms.get(random.nextInt(vms.size()));
+			int op = random.nextInt(10);
+			if (op < 6) {
+				List<Double> mipsShare = new ArrayList<>();
+				for (int pe = 0; pe < vm.getNumberOfPes(); pe++) {
+					mipsShare.add(random.nextInt(4) == 0 ? 0.05 : random.nextInt(1000) + random.nextInt(4) / 4.0);
+				}
+				vm.setInMigration(random.nextInt(5) == 0);
+				vmScheduler.allocatePesForGuest(vm, mipsShare);
+			} else if (op < 9) {
+				vmScheduler.deallocatePesForGuest(vm);
+			} else if (random.nextInt(10) == 0) {
+				vmScheduler.deallocatePesForAllGuests();
+			}
+			assertSameAsFullSpread(vmScheduler, peList, vms);
+		}
+	}
+
+	/**
+	 * Spreads all the allocated MIPS of a scheduler among fresh PEs, as done before the provisioning
+	 * was incremental, and compares the result with the PEs of the scheduler.
+	 */
+	private static void assertSameAsFullSpread(VmScheduler vmScheduler, List<Pe> peList, List<Vm> vms) {
+		List<Pe> expectedPeList = createPeList();
+		GuestKeyMap<List<Pe>> expectedPeMap = new GuestKeyMap<>();
+		Iterator<Pe> peIterator = expectedPeList.iterator();
+		Pe pe = peIterator.next();
+		PeProvisioner peProvisioner = pe.getPeProvisioner();
+		double availableMips = peProvisioner.getAvailableMips();
+
+		for (GuestKeyMap.Entry<List<Double>> entry : vmScheduler.getMipsMapAllocated().entries()) {
+			long guestKey = entry.getGuestKey();
+			List<Pe> guestPes = new ArrayList<>();
+			expectedPeMap.put(guestKey, guestPes);
+			for (double mips : entry.getValue()) {
+				while (mips >= 0.1) {
+					if (availableMips >= mips) {
+						peProvisioner.allocateMipsForGuest(guestKey, mips);
+						guestPes.add(pe);
+						availableMips -= mips;
+						break;
+					} else {
+						peProvisioner.allocateMipsForGuest(guestKey, availableMips);
+						guestPes.add(pe);
+						mips -= availableMips;
+						if (mips <= 0.1) {
+							break;
+						}
+						pe = peIterator.next();
+						peProvisioner = pe.getPeProvisioner();
+						availableMips = peProvisioner.getAvailableMips();
+					}
+				}
+			}
+		}
+
+		// releasing all the PEs leaves the PE map as it is until the next update
+		for (GuestKeyMap.Entry<List<Pe>> entry : expectedPeMap.entries()) {
+			List<Pe> actualPes = vmScheduler.getPeMap().get(entry.getGuestKey());
+			assertNotNull(actualPes);
+			assertEquals(entry.getValue().stream().map(Pe::getId).toList(), actualPes.stream().map(Pe::getId).toList());
+		}
+		for (int i = 0; i < PES; i++) {
+			PeProvisioner expected = expectedPeList.get(i).getPeProvisioner();
+			PeProvisioner actual = peList.get(i).getPeProvisioner();
+			assertEquals(expected.getAvailableMips(), actual.getAvailableMips(), 0);
+			for (Vm vm : vms) {
+				assertEquals(expected.getAllocatedMipsForGuest(vm), actual.getAllocatedMipsForGuest(vm));
+			}
+		}
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the {@link CalendarEventQueue} with the binary heap of the {@link EventQueue}.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class CalendarEventQueueTest {
+
+	/**
+	 * Runs a task in a new context in which the simulation is running, since the future event
+	 * lists only return events while it is.
+	 */
+	private static void whileRunning(Runnable task) {
+		new SimulationContext().execute(() -> {
+			Log.disable();
+			CloudSim.init(0, null, false);
+			CloudSim.runStart();
+			task.run();
+		});
+	}
+
+	private static SimEvent event(double time, int data) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, CloudActionTags.BLANK, data);
+	}
+
+	private static void add(FutureEventList expected, FutureEventList actual, double time, int data, boolean first) {
+		if (first) {
+			expected.addEventFirst(event(time, data));
+			actual.addEventFirst(event(time, data));
+		} else {
+			expected.addEvent(event(time, data));
+			actual.addEvent(event(time, data));
+		}
+	}
+
+	private static SimEvent pollCompared(FutureEventList expected, FutureEventList actual) {
+		assertEquals(expected.size(), actual.size());
+		SimEvent next = expected.peek();
+		assertEquals(next == null ? null : next.getData(), actual.peek() == null ? null : actual.peek().getData());
+		SimEvent ev = expected.poll();
+		SimEvent actualEv = actual.poll();
+		if (ev == null) {
+			assertNull(actualEv);
+		} else {
+			assertEquals(ev.eventTime(), actualEv.eventTime());
+			assertEquals(ev.getData(), actualEv.getData());
+		}
+		return ev;
+	}
+
+	@Test
+	public void testOrderCompared() {
+		whileRunning(() -> {
+			Random gen = new Random(1);
+			FutureEventList expected = new EventQueue();
+			FutureEventList actual = new CalendarEventQueue();
+			Set<Double> firstTimes = new HashSet<>();
+			double clock = 0;
+			int data = 0;
+			for (int i = 0; i < 100000; i++) {
+				int op = gen.nextInt(10);
+				if (op < 4 || expected.isEmpty()) {
+					// bursts of events sharing a few times, as the events sent with no delay
+					double time = clock + gen.nextInt(20) * 0.5;
+					if (gen.nextInt(50) == 0 && firstTimes.add(time)) {
+						add(expected, actual, time, data++, true);
+					} else {
+						add(expected, actual, time, data++, false);
+					}
+				} else if (op < 6) {
+					// spread and distant events, so that the calendar is resized
+					double time = clock + (gen.nextBoolean() ? gen.nextDouble() * 300 : gen.nextDouble() * 1e6);
+					add(expected, actual, time, data++, false);
+				} else {
+					clock = pollCompared(expected, actual).eventTime();
+				}
+			}
+			while (!expected.isEmpty()) {
+				pollCompared(expected, actual);
+			}
+			assertTrue(actual.isEmpty());
+			assertNull(actual.poll());
+		});
+	}
+
+	@Test
+	public void testRemoveCompared() {
+		whileRunning(() -> {
+			Random gen = new Random(2);
+			FutureEventList expected = new EventQueue();
+			CalendarEventQueue actual = new CalendarEventQueue();
+			int data = 0;
+			for (int round = 0; round < 20; round++) {
+				for (int i = 0; i < 1000; i++) {
+					add(expected, actual, round * 100 + gen.nextInt(200) * 0.25, data++, false);
+				}
+				// cancel some events as when the cancelled events are purged
+				int mod = 2 + round % 3;
+				Set<Object> removed = new HashSet<>();
+				int removedCount = 0;
+				for (Iterator<SimEvent> iter = expected.iterator(); iter.hasNext(); ) {
+					SimEvent ev = iter.next();
+					if ((int) ev.getData() % mod == 0) {
+						removed.add(ev.getData());
+						removedCount++;
+						iter.remove();
+					}
+				}
+				int count = 0;
+				for (Iterator<SimEvent> iter = actual.iterator(); iter.hasNext(); ) {
+					SimEvent ev = iter.next();
+					count++;
+					if ((int) ev.getData() % mod == 0) {
+						assertTrue(removed.remove(ev.getData()));
+						iter.remove();
+					}
+				}
+				assertTrue(removed.isEmpty());
+				assertEquals(expected.size() + removedCount, count);
+				for (int i = 0; i < 500; i++) {
+					pollCompared(expected, actual);
+				}
+			}
+			while (!expected.isEmpty()) {
+				pollCompared(expected, actual);
+			}
+			assertTrue(actual.isEmpty());
+		});
+	}
+
+	private static List<Cloudlet> runSimulation(FutureEventList futureEventList) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false, futureEventList);
+
+		List<Host> hostList = new ArrayList<>();
+		for (int id = 0; id < 2; id++) {
+			List<Pe> peList = List.of(new Pe(0, new PeProvisionerSimple(1000)), new Pe(1, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(id, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		new Datacenter("Datacenter_0", new DatacenterCharacteristics("x86", "Linux", "Xen", hostList, 10.0, 3.0,
+				0.05, 0.001, 0.0), new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		for (int id = 0; id < 4; id++) {
+			vmList.add(new Vm(id, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		broker.submitGuestList(vmList);
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int id = 0; id < 100; id++) {
+			Cloudlet cloudlet = new Cloudlet(id, 1000 + 137L * (id % 23), 1, 300, 300, UtilizationModelFull.INSTANCE,
+					UtilizationModelFull.INSTANCE, UtilizationModelFull.INSTANCE);
+			cloudlet.setUserId(broker.getId());
+			cloudletList.add(cloudlet);
+		}
+		broker.submitCloudletList(cloudletList);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		assertEquals(cloudletList.size(), broker.getCloudletReceivedList().size());
+		return cloudletList;
+	}
+
+	@Test
+	public void testSimulationCompared() throws Exception {
+		Log.disable();
+		try {
+			List<Cloudlet> expected = runSimulation(new EventQueue());
+			List<Cloudlet> actual = runSimulation(new CalendarEventQueue(0.1));
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).getGuestId(), actual.get(i).getGuestId());
+				assertEquals(expected.get(i).getExecStartTime(), actual.get(i).getExecStartTime());
+				assertEquals(expected.get(i).getExecFinishTime(), actual.get(i).getExecFinishTime());
+			}
+		} finally {
+			Log.enable();
+		}
+	}
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the event handling of the simulation loop.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudSimTest {
+
+	private static final CloudSimTags[] TAGS = { CloudActionTags.VM_DATACENTER_EVENT, CloudActionTags.CLOUDLET_SUBMIT,
+			CloudActionTags.CLOUDLET_RETURN, CloudActionTags.NETWORK_PKT_UP };
+
+	/** An entity recording the events it processes, in a log shared with the other entities. */
+	private static class Recorder extends SimEntity {
+		private final List<String> log;
+		private Consumer<Recorder> onStart = recorder -> {};
+		private Consumer<SimEvent> onEvent = ev -> {};
+
+		private Recorder(String name, List<String> log) {
+			super(name);
+			this.log = log;
+		}
+
+		@Override
+		public void startEntity() {
+			onStart.accept(this);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			log.add(CloudSim.clock() + " " + getName() + " " + ev.getTag() + " " + ev.getData());
+			onEvent.accept(ev);
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	private static Predicate tagPredicate(CloudSimTags... tags) {
+		// not a PredicateType, so that the whole future queue is scanned
+		List<CloudSimTags> tagList = List.of(tags);
+		return new Predicate() {
+			@Override
+			public boolean match(SimEvent event) {
+				return tagList.contains(event.getTag());
+			}
+		};
+	}
+
+	/**
+	 * Schedules random events and cancels some of them, with a {@link PredicateType} if indexed is true,
+	 * or with an equivalent predicate otherwise.
+	 */
+	private static List<String> runCancellations(boolean indexed) {
+		CloudSim.init(0, null, false);
+		List<String> log = new ArrayList<>();
+		Recorder r0 = new Recorder("R0", log);
+		Recorder r1 = new Recorder("R1", log);
+		r0.onStart = self -> {
+			Random gen = new Random(3);
+			for (int i = 0; i < 3000; i++) {
+				int dst = gen.nextBoolean() ? r0.getId() : r1.getId();
+				self.schedule(dst, gen.nextInt(100), TAGS[gen.nextInt(TAGS.length)], i);
+			}
+			self.schedule(self.getId(), 40, CloudActionTags.BLANK, "unique");
+			self.schedule(self.getId(), 50, CloudActionTags.BLANK);
+			// enough cancellations to purge the future queue
+			Predicate p = indexed ? new PredicateType(new CloudSimTags[] { TAGS[0], TAGS[1] }) : tagPredicate(TAGS[0], TAGS[1]);
+			assertTrue(CloudSim.cancelAll(self.getId(), p));
+			SimEvent cancelled = CloudSim.cancel(self.getId(), new PredicateType(CloudActionTags.BLANK));
+			assertNotNull(cancelled);
+			assertEquals("unique", cancelled.getData());
+		};
+		r0.onEvent = ev -> {
+			if (ev.getTag() == CloudActionTags.BLANK) {
+				Predicate p = indexed ? new PredicateType(TAGS[2]) : tagPredicate(TAGS[2]);
+				assertTrue(CloudSim.cancelAll(r0.getId(), p));
+				assertFalse(CloudSim.cancelAll(r0.getId(), p));
+				assertNull(CloudSim.cancel(r0.getId(), p));
+			}
+		};
+		CloudSim.startSimulation();
+		return log;
+	}
+
+	@Test
+	public void testCancelCompared() {
+		List<String> expected = runCancellations(false);
+		List<String> actual = runCancellations(true);
+		assertEquals(expected, actual);
+		assertTrue(actual.stream().noneMatch(line -> line.contains("unique")));
+		assertTrue(actual.stream().noneMatch(line -> line.contains(TAGS[0].toString())));
+		assertTrue(actual.stream().anyMatch(line -> line.contains(TAGS[2].toString())));
+	}
+
+	/**
+	 * Sends periodic events with {@link CloudSim#reschedule(int, int, double, CloudSimTags, Object)} if
+	 * rescheduled is true, or by cancelling them and sending them again otherwise.
+	 */
+	private static List<String> runReschedules(boolean rescheduled, List<Boolean> kept) {
+		CloudSim.init(0, null, false);
+		List<String> log = new ArrayList<>();
+		Recorder r0 = new Recorder("R0", log);
+		CloudSimTags tag = CloudActionTags.VM_DATACENTER_EVENT;
+		Consumer<Double> periodic = delay -> {
+			if (rescheduled) {
+				kept.add(CloudSim.reschedule(r0.getId(), r0.getId(), delay, tag, null));
+			} else {
+				CloudSim.cancelAll(r0.getId(), new PredicateType(tag));
+				CloudSim.send(r0.getId(), r0.getId(), delay, tag, null);
+			}
+		};
+		r0.onStart = self -> {
+			periodic.accept(10.0);
+			periodic.accept(10.0);
+			self.schedule(self.getId(), 10, CloudActionTags.BLANK, 1);
+			periodic.accept(10.0);
+			self.schedule(self.getId(), 10, CloudActionTags.BLANK, 2);
+			periodic.accept(20.0);
+			periodic.accept(20.0);
+			self.schedule(self.getId(), 20, CloudActionTags.BLANK, 3);
+		};
+		r0.onEvent = ev -> {
+			if (ev.getTag() == tag && CloudSim.clock() < 100) {
+				periodic.accept(30.0);
+				periodic.accept(30.0);
+			}
+		};
+		CloudSim.startSimulation();
+		return log;
+	}
+
+	@Test
+	public void testReschedule() {
+		List<String> expected = runReschedules(false, new ArrayList<>());
+		List<Boolean> kept = new ArrayList<>();
+		List<String> actual = runReschedules(true, kept);
+		assertEquals(expected, actual);
+		// an event is not kept once another one has been sent for the same time
+		assertEquals(List.of(false, true, false, false, true), kept.subList(0, 5));
+		assertEquals(List.of(false, true, false, true, false, true), kept.subList(5, kept.size()));
+		assertEquals(List.of("10.0 R0 BLANK 1", "10.0 R0 BLANK 2", "20.0 R0 VM_DATACENTER_EVENT null",
+				"20.0 R0 BLANK 3"), actual.subList(0, 4));
+	}
+
+	@Test
+	public void testEntityOrder() {
+		CloudSim.init(0, null, false);
+		List<String> log = new ArrayList<>();
+		Recorder a = new Recorder("A", log);
+		Recorder b = new Recorder("B", log);
+		a.onStart = self -> {
+			self.schedule(b.getId(), 10, CloudActionTags.BLANK, "b1");
+			self.schedule(a.getId(), 10, CloudActionTags.BLANK, "a1");
+			self.schedule(b.getId(), 12, CloudActionTags.BLANK, "b2");
+			self.schedule(a.getId(), 20, CloudActionTags.BLANK, "wake");
+			self.schedule(a.getId(), 30, CloudActionTags.BLANK, "a2");
+			self.schedule(a.getId(), 40, CloudActionTags.BLANK, "a3");
+			self.schedule(b.getId(), 50, CloudActionTags.BLANK, "b3");
+		};
+		a.onEvent = ev -> {
+			switch ((String) ev.getData()) {
+				// B has a higher id, so it runs in the same tick
+				case "wake" -> b.setState(SimEntity.EntityStatus.RUNNABLE);
+				case "a2" -> a.pause(100);
+				default -> {
+				}
+			}
+		};
+		b.onEvent = ev -> {
+			switch ((String) ev.getData()) {
+				case "b1" -> b.pause(100);
+				// A has a lower id, so it runs in the next tick
+				case "b3" -> a.setState(SimEntity.EntityStatus.RUNNABLE);
+				default -> {
+				}
+			}
+		};
+		CloudSim.startSimulation();
+
+		// the entities with events run in the order of their ids and the held ones wait, while an entity
+		// with a lower id made runnable meanwhile only runs at the next tick, once the clock has advanced
+		assertEquals(List.of("10.0 A BLANK a1", "10.0 B BLANK b1", "20.0 A BLANK wake", "20.0 B BLANK b2",
+				"30.0 A BLANK a2", "50.0 B BLANK b3", "110.0 A BLANK a3"), log);
+	}
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class SimulationContextTest {
+
+	/**
+	 * Runs a simulation in the current context, whose results depend on the given number of cloudlets.
+	 *
+	 * @return the finish time of each cloudlet, and the last clock
+	 */
+	private static List<Double> runSimulation(int cloudlets) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		List<Host> hostList = new ArrayList<>();
+		for (int id = 0; id < 2; id++) {
+			List<Pe> peList = List.of(new Pe(0, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(id, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		new Datacenter("Datacenter_0", new DatacenterCharacteristics("x86", "Linux", "Xen", hostList, 10.0, 3.0,
+				0.05, 0.001, 0.0), new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		for (int id = 0; id < 3; id++) {
+			vmList.add(new Vm(id, broker.getId(), 500, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		broker.submitGuestList(vmList);
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int id = 0; id < cloudlets; id++) {
+			Cloudlet cloudlet = new Cloudlet(id, 1000 + 250L * (id % 5), 1, 300, 300, UtilizationModelFull.INSTANCE,
+					UtilizationModelFull.INSTANCE, UtilizationModelFull.INSTANCE);
+			cloudlet.setUserId(broker.getId());
+			cloudletList.add(cloudlet);
+		}
+		broker.submitCloudletList(cloudletList);
+
+		double clock = CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		assertEquals(cloudlets, broker.getCloudletReceivedList().size());
+		List<Double> results = new ArrayList<>();
+		for (Cloudlet cloudlet : cloudletList) {
+			results.add(cloudlet.getExecFinishTime());
+		}
+		results.add(clock);
+		return results;
+	}
+
+	@Test
+	public void testContextsBackToBack() throws Exception {
+		SimulationContext first = new SimulationContext();
+		SimulationContext second = new SimulationContext();
+		first.execute(Log::disable);
+		second.execute(Log::disable);
+
+		List<Double> expected = first.call(() -> runSimulation(20));
+		// another simulation in another context, then the same one again in the first context
+		List<Double> other = second.call(() -> runSimulation(7));
+		assertEquals(expected, first.call(() -> runSimulation(20)));
+		assertEquals(other, second.call(() -> runSimulation(7)));
+		assertFalse(expected.equals(other));
+
+		// the simulations did not change the default context
+		assertFalse(SimulationContext.current() == first || SimulationContext.current() == second);
+		assertFalse(CloudSim.running());
+	}
+
+	@Test
+	public void testContextsInParallel() throws Exception {
+		int simulations = 8;
+		List<List<Double>> expected = new ArrayList<>();
+		for (int i = 0; i < simulations; i++) {
+			SimulationContext context = new SimulationContext();
+			int cloudlets = 10 + 5 * i;
+			expected.add(context.call(() -> {
+				Log.disable();
+				return runSimulation(cloudlets);
+			}));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int round = 0; round < 3; round++) {
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<List<Double>>> futures = new ArrayList<>();
+				for (int i = 0; i < simulations; i++) {
+					SimulationContext context = new SimulationContext();
+					int cloudlets = 10 + 5 * i;
+					futures.add(executor.submit(() -> context.call(() -> {
+						Log.disable();
+						start.await();
+						return runSimulation(cloudlets);
+					})));
+				}
+				start.countDown();
+				for (int i = 0; i < simulations; i++) {
+					assertEquals(expected.get(i), futures.get(i).get());
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testLogState() throws Exception {
+		OutputStream previous = Log.getOutput();
+		ByteArrayOutputStream defaultOutput = new ByteArrayOutputStream();
+		Log.setOutput(defaultOutput);
+		try {
+			SimulationContext first = new SimulationContext();
+			SimulationContext second = new SimulationContext();
+			ByteArrayOutputStream firstOutput = new ByteArrayOutputStream();
+
+			// a new context starts with the settings of the default context
+			first.execute(() -> {
+				assertSame(defaultOutput, Log.getOutput());
+				Log.setOutput(firstOutput);
+				Log.print("first");
+			});
+			second.execute(() -> {
+				Log.print("second");
+				Log.disable();
+				Log.print("disabled");
+			});
+			Log.print("default");
+			first.execute(() -> {
+				assertTrue(Log.isEnabled());
+				Log.printConcat(" again");
+			});
+
+			assertEquals("first again", firstOutput.toString());
+			assertEquals("seconddefault", defaultOutput.toString());
+			assertTrue(Log.isEnabled());
+			assertSame(defaultOutput, Log.getOutput());
+		} finally {
+			Log.setOutput(previous);
+		}
+	}
+
+	@Test
+	public void testGetComponent() throws Exception {
+		SimulationContext first = new SimulationContext();
+		SimulationContext second = new SimulationContext();
+		AtomicInteger created = new AtomicInteger();
+		StringBuilder component = first.getComponent(StringBuilder.class, () -> {
+			created.incrementAndGet();
+			return new StringBuilder("first");
+		});
+		assertSame(component, first.getComponent(StringBuilder.class, StringBuilder::new));
+		assertNotSame(component, second.getComponent(StringBuilder.class, StringBuilder::new));
+		assertEquals(1, created.get());
+
+		// the component is created once, even when requested by several threads at the same time
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int round = 0; round < 100; round++) {
+				SimulationContext context = new SimulationContext();
+				CountDownLatch start = new CountDownLatch(1);
+				AtomicInteger count = new AtomicInteger();
+				List<Future<Object>> futures = new ArrayList<>();
+				for (int i = 0; i < threads; i++) {
+					futures.add(executor.submit(() -> {
+						start.await();
+						return context.getComponent(StringBuilder.class, () -> {
+							count.incrementAndGet();
+							return new StringBuilder();
+						});
+					}));
+				}
+				start.countDown();
+				Object expected = futures.getFirst().get();
+				for (Future<Object> future : futures) {
+					assertSame(expected, future.get());
+				}
+				assertEquals(1, count.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletArrayListTest {
+
+	private static Cloudlet createCloudlet(int id) {
+		UtilizationModelFull model = new UtilizationModelFull();
+		return new Cloudlet(id, 1000, 1, 0, 0, model, model, model);
+	}
+
+	@Test
+	public void testGetAndRemoveById() {
+		CloudletArrayList<Cloudlet> list = new CloudletArrayList<>();
+		for (int id = 0; id < 100; id++) {
+			list.add(createCloudlet(id));
+		}
+
+		assertEquals(42, list.getById(42).getCloudletId());
+		assertEquals(42, CloudletList.getPositionById(list, 42));
+		assertSame(list.getById(42), CloudletList.removeById(list, 42));
+		assertNull(list.getById(42));
+		assertEquals(-1, CloudletList.getPositionById(list, 42));
+		assertEquals(43, CloudletList.getPositionById(list, 44));
+		assertEquals(99, list.size());
+		assertEquals(0, list.removeFirst().getCloudletId());
+		assertEquals(1, list.getFirst().getCloudletId());
+	}
+
+	@Test
+	public void testPositionsInSparseList() {
+		CloudletArrayList<Cloudlet> list = new CloudletArrayList<>();
+		List<Cloudlet> expected = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			// negative and duplicate ids
+			Cloudlet cl = createCloudlet(i % 100 - 50);
+			list.add(cl);
+			expected.add(cl);
+		}
+		// fewer empty slots than cloudlets, so the list is not compacted
+		for (int i = 1; i < 100; i += 3) {
+			assertSame(expected.remove(i), list.remove(i));
+		}
+
+		for (int i = 0; i < expected.size(); i++) {
+			assertSame(expected.get(i), list.get(i));
+			assertEquals(i, list.indexOf(expected.get(i)));
+			int id = expected.get(i).getCloudletId();
+			int first = 0;
+			while (expected.get(first).getCloudletId() != id) {
+				first++;
+			}
+			assertEquals(first, list.indexOfId(id));
+		}
+		Cloudlet added = createCloudlet(1000);
+		list.add(added);
+		assertEquals(expected.size(), list.indexOf(added));
+		assertEquals(-1, list.indexOfId(1001));
+	}
+
+	@Test
+	public void testBehavesLikeArrayList() {
+		Random random = new Random(7);
+		CloudletArrayList<Cloudlet> list = new CloudletArrayList<>();
+		List<Cloudlet> expected = new ArrayList<>();
+		int nextId = 0;
+
+		for (int i = 0; i < 20000; i++) {
+			int op = random.nextInt(7);
+			if (op <= 2 || expected.isEmpty()) {
+				Cloudlet cl = createCloudlet(nextId++);
+				list.add(cl);
+				expected.add(cl);
+			} else if (op == 3) {
+				assertEquals(expected.removeFirst(), list.removeFirst());
+			} else if (op == 4) {
+				Cloudlet cl = expected.get(random.nextInt(expected.size()));
+				expected.remove(cl);
+				assertSame(cl, CloudletList.removeById(list, cl.getCloudletId()));
+			} else if (op == 5) {
+				List<Cloudlet> removed = new ArrayList<>();
+				for (Cloudlet cl : expected) {
+					if (random.nextInt(10) == 0) {
+						removed.add(cl);
+					}
+				}
+				expected.removeAll(removed);
+				list.removeAll(removed);
+			} else {
+				Iterator<Cloudlet> it = list.iterator();
+				Iterator<Cloudlet> expectedIt = expected.iterator();
+				while (it.hasNext()) {
+					Cloudlet cl = it.next();
+					assertSame(expectedIt.next(), cl);
+					if (cl.getCloudletId() % 5 == 0) {
+						it.remove();
+						expectedIt.remove();
+					}
+				}
+			}
+
+			assertEquals(expected.size(), list.size());
+			if (!expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertSame(expected.get(index), list.get(index));
+				assertEquals(index, CloudletList.getPositionById(list, expected.get(index).getCloudletId()));
+			}
+		}
+		assertEquals(expected, list);
+	}
+}
@@ -51,6 +51,27 @@ public class VmListTest {
 		assertSame(vm3, VmList.getById(vmList, 2));
 	}
 
+	@Test
+	public void testGetVMbyIDIndexed() {
+		GuestArrayList<Vm> indexedList = new GuestArrayList<>();
+		Vm vm1 = new Vm(0, 0, 0, 1, 0, 0, 0, "", null);
+		Vm vm2 = new Vm(1, 0, 0, 1, 0, 0, 0, "", null);
+		Vm vm3 = new Vm(1, 0, 0, 2, 0, 0, 0, "", null);
+
+		indexedList.add(vm1);
+		indexedList.add(vm2);
+		assertSame(vm2, VmList.getById(indexedList, 1));
+		indexedList.remove(vm2);
+		assertNull(VmList.getById(indexedList, 1));
+		indexedList.add(vm2);
+		indexedList.add(0, vm3);
+		assertSame(vm3, VmList.getById(indexedList, 1));
+		indexedList.removeIf(vm -> vm.getId() == 1);
+		assertNull(VmList.getById(indexedList, 1));
+		indexedList.clear();
+		assertNull(VmList.getById(indexedList, 0));
+	}
+
 	@Test
 	public void testGetVMByIdAndUserId() {
 		assertNull(VmList.getByIdAndUserId(vmList, 0, 0));
@@ -0,0 +1,85 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the {@link BlockedFloydWarshall_Float} with the {@link FloydWarshall_Float}.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class BlockedFloydWarshall_FloatTest {
+
+	/**
+	 * Creates the adjacency matrix of a random graph, with some unreachable nodes.
+	 *
+	 * @param exact whether the delays are multiples of 0.25, whose sums are exact
+	 */
+	private static float[][] randomGraph(Random gen, int nodes, boolean exact, boolean directed) {
+		float[][] adjMatrix = new float[nodes][nodes];
+		for (int link = 0; link < 3 * nodes; link++) {
+			int src = gen.nextInt(nodes - 3);
+			int dest = gen.nextInt(nodes - 3);
+			float delay = exact ? 0.25f * (1 + gen.nextInt(40)) : 0.1f + 10 * gen.nextFloat();
+			adjMatrix[src][dest] = delay;
+			if (!directed) {
+				adjMatrix[dest][src] = delay;
+			}
+		}
+		return adjMatrix;
+	}
+
+	private static void assertDelaysCompared(boolean exact, int blockSize) {
+		Random gen = new Random(blockSize);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int round = 0; round < 6; round++) {
+				// several tiles, the last one being partial
+				int nodes = 2 * blockSize + 1 + gen.nextInt(3 * blockSize);
+				float[][] adjMatrix = randomGraph(gen, nodes, exact, round % 2 == 0);
+				FloydWarshall_Float floyd = new FloydWarshall_Float();
+				floyd.initialize(nodes);
+				float[][] expected = floyd.allPairsShortestPaths(adjMatrix);
+				float[][] actual = new BlockedFloydWarshall_Float(blockSize, pool).allPairsShortestPaths(adjMatrix);
+
+				for (int i = 0; i < nodes; i++) {
+					for (int j = 0; j < nodes; j++) {
+						if (exact || expected[i][j] == Float.MAX_VALUE) {
+							assertEquals(expected[i][j], actual[i][j]);
+						} else {
+							// the sums along a path may be rounded differently
+							assertEquals(expected[i][j], actual[i][j], expected[i][j] * 1e-5);
+						}
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testExactDelaysCompared() {
+		assertDelaysCompared(true, 8);
+		assertDelaysCompared(true, BlockedFloydWarshall_Float.DEFAULT_BLOCK_SIZE);
+	}
+
+	@Test
+	public void testDelaysCompared() {
+		assertDelaysCompared(false, 8);
+		assertDelaysCompared(false, BlockedFloydWarshall_Float.DEFAULT_BLOCK_SIZE);
+	}
+
+}
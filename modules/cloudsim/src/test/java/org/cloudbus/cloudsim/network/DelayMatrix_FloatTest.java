@@ -0,0 +1,82 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests how {@link DelayMatrix_Float} handles parallel links and links with zero delay.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class DelayMatrix_FloatTest {
+
+	private static TopologicalGraph graph(int nodes, TopologicalLink... links) {
+		TopologicalGraph graph = new TopologicalGraph();
+		for (int node = 0; node < nodes; node++) {
+			graph.addNode(new TopologicalNode(node));
+		}
+		for (TopologicalLink link : links) {
+			graph.addLink(link);
+		}
+		return graph;
+	}
+
+	@Test
+	public void testParallelLinksUseShortestDelay() {
+		TopologicalGraph graph = graph(3,
+				new TopologicalLink(0, 1, 2, 1000),
+				new TopologicalLink(0, 1, 5, 1000),
+				new TopologicalLink(1, 2, 1, 1000));
+
+		DelayMatrix_Float matrix = new DelayMatrix_Float(graph, true);
+		assertEquals(2, matrix.getDelay(0, 1));
+		assertEquals(3, matrix.getDelay(0, 2));
+		assertEquals(Float.MAX_VALUE, matrix.getDelay(1, 0));
+
+		matrix = new DelayMatrix_Float(graph, false);
+		assertEquals(2, matrix.getDelay(1, 0));
+		assertEquals(3, matrix.getDelay(2, 0));
+	}
+
+	@Test
+	public void testZeroDelayLinksAreIgnored() {
+		TopologicalGraph graph = graph(3,
+				new TopologicalLink(0, 1, 4, 1000),
+				new TopologicalLink(0, 1, 0, 1000),
+				new TopologicalLink(1, 2, 0, 1000));
+
+		DelayMatrix_Float matrix = new DelayMatrix_Float(graph, true);
+		assertEquals(4, matrix.getDelay(0, 1));
+		assertEquals(Float.MAX_VALUE, matrix.getDelay(1, 2));
+		assertEquals(Float.MAX_VALUE, matrix.getDelay(0, 2));
+	}
+
+	@Test
+	public void testAddedLinksMatchGraph() {
+		DelayMatrix_Float matrix = new DelayMatrix_Float(3);
+		matrix.addLink(0, 1, 5, false);
+		matrix.addLink(0, 1, 0, false);
+		matrix.addLink(0, 1, 2, false);
+		matrix.addLink(1, 2, 1, false);
+
+		DelayMatrix_Float expected = new DelayMatrix_Float(graph(3,
+				new TopologicalLink(0, 1, 5, 1000),
+				new TopologicalLink(0, 1, 0, 1000),
+				new TopologicalLink(0, 1, 2, 1000),
+				new TopologicalLink(1, 2, 1, 1000)), false);
+		for (int src = 0; src < 3; src++) {
+			for (int dest = 0; dest < 3; dest++) {
+				assertEquals(expected.getDelay(src, dest), matrix.getDelay(src, dest));
+			}
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package org.cloudbus.cloudsim.network;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link FloydWarshall_Float} with {@link BlockedFloydWarshall_Float} on random
+ * topologies with an average of 4 links per node, as generated by BRITE.
+ * Run it with the main method, from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = { "-Xmx8g" })
+public class FloydWarshallBenchmark {
+
+	@Param({ "500", "2000", "5000" })
+	private int numNodes;
+
+	private float[][] adjMatrix;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(1);
+		adjMatrix = new float[numNodes][numNodes];
+		for (int link = 0; link < 2 * numNodes; link++) {
+			int src = random.nextInt(numNodes);
+			int dest = random.nextInt(numNodes);
+			float delay = 1 + random.nextInt(100);
+			adjMatrix[src][dest] = delay;
+			adjMatrix[dest][src] = delay;
+		}
+	}
+
+	@Benchmark
+	public float[][] floydWarshall() {
+		FloydWarshall_Float floyd = new FloydWarshall_Float();
+		floyd.initialize(numNodes);
+		return floyd.allPairsShortestPaths(adjMatrix);
+	}
+
+	@Benchmark
+	public float[][] blockedFloydWarshall() {
+		return new BlockedFloydWarshall_Float().allPairsShortestPaths(adjMatrix);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(FloydWarshallBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the {@link OnDemandDelayMatrix} with the dense {@link DelayMatrix_Float}.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class OnDemandDelayMatrixTest {
+
+	/** A matrix recording the sources whose delays are computed. */
+	private static class RecordingDelayMatrix extends OnDemandDelayMatrix {
+		private final List<Integer> computed = new ArrayList<>();
+
+		private RecordingDelayMatrix(TopologicalGraph graph, boolean directed, int maxCachedSources) {
+			super(graph, directed, maxCachedSources);
+		}
+
+		@Override
+		protected float[] calculateShortestPaths(int srcID) {
+			computed.add(srcID);
+			return super.calculateShortestPaths(srcID);
+		}
+	}
+
+	/**
+	 * Creates a random graph, with some unreachable nodes, parallel links and links with zero delay.
+	 *
+	 * @param exact whether the delays are multiples of 0.25, whose sums are exact
+	 */
+	private static TopologicalGraph randomGraph(Random gen, int nodes, int links, boolean exact) {
+		TopologicalGraph graph = new TopologicalGraph();
+		for (int node = 0; node < nodes; node++) {
+			graph.addNode(new TopologicalNode(node));
+		}
+		for (int i = 0; i < links; i++) {
+			int src = gen.nextInt(nodes - 2);
+			int dest = gen.nextInt(nodes - 2);
+			float delay = gen.nextInt(20) == 0 ? 0 : exact ? 0.25f * (1 + gen.nextInt(40)) : 0.1f + 10 * gen.nextFloat();
+			graph.addLink(new TopologicalLink(src, dest, delay, 1000));
+		}
+		return graph;
+	}
+
+	private static void assertDelaysCompared(boolean exact, boolean directed) {
+		Random gen = new Random(exact ? 1 : 2);
+		for (int round = 0; round < 10; round++) {
+			int nodes = 20 + gen.nextInt(60);
+			TopologicalGraph graph = randomGraph(gen, nodes, nodes + gen.nextInt(3 * nodes), exact);
+			DelayMatrix expected = new DelayMatrix_Float(graph, directed);
+			DelayMatrix actual = new OnDemandDelayMatrix(graph, directed, 1 + gen.nextInt(8));
+			assertEquals(nodes, actual.getNumberOfNodes());
+
+			// random pairs, so that the sources are cached in different orders
+			for (int i = 0; i < 4 * nodes * nodes; i++) {
+				int src = gen.nextInt(nodes);
+				int dest = gen.nextInt(nodes);
+				float delay = expected.getDelay(src, dest);
+				if (exact || delay == Float.MAX_VALUE) {
+					assertEquals(delay, actual.getDelay(src, dest));
+				} else {
+					// the sums along a path may be rounded differently
+					assertEquals(delay, actual.getDelay(src, dest), delay * 1e-5);
+				}
+				if (!directed) {
+					assertEquals(actual.getDelay(src, dest), actual.getDelay(dest, src));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testExactDelaysCompared() {
+		assertDelaysCompared(true, false);
+		assertDelaysCompared(true, true);
+	}
+
+	@Test
+	public void testDelaysCompared() {
+		assertDelaysCompared(false, false);
+		assertDelaysCompared(false, true);
+	}
+
+	@Test
+	public void testSymmetricDelays() {
+		Random gen = new Random(3);
+		TopologicalGraph graph = randomGraph(gen, 50, 150, false);
+		for (int round = 0; round < 100; round++) {
+			int src = gen.nextInt(50);
+			int dest = gen.nextInt(50);
+			// the delay does not depend on which of the nodes was requested first as source
+			OnDemandDelayMatrix first = new OnDemandDelayMatrix(graph, false);
+			OnDemandDelayMatrix second = new OnDemandDelayMatrix(graph, false);
+			first.getDelay(src, 0);
+			second.getDelay(dest, 0);
+			assertEquals(first.getDelay(src, dest), second.getDelay(src, dest));
+			assertEquals(first.getDelay(dest, src), second.getDelay(src, dest));
+		}
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		TopologicalGraph graph = randomGraph(new Random(4), 10, 30, true);
+		RecordingDelayMatrix matrix = new RecordingDelayMatrix(graph, true, 3);
+		matrix.getDelay(0, 5);
+		matrix.getDelay(1, 5);
+		matrix.getDelay(2, 5);
+		matrix.getDelay(0, 6);
+		assertEquals(List.of(0, 1, 2), matrix.computed);
+
+		// 1 is the least recently used source, so it is evicted
+		matrix.getDelay(3, 5);
+		matrix.getDelay(0, 7);
+		matrix.getDelay(2, 7);
+		assertEquals(List.of(0, 1, 2, 3), matrix.computed);
+		matrix.getDelay(1, 5);
+		assertEquals(List.of(0, 1, 2, 3, 1), matrix.computed);
+		// then 3 was evicted, while 0 and 2 are still cached
+		matrix.getDelay(0, 9);
+		matrix.getDelay(2, 9);
+		matrix.getDelay(3, 9);
+		assertEquals(List.of(0, 1, 2, 3, 1, 3), matrix.computed);
+
+		// the delays of an undirected matrix are computed from the lower node
+		RecordingDelayMatrix undirected = new RecordingDelayMatrix(graph, false, 1);
+		undirected.getDelay(5, 2);
+		undirected.getDelay(2, 7);
+		undirected.getDelay(9, 2);
+		undirected.getDelay(5, 6);
+		undirected.getDelay(7, 5);
+		assertEquals(List.of(2, 5), undirected.computed);
+	}
+
+}
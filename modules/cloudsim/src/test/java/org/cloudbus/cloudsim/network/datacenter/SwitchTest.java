@@ -0,0 +1,241 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the packets forwarded by a {@link Switch} with the ones forwarded by the previous
+ * implementation, which cancelled and scheduled a forwarding event for each received packet. The
+ * packets are received in bursts, some of them at the time a forwarding event fires, before or
+ * after it, so that the order of the forwarded packets depends on which events were cancelled.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class SwitchTest {
+
+	/** The switch as it was, scanning all its ports when forwarding. */
+	private static class LegacySwitch extends Switch {
+		private LegacySwitch(String name, double switchingDelay, NetworkDatacenter dc) {
+			super(name, 8, SwitchLevel.AGGR_LEVEL, switchingDelay, 1000, 500, dc);
+			pktsToDownlinkSwitches = new HashMap<>();
+			pktsToUplinkSwitches = new HashMap<>();
+		}
+
+		@Override
+		protected void scheduleForward() {
+			CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
+			schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
+		}
+
+		@Override
+		protected void processForward() {
+			for (Entry<Integer, List<NetworkPacket>> es : pktsToDownlinkSwitches.entrySet()) {
+				List<NetworkPacket> hspktlist = es.getValue();
+				double avband = (double) downlinkBw / hspktlist.size();
+				for (NetworkPacket hspkt : hspktlist) {
+					send(es.getKey(), 8 * hspkt.pkt.data / avband, CloudActionTags.NETWORK_PKT_DOWN, hspkt);
+				}
+				hspktlist.clear();
+			}
+			for (Entry<Integer, List<NetworkPacket>> es : pktsToUplinkSwitches.entrySet()) {
+				List<NetworkPacket> hspktlist = es.getValue();
+				double avband = (double) uplinkBw / hspktlist.size();
+				for (NetworkPacket hspkt : hspktlist) {
+					send(es.getKey(), 8 * hspkt.pkt.data / avband, CloudActionTags.NETWORK_PKT_UP, hspkt);
+				}
+				hspktlist.clear();
+			}
+		}
+	}
+
+	/** A switch recording the packets it receives. */
+	private static class SinkSwitch extends Switch {
+		private final List<String> log;
+
+		private SinkSwitch(String name, SwitchLevel level, List<String> log) {
+			super(name, 8, level, 0, 1000, 1000, null);
+			this.log = log;
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			NetworkPacket npkt = (NetworkPacket) ev.getData();
+			log.add(CloudSim.clock() + " " + getName() + " " + ev.getTag() + " " + npkt.pkt.data);
+		}
+	}
+
+	/** An entity sending random packets to a switch. */
+	private static class Sender extends SimEntity {
+		private final Switch sw;
+		private final long seed;
+		private final double timeStep;
+
+		private Sender(Switch sw, long seed, double timeStep) {
+			super("Sender");
+			this.sw = sw;
+			this.seed = seed;
+			this.timeStep = timeStep;
+		}
+
+		@Override
+		public void startEntity() {
+			Random gen = new Random(seed);
+			NetworkCloudlet sender = new NetworkCloudlet(0, 1000, 1, 300, 300, UtilizationModelFull.INSTANCE,
+					UtilizationModelFull.INSTANCE, UtilizationModelFull.INSTANCE);
+			double burstTime = 0;
+			for (int i = 0; i < 2000; i++) {
+				// the guests 0 to 3 are below the switch, the others above
+				int guestId = gen.nextInt(6);
+				NetworkCloudlet receiver = new NetworkCloudlet(1, 1000, 1, 300, 300, UtilizationModelFull.INSTANCE,
+						UtilizationModelFull.INSTANCE, UtilizationModelFull.INSTANCE);
+				receiver.setGuestId(guestId);
+				sender.addSendStage(1000 + i, receiver);
+				NetworkPacket npkt = new NetworkPacket(0, new HostPacket(sender, sender.stages.size() - 1));
+				CloudActionTags tag = guestId < 4 && gen.nextBoolean() ? CloudActionTags.NETWORK_PKT_DOWN
+						: CloudActionTags.NETWORK_PKT_UP;
+
+				// bursts of packets, separated by gaps shorter, equal to or longer than the switching delay
+				if (i % 8 == 0) {
+					burstTime += timeStep * (1 + gen.nextInt(6));
+				}
+				double delay = burstTime + gen.nextInt(3) * timeStep;
+				if (gen.nextBoolean()) {
+					schedule(sw.getId(), delay, tag, npkt);
+				} else {
+					// sent at the time, so that it is received after any forwarding event of that time
+					schedule(getId(), delay, tag, npkt);
+				}
+			}
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			scheduleNow(sw.getId(), ev.getTag(), ev.getData());
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	private static NetworkDatacenter createDatacenter() throws Exception {
+		List<Pe> peList = List.of(new Pe(0, new PeProvisionerSimple(1000)));
+		List<Host> hostList = List.of(new Host(0, new RamProvisionerSimple(1024), new BwProvisionerSimple(1000), 1000,
+				peList, new VmSchedulerTimeShared(peList)));
+		return new NetworkDatacenter("Datacenter", new DatacenterCharacteristics("x86", "Linux", "Xen",
+				hostList, 10.0, 3.0, 0.05, 0.001, 0.0), new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+	}
+
+	private static List<String> forwardPackets(boolean legacy, long seed, double switchingDelay, double timeStep)
+			throws Exception {
+		CloudSim.init(1, null, false);
+		NetworkDatacenter dc = createDatacenter();
+
+		List<String> log = new ArrayList<>();
+		Switch sw = legacy ? new LegacySwitch("Aggregate", switchingDelay, dc)
+				: new Switch("Aggregate", 8, Switch.SwitchLevel.AGGR_LEVEL, switchingDelay, 1000, 500, dc);
+		for (int i = 0; i < 3; i++) {
+			sw.downlinkSwitches.add(new SinkSwitch("Edge" + i, Switch.SwitchLevel.EDGE_LEVEL, log));
+		}
+		sw.uplinkSwitches.add(new SinkSwitch("Root", Switch.SwitchLevel.ROOT_LEVEL, log));
+		for (int guestId = 0; guestId < 6; guestId++) {
+			dc.VmToSwitchid.put(guestId, guestId < 4 ? sw.downlinkSwitches.get(guestId % 3).getId() : -1);
+		}
+		new Sender(sw, seed, timeStep);
+
+		CloudSim.startSimulation();
+		return log;
+	}
+
+	@Test
+	public void testForwardCompared() throws Exception {
+		for (long seed = 0; seed < 3; seed++) {
+			List<String> expected = forwardPackets(true, seed, 0.75, 0.25);
+			assertEquals(2000, expected.size());
+			assertEquals(expected, forwardPackets(false, seed, 0.75, 0.25));
+		}
+	}
+
+	@Test
+	public void testForwardComparedWithRounding() throws Exception {
+		// forwarding times which are not exact sums of the arrival times and the switching delay
+		for (long seed = 0; seed < 3; seed++) {
+			List<String> expected = forwardPackets(true, seed, 0.3, 0.1);
+			assertEquals(2000, expected.size());
+			assertEquals(expected, forwardPackets(false, seed, 0.3, 0.1));
+		}
+	}
+	@Test
+	public void testForwardPacketsAddedToMaps() throws Exception {
+		CloudSim.init(1, null, false);
+		NetworkDatacenter dc = createDatacenter();
+		List<String> log = new ArrayList<>();
+		Switch sw = new Switch("Aggregate", 8, Switch.SwitchLevel.AGGR_LEVEL, 0.5, 1000, 500, dc);
+		Switch edge = new SinkSwitch("Edge", Switch.SwitchLevel.EDGE_LEVEL, log);
+		Switch root = new SinkSwitch("Root", Switch.SwitchLevel.ROOT_LEVEL, log);
+
+		NetworkCloudlet sender = new NetworkCloudlet(0, 1000, 1, 300, 300, UtilizationModelFull.INSTANCE,
+				UtilizationModelFull.INSTANCE, UtilizationModelFull.INSTANCE);
+		NetworkCloudlet receiver = new NetworkCloudlet(1, 1000, 1, 300, 300, UtilizationModelFull.INSTANCE,
+				UtilizationModelFull.INSTANCE, UtilizationModelFull.INSTANCE);
+		sender.addSendStage(1000, receiver);
+		sender.addSendStage(2000, receiver);
+
+		// packets put in the maps directly, as subclasses may do, are forwarded too
+		sw.pktsToDownlinkSwitches.computeIfAbsent(edge.getId(), k -> new ArrayList<>())
+				.add(new NetworkPacket(0, new HostPacket(sender, 0)));
+		sw.pktsToUplinkSwitches.computeIfAbsent(root.getId(), k -> new ArrayList<>())
+				.add(new NetworkPacket(0, new HostPacket(sender, 1)));
+		CloudSim.send(edge.getId(), sw.getId(), 0, CloudActionTags.NETWORK_PKT_FORWARD, null);
+
+		CloudSim.startSimulation();
+		assertTrue(sw.pktsToDownlinkSwitches.isEmpty());
+		assertTrue(sw.pktsToUplinkSwitches.isEmpty());
+		assertEquals(List.of("8.0 Edge NETWORK_PKT_DOWN 1000", "32.0 Root NETWORK_PKT_UP 2000"), log);
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelNull;
+import org.cloudbus.cloudsim.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G4Xeon3040;
+import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G5Xeon3075;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the results of a power-aware simulation with VM migrations when the hosts are updated
+ * incrementally or in parallel with the ones of a sequential full sweep of the hosts.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class PowerDatacenterTest {
+
+	private static final double SCHEDULING_INTERVAL = 300;
+
+	/**
+	 * A host whose VMs are only completed when they have nothing left to run, as the VMs without
+	 * nested guests are otherwise deallocated at the first update.
+	 */
+	private static class RunningHost extends PowerHost {
+		private RunningHost(int id, List<Pe> peList, PowerModel powerModel) {
+			super(id, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000), 1000000, peList,
+					new VmSchedulerTimeSharedOverSubscription(peList), powerModel);
+		}
+
+		@Override
+		public List<GuestEntity> getCompletedVms() {
+			return getGuestList().stream()
+					.filter(vm -> !vm.isInMigration() && vm.getCurrentRequestedTotalMips() == 0).toList();
+		}
+	}
+
+	/**
+	 * Runs cloudlets with random utilizations on VMs consolidated by the median absolute
+	 * deviation policy.
+	 *
+	 * @param pool the pool updating the hosts in parallel, or null to update them sequentially
+	 * @param detectionPool the pool checking the hosts for overload in parallel, or null to check
+	 *        them sequentially
+	 * @return the energy consumed, the number of migrations, the cloudlets in the order they
+	 *         were received and the time the simulation ended
+	 */
+	private static List<String> runSimulation(long seed, boolean incrementalHostUpdates, ForkJoinPool pool,
+			ForkJoinPool detectionPool) throws Exception {
+		return new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, Calendar.getInstance(), false);
+			Random gen = new Random(seed);
+
+			List<PowerHost> hostList = new ArrayList<>();
+			for (int id = 0; id < 80; id++) {
+				double mips = id % 2 == 0 ? 1860 : 2660;
+				List<Pe> peList = List.of(new Pe(0, new PeProvisionerSimple(mips)), new Pe(1, new PeProvisionerSimple(mips)));
+				hostList.add(new RunningHost(id, peList, id % 2 == 0 ? new PowerModelSpecPowerHpProLiantMl110G4Xeon3040()
+						: new PowerModelSpecPowerHpProLiantMl110G5Xeon3075()));
+			}
+			PowerVmAllocationPolicyMigrationAbstract vmAllocationPolicy = new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(
+					hostList, new SelectionPolicyMinimumMigrationTime<>(), 2.5,
+					new PowerVmAllocationPolicyMigrationStaticThreshold(hostList, new SelectionPolicyMinimumMigrationTime<>(), 0.7));
+			vmAllocationPolicy.setParallelOverloadDetection(detectionPool);
+			PowerDatacenter datacenter = new PowerDatacenter("Datacenter", new DatacenterCharacteristics("x86", "Linux",
+					"Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0), vmAllocationPolicy, new LinkedList<>(), SCHEDULING_INTERVAL);
+			datacenter.setDisableMigrations(false);
+			datacenter.setIncrementalHostUpdates(incrementalHostUpdates);
+			datacenter.setParallelHostUpdates(pool);
+
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+			List<PowerVm> vmList = new ArrayList<>();
+			List<Cloudlet> cloudletList = new ArrayList<>();
+			for (int id = 0; id < 120; id++) {
+				double mips = 500 * (1 + id % 4);
+				vmList.add(new PowerVm(id, broker.getId(), mips, 1, 613, 100, 2500, 1, "Xen",
+						new CloudletSchedulerDynamicWorkload(mips, 1), SCHEDULING_INTERVAL));
+				Cloudlet cloudlet = new Cloudlet(id, 1000000 + gen.nextInt(20000000), 1, 300, 300,
+						new UtilizationModelStochastic(gen.nextLong()), new UtilizationModelNull(), new UtilizationModelNull());
+				cloudlet.setUserId(broker.getId());
+				cloudlet.setGuestId(id);
+				cloudletList.add(cloudlet);
+			}
+			broker.submitGuestList(vmList);
+			broker.submitCloudletList(cloudletList);
+
+			CloudSim.terminateSimulation(86400);
+			double clock = CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+			List<String> results = new ArrayList<>();
+			results.add(datacenter.getPower() + " " + datacenter.getMigrationCount());
+			for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+				results.add(cloudlet.getCloudletId() + " " + cloudlet.getGuestId() + " " + cloudlet.getStatus() + " "
+						+ cloudlet.getExecStartTime() + " " + cloudlet.getExecFinishTime() + " " + cloudlet.getActualCPUTime());
+			}
+			results.add(String.valueOf(clock));
+			return results;
+		});
+	}
+
+	@Test
+	public void testIncrementalHostUpdatesCompared() throws Exception {
+		for (long seed = 0; seed < 2; seed++) {
+			List<String> expected = runSimulation(seed, false, null, null);
+			// some cloudlets finished and some VMs were migrated
+			assertTrue(expected.size() > 2);
+			assertTrue(Integer.parseInt(expected.get(0).split(" ")[1]) > 0);
+			assertEquals(expected, runSimulation(seed, true, null, null));
+		}
+	}
+
+	@Test
+	public void testParallelHostUpdatesCompared() throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (long seed = 0; seed < 2; seed++) {
+				assertEquals(runSimulation(seed, false, null, null), runSimulation(seed, false, pool, null));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelOverloadDetectionCompared() throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (long seed = 0; seed < 2; seed++) {
+				List<String> expected = runSimulation(seed, false, null, null);
+				assertEquals(expected, runSimulation(seed, false, null, pool));
+				assertEquals(expected, runSimulation(seed, false, pool, pool));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
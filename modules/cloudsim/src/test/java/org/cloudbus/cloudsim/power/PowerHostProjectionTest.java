@@ -0,0 +1,112 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since		CloudSim Toolkit 7.0
+ */
+public class PowerHostProjectionTest {
+
+	private static final double MIPS = 1000;
+	private static final int RAM = 2048;
+	private static final long BW = 10000;
+	private static final long STORAGE = 10000;
+
+	private PowerHost host;
+
+	private Vm vm0;
+
+	private Vm vm1;
+
+	private Vm vm2;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		host = new PowerHost(0, new RamProvisionerSimple(RAM), new BwProvisionerSimple(BW), STORAGE, peList,
+				new VmSchedulerTimeShared(peList), new PowerModelLinear(200, 0.3));
+
+		vm0 = new Vm(0, 0, MIPS / 2, 1, RAM / 2, BW / 2, STORAGE / 4, "", new CloudletSchedulerDynamicWorkload(MIPS / 2, 1));
+		vm1 = new Vm(1, 0, MIPS, 1, RAM / 4, BW / 4, STORAGE / 4, "", new CloudletSchedulerDynamicWorkload(MIPS, 1));
+		vm2 = new Vm(2, 0, MIPS, 1, RAM / 2, BW / 2, STORAGE / 4, "", new CloudletSchedulerDynamicWorkload(MIPS, 1));
+		assertTrue(host.guestCreate(vm0));
+		assertTrue(host.guestCreate(vm1));
+	}
+
+	@Test
+	public void testAddGuest() {
+		PowerHostProjection projection = new PowerHostProjection(host).addGuest(vm2);
+
+		assertFalse(projection.isSuitable());
+		assertEquals(List.of(vm0, vm1, vm2), projection.getGuestList());
+		assertEquals(STORAGE / 4, projection.getStorage());
+		assertEquals(RAM / 4 - RAM / 2, projection.getAvailableRam());
+		assertEquals(BW / 4 - BW / 2, projection.getAvailableBw());
+		assertEquals(-MIPS / 2, projection.getAvailableMips(), 0);
+		assertEquals(2.5 * MIPS, projection.getUtilizationOfCpuMips(), 0);
+		assertEquals(1.25, projection.getUtilizationOfCpu(), 0);
+
+		// the host is left unchanged
+		assertEquals(List.of(vm0, vm1), host.getGuestList());
+		assertEquals(RAM / 4, host.getGuestRamProvisioner().getAvailableRam());
+		assertEquals(BW / 4, host.getGuestBwProvisioner().getAvailableBw());
+		assertEquals(MIPS / 2, host.getGuestScheduler().getAvailableMips(), 0);
+		assertEquals(STORAGE / 2, host.getStorage());
+		assertEquals(host, vm0.getHost());
+		assertEquals(null, vm2.getHost());
+	}
+
+	@Test
+	public void testRemoveAndAddGuest() {
+		PowerHostProjection projection = new PowerHostProjection(host).removeGuest(vm0).addGuest(vm2);
+
+		assertTrue(projection.isSuitable());
+		assertEquals(List.of(vm1, vm2), projection.getGuestList());
+		assertEquals(RAM / 4, projection.getAvailableRam());
+		assertEquals(BW / 4, projection.getAvailableBw());
+		assertEquals(0, projection.getAvailableMips(), 0);
+		assertEquals(2 * MIPS, projection.getUtilizationOfCpuMips(), 0);
+		assertEquals(host.getPower(1), projection.getPower(), 0);
+		assertEquals(List.of(vm0, vm1), host.getGuestList());
+	}
+
+	@Test
+	public void testCancelChanges() {
+		PowerHostProjection projection = new PowerHostProjection(host)
+				.removeGuest(vm0).addGuest(vm2).addGuest(vm0).removeGuest(vm2);
+
+		assertFalse(projection.isModified());
+		assertTrue(projection.isSuitable());
+		assertEquals(host.getGuestList(), projection.getGuestList());
+		assertThrows(IllegalArgumentException.class, () -> projection.removeGuest(vm2));
+		assertThrows(IllegalArgumentException.class, () -> projection.removeGuest(vm0).removeGuest(vm0));
+	}
+
+}
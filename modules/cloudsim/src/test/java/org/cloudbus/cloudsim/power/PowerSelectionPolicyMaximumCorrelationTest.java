@@ -1,8 +1,11 @@
 package org.cloudbus.cloudsim.power;
 
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
+import org.cloudbus.cloudsim.core.PowerGuestEntity;
 import org.cloudbus.cloudsim.selectionPolicies.PowerSelectionPolicyMaximumCorrelation;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyRandomSelection;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,4 +38,36 @@ public class PowerSelectionPolicyMaximumCorrelationTest {
 		}
 	}
 
+	@Test
+	public void testSelectionsFromHost() {
+		Random random = new Random(1);
+		List<PowerGuestEntity> vms = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			PowerVm vm = new PowerVm(i, 0, 1000, 1, 128, 100, 100, 1, "", null, 300);
+			double base = random.nextDouble();
+			for (int j = 0; j < PowerVm.HISTORY_LENGTH; j++) {
+				vm.addUtilizationHistoryValue(Math.min(1, Math.max(0, base + 0.2 * random.nextGaussian())));
+			}
+			vms.add(vm);
+		}
+		Object host = new Object();
+		// the selected VMs are removed one by one, as when migrating VMs from an over utilized host
+		while (vms.size() > 2) {
+			double[][] data = new double[vms.size()][];
+			for (int i = 0; i < data.length; i++) {
+				data[i] = vms.get(i).getUtilizationHistory().toArray();
+			}
+			List<Double> expected = vmSelectionPolicyMaximumCorrelation.getCorrelationCoefficients(data);
+			int maxIndex = 0;
+			for (int i = 0; i < expected.size(); i++) {
+				if (expected.get(i) > expected.get(maxIndex)) {
+					maxIndex = i;
+				}
+			}
+			PowerGuestEntity selected = vmSelectionPolicyMaximumCorrelation.select(vms, host, null);
+			assertEquals(vms.get(maxIndex), selected);
+			vms.remove(selected);
+		}
+	}
+
 }
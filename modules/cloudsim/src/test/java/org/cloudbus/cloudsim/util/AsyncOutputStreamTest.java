@@ -0,0 +1,132 @@
+package org.cloudbus.cloudsim.util;
+
+import org.cloudbus.cloudsim.Log;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class AsyncOutputStreamTest {
+
+	@Test
+	public void testLogOrder() throws IOException {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		StringBuilder expected = new StringBuilder();
+		OutputStream previous = Log.getOutput();
+		// a small ring buffer, so that the log waits for free slots
+		AsyncOutputStream output = new AsyncOutputStream(target, 4);
+		Log.setOutput(output);
+		try {
+			for (int i = 0; i < 10000; i++) {
+				Log.printlnConcat("Message #", i);
+				expected.append("Message #").append(i).append(System.lineSeparator());
+			}
+			output.write(new byte[] { 'a', 'b', 'c' }, 1, 2);
+			expected.append("bc");
+			output.flush();
+			assertEquals(expected.toString(), target.toString());
+		} finally {
+			Log.setOutput(previous);
+			output.close();
+		}
+		assertThrows(IOException.class, () -> output.write("closed"));
+	}
+
+	@Test
+	public void testConcurrentWriters() throws Exception {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		try (AsyncOutputStream output = new AsyncOutputStream(target, 16)) {
+			List<Thread> threads = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				char c = (char) ('a' + t);
+				Thread thread = new Thread(() -> {
+					for (int i = 0; i < 1000; i++) {
+						try {
+							output.write(String.valueOf(c));
+						} catch (IOException e) {
+							throw new RuntimeException(e);
+						}
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+		String written = target.toString();
+		assertEquals(4000, written.length());
+		for (char c = 'a'; c < 'e'; c++) {
+			char letter = c;
+			assertEquals(1000, written.chars().filter(ch -> ch == letter).count());
+		}
+	}
+
+	@Test
+	public void testCloseWhileWriting() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			ByteArrayOutputStream target = new ByteArrayOutputStream();
+			AsyncOutputStream output = new AsyncOutputStream(target, 4);
+			// the number of messages each thread queued before the stream was closed
+			AtomicIntegerArray written = new AtomicIntegerArray(4);
+			List<Thread> threads = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int index = t;
+				String message = String.valueOf((char) ('a' + t));
+				Thread thread = new Thread(() -> {
+					try {
+						while (true) {
+							output.write(message);
+							written.incrementAndGet(index);
+						}
+					} catch (IOException e) {
+						// closed
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			Thread.sleep(round % 5);
+			assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+				output.close();
+				for (Thread thread : threads) {
+					thread.join();
+				}
+			});
+			String result = target.toString();
+			for (int t = 0; t < 4; t++) {
+				char letter = (char) ('a' + t);
+				assertEquals(written.get(t), result.chars().filter(ch -> ch == letter).count());
+			}
+		}
+	}
+
+	@Test
+	public void testRuntimeExceptionOfTarget() throws Exception {
+		OutputStream failing = new OutputStream() {
+			@Override
+			public void write(int b) {
+				throw new IllegalStateException("failed");
+			}
+		};
+		AsyncOutputStream output = new AsyncOutputStream(failing, 4);
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			// larger than the buffer of the target stream, so that it is written at once
+			output.write(new byte[1 << 17]);
+			IOException e = assertThrows(IOException.class, output::flush);
+			assertEquals(IllegalStateException.class, e.getCause().getClass());
+			assertThrows(IOException.class, output::close);
+		});
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class GuestKeyMapTest {
+
+	@Test
+	public void testUidView() {
+		GuestKeyMap<String> map = new GuestKeyMap<>();
+		map.put(GuestEntity.getKey(3, 7), "a");
+		map.put("-1-2", "b");
+		map.put("4--5", null);
+
+		assertEquals("a", map.get("3-7"));
+		assertEquals("b", map.get(GuestEntity.getKey(-1, 2)));
+		assertTrue(map.containsKey(GuestEntity.getKey(4, -5)));
+		assertNull(map.get(GuestEntity.getKey(4, -5)));
+		assertNull(map.get("3-"));
+		assertNull(map.get((Object) 37));
+		assertFalse(map.containsKey("x-7"));
+		assertThrows(IllegalArgumentException.class, () -> map.put("37", "c"));
+		assertEquals(List.of("3-7", "-1-2", "4--5"), new ArrayList<>(map.keySet()));
+		assertEquals("b", map.remove("-1-2"));
+		assertEquals(Set.of("3-7", "4--5"), map.keySet());
+	}
+
+	@Test
+	public void testBehavesLikeLinkedHashMap() {
+		Random random = new Random(11);
+		GuestKeyMap<Integer> map = new GuestKeyMap<>();
+		Map<Long, Integer> expected = new LinkedHashMap<>();
+
+		for (int i = 0; i < 20000; i++) {
+			long key = GuestEntity.getKey(random.nextInt(3) - 1, random.nextInt(200));
+			int op = random.nextInt(5);
+			if (op <= 1) {
+				assertEquals(expected.put(key, i), map.put(key, i));
+			} else if (op == 2) {
+				assertEquals(expected.remove(key), map.remove(key));
+			} else if (op == 3) {
+				assertEquals(expected.get(key), map.get(key));
+				assertEquals(expected.containsKey(key), map.containsKey(key));
+			} else {
+				Iterator<Map.Entry<Long, Integer>> expectedIt = expected.entrySet().iterator();
+				Iterator<Map.Entry<String, Integer>> it = map.entrySet().iterator();
+				while (expectedIt.hasNext()) {
+					Map.Entry<Long, Integer> expectedEntry = expectedIt.next();
+					Map.Entry<String, Integer> entry = it.next();
+					assertEquals(GuestEntity.getUid(expectedEntry.getKey()), entry.getKey());
+					assertEquals(expectedEntry.getValue(), entry.getValue());
+					if (entry.getValue() % 7 == 0) {
+						expectedIt.remove();
+						it.remove();
+					}
+				}
+				assertFalse(it.hasNext());
+			}
+			assertEquals(expected.size(), map.size());
+		}
+
+		List<Long> keys = new ArrayList<>();
+		for (GuestKeyMap.Entry<Integer> entry : map.entries()) {
+			keys.add(entry.getGuestKey());
+		}
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+	}
+}
@@ -51,6 +51,49 @@ public class HistoryStatTest {
         }
     }
 
+    @Test
+    public void testWindowOrder() {
+        for (double val = 0.0; val < 2 * HISTORY_LENGTH; val += 1.0) {
+            stat.offer(val);
+            addUtilizationHistoryValue(history, val);
+            for (int i = 0; i < stat.size(); i++)
+                assertEquals(history.get(stat.size() - 1 - i), stat.get(i), 0);
+        }
+        double[] array = stat.toArray();
+        assertEquals(HISTORY_LENGTH, array.length);
+        assertEquals(HISTORY_LENGTH, array[0], 0);
+        assertEquals(2 * HISTORY_LENGTH - 1, array[HISTORY_LENGTH - 1], 0);
+    }
+
+    @Test
+    public void testFewSamples() {
+        assertEquals(0.0, stat.getMad(), 0);
+        assertEquals(0.0, stat.getIqr(), 0);
+        stat.offer(0.5);
+        assertEquals(0.0, stat.getMad(), 0);
+        assertEquals(0.0, stat.getIqr(), 0);
+        stat.offer(0.75);
+        assertEquals(0.25, stat.getIqr(), 0);
+    }
+
+    @Test
+    public void testMadAndIqrCompared() {
+        Random gen = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            // repeated values, as the utilization of idle guests
+            double val = gen.nextBoolean() ? gen.nextInt(4) / 4.0 : gen.nextDouble();
+            stat.offer(val);
+            addUtilizationHistoryValue(history, val);
+            double[] data = stat.toArray();
+            double median = stat.getMedian();
+            double[] deviations = new double[data.length];
+            for (int j = 0; j < data.length; j++)
+                deviations[j] = Math.abs(median - data[j]);
+            assertEquals(MathUtil.median(deviations), stat.getMad(), 0);
+            assertEquals(MathUtil.iqr(data), stat.getIqr(), 0);
+        }
+    }
+
     @Test
     public void testCompared() {
         Random gen = new Random();
@@ -0,0 +1,43 @@
+package org.cloudbus.cloudsim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LoessEstimatorTest {
+
+	@Test
+	public void testEstimatesCompared() {
+		Random gen = new Random(1);
+		for (int length = 3; length <= 30; length++) {
+			LoessEstimator estimator = new LoessEstimator(length);
+			for (int i = 0; i < 200; i++) {
+				double[] y = new double[length];
+				for (int j = 0; j < length; j++) {
+					// repeated values, as the utilization of idle or saturated hosts
+					y[j] = gen.nextBoolean() ? gen.nextInt(3) / 2.0 : gen.nextDouble();
+				}
+				assertArrayEquals(MathUtil.getLoessParameterEstimates(y), estimator.estimate(y), 0);
+				assertArrayEquals(MathUtil.getRobustLoessParameterEstimates(y), estimator.estimateRobust(y), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testConstantWindow() {
+		LoessEstimator estimator = new LoessEstimator(10);
+		double[] y = new double[10];
+		assertArrayEquals(MathUtil.getLoessParameterEstimates(y), estimator.estimate(y), 0);
+		assertArrayEquals(MathUtil.getRobustLoessParameterEstimates(y), estimator.estimateRobust(y), 0);
+	}
+
+	@Test
+	public void testWrongLength() {
+		assertThrows(IllegalArgumentException.class, () -> new LoessEstimator(2));
+		assertThrows(IllegalArgumentException.class, () -> new LoessEstimator(10).estimate(new double[9]));
+	}
+
+}
@@ -2,10 +2,15 @@ package org.cloudbus.cloudsim.util;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -28,19 +33,77 @@ public class WorkloadFileReaderTest {
     public void tearDown() throws Exception {
     }
 
-    @Test
-    public void read() throws FileNotFoundException {
+    /** The LCG trace, whose jobs are checked against the values read before streaming it. */
+    private static final String LCG = "src" + File.separator + "test" + File.separator + "LCG.swf.gz";
 
-	WorkloadModel r = new WorkloadFileReader("src"
-		+ File.separator
-		+ "test"
-		+ File.separator
-		+ "LCG.swf.gz", 1);
-	List<Cloudlet> cloudletlist = r.generateWorkload();
+    /**
+     * Checks the cloudlets of the LCG trace against fixed values: their number, the sums and a
+     * hash of their ids, lengths and numbers of PEs, and the first and last ones.
+     */
+    private static void assertLcgCloudlets(List<Cloudlet> cloudletlist) {
 	assertEquals(188041, cloudletlist.size());
-
+	long length = 0;
+	long pes = 0;
+	long hash = 0;
 	for (Cloudlet cloudlet : cloudletlist) {
 	    assertTrue(cloudlet.getCloudletLength() > 0);
+	    length += cloudlet.getCloudletLength();
+	    pes += cloudlet.getNumberOfPes();
+	    hash = 31 * hash + cloudlet.getCloudletId();
+	    hash = 31 * hash + cloudlet.getCloudletLength();
+	    hash = 31 * hash + cloudlet.getNumberOfPes();
 	}
+	assertEquals(1502531280L, length);
+	assertEquals(188041, pes);
+	assertEquals(8710296367563938482L, hash);
+	assertEquals(1, cloudletlist.get(0).getCloudletId());
+	assertEquals(83, cloudletlist.get(0).getCloudletLength());
+	assertEquals(188041, cloudletlist.get(188040).getCloudletId());
+	assertEquals(11499, cloudletlist.get(188040).getCloudletLength());
+    }
+
+    @Test
+    public void read() throws FileNotFoundException {
+	WorkloadModel r = new WorkloadFileReader(LCG, 1);
+	assertLcgCloudlets(r.generateWorkload());
+    }
+
+    @Test
+    public void stream() throws FileNotFoundException {
+	try (Stream<WorkloadJob> jobs = new WorkloadFileReader(LCG, 1).streamWorkload()) {
+	    List<WorkloadJob> joblist = jobs.toList();
+	    assertLcgCloudlets(joblist.stream().map(WorkloadJob::cloudlet).toList());
+	    long submitTime = 0;
+	    long submitTimes = 0;
+	    for (WorkloadJob job : joblist) {
+		assertTrue(job.submitTime() >= submitTime);
+		submitTime = job.submitTime();
+		submitTimes += submitTime;
+	    }
+	    assertEquals(0, joblist.get(0).submitTime());
+	    assertEquals(950392, submitTime);
+	    assertEquals(94744116545L, submitTimes);
+	}
+    }
+
+    @Test
+    public void readMalformedLines(@TempDir Path dir) throws IOException {
+	Path file = dir.resolve("trace.swf");
+	Files.writeString(file, String.join("\r\n",
+		"; a comment 1 2 3 4 5 6 7 8 9 10 11 12 13 14 15 16 17",
+		"1 10 -1 100 4 -1 -1 2 -1 -1 1 3 5 -1 -1 -1 -1 -1",
+		"2 20 -1 100 4 -1 -1 2 -1 -1 1 3 5 -1 -1 -1 -1 -1 extra",
+		"3 30 -1 1.5 4 -1 -1 2 -1 -1 1 3 5 -1 -1 -1 -1 -1",
+		"",
+		"  4\t40 -1 0 4 -1 -1 -1 -1 -1 1 3 5 -1 -1 -1 -1 -1"));
+
+	List<Cloudlet> cloudletlist = new WorkloadFileReader(file.toString(), 10).generateWorkload();
+	assertEquals(2, cloudletlist.size());
+	assertEquals(1, cloudletlist.get(0).getCloudletId());
+	assertEquals(1000, cloudletlist.get(0).getCloudletLength());
+	assertEquals(2, cloudletlist.get(0).getNumberOfPes());
+	assertEquals(4, cloudletlist.get(1).getCloudletId());
+	assertEquals(10, cloudletlist.get(1).getCloudletLength());
+	assertEquals(4, cloudletlist.get(1).getNumberOfPes());
     }
 }